@@ -0,0 +1,63 @@
+package org.digitalforge.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.digitalforge.log4jdbc.util.CallerResolver;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares finding the caller for the debug info with a {@link CallerResolver} against the full stack trace capture
+ * getDebugInfo used to do, at different stack depths.
+ * <p>
+ * The benchmark jar is multi-release like the library jar, so on Java 9 and later this measures the StackWalker
+ * version of CallerResolver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallerResolverBenchmark {
+
+    /**
+     * Number of frames between the benchmark method and the point the caller is looked up from.
+     */
+    @Param({"10", "50", "150"})
+    public int depth;
+
+    private CallerResolver resolver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resolver = new CallerResolver(null, 1024);
+    }
+
+    @Benchmark
+    public String throwableStackTrace() {
+        return throwableStackTrace(depth);
+    }
+
+    @Benchmark
+    public String callerResolver() {
+        return callerResolver(depth);
+    }
+
+    private String throwableStackTrace(int remaining) {
+        if(remaining > 0) {
+            return throwableStackTrace(remaining - 1);
+        }
+        // what getDebugInfo did before: capture and materialize the whole stack, then format the caller
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        StackTraceElement caller = stackTrace[1];
+        return caller.getClassName() + "." + caller.getMethodName() + "(" + caller.getFileName() + ":" + caller.getLineNumber() + ")";
+    }
+
+    private String callerResolver(int remaining) {
+        if(remaining > 0) {
+            return callerResolver(remaining - 1);
+        }
+        return resolver.resolve();
+    }
+
+}
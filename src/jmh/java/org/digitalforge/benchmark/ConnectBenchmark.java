@@ -0,0 +1,120 @@
+package org.digitalforge.benchmark;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures a connect storm: many threads opening connections through log4jdbc at once, the way a pool does when it
+ * grows, with and without the underlying driver cache.  Pools look the driver up once and call connect on it
+ * directly, so that is what the benchmark does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class ConnectBenchmark {
+
+    private static final String URL = "jdbc:log4jdbc:stub:benchmark";
+
+    /**
+     * Milliseconds to cache the underlying driver for, 0 to search the DriverManager on every connect.
+     */
+    @Param({"0", "60000"})
+    public long driverCacheTtl;
+
+    /**
+     * Number of other drivers registered ahead of the stub driver, which every search has to ask about the URL.
+     */
+    @Param({"0", "20"})
+    public int otherDrivers;
+
+    @Param({"DISABLED", "AUDIT"})
+    public LoggingMode mode;
+
+    private Driver driver;
+    private final Properties info = new Properties();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        mode.apply();
+        System.setProperty("log4jdbc.driver.cache.ttl", Long.toString(driverCacheTtl));
+
+        for(int i = 0; i < otherDrivers; i++) {
+            DriverManager.registerDriver(new OtherDriver("jdbc:other" + i + ":"));
+        }
+
+        Class.forName("org.digitalforge.log4jdbc.LoggingDriver");
+        Class.forName(StubDriver.class.getName());
+
+        driver = DriverManager.getDriver(URL);
+
+    }
+
+    @Benchmark
+    public void connect() throws SQLException {
+        Connection connection = driver.connect(URL, info);
+        connection.close();
+    }
+
+    /**
+     * A driver for some other database, that never accepts the benchmark URL.
+     */
+    private static final class OtherDriver implements Driver {
+
+        private final String prefix;
+
+        OtherDriver(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(prefix);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.digitalforge.benchmark;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.digitalforge.log4jdbc.LoggingConnection;
+import org.digitalforge.log4jdbc.LoggingStatement;
+import org.digitalforge.log4jdbc.util.ConnectionTracker;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures statements being tracked and untracked by many threads at once, as every statement created and closed
+ * through log4jdbc is.  Each thread works on its own connection, the way threads using a pool do, unless
+ * <code>sharedConnection</code> is set, in which case they all work on the same one.
+ * <p>
+ * The tracker should scale with the thread count, so run this with <code>-t</code> set to 1 and to the number of
+ * threads shown here and compare the throughput per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(256)
+public class ConnectionTrackerBenchmark {
+
+    /**
+     * Number of connections, enough for one per thread.
+     */
+    private static final int CONNECTIONS = 1024;
+
+    @Param({"false", "true"})
+    public boolean sharedConnection;
+
+    private ConnectionTracker tracker;
+    private LoggingConnection[] connections;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        tracker = new ConnectionTracker();
+        connections = new LoggingConnection[CONNECTIONS];
+
+        StubDriver driver = new StubDriver();
+        for(int i = 0; i < CONNECTIONS; i++) {
+            connections[i] = new LoggingConnection(driver.connect("jdbc:stub:benchmark", new Properties()));
+            tracker.track(connections[i].getConnectionNumber(), connections[i]);
+        }
+
+    }
+
+    /**
+     * The statements of one thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadStatements {
+
+        private static final int STATEMENTS = 8;
+
+        LoggingStatement<?>[] statements;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ConnectionTrackerBenchmark benchmark) throws Exception {
+
+            int index = benchmark.sharedConnection ? 0 : (benchmark.nextConnection.getAndIncrement() % CONNECTIONS);
+            LoggingConnection connection = benchmark.connections[index];
+
+            statements = new LoggingStatement<?>[STATEMENTS];
+            for(int i = 0; i < STATEMENTS; i++) {
+                statements[i] = (LoggingStatement<?>)connection.createStatement();
+            }
+
+        }
+
+    }
+
+    @Benchmark
+    public void trackUntrack(ThreadStatements thread) {
+        LoggingStatement<?> statement = thread.statements[thread.next++ & (ThreadStatements.STATEMENTS - 1)];
+        tracker.track(statement);
+        tracker.untrack(statement);
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.digitalforge.benchmark;
+
+import org.slf4j.impl.SinkLogger;
+import org.slf4j.impl.SinkLoggerFactory;
+
+/**
+ * The logger configurations the wrapper benchmarks are run with.  A mode has to be applied before any log4jdbc class
+ * is loaded, which JMH allows by running every parameter combination in a fresh fork.
+ */
+public enum LoggingMode {
+
+    /**
+     * Every log4jdbc logger off, so the driver hands out the real connection.
+     */
+    DISABLED,
+
+    /**
+     * Only jdbc.sqltiming on, at info level.
+     */
+    SQLTIMING,
+
+    /**
+     * jdbc.audit, jdbc.resultset, jdbc.sqlonly, jdbc.sqltiming and jdbc.connection all on, at info level.
+     */
+    AUDIT,
+
+    /**
+     * The same loggers as AUDIT, logged through the asynchronous delegator.
+     */
+    AUDIT_ASYNC;
+
+    private static final String[] AUDIT_LOGGERS = {"jdbc.audit", "jdbc.resultset", "jdbc.sqlonly", "jdbc.sqltiming", "jdbc.connection"};
+
+    /**
+     * Set the logger levels, and the system properties log4jdbc reads its configuration from, for this mode.
+     */
+    public void apply() {
+        switch(this) {
+            case SQLTIMING:
+                SinkLoggerFactory.setLevel("jdbc.sqltiming", SinkLogger.INFO);
+                break;
+            case AUDIT_ASYNC:
+                System.setProperty("log4jdbc.async.enabled", "true");
+                // fall through
+            case AUDIT:
+                for(String name : AUDIT_LOGGERS) {
+                    SinkLoggerFactory.setLevel(name, SinkLogger.INFO);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.digitalforge.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory JDBC driver for <code>jdbc:stub:</code> URLs that does no work at all, so that benchmarks only
+ * measure what the log4jdbc wrappers cost.
+ * <p>
+ * Its objects are dynamic proxies.  Every query returns {@link #ROWS} rows of the same values, and every update
+ * reports one row.  The proxies cost the same with or without log4jdbc in front of them, so comparing a benchmark
+ * with logging disabled against the same benchmark with logging enabled shows the wrapper overhead.
+ */
+public class StubDriver implements Driver {
+
+    /**
+     * Number of rows in every ResultSet.
+     */
+    public static final int ROWS = 100;
+
+    private static final String PREFIX = "jdbc:stub:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        }
+        catch(SQLException ex) {
+            throw new RuntimeException("Could not register the stub driver", ex);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        return acceptsURL(url) ? proxy(Connection.class, new Handler()) : null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return (url != null) && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * Answers every call on a Connection, Statement or ResultSet with the cheapest sensible value.
+     */
+    private static final class Handler implements InvocationHandler {
+
+        private static final Integer ONE = 1;
+        private static final Long ONE_LONG = 1L;
+        private static final String VALUE = "value";
+
+        private int row;
+        private int batched;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+
+            Class<?> type = method.getReturnType();
+
+            switch(method.getName()) {
+                case "next":
+                    return (row++ < ROWS) ? Boolean.TRUE : Boolean.FALSE;
+                case "addBatch":
+                    batched++;
+                    return null;
+                case "executeBatch":
+                    int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    batched = 0;
+                    return counts;
+                case "clearBatch":
+                    batched = 0;
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "stub";
+            }
+
+            if((type == Statement.class) || (type == PreparedStatement.class) || (type == CallableStatement.class)
+                || (type == ResultSet.class)) {
+                return proxy(type, new Handler());
+            }
+
+            if(type == int.class) {
+                return ONE;
+            }
+            if(type == long.class) {
+                return ONE_LONG;
+            }
+            if(type == boolean.class) {
+                return Boolean.FALSE;
+            }
+            if(type == String.class) {
+                return VALUE;
+            }
+            if(type.isPrimitive() && (type != void.class)) {
+                return (type == double.class) ? (Object)0.0d : (type == float.class) ? (Object)0.0f
+                    : (type == short.class) ? (Object)(short)0 : (type == byte.class) ? (Object)(byte)0 : (Object)'\0';
+            }
+
+            return null;
+
+        }
+
+    }
+
+}
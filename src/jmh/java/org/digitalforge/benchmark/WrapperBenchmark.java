@@ -0,0 +1,107 @@
+package org.digitalforge.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures what log4jdbc costs per JDBC operation, against the in-memory {@link StubDriver}.  Run with the gc profiler
+ * (the default in build.gradle) to get the allocation rate as well as the throughput of each operation.
+ * <p>
+ * Use the DISABLED results as the baseline: with every logger off the driver hands out the stub connection itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WrapperBenchmark {
+
+    private static final String QUERY = "select id, name, created from person where id = ? and name = ? and created > ?";
+    private static final String INSERT = "insert into person (id, name, created) values (?, ?, ?)";
+    private static final int BATCH_SIZE = 10;
+
+    @Param({"DISABLED", "SQLTIMING", "AUDIT", "AUDIT_ASYNC"})
+    public LoggingMode mode;
+
+    private Connection connection;
+    private PreparedStatement query;
+    private PreparedStatement insert;
+    private Timestamp created;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        mode.apply();
+
+        Class.forName("org.digitalforge.log4jdbc.LoggingDriver");
+        Class.forName(StubDriver.class.getName());
+
+        connection = DriverManager.getConnection("jdbc:log4jdbc:stub:benchmark");
+        query = connection.prepareStatement(QUERY);
+        insert = connection.prepareStatement(INSERT);
+        created = new Timestamp(System.currentTimeMillis());
+
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        query.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void createStatement(Blackhole bh) throws SQLException {
+        Statement statement = connection.createStatement();
+        bh.consume(statement);
+        statement.close();
+    }
+
+    @Benchmark
+    public boolean prepareAndExecuteQuery() throws SQLException {
+        try(PreparedStatement ps = connection.prepareStatement(QUERY)) {
+            ps.setLong(1, 42L);
+            ps.setString(2, "O'Brien");
+            ps.setTimestamp(3, created);
+            try(ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @Benchmark
+    public void resultSetLoop(Blackhole bh) throws SQLException {
+        query.setLong(1, 42L);
+        query.setString(2, "O'Brien");
+        query.setTimestamp(3, created);
+        try(ResultSet rs = query.executeQuery()) {
+            while(rs.next()) {
+                bh.consume(rs.getLong(1));
+                bh.consume(rs.getString(2));
+                bh.consume(rs.getTimestamp(3));
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] addBatchExecuteBatch() throws SQLException {
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            insert.setInt(1, i);
+            insert.setString(2, "name");
+            insert.setTimestamp(3, created);
+            insert.addBatch();
+        }
+        return insert.executeBatch();
+    }
+
+}
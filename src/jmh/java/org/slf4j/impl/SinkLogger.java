@@ -0,0 +1,252 @@
+package org.slf4j.impl;
+
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MarkerIgnoringBase;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * A logger that formats messages like a real one would, then throws them away.
+ */
+public class SinkLogger extends MarkerIgnoringBase {
+
+    public static final int TRACE = 0;
+    public static final int DEBUG = 1;
+    public static final int INFO = 2;
+    public static final int WARN = 3;
+    public static final int ERROR = 4;
+    public static final int OFF = 5;
+
+    /**
+     * Total length of the messages logged, so that building them can't be optimized away.
+     */
+    private static long consumed;
+
+    private volatile int level;
+
+    SinkLogger(String name, int level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Get the total length of the messages logged by every SinkLogger.
+     *
+     * @return the number of characters logged.
+     */
+    public static long getConsumed() {
+        return consumed;
+    }
+
+    private void sink(FormattingTuple tuple) {
+        sink(tuple.getMessage(), tuple.getThrowable());
+    }
+
+    private void sink(String msg, Throwable t) {
+        consumed += ((msg == null) ? 0 : msg.length()) + ((t == null) ? 0 : 1);
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return level <= TRACE;
+    }
+
+    @Override
+    public void trace(String msg) {
+        if(level <= TRACE) {
+            sink(msg, null);
+        }
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+        if(level <= TRACE) {
+            sink(MessageFormatter.format(format, arg));
+        }
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+        if(level <= TRACE) {
+            sink(MessageFormatter.format(format, arg1, arg2));
+        }
+    }
+
+    @Override
+    public void trace(String format, Object... arguments) {
+        if(level <= TRACE) {
+            sink(MessageFormatter.arrayFormat(format, arguments));
+        }
+    }
+
+    @Override
+    public void trace(String msg, Throwable t) {
+        if(level <= TRACE) {
+            sink(msg, t);
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return level <= DEBUG;
+    }
+
+    @Override
+    public void debug(String msg) {
+        if(level <= DEBUG) {
+            sink(msg, null);
+        }
+    }
+
+    @Override
+    public void debug(String format, Object arg) {
+        if(level <= DEBUG) {
+            sink(MessageFormatter.format(format, arg));
+        }
+    }
+
+    @Override
+    public void debug(String format, Object arg1, Object arg2) {
+        if(level <= DEBUG) {
+            sink(MessageFormatter.format(format, arg1, arg2));
+        }
+    }
+
+    @Override
+    public void debug(String format, Object... arguments) {
+        if(level <= DEBUG) {
+            sink(MessageFormatter.arrayFormat(format, arguments));
+        }
+    }
+
+    @Override
+    public void debug(String msg, Throwable t) {
+        if(level <= DEBUG) {
+            sink(msg, t);
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return level <= INFO;
+    }
+
+    @Override
+    public void info(String msg) {
+        if(level <= INFO) {
+            sink(msg, null);
+        }
+    }
+
+    @Override
+    public void info(String format, Object arg) {
+        if(level <= INFO) {
+            sink(MessageFormatter.format(format, arg));
+        }
+    }
+
+    @Override
+    public void info(String format, Object arg1, Object arg2) {
+        if(level <= INFO) {
+            sink(MessageFormatter.format(format, arg1, arg2));
+        }
+    }
+
+    @Override
+    public void info(String format, Object... arguments) {
+        if(level <= INFO) {
+            sink(MessageFormatter.arrayFormat(format, arguments));
+        }
+    }
+
+    @Override
+    public void info(String msg, Throwable t) {
+        if(level <= INFO) {
+            sink(msg, t);
+        }
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return level <= WARN;
+    }
+
+    @Override
+    public void warn(String msg) {
+        if(level <= WARN) {
+            sink(msg, null);
+        }
+    }
+
+    @Override
+    public void warn(String format, Object arg) {
+        if(level <= WARN) {
+            sink(MessageFormatter.format(format, arg));
+        }
+    }
+
+    @Override
+    public void warn(String format, Object arg1, Object arg2) {
+        if(level <= WARN) {
+            sink(MessageFormatter.format(format, arg1, arg2));
+        }
+    }
+
+    @Override
+    public void warn(String format, Object... arguments) {
+        if(level <= WARN) {
+            sink(MessageFormatter.arrayFormat(format, arguments));
+        }
+    }
+
+    @Override
+    public void warn(String msg, Throwable t) {
+        if(level <= WARN) {
+            sink(msg, t);
+        }
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return level <= ERROR;
+    }
+
+    @Override
+    public void error(String msg) {
+        if(level <= ERROR) {
+            sink(msg, null);
+        }
+    }
+
+    @Override
+    public void error(String format, Object arg) {
+        if(level <= ERROR) {
+            sink(MessageFormatter.format(format, arg));
+        }
+    }
+
+    @Override
+    public void error(String format, Object arg1, Object arg2) {
+        if(level <= ERROR) {
+            sink(MessageFormatter.format(format, arg1, arg2));
+        }
+    }
+
+    @Override
+    public void error(String format, Object... arguments) {
+        if(level <= ERROR) {
+            sink(MessageFormatter.arrayFormat(format, arguments));
+        }
+    }
+
+    @Override
+    public void error(String msg, Throwable t) {
+        if(level <= ERROR) {
+            sink(msg, t);
+        }
+    }
+
+}
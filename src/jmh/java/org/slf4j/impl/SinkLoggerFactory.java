@@ -0,0 +1,37 @@
+package org.slf4j.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Creates {@link SinkLogger}s, whose levels are set by the benchmarks.  Every logger is off unless a level is set
+ * for it.
+ */
+public class SinkLoggerFactory implements ILoggerFactory {
+
+    private static final Map<String, Integer> levels = new ConcurrentHashMap<>();
+    private static final Map<String, SinkLogger> loggers = new ConcurrentHashMap<>();
+
+    /**
+     * Set the level of a logger, whether or not it has been created yet.
+     *
+     * @param name  the logger name.
+     * @param level one of the {@link SinkLogger} level constants.
+     */
+    public static void setLevel(String name, int level) {
+        levels.put(name, level);
+        SinkLogger logger = loggers.get(name);
+        if(logger != null) {
+            logger.setLevel(level);
+        }
+    }
+
+    @Override
+    public Logger getLogger(String name) {
+        return loggers.computeIfAbsent(name, n -> new SinkLogger(n, levels.getOrDefault(n, SinkLogger.OFF)));
+    }
+
+}
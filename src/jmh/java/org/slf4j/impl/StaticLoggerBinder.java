@@ -0,0 +1,39 @@
+package org.slf4j.impl;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.spi.LoggerFactoryBinder;
+
+/**
+ * Binds SLF4J to {@link SinkLoggerFactory} for the benchmarks, so that enabled loggers build their messages as usual
+ * but never write them anywhere.
+ */
+public class StaticLoggerBinder implements LoggerFactoryBinder {
+
+    private static final StaticLoggerBinder SINGLETON = new StaticLoggerBinder();
+
+    /**
+     * The SLF4J API version this binding is compiled against.
+     */
+    public static String REQUESTED_API_VERSION = "1.6.99";
+
+    private final SinkLoggerFactory loggerFactory = new SinkLoggerFactory();
+
+    private StaticLoggerBinder() {
+
+    }
+
+    public static StaticLoggerBinder getSingleton() {
+        return SINGLETON;
+    }
+
+    @Override
+    public ILoggerFactory getLoggerFactory() {
+        return loggerFactory;
+    }
+
+    @Override
+    public String getLoggerFactoryClassStr() {
+        return SinkLoggerFactory.class.getName();
+    }
+
+}
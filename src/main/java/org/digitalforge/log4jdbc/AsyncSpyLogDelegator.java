@@ -0,0 +1,520 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A SpyLogDelegator that moves the cost of logging off the JDBC calling thread.
+ * <p>
+ * The calling thread only checks the logger levels and copies the raw event data (the MethodCall, sql, timings and,
+ * when a logger is at debug level, the calling stack location) into a slot of a preallocated ring buffer.  A single
+ * background thread takes the events off the ring buffer and hands them to a {@link Slf4jSpyLogDelegator}, which does
+ * the prettifying, formatting and SLF4J dispatch, so a slow appender no longer adds latency to every query.
+ * <p>
+ * The ring buffer is a bounded lock-free multi producer, single consumer queue.  What happens when it is full is
+ * decided by the {@link OverflowPolicy}.  Events that could not be logged are counted, and the counts are reported
+ * on the <b>org.digitalforge.log4jdbc.AsyncSpyLogDelegator</b> logger.
+ * <p>
+ * Arguments and return values of a MethodCall are copied by reference, so an argument that is modified by the
+ * application after the call returns (a byte array for example) may be logged with its modified value.
+ */
+public class AsyncSpyLogDelegator implements SpyLogDelegator {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncSpyLogDelegator.class);
+
+    /**
+     * What to do with an event that is published while the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Throw the event away and count it as dropped.
+         */
+        DROP,
+
+        /**
+         * Make the JDBC calling thread wait until there is room in the ring buffer.
+         */
+        BLOCK,
+
+        /**
+         * Once the ring buffer is three quarters full only keep 1 in every sampleRate events, dropping the rest.
+         */
+        SAMPLE
+
+    }
+
+    private static final byte EXCEPTION = 1;
+    private static final byte RETURNED = 2;
+    private static final byte SQL = 3;
+    private static final byte SQL_TIMING = 4;
+    private static final byte CONNECTION_OPENED = 5;
+    private static final byte CONNECTION_CLOSED = 6;
+    private static final byte RESULT_SET_CLOSED = 7;
+
+    /**
+     * How long a blocked producer waits before looking for room again.
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /**
+     * How often dropped events are reported.
+     */
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    /**
+     * How long the shutdown hook waits for the ring buffer to be drained.
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * One preallocated entry of the ring buffer.
+     */
+    private static final class Slot {
+
+        byte type;
+        JdbcSpy spy;
+        final MethodCall methodCall = new MethodCall();
+        Exception exception;
+        String sql;
+        long execTimeNanoSec;
+        ResultSetProfile profile;
+        String debugInfo;
+
+        void clear() {
+            spy = null;
+            methodCall.describe(null);
+            exception = null;
+            sql = null;
+            profile = null;
+            debugInfo = null;
+        }
+
+    }
+
+    /**
+     * The delegator that does the actual logging on the consumer thread.  The debug info it logs is the one captured
+     * on the JDBC calling thread when the event was published.
+     */
+    private static final class ReplayDelegator extends Slf4jSpyLogDelegator {
+
+        private String debugInfo;
+
+        @Override
+        protected String getDebugInfo() {
+            return debugInfo;
+        }
+
+        String captureDebugInfo() {
+            return super.getDebugInfo();
+        }
+
+    }
+
+    private final ReplayDelegator target = new ReplayDelegator();
+
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int sampleThreshold;
+
+    /**
+     * Per slot sequence numbers: a slot at position p may be written when its sequence is p, and read when it is p + 1.
+     */
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private volatile boolean running = true;
+
+    /**
+     * Set while the consumer is parked on an empty ring buffer, waiting for a producer to unpark it.
+     */
+    private volatile boolean consumerParked;
+
+    private final Thread consumer;
+
+    /**
+     * Create an AsyncSpyLogDelegator and start its consumer thread.
+     *
+     * @param bufferSize     number of events the ring buffer can hold, rounded up to a power of two.
+     * @param overflowPolicy what to do with events published while the ring buffer is full.
+     * @param sampleRate     with the SAMPLE policy, keep 1 in this many events once the ring buffer is getting full.
+     */
+    public AsyncSpyLogDelegator(int bufferSize, OverflowPolicy overflowPolicy, int sampleRate) {
+
+        if(bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize must be at least 2");
+        }
+        if(overflowPolicy == null) {
+            throw new IllegalArgumentException("Must pass in a non null OverflowPolicy");
+        }
+
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.sampleThreshold = capacity - (capacity >> 2);
+        this.sequences = new AtomicLongArray(capacity);
+
+        for(int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+
+        consumer = new Thread(this::consume, "log4jdbc-async");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "log4jdbc-async-shutdown"));
+
+    }
+
+    /**
+     * Get the number of events thrown away because the ring buffer was full.
+     *
+     * @return the dropped event count.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the number of events thrown away by the SAMPLE overflow policy.
+     *
+     * @return the sampled out event count.
+     */
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * Get the number of events waiting to be logged.
+     *
+     * @return the number of events in the ring buffer.
+     */
+    public long getPendingCount() {
+        return Math.max(0L, tail.get() - head.get());
+    }
+
+    /**
+     * Get the number of events the ring buffer can hold.
+     *
+     * @return the ring buffer capacity.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Stop accepting events and wait for the events already in the ring buffer to be logged.  Events published
+     * after this are counted as dropped.  This is called automatically when the JVM shuts down.
+     */
+    public void shutdown() {
+
+        running = false;
+        LockSupport.unpark(consumer);
+
+        try {
+            consumer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    public boolean isJdbcLoggingEnabled() {
+        return target.isJdbcLoggingEnabled();
+    }
+
+    public boolean isResultSetLogged() {
+        return target.isResultSetLogged();
+    }
+
+    public boolean isExceptionLogged() {
+        return target.isExceptionLogged();
+    }
+
+    public void exceptionOccured(JdbcSpy spy, MethodCall methodCall, Exception e, String sql, long execTimeNanoSec) {
+        if(target.isExceptionLogged()) {
+            publish(EXCEPTION, spy, methodCall, e, sql, execTimeNanoSec, null);
+        }
+    }
+
+    public void methodReturned(JdbcSpy spy, MethodCall methodCall) {
+        if(target.isReturnLogged(spy)) {
+            publish(RETURNED, spy, methodCall, null, null, -1L, null);
+        }
+    }
+
+    public void constructorReturned(JdbcSpy spy, String constructionInfo) {
+        // not used in this implementation -- yet
+    }
+
+    public void sqlOccured(JdbcSpy spy, MethodCall methodCall, String sql) {
+        if(target.isSqlLogged()) {
+            publish(SQL, spy, methodCall, null, sql, -1L, null);
+        }
+    }
+
+    public void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String sql) {
+        if(target.isSqlTimingLogged()) {
+            publish(SQL_TIMING, spy, methodCall, null, sql, execTimeNanoSec, null);
+        }
+    }
+
+    public void connectionOpened(JdbcSpy spy) {
+        if(target.isConnectionLogged()) {
+            publish(CONNECTION_OPENED, spy, null, null, null, -1L, null);
+        }
+    }
+
+    public void connectionClosed(JdbcSpy spy) {
+        if(target.isConnectionLogged()) {
+            publish(CONNECTION_CLOSED, spy, null, null, null, -1L, null);
+        }
+    }
+
+    public void resultSetClosed(JdbcSpy spy, ResultSetProfile profile) {
+        if(target.isResultSetProfileLogged()) {
+            publish(RESULT_SET_CLOSED, spy, null, null, null, -1L, profile);
+        }
+    }
+
+    /**
+     * Log a Setup and/or administrative log message for log4jdbc.  These are rare, so they are logged directly.
+     *
+     * @param msg message to log.
+     */
+    public void debug(String msg) {
+        target.debug(msg);
+    }
+
+    private void publish(byte type, JdbcSpy spy, MethodCall methodCall, Exception e, String sql, long execTimeNanoSec, ResultSetProfile profile) {
+
+        if((overflowPolicy == OverflowPolicy.SAMPLE) && (getPendingCount() >= sampleThreshold)
+            && (ThreadLocalRandom.current().nextInt(sampleRate) != 0)) {
+            sampledOut.increment();
+            return;
+        }
+
+        long pos = claim();
+
+        if(pos < 0L) {
+            dropped.increment();
+            return;
+        }
+
+        int index = (int)(pos & mask);
+        Slot slot = slots[index];
+
+        slot.type = type;
+        slot.spy = spy;
+        slot.exception = e;
+        slot.sql = sql;
+        slot.execTimeNanoSec = execTimeNanoSec;
+        slot.profile = profile;
+
+        if(methodCall != null) {
+            slot.methodCall.copyFrom(methodCall);
+        }
+
+        // the stack only means something on the calling thread, so it has to be captured here
+        if(target.isDebugInfoEnabled()) {
+            slot.debugInfo = target.captureDebugInfo();
+        }
+
+        // a volatile write, so that either the consumer sees the event or this sees that the consumer is parked
+        sequences.set(index, pos + 1L);
+
+        if(consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+
+    }
+
+    /**
+     * Claim the next free position in the ring buffer.
+     *
+     * @return the claimed position, or -1 if the event has to be dropped.
+     */
+    private long claim() {
+
+        for(;;) {
+
+            if(!running) {
+                // shut down, so nothing would log it
+                return -1L;
+            }
+
+            long pos = tail.get();
+            long diff = sequences.get((int)(pos & mask)) - pos;
+
+            if(diff == 0L) {
+                if(tail.compareAndSet(pos, pos + 1L)) {
+                    return pos;
+                }
+            }
+            else if(diff < 0L) {
+
+                // the ring buffer is full
+                if(overflowPolicy != OverflowPolicy.BLOCK) {
+                    return -1L;
+                }
+
+                LockSupport.parkNanos(PARK_NANOS);
+
+            }
+
+            // otherwise another producer claimed this position first, so try the next one
+
+        }
+
+    }
+
+    private void consume() {
+
+        int idle = 0;
+        long reportedDrops = 0L;
+        long lastDropReport = System.nanoTime();
+
+        while(running || (getPendingCount() > 0L)) {
+
+            if(poll()) {
+                idle = 0;
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if(now - lastDropReport >= DROP_REPORT_INTERVAL_NANOS) {
+                reportedDrops = reportDrops(reportedDrops);
+                lastDropReport = now;
+            }
+
+            if(idle < 64) {
+                idle++;
+                Thread.yield();
+            }
+            else {
+                // sleep until a producer publishes an event, waking up in time to report drops; the ring buffer is
+                // checked again once the flag is up so that an event published just before isn't missed
+                consumerParked = true;
+                if(running && !hasNext()) {
+                    LockSupport.parkNanos(this, DROP_REPORT_INTERVAL_NANOS);
+                }
+                consumerParked = false;
+            }
+
+        }
+
+        reportDrops(reportedDrops);
+
+    }
+
+    /**
+     * Determine if the next event in the ring buffer has been published.
+     *
+     * @return true if there is an event to log.
+     */
+    private boolean hasNext() {
+        long pos = head.get();
+        return sequences.get((int)(pos & mask)) == pos + 1L;
+    }
+
+    /**
+     * Log the next event in the ring buffer, if there is one.
+     *
+     * @return true if an event was logged.
+     */
+    private boolean poll() {
+
+        long pos = head.get();
+        int index = (int)(pos & mask);
+
+        if(sequences.get(index) != pos + 1L) {
+            return false;
+        }
+
+        Slot slot = slots[index];
+
+        try {
+            dispatch(slot);
+        }
+        catch(Throwable t) {
+            // a broken appender must not stop the consumer thread
+            log.error("Exception while logging a jdbc event", t);
+        }
+        finally {
+            slot.clear();
+            sequences.lazySet(index, pos + slots.length);
+            head.lazySet(pos + 1L);
+        }
+
+        return true;
+
+    }
+
+    private void dispatch(Slot slot) {
+
+        target.debugInfo = slot.debugInfo;
+
+        switch(slot.type) {
+            case EXCEPTION:
+                target.exceptionOccured(slot.spy, slot.methodCall, slot.exception, slot.sql, slot.execTimeNanoSec);
+                break;
+            case RETURNED:
+                target.methodReturned(slot.spy, slot.methodCall);
+                break;
+            case SQL:
+                target.sqlOccured(slot.spy, slot.methodCall, slot.sql);
+                break;
+            case SQL_TIMING:
+                target.sqlTimingOccured(slot.spy, slot.execTimeNanoSec, slot.methodCall, slot.sql);
+                break;
+            case CONNECTION_OPENED:
+                target.connectionOpened(slot.spy);
+                break;
+            case CONNECTION_CLOSED:
+                target.connectionClosed(slot.spy);
+                break;
+            case RESULT_SET_CLOSED:
+                target.resultSetClosed(slot.spy, slot.profile);
+                break;
+            default:
+                break;
+        }
+
+        target.debugInfo = null;
+
+    }
+
+    private long reportDrops(long reportedDrops) {
+
+        long lost = dropped.sum() + sampledOut.sum();
+
+        if(lost > reportedDrops) {
+            log.warn((lost - reportedDrops) + " jdbc log events were dropped because the async ring buffer was full ("
+                + getDroppedCount() + " dropped and " + getSampledOutCount() + " sampled out in total)");
+        }
+
+        return lost;
+
+    }
+
+}
@@ -0,0 +1,249 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.Arrays;
+
+import org.digitalforge.log4jdbc.sql.SqlPlaceholderIndex;
+import org.digitalforge.log4jdbc.util.StringBuilderPool;
+import org.digitalforge.log4jdbc.util.Utilities;
+
+/**
+ * The statements added to a batch, kept for its report with a bounded amount of memory however big the batch grows.
+ * <p>
+ * Only the first and the last <b>log4jdbc.batch.capture.rows</b> statements of a batch are kept, the last ones in a
+ * ring that later statements overwrite, and the report says how many were left out in between.  The batch of a
+ * PreparedStatement keeps its SQL once, as a template, and only the formatted bind values of each statement, in one
+ * flat array with a fixed number of values per statement, so a statement is only inlined into its SQL when the report
+ * is built.  The batch of a Statement keeps the SQL of each statement as its only value.
+ * <p>
+ * Like the statement it belongs to, a BatchCapture is not safe for use by several threads at once.
+ */
+final class BatchCapture {
+
+    private static final int INITIAL_ROWS = 4;
+
+    private static final String[] NO_VALUES = new String[0];
+
+    /**
+     * Number of statements kept from the start and from the end of the batch.
+     */
+    private final int keep;
+
+    /**
+     * The SQL the values of a statement are inlined into, or null if each statement is its only value.
+     */
+    private final SqlPlaceholderIndex template;
+
+    /**
+     * Number of values kept for each statement.
+     */
+    private final int width;
+
+    /**
+     * The values of the first statements, followed by the ring of the values of the last statements.
+     */
+    private String[] values = NO_VALUES;
+
+    /**
+     * Number of statements added since the last clear, including those that were not kept.
+     */
+    private int size;
+
+    /**
+     * When the first and the last statement were added, for the time the batch took to build.
+     */
+    private long firstAddedNanos;
+    private long lastAddedNanos;
+
+    /**
+     * Create a BatchCapture for the statements of a Statement, which can all have a different SQL.
+     *
+     * @param keep number of statements to keep from the start and from the end of the batch.
+     */
+    BatchCapture(int keep) {
+        this(keep, null, 1);
+    }
+
+    /**
+     * Create a BatchCapture for the statements of a PreparedStatement, which all share their SQL.
+     *
+     * @param keep     number of statements to keep from the start and from the end of the batch.
+     * @param template the placeholders of the SQL of the PreparedStatement.
+     */
+    BatchCapture(int keep, SqlPlaceholderIndex template) {
+        this(keep, template, template.size());
+    }
+
+    private BatchCapture(int keep, SqlPlaceholderIndex template, int width) {
+        this.keep = keep;
+        this.template = template;
+        this.width = width;
+    }
+
+    /**
+     * Get the number of statements added to the batch, including those that were not kept.
+     *
+     * @return the statement count.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of values kept for each statement, which is the number of bind variables of a PreparedStatement.
+     *
+     * @return the number of values per statement.
+     */
+    int width() {
+        return width;
+    }
+
+    /**
+     * Add a statement of a Statement batch.
+     *
+     * @param sql the SQL of the statement.
+     */
+    void add(String sql) {
+        int row = add();
+        if(row >= 0) {
+            values[row] = sql;
+        }
+    }
+
+    /**
+     * Add a statement whose values are set afterwards with {@link #set}.
+     *
+     * @return the offset of the values of the statement, or -1 if the statement is not kept.
+     */
+    int add() {
+
+        lastAddedNanos = System.nanoTime();
+        if(size == 0) {
+            firstAddedNanos = lastAddedNanos;
+        }
+
+        int index = size++;
+
+        if(keep == 0) {
+            return -1;
+        }
+
+        int slot = (index < keep) ? index : keep + ((index - keep) % keep);
+        int row = slot * width;
+
+        ensureCapacity(row + width);
+        Arrays.fill(values, row, row + width, null);
+
+        return row;
+
+    }
+
+    /**
+     * Set a value of a statement that was just added.
+     *
+     * @param row   the offset returned by {@link #add()}.
+     * @param i     the 0 based index of the value.
+     * @param value the formatted value, or null if it is not set.
+     */
+    void set(int row, int i, String value) {
+        values[row + i] = value;
+    }
+
+    /**
+     * Forget every statement, keeping the memory for the next batch.
+     */
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Build the report of the batch: the statement itself if it has only one, or the statements that were kept,
+     * numbered, with a line for those that were left out.
+     *
+     * @return the report of the batch.
+     */
+    String report() {
+
+        StringBuilder report = StringBuilderPool.acquire();
+
+        if((size == 1) && (keep > 0)) {
+            appendRow(report, 0);
+            return StringBuilderPool.release(report);
+        }
+
+        report.append("batching ").append(size).append(" statements:");
+
+        int fieldSize = String.valueOf(size).length();
+        int head = Math.min(size, keep);
+        int tailStart = Math.max(head, size - keep);
+
+        for(int i = 0; i < head; i++) {
+            appendNumbered(report, fieldSize, i, i);
+        }
+
+        if(tailStart > head) {
+            Utilities.appendRightJustified(report.append('\n'), fieldSize, "...").append(":  ").append(tailStart - head).append(" statements not captured");
+        }
+
+        for(int i = tailStart; i < size; i++) {
+            appendNumbered(report, fieldSize, i, keep + ((i - keep) % keep));
+        }
+
+        return StringBuilderPool.release(report);
+
+    }
+
+    /**
+     * Build the summary of a batch that ran, added to its timing report.
+     *
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @return the summary, or an empty String if the batch has only one statement.
+     */
+    String summary(long execTimeNanoSec) {
+
+        if(size <= 1) {
+            return "";
+        }
+
+        return "\n{batch of " + size + " statements built in " + (lastAddedNanos - firstAddedNanos)
+            + " nanoSec, executed in " + (execTimeNanoSec / size) + " nanoSec per statement}";
+
+    }
+
+    private void appendNumbered(StringBuilder report, int fieldSize, int index, int slot) {
+        Utilities.appendRightJustified(report.append('\n'), fieldSize, String.valueOf(index + 1)).append(":  ");
+        appendRow(report, slot);
+    }
+
+    private void appendRow(StringBuilder report, int slot) {
+
+        int row = slot * width;
+
+        if(template == null) {
+            report.append(values[row]);
+            return;
+        }
+
+        String sql = template.getSql();
+        int lastPos = 0;
+
+        for(int i = 0; i < width; i++) {
+            String value = values[row + i];
+            int qPos = template.offset(i);
+            report.append(sql, lastPos, qPos);
+            report.append((value != null) ? value : "?");
+            lastPos = qPos + 1;
+        }
+        report.append(sql, lastPos, sql.length());
+
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= values.length) {
+            return;
+        }
+        int length = Math.max(capacity, Math.min(2 * keep * width, Math.max(INITIAL_ROWS * width, values.length * 2)));
+        values = Arrays.copyOf(values, length);
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.digitalforge.log4jdbc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the binary event log written by {@link BinarySpyLogDelegator}.
+ * <p>
+ * A log starts with a header of the 4 magic bytes <code>L4JB</code> and a 2 byte format version, followed by
+ * records.  Every record is an int length, not counting the length itself, and then a 1 byte record type:
+ * <ul>
+ *   <li>a dictionary record ({@link #DICTIONARY}) is followed by the int fingerprint id it defines, the long hash of
+ *       the fingerprint and the UTF-8 text of the fingerprint, up to the end of the record</li>
+ *   <li>an event record is followed by the long timestamp in milliseconds, the int connection number, the int
+ *       fingerprint id of its sql or -1, the long duration in nanoseconds or -1 and, for slow or failed sql, the
+ *       UTF-8 sql text itself up to the end of the record</li>
+ * </ul>
+ * All numbers are big endian.  A fingerprint is defined by a dictionary record before the first event that refers to
+ * it, and ids start over in every file, so each file can be read on its own.
+ * <p>
+ * A reader keeps the dictionary of the file it reads, so it can be handed the file bit by bit as it is written.
+ */
+public class BinaryEventReader {
+
+    static final byte[] MAGIC = {'L', '4', 'J', 'B'};
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 2;
+
+    static final byte DICTIONARY = 0;
+
+    /**
+     * Event type of sql that was executed.
+     */
+    public static final byte SQL_TIMING = 1;
+
+    /**
+     * Event type of sql that failed.
+     */
+    public static final byte SQL_FAILED = 2;
+
+    /**
+     * Event type of a connection being opened.
+     */
+    public static final byte CONNECTION_OPENED = 3;
+
+    /**
+     * Event type of a connection being closed.
+     */
+    public static final byte CONNECTION_CLOSED = 4;
+
+    /**
+     * Size of an event record, including its length, without its sql text.
+     */
+    static final int EVENT_SIZE = 4 + 1 + 8 + 4 + 4 + 8;
+
+    /**
+     * Receives the events read from the log.
+     */
+    public interface Handler {
+
+        /**
+         * Called for every event in the log.
+         *
+         * @param type              the event type.
+         * @param timestampMillis   when the event happened.
+         * @param connectionNumber  number of the connection the event happened on.
+         * @param fingerprint       the normalized sql of the event, or null if it has none.
+         * @param durationNanoSec   how long the sql ran, or -1 if the event is not timed.
+         * @param sql               the sql text, or null if it was not written.
+         */
+        void event(byte type, long timestampMillis, int connectionNumber, String fingerprint, long durationNanoSec, String sql);
+
+    }
+
+    private final Map<Integer, String> dictionary = new HashMap<>();
+
+    private long records;
+
+    /**
+     * Determine if a file is a binary event log, from its header.
+     *
+     * @param channel the file.
+     * @return true if the file starts with the binary event log header.
+     * @throws IOException if the file cannot be read.
+     */
+    public static boolean isBinaryLog(FileChannel channel) throws IOException {
+
+        if(channel.size() < HEADER_SIZE) {
+            return false;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while(header.hasRemaining() && (channel.read(header, header.position()) > 0)) {
+            // keep reading until the header is complete
+        }
+
+        for(int i = 0; i < MAGIC.length; i++) {
+            if(header.get(i) != MAGIC[i]) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Get the number of records read so far.
+     *
+     * @return the record count, including dictionary records.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Read the complete records in part of a binary event log.
+     *
+     * @param channel the file.
+     * @param from    offset to start reading at: 0, or where the previous call stopped.
+     * @param to      offset to stop reading at.
+     * @param handler receives the events.
+     * @return the offset just after the last complete record read.
+     * @throws IOException if the file cannot be read, or is not a binary event log of a known version.
+     */
+    public long read(FileChannel channel, long from, long to, Handler handler) throws IOException {
+
+        long pos = from;
+
+        if(pos == 0L) {
+            if(!isBinaryLog(channel)) {
+                throw new IOException("Not a binary event log");
+            }
+            ByteBuffer version = ByteBuffer.allocate(2);
+            channel.read(version, MAGIC.length);
+            if(version.getShort(0) != VERSION) {
+                throw new IOException("Unknown binary event log version " + version.getShort(0));
+            }
+            dictionary.clear();
+            pos = HEADER_SIZE;
+        }
+
+        // a mapping can be at most 2GB, so big files are read a window at a time
+        long window = Integer.MAX_VALUE - 8;
+
+        while(pos < to) {
+
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(window, to - pos));
+            int n = buf.limit();
+            int i = 0;
+
+            while(i + 4 <= n) {
+
+                int length = buf.getInt(i);
+                if((length < 1) || (i + 4 + length > n)) {
+                    break;
+                }
+
+                readRecord(buf, i + 4, length, handler);
+                records++;
+                i += 4 + length;
+
+            }
+
+            if(i == 0) {
+                // the last record is incomplete, or too big for a window
+                break;
+            }
+
+            pos += i;
+
+        }
+
+        return pos;
+
+    }
+
+    private void readRecord(ByteBuffer buf, int offset, int length, Handler handler) {
+
+        byte type = buf.get(offset);
+
+        if(type == DICTIONARY) {
+            int id = buf.getInt(offset + 1);
+            dictionary.put(id, text(buf, offset + 1 + 4 + 8, offset + length));
+            return;
+        }
+
+        long timestamp = buf.getLong(offset + 1);
+        int connectionNumber = buf.getInt(offset + 9);
+        int fingerprintId = buf.getInt(offset + 13);
+        long duration = buf.getLong(offset + 17);
+        int sqlStart = offset + 25;
+        String sql = (sqlStart < offset + length) ? text(buf, sqlStart, offset + length) : null;
+
+        handler.event(type, timestamp, connectionNumber, (fingerprintId >= 0) ? dictionary.get(fingerprintId) : null, duration, sql);
+
+    }
+
+    private static String text(ByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
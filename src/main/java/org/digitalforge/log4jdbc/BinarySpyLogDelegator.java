@@ -0,0 +1,359 @@
+package org.digitalforge.log4jdbc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A SpyLogDelegator that writes sql timings, sql failures and connections being opened and closed to an append-only
+ * binary file instead of formatting them as text, for high volume profiling with {@link PostLogProfilerProcessor}.
+ * <p>
+ * An event costs a fixed size record of a few dozen bytes.  The sql of an event is referred to by the id of its
+ * fingerprint, whose text is only written once per file, and the sql text itself is only written when it failed or
+ * ran for longer than <b>log4jdbc.binary.raw.sql.threshold</b>.  See {@link BinaryEventReader} for the format.
+ * <p>
+ * Records are collected in a large direct buffer that is written out when it is full and every second, so a crash
+ * can lose the last second of events.  Once the file grows past <b>log4jdbc.binary.rollover.size</b> it is renamed,
+ * with a number added to its name, and a new file is started.  A file that already exists when logging starts is
+ * rolled over the same way, rather than appended to.
+ * <p>
+ * Method calls, return values and debug stack information are not written.
+ */
+public class BinarySpyLogDelegator implements SpyLogDelegator {
+
+    private static final Logger log = LoggerFactory.getLogger(BinarySpyLogDelegator.class);
+
+    /**
+     * How often the buffer is written out, in milliseconds.
+     */
+    private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * The most fingerprints a file can define before it is rolled over, which bounds the memory kept for them.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+
+    private final Path path;
+    private final long rolloverSize;
+    private final long rawSqlThresholdNanoSec;
+
+    private final ByteBuffer buffer;
+    private final Map<SqlFingerprint, Integer> dictionary = new HashMap<>();
+
+    private FileChannel channel;
+    private long fileSize;
+    private int rollovers;
+
+    /**
+     * Create a BinarySpyLogDelegator and open the file it writes to.
+     *
+     * @param file                   the file to write to.
+     * @param bufferSize             size in bytes of the buffer records are collected in.
+     * @param rolloverSize           size in bytes the file may grow to before it is rolled over.
+     * @param rawSqlThresholdNanoSec sql running for at least this many nanoseconds is written in full, or -1 if only
+     *                               failed sql is.
+     * @throws IOException if the file cannot be opened.
+     */
+    public BinarySpyLogDelegator(String file, int bufferSize, long rolloverSize, long rawSqlThresholdNanoSec) throws IOException {
+
+        this.path = Paths.get(file).toAbsolutePath();
+        this.rolloverSize = rolloverSize;
+        this.rawSqlThresholdNanoSec = rawSqlThresholdNanoSec;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+
+        if(Files.exists(path) && (Files.size(path) > 0L)) {
+            Files.move(path, nextRolloverPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        open();
+
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "log4jdbc-binary-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "log4jdbc-binary-shutdown"));
+
+    }
+
+    @Override
+    public boolean isJdbcLoggingEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isResultSetLogged() {
+        return false;
+    }
+
+    @Override
+    public boolean isExceptionLogged() {
+        // failed executions are written
+        return true;
+    }
+
+    @Override
+    public void exceptionOccured(JdbcSpy spy, MethodCall methodCall, Exception e, String sql, long execTimeNanoSec) {
+        if(sql != null) {
+            write(BinaryEventReader.SQL_FAILED, spy, LoggingStatement.fingerprintOf(spy, methodCall, sql), execTimeNanoSec, sql);
+        }
+    }
+
+    @Override
+    public void methodReturned(JdbcSpy spy, MethodCall methodCall) {
+        // method calls are not written
+    }
+
+    @Override
+    public void constructorReturned(JdbcSpy spy, String constructionInfo) {
+        // constructors are not written
+    }
+
+    @Override
+    public void sqlOccured(JdbcSpy spy, MethodCall methodCall, String sql) {
+        // only timed sql is written
+    }
+
+    @Override
+    public void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String sql) {
+        boolean raw = (rawSqlThresholdNanoSec >= 0L) && (execTimeNanoSec >= rawSqlThresholdNanoSec);
+        write(BinaryEventReader.SQL_TIMING, spy, LoggingStatement.fingerprintOf(spy, methodCall, sql), execTimeNanoSec, raw ? sql : null);
+    }
+
+    @Override
+    public void connectionOpened(JdbcSpy spy) {
+        write(BinaryEventReader.CONNECTION_OPENED, spy, null, -1L, null);
+    }
+
+    @Override
+    public void connectionClosed(JdbcSpy spy) {
+        write(BinaryEventReader.CONNECTION_CLOSED, spy, null, -1L, null);
+    }
+
+    @Override
+    public void resultSetClosed(JdbcSpy spy, ResultSetProfile profile) {
+        // result set profiles are not written
+    }
+
+    @Override
+    public void debug(String msg) {
+        log.debug(msg);
+    }
+
+    /**
+     * Write out the records collected in the buffer.
+     */
+    public synchronized void flush() {
+        try {
+            writeBuffer();
+        }
+        catch(IOException ex) {
+            fail(ex);
+        }
+    }
+
+    /**
+     * Write out the records collected in the buffer and close the file.  Events that happen afterwards are not
+     * written.
+     */
+    public synchronized void close() {
+
+        if(channel == null) {
+            return;
+        }
+
+        try {
+            writeBuffer();
+            channel.close();
+        }
+        catch(IOException ex) {
+            log.error("Failed to close binary event log " + path, ex);
+        }
+
+        channel = null;
+
+    }
+
+    private void write(byte type, JdbcSpy spy, SqlFingerprint fingerprint, long durationNanoSec, String sql) {
+
+        long timestamp = System.currentTimeMillis();
+        Integer connectionNumber = spy.getConnectionNumber();
+        byte[] sqlBytes = (sql != null) ? sql.getBytes(StandardCharsets.UTF_8) : null;
+
+        synchronized(this) {
+
+            if(channel == null) {
+                return;
+            }
+
+            try {
+
+                int fingerprintId = -1;
+                if(fingerprint != null) {
+                    fingerprintId = define(fingerprint);
+                }
+
+                int size = BinaryEventReader.EVENT_SIZE + ((sqlBytes != null) ? sqlBytes.length : 0);
+                ByteBuffer buf = reserve(size);
+                buf.putInt(size - 4);
+                buf.put(type);
+                buf.putLong(timestamp);
+                buf.putInt((connectionNumber != null) ? connectionNumber : -1);
+                buf.putInt(fingerprintId);
+                buf.putLong(durationNanoSec);
+                if(sqlBytes != null) {
+                    buf.put(sqlBytes);
+                }
+                written(buf, size);
+
+                if(fileSize >= rolloverSize) {
+                    rollover();
+                }
+
+            }
+            catch(IOException ex) {
+                fail(ex);
+            }
+
+        }
+
+    }
+
+    /**
+     * Get the id of a fingerprint in the current file, writing its dictionary record if it has none yet.
+     */
+    private int define(SqlFingerprint fingerprint) throws IOException {
+
+        Integer id = dictionary.get(fingerprint);
+        if(id != null) {
+            return id;
+        }
+
+        if(dictionary.size() >= MAX_DICTIONARY_SIZE) {
+            rollover();
+        }
+
+        id = dictionary.size();
+        dictionary.put(fingerprint, id);
+
+        byte[] text = fingerprint.getText().getBytes(StandardCharsets.UTF_8);
+        int size = 4 + 1 + 4 + 8 + text.length;
+        ByteBuffer buf = reserve(size);
+        buf.putInt(size - 4);
+        buf.put(BinaryEventReader.DICTIONARY);
+        buf.putInt(id);
+        buf.putLong(fingerprint.getHash());
+        buf.put(text);
+        written(buf, size);
+
+        return id;
+
+    }
+
+    /**
+     * Get a buffer with room for a record: the shared buffer, after writing it out if it is too full, or a buffer of
+     * its own for a record that is bigger than the shared one.
+     */
+    private ByteBuffer reserve(int size) throws IOException {
+
+        if(buffer.remaining() < size) {
+            writeBuffer();
+        }
+
+        return (size <= buffer.capacity()) ? buffer : ByteBuffer.allocate(size);
+
+    }
+
+    private void written(ByteBuffer buf, int size) throws IOException {
+
+        if(buf != buffer) {
+            buf.flip();
+            while(buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        }
+
+        fileSize += size;
+
+    }
+
+    private void writeBuffer() throws IOException {
+
+        if((channel == null) || (buffer.position() == 0)) {
+            return;
+        }
+
+        buffer.flip();
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+
+    }
+
+    private void open() throws IOException {
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        dictionary.clear();
+
+        buffer.put(BinaryEventReader.MAGIC);
+        buffer.putShort(BinaryEventReader.VERSION);
+        fileSize = BinaryEventReader.HEADER_SIZE;
+
+    }
+
+    private void rollover() throws IOException {
+
+        writeBuffer();
+        channel.close();
+        channel = null;
+
+        Files.move(path, nextRolloverPath(), StandardCopyOption.ATOMIC_MOVE);
+        open();
+
+    }
+
+    private Path nextRolloverPath() {
+        Path rolled;
+        do {
+            rolled = path.resolveSibling(path.getFileName() + "." + (++rollovers));
+        }
+        while(Files.exists(rolled));
+        return rolled;
+    }
+
+    private void fail(IOException ex) {
+
+        log.error("Failed to write binary event log " + path + ", no more events will be written", ex);
+
+        try {
+            if(channel != null) {
+                channel.close();
+            }
+        }
+        catch(IOException closeEx) {
+            // already failed
+        }
+
+        channel = null;
+        buffer.clear();
+
+    }
+
+}
@@ -0,0 +1,311 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.Arrays;
+
+import org.digitalforge.log4jdbc.formatter.ParameterFormatter;
+import org.digitalforge.log4jdbc.util.Utilities;
+
+/**
+ * The bind variables set on a PreparedStatement, kept as they were given so that they are only formatted if the SQL
+ * is actually logged.
+ * <p>
+ * Values are kept in slots indexed by parameter index.  Primitives are stored unboxed in a long array and objects by
+ * reference, so setting a parameter never allocates once the slots are big enough, and the slots are kept for the
+ * life of the statement so that executing it again and again reuses them.  Like the statement it belongs to, a
+ * BindValues is not safe for use by several threads at once.
+ */
+final class BindValues {
+
+    private static final byte UNSET = 0;
+    private static final byte OBJECT = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte FLOAT = 7;
+    private static final byte DOUBLE = 8;
+    private static final byte BYTES = 9;
+
+    private static final int INITIAL_SLOTS = 8;
+
+    /**
+     * The longest byte array that is shown in hex.
+     */
+    private static final int MAX_HEX_BYTES = 32;
+
+    private byte[] kinds = new byte[INITIAL_SLOTS];
+    private long[] primitives = new long[INITIAL_SLOTS];
+    private Object[] objects = new Object[INITIAL_SLOTS];
+
+    /**
+     * Type help shown in front of the values, only allocated if any is given.
+     */
+    private String[] typeHelpers;
+
+    /**
+     * One more than the highest slot that has been set since the last clear.
+     */
+    private int size;
+
+    /**
+     * Get the highest parameter index that has been set.
+     *
+     * @return the highest parameter index, or 0 if no parameter is set.
+     */
+    int size() {
+        return size;
+    }
+
+    void setObject(int parameterIndex, Object value) {
+        int i = slot(parameterIndex, OBJECT);
+        if(i >= 0) {
+            objects[i] = value;
+        }
+    }
+
+    void setInt(int parameterIndex, int value) {
+        int i = slot(parameterIndex, INT);
+        if(i >= 0) {
+            primitives[i] = value;
+        }
+    }
+
+    void setLong(int parameterIndex, long value) {
+        int i = slot(parameterIndex, LONG);
+        if(i >= 0) {
+            primitives[i] = value;
+        }
+    }
+
+    void setShort(int parameterIndex, short value) {
+        int i = slot(parameterIndex, SHORT);
+        if(i >= 0) {
+            primitives[i] = value;
+        }
+    }
+
+    void setByte(int parameterIndex, byte value) {
+        int i = slot(parameterIndex, BYTE);
+        if(i >= 0) {
+            primitives[i] = value;
+        }
+    }
+
+    void setBoolean(int parameterIndex, boolean value) {
+        int i = slot(parameterIndex, BOOLEAN);
+        if(i >= 0) {
+            primitives[i] = value ? 1L : 0L;
+        }
+    }
+
+    void setFloat(int parameterIndex, float value) {
+        int i = slot(parameterIndex, FLOAT);
+        if(i >= 0) {
+            primitives[i] = Float.floatToRawIntBits(value);
+        }
+    }
+
+    void setDouble(int parameterIndex, double value) {
+        int i = slot(parameterIndex, DOUBLE);
+        if(i >= 0) {
+            primitives[i] = Double.doubleToRawLongBits(value);
+        }
+    }
+
+    /**
+     * Set a byte array parameter, which is shown in hex if it is short, or by its length otherwise.
+     *
+     * @param parameterIndex the 1 based parameter index.
+     * @param value          the bytes, which are not copied.
+     */
+    void setBytes(int parameterIndex, byte[] value) {
+        int i = slot(parameterIndex, (value == null) ? OBJECT : BYTES);
+        if(i >= 0) {
+            objects[i] = value;
+        }
+    }
+
+    /**
+     * Set the type help shown in front of a parameter that has been set.
+     *
+     * @param parameterIndex the 1 based parameter index.
+     * @param typeHelper     the type help, or null for none.
+     */
+    void setTypeHelper(int parameterIndex, String typeHelper) {
+        int i = parameterIndex - 1;
+        if((i < 0) || (i >= size)) {
+            return;
+        }
+        if(typeHelpers == null) {
+            if(typeHelper == null) {
+                return;
+            }
+            typeHelpers = new String[kinds.length];
+        }
+        typeHelpers[i] = typeHelper;
+    }
+
+    /**
+     * Unset every parameter, keeping the slots for the next execution.
+     */
+    void clear() {
+        Arrays.fill(kinds, 0, size, UNSET);
+        Arrays.fill(objects, 0, size, null);
+        if(typeHelpers != null) {
+            Arrays.fill(typeHelpers, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Format a parameter for display in the logged SQL.
+     *
+     * @param parameterIndex the 1 based parameter index.
+     * @param formatter      the formatter for the database being used.
+     * @return the formatted value, or null if the parameter is not set.
+     */
+    String format(int parameterIndex, ParameterFormatter formatter) {
+
+        int i = parameterIndex - 1;
+        if((i < 0) || (i >= size) || (kinds[i] == UNSET)) {
+            return null;
+        }
+
+        // primitives are boxed here so formatters see the same objects as ever, but only for values actually logged
+        String formatted = formatter.formatParameterObject(value(i));
+
+        if((typeHelpers != null) && (typeHelpers[i] != null)) {
+            return typeHelpers[i] + formatted;
+        }
+
+        return formatted;
+
+    }
+
+    /**
+     * Format a parameter for display onto the end of the logged SQL being built.
+     *
+     * @param out            the StringBuilder to append to.
+     * @param parameterIndex the 1 based parameter index.
+     * @param formatter      the formatter for the database being used.
+     * @return false if the parameter is not set, in which case nothing is appended.
+     */
+    boolean appendTo(StringBuilder out, int parameterIndex, ParameterFormatter formatter) {
+
+        int i = parameterIndex - 1;
+        if((i < 0) || (i >= size) || (kinds[i] == UNSET)) {
+            return false;
+        }
+
+        if((typeHelpers != null) && (typeHelpers[i] != null)) {
+            out.append(typeHelpers[i]);
+        }
+
+        if(kinds[i] == BYTES) {
+            // written the way format() shows them, without building the hex String first
+            appendBytes(out, (byte[])objects[i]);
+        }
+        else {
+            formatter.appendParameterObject(out, value(i));
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Show a parameter without formatting it, in case the formatter fails.
+     *
+     * @param parameterIndex the 1 based parameter index.
+     * @return the value as a String, or null if the parameter is not set.
+     */
+    String toString(int parameterIndex) {
+        int i = parameterIndex - 1;
+        if((i < 0) || (i >= size) || (kinds[i] == UNSET)) {
+            return null;
+        }
+        return String.valueOf(value(i));
+    }
+
+    private Object value(int i) {
+        long bits = primitives[i];
+        switch(kinds[i]) {
+            case INT:
+                return (int)bits;
+            case LONG:
+                return bits;
+            case SHORT:
+                return (short)bits;
+            case BYTE:
+                return (byte)bits;
+            case BOOLEAN:
+                return bits != 0L;
+            case FLOAT:
+                return Float.intBitsToFloat((int)bits);
+            case DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case BYTES:
+                byte[] bytes = (byte[])objects[i];
+                return (bytes.length <= MAX_HEX_BYTES) ? ("0x" + Utilities.hex(bytes)) : ("<byte[" + bytes.length + "]>");
+            default:
+                return objects[i];
+        }
+    }
+
+    /**
+     * Append a byte array parameter as the quoted String {@link #value(int)} gives the formatter for it.
+     */
+    private static void appendBytes(StringBuilder out, byte[] bytes) {
+        out.append('\'');
+        if(bytes.length <= MAX_HEX_BYTES) {
+            Utilities.appendHex(out.append("0x"), bytes);
+        }
+        else {
+            out.append("<byte[").append(bytes.length).append("]>");
+        }
+        out.append('\'');
+    }
+
+    /**
+     * Claim the slot of a parameter for a value of the given kind.
+     *
+     * @return the slot index, or -1 if the parameter index is not valid, in which case the driver rejects it.
+     */
+    private int slot(int parameterIndex, byte kind) {
+
+        int i = parameterIndex - 1;
+        if(i < 0) {
+            return -1;
+        }
+
+        ensureCapacity(i + 1);
+
+        if(i >= size) {
+            size = i + 1;
+        }
+
+        kinds[i] = kind;
+        objects[i] = null;
+        if(typeHelpers != null) {
+            typeHelpers[i] = null;
+        }
+
+        return i;
+
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= kinds.length) {
+            return;
+        }
+        int length = Math.max(capacity, kinds.length * 2);
+        kinds = Arrays.copyOf(kinds, length);
+        primitives = Arrays.copyOf(primitives, length);
+        objects = Arrays.copyOf(objects, length);
+        if(typeHelpers != null) {
+            typeHelpers = Arrays.copyOf(typeHelpers, length);
+        }
+    }
+
+}
@@ -15,12 +15,6 @@ import org.digitalforge.log4jdbc.util.Utilities;
  */
 public class LoggingCallableStatement<S extends CallableStatement> extends LoggingPreparedStatement<CallableStatement> implements CallableStatement {
 
-    private static final SpyLogDelegator log = SpyLogFactory.getSpyLogDelegator();
-
-    protected void reportAllReturns(String methodCall, String msg) {
-        log.methodReturned(this, methodCall, msg);
-    }
-
     /**
      * Create a LoggingCallableStatement (JDBC 4 version) to spy upon a CallableStatement.
      *
@@ -41,7 +35,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Date getDate(int parameterIndex) throws SQLException {
-        String methodCall = "getDate(" + parameterIndex + ")";
+        MethodCall methodCall = call("getDate").arg(parameterIndex);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(parameterIndex));
         }
@@ -53,7 +47,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
-        String methodCall = "getDate(" + parameterIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getDate").arg(parameterIndex).arg(cal);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(parameterIndex, cal));
         }
@@ -65,7 +59,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Ref getRef(String parameterName) throws SQLException {
-        String methodCall = "getRef(" + parameterName + ")";
+        MethodCall methodCall = call("getRef").arg(parameterName);
         try {
             return (Ref)reportReturn(methodCall, delegate.getRef(parameterName));
         }
@@ -77,7 +71,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Time getTime(String parameterName) throws SQLException {
-        String methodCall = "getTime(" + parameterName + ")";
+        MethodCall methodCall = call("getTime").arg(parameterName);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(parameterName));
         }
@@ -89,7 +83,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setTime(String parameterName, Time x) throws SQLException {
-        String methodCall = "setTime(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setTime").arg(parameterName).arg(x);
         try {
             delegate.setTime(parameterName, x);
         }
@@ -102,7 +96,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Blob getBlob(int i) throws SQLException {
-        String methodCall = "getBlob(" + i + ")";
+        MethodCall methodCall = call("getBlob").arg(i);
         try {
             return (Blob)reportReturn(methodCall, delegate.getBlob(i));
         }
@@ -114,7 +108,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Clob getClob(int i) throws SQLException {
-        String methodCall = "getClob(" + i + ")";
+        MethodCall methodCall = call("getClob").arg(i);
         try {
             return (Clob)reportReturn(methodCall, delegate.getClob(i));
         }
@@ -126,7 +120,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Array getArray(int i) throws SQLException {
-        String methodCall = "getArray(" + i + ")";
+        MethodCall methodCall = call("getArray").arg(i);
         try {
             return (Array)reportReturn(methodCall, delegate.getArray(i));
         }
@@ -137,7 +131,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
     }
 
     public byte[] getBytes(int parameterIndex) throws SQLException {
-        String methodCall = "getBytes(" + parameterIndex + ")";
+        MethodCall methodCall = call("getBytes").arg(parameterIndex);
         try {
             return (byte[])reportReturn(methodCall, delegate.getBytes(parameterIndex));
         }
@@ -149,7 +143,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public double getDouble(int parameterIndex) throws SQLException {
-        String methodCall = "getDouble(" + parameterIndex + ")";
+        MethodCall methodCall = call("getDouble").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getDouble(parameterIndex));
         }
@@ -161,7 +155,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public int getInt(int parameterIndex) throws SQLException {
-        String methodCall = "getInt(" + parameterIndex + ")";
+        MethodCall methodCall = call("getInt").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getInt(parameterIndex));
         }
@@ -173,7 +167,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public boolean wasNull() throws SQLException {
-        String methodCall = "wasNull()";
+        MethodCall methodCall = call("wasNull");
         try {
             return reportReturn(methodCall, delegate.wasNull());
         }
@@ -185,7 +179,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Time getTime(int parameterIndex) throws SQLException {
-        String methodCall = "getTime(" + parameterIndex + ")";
+        MethodCall methodCall = call("getTime").arg(parameterIndex);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(parameterIndex));
         }
@@ -197,7 +191,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
-        String methodCall = "getTime(" + parameterIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getTime").arg(parameterIndex).arg(cal);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(parameterIndex, cal));
         }
@@ -209,7 +203,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Timestamp getTimestamp(String parameterName) throws SQLException {
-        String methodCall = "getTimestamp(" + parameterName + ")";
+        MethodCall methodCall = call("getTimestamp").arg(parameterName);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(parameterName));
         }
@@ -221,7 +215,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setTimestamp(String parameterName, Timestamp x) throws SQLException {
-        String methodCall = "setTimestamp(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setTimestamp").arg(parameterName).arg(x);
         try {
             delegate.setTimestamp(parameterName, x);
         }
@@ -234,7 +228,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public String getString(int parameterIndex) throws SQLException {
-        String methodCall = "getString(" + parameterIndex + ")";
+        MethodCall methodCall = call("getString").arg(parameterIndex);
         try {
             return (String)reportReturn(methodCall, delegate.getString(parameterIndex));
         }
@@ -246,7 +240,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterIndex + ", " + sqlType + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterIndex).arg(sqlType);
         argTraceSet(parameterIndex, null, "<OUT>");
         try {
             delegate.registerOutParameter(parameterIndex, sqlType);
@@ -260,7 +254,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int parameterIndex, int sqlType, int scale) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterIndex + ", " + sqlType + ", " + scale + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterIndex).arg(sqlType).arg(scale);
         argTraceSet(parameterIndex, null, "<OUT>");
         try {
             delegate.registerOutParameter(parameterIndex, sqlType, scale);
@@ -274,7 +268,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int paramIndex, int sqlType, String typeName) throws SQLException {
-        String methodCall = "registerOutParameter(" + paramIndex + ", " + sqlType + ", " + typeName + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(paramIndex).arg(sqlType).arg(typeName);
         argTraceSet(paramIndex, null, "<OUT>");
         try {
             delegate.registerOutParameter(paramIndex, sqlType, typeName);
@@ -288,7 +282,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public byte getByte(String parameterName) throws SQLException {
-        String methodCall = "getByte(" + parameterName + ")";
+        MethodCall methodCall = call("getByte").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getByte(parameterName));
         }
@@ -300,7 +294,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public double getDouble(String parameterName) throws SQLException {
-        String methodCall = "getDouble(" + parameterName + ")";
+        MethodCall methodCall = call("getDouble").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getDouble(parameterName));
         }
@@ -312,7 +306,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public float getFloat(String parameterName) throws SQLException {
-        String methodCall = "getFloat(" + parameterName + ")";
+        MethodCall methodCall = call("getFloat").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getFloat(parameterName));
         }
@@ -324,7 +318,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public int getInt(String parameterName) throws SQLException {
-        String methodCall = "getInt(" + parameterName + ")";
+        MethodCall methodCall = call("getInt").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getInt(parameterName));
         }
@@ -336,7 +330,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public long getLong(String parameterName) throws SQLException {
-        String methodCall = "getLong(" + parameterName + ")";
+        MethodCall methodCall = call("getLong").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getLong(parameterName));
         }
@@ -348,7 +342,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public short getShort(String parameterName) throws SQLException {
-        String methodCall = "getShort(" + parameterName + ")";
+        MethodCall methodCall = call("getShort").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getShort(parameterName));
         }
@@ -360,7 +354,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public boolean getBoolean(String parameterName) throws SQLException {
-        String methodCall = "getBoolean(" + parameterName + ")";
+        MethodCall methodCall = call("getBoolean").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getBoolean(parameterName));
         }
@@ -372,7 +366,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public byte[] getBytes(String parameterName) throws SQLException {
-        String methodCall = "getBytes(" + parameterName + ")";
+        MethodCall methodCall = call("getBytes").arg(parameterName);
         try {
             return (byte[])reportReturn(methodCall, delegate.getBytes(parameterName));
         }
@@ -384,7 +378,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setByte(String parameterName, byte x) throws SQLException {
-        String methodCall = "setByte(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setByte").arg(parameterName).arg(x);
         try {
             delegate.setByte(parameterName, x);
         }
@@ -397,7 +391,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setDouble(String parameterName, double x) throws SQLException {
-        String methodCall = "setDouble(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setDouble").arg(parameterName).arg(x);
         try {
             delegate.setDouble(parameterName, x);
         }
@@ -410,7 +404,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setFloat(String parameterName, float x) throws SQLException {
-        String methodCall = "setFloat(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setFloat").arg(parameterName).arg(x);
         try {
             delegate.setFloat(parameterName, x);
         }
@@ -423,7 +417,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType);
         try {
             delegate.registerOutParameter(parameterName, sqlType);
         }
@@ -436,7 +430,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setInt(String parameterName, int x) throws SQLException {
-        String methodCall = "setInt(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setInt").arg(parameterName).arg(x);
         try {
             delegate.setInt(parameterName, x);
         }
@@ -449,7 +443,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNull(String parameterName, int sqlType) throws SQLException {
-        String methodCall = "setNull(" + parameterName + ", " + sqlType + ")";
+        MethodCall methodCall = call("setNull").arg(parameterName).arg(sqlType);
         try {
             delegate.setNull(parameterName, sqlType);
         }
@@ -462,7 +456,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, int sqlType, int scale) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType + ", " + scale + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType).arg(scale);
         try {
             delegate.registerOutParameter(parameterName, sqlType, scale);
         }
@@ -475,7 +469,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setLong(String parameterName, long x) throws SQLException {
-        String methodCall = "setLong(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setLong").arg(parameterName).arg(x);
         try {
             delegate.setLong(parameterName, x);
         }
@@ -488,7 +482,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setShort(String parameterName, short x) throws SQLException {
-        String methodCall = "setShort(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setShort").arg(parameterName).arg(x);
         try {
             delegate.setShort(parameterName, x);
         }
@@ -501,7 +495,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBoolean(String parameterName, boolean x) throws SQLException {
-        String methodCall = "setBoolean(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setBoolean").arg(parameterName).arg(x);
         try {
             delegate.setBoolean(parameterName, x);
         }
@@ -514,8 +508,11 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBytes(String parameterName, byte[] x) throws SQLException {
-        String argVal = (x.length <= 32) ? ("0x" + Utilities.hex(x)) : ("<byte[" + x.length + "]>");
-        String methodCall = "setBytes(" + parameterName + ", " + argVal + ")";
+        String argVal = null;
+        if(LoggingSwitch.isEnabled() && (x != null)) {
+            argVal = (x.length <= 32) ? ("0x" + Utilities.hex(x)) : ("<byte[" + x.length + "]>");
+        }
+        MethodCall methodCall = call("setBytes").arg(parameterName).arg(argVal);
         try {
             delegate.setBytes(parameterName, x);
         }
@@ -528,7 +525,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public boolean getBoolean(int parameterIndex) throws SQLException {
-        String methodCall = "getBoolean(" + parameterIndex + ")";
+        MethodCall methodCall = call("getBoolean").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getBoolean(parameterIndex));
         }
@@ -540,7 +537,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Timestamp getTimestamp(int parameterIndex) throws SQLException {
-        String methodCall = "getTimestamp(" + parameterIndex + ")";
+        MethodCall methodCall = call("getTimestamp").arg(parameterIndex);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(parameterIndex));
         }
@@ -552,7 +549,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setAsciiStream(String parameterName, InputStream x, int length) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterName).arg(x).arg(length);
         try {
             delegate.setAsciiStream(parameterName, x, length);
         }
@@ -565,7 +562,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBinaryStream(String parameterName, InputStream x, int length) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterName).arg(x).arg(length);
         try {
             delegate.setBinaryStream(parameterName, x, length);
         }
@@ -578,7 +575,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setCharacterStream(String parameterName, Reader reader, int length) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterName).arg(reader).arg(length);
         try {
             delegate.setCharacterStream(parameterName, reader, length);
         }
@@ -591,7 +588,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Object getObject(String parameterName) throws SQLException {
-        String methodCall = "getObject(" + parameterName + ")";
+        MethodCall methodCall = call("getObject").arg(parameterName);
         try {
             return reportReturn(methodCall, delegate.getObject(parameterName));
         }
@@ -603,7 +600,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setObject(String parameterName, Object x) throws SQLException {
-        String methodCall = "setObject(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setObject").arg(parameterName).arg(x);
         try {
             delegate.setObject(parameterName, x);
         }
@@ -616,7 +613,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
-        String methodCall = "setObject(" + parameterName + ", " + x + ", " + targetSqlType + ")";
+        MethodCall methodCall = call("setObject").arg(parameterName).arg(x).arg(targetSqlType);
         try {
             delegate.setObject(parameterName, x, targetSqlType);
         }
@@ -629,7 +626,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setObject(String parameterName, Object x, int targetSqlType, int scale) throws SQLException {
-        String methodCall = "setObject(" + parameterName + ", " + x + ", " + targetSqlType + ", " + scale + ")";
+        MethodCall methodCall = call("setObject").arg(parameterName).arg(x).arg(targetSqlType).arg(scale);
         try {
             delegate.setObject(parameterName, x, targetSqlType, scale);
         }
@@ -642,7 +639,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
-        String methodCall = "getTimestamp(" + parameterIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getTimestamp").arg(parameterIndex).arg(cal);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(parameterIndex, cal));
         }
@@ -654,7 +651,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Date getDate(String parameterName, Calendar cal) throws SQLException {
-        String methodCall = "getDate(" + parameterName + ", " + cal + ")";
+        MethodCall methodCall = call("getDate").arg(parameterName).arg(cal);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(parameterName, cal));
         }
@@ -666,7 +663,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Time getTime(String parameterName, Calendar cal) throws SQLException {
-        String methodCall = "getTime(" + parameterName + ", " + cal + ")";
+        MethodCall methodCall = call("getTime").arg(parameterName).arg(cal);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(parameterName, cal));
         }
@@ -678,7 +675,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
-        String methodCall = "getTimestamp(" + parameterName + ", " + cal + ")";
+        MethodCall methodCall = call("getTimestamp").arg(parameterName).arg(cal);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(parameterName, cal));
         }
@@ -690,7 +687,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setDate(String parameterName, Date x, Calendar cal) throws SQLException {
-        String methodCall = "setDate(" + parameterName + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setDate").arg(parameterName).arg(x).arg(cal);
         try {
             delegate.setDate(parameterName, x, cal);
         }
@@ -703,7 +700,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setTime(String parameterName, Time x, Calendar cal) throws SQLException {
-        String methodCall = "setTime(" + parameterName + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setTime").arg(parameterName).arg(x).arg(cal);
         try {
             delegate.setTime(parameterName, x, cal);
         }
@@ -716,7 +713,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setTimestamp(String parameterName, Timestamp x, Calendar cal) throws SQLException {
-        String methodCall = "setTimestamp(" + parameterName + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setTimestamp").arg(parameterName).arg(x).arg(cal);
         try {
             delegate.setTimestamp(parameterName, x, cal);
         }
@@ -729,7 +726,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public short getShort(int parameterIndex) throws SQLException {
-        String methodCall = "getShort(" + parameterIndex + ")";
+        MethodCall methodCall = call("getShort").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getShort(parameterIndex));
         }
@@ -741,7 +738,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public long getLong(int parameterIndex) throws SQLException {
-        String methodCall = "getLong(" + parameterIndex + ")";
+        MethodCall methodCall = call("getLong").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getLong(parameterIndex));
         }
@@ -753,7 +750,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public float getFloat(int parameterIndex) throws SQLException {
-        String methodCall = "getFloat(" + parameterIndex + ")";
+        MethodCall methodCall = call("getFloat").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getFloat(parameterIndex));
         }
@@ -765,7 +762,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Ref getRef(int i) throws SQLException {
-        String methodCall = "getRef(" + i + ")";
+        MethodCall methodCall = call("getRef").arg(i);
         try {
             return (Ref)reportReturn(methodCall, delegate.getRef(i));
         }
@@ -781,7 +778,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
     @Override
     @Deprecated
     public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
-        String methodCall = "getBigDecimal(" + parameterIndex + ", " + scale + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(parameterIndex).arg(scale);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(parameterIndex, scale));
         }
@@ -793,7 +790,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public URL getURL(int parameterIndex) throws SQLException {
-        String methodCall = "getURL(" + parameterIndex + ")";
+        MethodCall methodCall = call("getURL").arg(parameterIndex);
         try {
             return (URL)reportReturn(methodCall, delegate.getURL(parameterIndex));
         }
@@ -806,7 +803,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
-        String methodCall = "getBigDecimal(" + parameterIndex + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(parameterIndex);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(parameterIndex));
         }
@@ -818,7 +815,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public byte getByte(int parameterIndex) throws SQLException {
-        String methodCall = "getByte(" + parameterIndex + ")";
+        MethodCall methodCall = call("getByte").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getByte(parameterIndex));
         }
@@ -830,7 +827,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Object getObject(int parameterIndex) throws SQLException {
-        String methodCall = "getObject(" + parameterIndex + ")";
+        MethodCall methodCall = call("getObject").arg(parameterIndex);
         try {
             return reportReturn(methodCall, delegate.getObject(parameterIndex));
         }
@@ -842,7 +839,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Object getObject(int i, Map map) throws SQLException {
-        String methodCall = "getObject(" + i + ", " + map + ")";
+        MethodCall methodCall = call("getObject").arg(i).arg(map);
         try {
             return reportReturn(methodCall, delegate.getObject(i, map));
         }
@@ -854,7 +851,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public String getString(String parameterName) throws SQLException {
-        String methodCall = "getString(" + parameterName + ")";
+        MethodCall methodCall = call("getString").arg(parameterName);
         try {
             return (String)reportReturn(methodCall, delegate.getString(parameterName));
         }
@@ -866,7 +863,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, int sqlType, String typeName) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType + ", " + typeName + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType).arg(typeName);
         try {
             delegate.registerOutParameter(parameterName, sqlType, typeName);
         }
@@ -879,7 +876,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
-        String methodCall = "setNull(" + parameterName + ", " + sqlType + ", " + typeName + ")";
+        MethodCall methodCall = call("setNull").arg(parameterName).arg(sqlType).arg(typeName);
         try {
             delegate.setNull(parameterName, sqlType, typeName);
         }
@@ -892,7 +889,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setString(String parameterName, String x) throws SQLException {
-        String methodCall = "setString(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setString").arg(parameterName).arg(x);
 
         try {
             delegate.setString(parameterName, x);
@@ -906,7 +903,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public BigDecimal getBigDecimal(String parameterName) throws SQLException {
-        String methodCall = "getBigDecimal(" + parameterName + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(parameterName);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(parameterName));
         }
@@ -918,7 +915,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Object getObject(String parameterName, Map<String,Class<?>> map) throws SQLException {
-        String methodCall = "getObject(" + parameterName + ", " + map + ")";
+        MethodCall methodCall = call("getObject").arg(parameterName).arg(map);
         try {
             return reportReturn(methodCall, delegate.getObject(parameterName, map));
         }
@@ -930,7 +927,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
-        String methodCall = "setBigDecimal(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setBigDecimal").arg(parameterName).arg(x);
         try {
             delegate.setBigDecimal(parameterName, x);
         }
@@ -943,7 +940,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public URL getURL(String parameterName) throws SQLException {
-        String methodCall = "getURL(" + parameterName + ")";
+        MethodCall methodCall = call("getURL").arg(parameterName);
         try {
             return (URL)reportReturn(methodCall, delegate.getURL(parameterName));
         }
@@ -955,7 +952,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public RowId getRowId(int parameterIndex) throws SQLException {
-        String methodCall = "getRowId(" + parameterIndex + ")";
+        MethodCall methodCall = call("getRowId").arg(parameterIndex);
         try {
             return (RowId)reportReturn(methodCall, delegate.getRowId(parameterIndex));
         }
@@ -967,7 +964,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public RowId getRowId(String parameterName) throws SQLException {
-        String methodCall = "getRowId(" + parameterName + ")";
+        MethodCall methodCall = call("getRowId").arg(parameterName);
         try {
             return (RowId)reportReturn(methodCall, delegate.getRowId(parameterName));
         }
@@ -979,7 +976,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setRowId(String parameterName, RowId x) throws SQLException {
-        String methodCall = "setRowId(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setRowId").arg(parameterName).arg(x);
         try {
             delegate.setRowId(parameterName, x);
         }
@@ -992,7 +989,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNString(String parameterName, String value) throws SQLException {
-        String methodCall = "setNString(" + parameterName + ", " + value + ")";
+        MethodCall methodCall = call("setNString").arg(parameterName).arg(value);
         try {
             delegate.setNString(parameterName, value);
         }
@@ -1005,7 +1002,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
-        String methodCall = "setNCharacterStream(" + parameterName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setNCharacterStream").arg(parameterName).arg(reader).arg(length);
         try {
             delegate.setNCharacterStream(parameterName, reader, length);
         }
@@ -1018,7 +1015,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNClob(String parameterName, NClob value) throws SQLException {
-        String methodCall = "setNClob(" + parameterName + ", " + value + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterName).arg(value);
         try {
             delegate.setNClob(parameterName, value);
         }
@@ -1031,7 +1028,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setClob(String parameterName, Reader reader, long length) throws SQLException {
-        String methodCall = "setClob(" + parameterName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setClob").arg(parameterName).arg(reader).arg(length);
         try {
             delegate.setClob(parameterName, reader, length);
         }
@@ -1044,7 +1041,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBlob(String parameterName, InputStream inputStream, long length) throws SQLException {
-        String methodCall = "setBlob(" + parameterName + ", " + inputStream + ", " + length + ")";
+        MethodCall methodCall = call("setBlob").arg(parameterName).arg(inputStream).arg(length);
         try {
             delegate.setBlob(parameterName, inputStream, length);
         }
@@ -1057,7 +1054,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
-        String methodCall = "setNClob(" + parameterName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterName).arg(reader).arg(length);
         try {
             delegate.setNClob(parameterName, reader, length);
         }
@@ -1070,7 +1067,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public NClob getNClob(int parameterIndex) throws SQLException {
-        String methodCall = "getNClob(" + parameterIndex + ")";
+        MethodCall methodCall = call("getNClob").arg(parameterIndex);
         try {
             return (NClob)reportReturn(methodCall, delegate.getNClob(parameterIndex));
         }
@@ -1082,7 +1079,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public NClob getNClob(String parameterName) throws SQLException {
-        String methodCall = "getNClob(" + parameterName + ")";
+        MethodCall methodCall = call("getNClob").arg(parameterName);
         try {
             return (NClob)reportReturn(methodCall, delegate.getNClob(parameterName));
         }
@@ -1094,7 +1091,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
-        String methodCall = "setSQLXML(" + parameterName + ", " + xmlObject + ")";
+        MethodCall methodCall = call("setSQLXML").arg(parameterName).arg(xmlObject);
         try {
             delegate.setSQLXML(parameterName, xmlObject);
         }
@@ -1107,7 +1104,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public SQLXML getSQLXML(int parameterIndex) throws SQLException {
-        String methodCall = "getSQLXML(" + parameterIndex + ")";
+        MethodCall methodCall = call("getSQLXML").arg(parameterIndex);
         try {
             return (SQLXML)reportReturn(methodCall, delegate.getSQLXML(parameterIndex));
         }
@@ -1119,7 +1116,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public SQLXML getSQLXML(String parameterName) throws SQLException {
-        String methodCall = "getSQLXML(" + parameterName + ")";
+        MethodCall methodCall = call("getSQLXML").arg(parameterName);
         try {
             return (SQLXML)reportReturn(methodCall, delegate.getSQLXML(parameterName));
         }
@@ -1132,7 +1129,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public String getNString(int parameterIndex) throws SQLException {
-        String methodCall = "getNString(" + parameterIndex + ")";
+        MethodCall methodCall = call("getNString").arg(parameterIndex);
         try {
             return (String)reportReturn(methodCall, delegate.getNString(parameterIndex));
         }
@@ -1144,7 +1141,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public String getNString(String parameterName) throws SQLException {
-        String methodCall = "getNString(" + parameterName + ")";
+        MethodCall methodCall = call("getNString").arg(parameterName);
         try {
             return (String)reportReturn(methodCall, delegate.getNString(parameterName));
         }
@@ -1156,7 +1153,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Reader getNCharacterStream(int parameterIndex) throws SQLException {
-        String methodCall = "getNCharacterStream(" + parameterIndex + ")";
+        MethodCall methodCall = call("getNCharacterStream").arg(parameterIndex);
         try {
             return (Reader)reportReturn(methodCall, delegate.getNCharacterStream(parameterIndex));
         }
@@ -1168,7 +1165,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Reader getNCharacterStream(String parameterName) throws SQLException {
-        String methodCall = "getNCharacterStream(" + parameterName + ")";
+        MethodCall methodCall = call("getNCharacterStream").arg(parameterName);
         try {
             return (Reader)reportReturn(methodCall, delegate.getNCharacterStream(parameterName));
         }
@@ -1180,7 +1177,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Reader getCharacterStream(int parameterIndex) throws SQLException {
-        String methodCall = "getCharacterStream(" + parameterIndex + ")";
+        MethodCall methodCall = call("getCharacterStream").arg(parameterIndex);
         try {
             return (Reader)reportReturn(methodCall, delegate.getCharacterStream(parameterIndex));
         }
@@ -1192,7 +1189,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Reader getCharacterStream(String parameterName) throws SQLException {
-        String methodCall = "getCharacterStream(" + parameterName + ")";
+        MethodCall methodCall = call("getCharacterStream").arg(parameterName);
         try {
             return (Reader)reportReturn(methodCall, delegate.getCharacterStream(parameterName));
         }
@@ -1204,7 +1201,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBlob(String parameterName, Blob x) throws SQLException {
-        String methodCall = "setBlob(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setBlob").arg(parameterName).arg(x);
         try {
             delegate.setBlob(parameterName, x);
         }
@@ -1217,7 +1214,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setClob(String parameterName, Clob x) throws SQLException {
-        String methodCall = "setClob(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setClob").arg(parameterName).arg(x);
         try {
             delegate.setClob(parameterName, x);
         }
@@ -1230,7 +1227,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setAsciiStream(String parameterName, InputStream x, long length) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterName).arg(x).arg(length);
         try {
             delegate.setAsciiStream(parameterName, x, length);
         }
@@ -1243,7 +1240,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBinaryStream(String parameterName, InputStream x, long length) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterName).arg(x).arg(length);
         try {
             delegate.setBinaryStream(parameterName, x, length);
         }
@@ -1256,7 +1253,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterName).arg(reader).arg(length);
         try {
             delegate.setCharacterStream(parameterName, reader, length);
         }
@@ -1269,7 +1266,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setAsciiStream(String parameterName, InputStream x) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterName).arg(x);
         try {
             delegate.setAsciiStream(parameterName, x);
         }
@@ -1282,7 +1279,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBinaryStream(String parameterName, InputStream x) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterName).arg(x);
         try {
             delegate.setBinaryStream(parameterName, x);
         }
@@ -1295,7 +1292,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setCharacterStream(String parameterName, Reader reader) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterName + ", " + reader + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterName).arg(reader);
         try {
             delegate.setCharacterStream(parameterName, reader);
         }
@@ -1308,7 +1305,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNCharacterStream(String parameterName, Reader reader) throws SQLException {
-        String methodCall = "setNCharacterStream(" + parameterName + ", " + reader + ")";
+        MethodCall methodCall = call("setNCharacterStream").arg(parameterName).arg(reader);
         try {
             delegate.setNCharacterStream(parameterName, reader);
         }
@@ -1321,7 +1318,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setClob(String parameterName, Reader reader) throws SQLException {
-        String methodCall = "setClob(" + parameterName + ", " + reader + ")";
+        MethodCall methodCall = call("setClob").arg(parameterName).arg(reader);
         try {
             delegate.setClob(parameterName, reader);
         }
@@ -1334,7 +1331,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
-        String methodCall = "setBlob(" + parameterName + ", " + inputStream + ")";
+        MethodCall methodCall = call("setBlob").arg(parameterName).arg(inputStream);
         try {
             delegate.setBlob(parameterName, inputStream);
         }
@@ -1347,7 +1344,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setNClob(String parameterName, Reader reader) throws SQLException {
-        String methodCall = "setNClob(" + parameterName + ", " + reader + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterName).arg(reader);
         try {
             delegate.setNClob(parameterName, reader);
         }
@@ -1360,7 +1357,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
-        String methodCall = "getObject(" + parameterIndex + ", " + type.getName() + ")";
+        MethodCall methodCall = call("getObject").arg(parameterIndex).arg(type);
         try {
             return (T)reportReturn(methodCall, delegate.getObject(parameterIndex, type));
         }
@@ -1372,7 +1369,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
-        String methodCall = "getObject(" + parameterName + ", " + type.getName() + ")";
+        MethodCall methodCall = call("getObject").arg(parameterName).arg(type);
         try {
             return (T)reportReturn(methodCall, delegate.getObject(parameterName, type));
         }
@@ -1384,7 +1381,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        String methodCall = "setObject(" + parameterName + ", " + x + ", " + targetSqlType + ", " + scaleOrLength + ")";
+        MethodCall methodCall = call("setObject").arg(parameterName).arg(x).arg(targetSqlType).arg(scaleOrLength);
         try {
             delegate.setObject(parameterName, x, targetSqlType, scaleOrLength);
         }
@@ -1397,7 +1394,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
-        String methodCall = "setObject(" + parameterName + ", " + x + ", " + targetSqlType + ")";
+        MethodCall methodCall = call("setObject").arg(parameterName).arg(x).arg(targetSqlType);
         try {
             delegate.setObject(parameterName, x, targetSqlType);
         }
@@ -1410,7 +1407,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int parameterIndex, SQLType sqlType) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterIndex + ", " + sqlType.getName() + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterIndex).arg(sqlType.getName());
         try {
             delegate.registerOutParameter(parameterIndex, sqlType);
         }
@@ -1423,7 +1420,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int parameterIndex, SQLType sqlType, int scale) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterIndex + ", " + sqlType.getName() + ", " + scale + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterIndex).arg(sqlType.getName()).arg(scale);
         try {
             delegate.registerOutParameter(parameterIndex, sqlType, scale);
         }
@@ -1436,7 +1433,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(int parameterIndex, SQLType sqlType, String typeName) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterIndex + ", " + sqlType.getName() + ", " + typeName + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterIndex).arg(sqlType.getName()).arg(typeName);
         try {
             delegate.registerOutParameter(parameterIndex, sqlType, typeName);
         }
@@ -1449,7 +1446,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType);
         try {
             delegate.registerOutParameter(parameterName, sqlType);
         }
@@ -1462,7 +1459,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType, int scale) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType.getName() + ", " + scale + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType.getName()).arg(scale);
         try {
             delegate.registerOutParameter(parameterName, sqlType, scale);
         }
@@ -1475,7 +1472,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void registerOutParameter(String parameterName, SQLType sqlType, String typeName) throws SQLException {
-        String methodCall = "registerOutParameter(" + parameterName + ", " + sqlType.getName() + ", " + typeName + ")";
+        MethodCall methodCall = call("registerOutParameter").arg(parameterName).arg(sqlType.getName()).arg(typeName);
         try {
             delegate.registerOutParameter(parameterName, sqlType, typeName);
         }
@@ -1488,7 +1485,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setURL(String parameterName, URL val) throws SQLException {
-        String methodCall = "setURL(" + parameterName + ", " + val + ")";
+        MethodCall methodCall = call("setURL").arg(parameterName).arg(val);
         try {
             delegate.setURL(parameterName, val);
         }
@@ -1501,7 +1498,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Array getArray(String parameterName) throws SQLException {
-        String methodCall = "getArray(" + parameterName + ")";
+        MethodCall methodCall = call("getArray").arg(parameterName);
         try {
             return (Array)reportReturn(methodCall, delegate.getArray(parameterName));
         }
@@ -1513,7 +1510,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Blob getBlob(String parameterName) throws SQLException {
-        String methodCall = "getBlob(" + parameterName + ")";
+        MethodCall methodCall = call("getBlob").arg(parameterName);
         try {
             return (Blob)reportReturn(methodCall, delegate.getBlob(parameterName));
         }
@@ -1525,7 +1522,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Clob getClob(String parameterName) throws SQLException {
-        String methodCall = "getClob(" + parameterName + ")";
+        MethodCall methodCall = call("getClob").arg(parameterName);
         try {
             return (Clob)reportReturn(methodCall, delegate.getClob(parameterName));
         }
@@ -1537,7 +1534,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public Date getDate(String parameterName) throws SQLException {
-        String methodCall = "getDate(" + parameterName + ")";
+        MethodCall methodCall = call("getDate").arg(parameterName);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(parameterName));
         }
@@ -1549,7 +1546,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public void setDate(String parameterName, Date x) throws SQLException {
-        String methodCall = "setDate(" + parameterName + ", " + x + ")";
+        MethodCall methodCall = call("setDate").arg(parameterName).arg(x);
         try {
             delegate.setDate(parameterName, x);
         }
@@ -1562,7 +1559,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        String methodCall = "unwrap(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("unwrap").arg(iface);
         try {
             //todo: double check this logic
             //NOTE: could call super.isWrapperFor to simplify this logic, but it would result in extra log output
@@ -1577,7 +1574,7 @@ public class LoggingCallableStatement<S extends CallableStatement> extends Loggi
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        String methodCall = "isWrapperFor(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("isWrapperFor").arg(iface);
         try {
             //NOTE: could call super.isWrapperFor to simplify this logic, but it would result in extra log output
             //when the super classes would be invoked..
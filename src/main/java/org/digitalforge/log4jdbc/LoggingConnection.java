@@ -6,7 +6,11 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.digitalforge.log4jdbc.formatter.ParameterFormatter;
+import org.digitalforge.log4jdbc.stats.LatencyHistogram;
+import org.digitalforge.log4jdbc.util.CallerResolver;
 import org.digitalforge.log4jdbc.util.ConnectionTracker;
+import org.digitalforge.log4jdbc.util.LeakDetector;
+import org.digitalforge.log4jdbc.util.TransactionTracker;
 
 /**
  * Wraps a JDBC Connection and reports method calls, returns and exceptions.
@@ -24,15 +28,126 @@ public class LoggingConnection implements Connection, JdbcSpy {
      */
     private static final ConnectionTracker connectionTracker = new ConnectionTracker();
 
+    /**
+     * Reports connections, statements and result sets that are not closed, or null if <b>log4jdbc.leak.detection</b>
+     * is not set.
+     */
+    private static final LeakDetector leakDetector = createLeakDetector();
+
+    /**
+     * Measures the transactions run on every connection, or null if <b>log4jdbc.transaction.tracking</b> is not set.
+     */
+    private static final TransactionTracker transactionTracker = LoggingDriverConfig.getInstance().isTransactionTrackingEnabled()
+        ? new TransactionTracker(LoggingDriverConfig.getInstance().getTransactionWarnThresholdMillis())
+        : null;
+
     private final int connectionNumber;
 
+    /**
+     * The leak detector's record of this Connection, or null if leaks are not being detected.
+     */
+    private final LeakDetector.Resource leakResource;
+
+    /**
+     * The transaction state of this Connection, or null if transactions are not being tracked.
+     */
+    private final TransactionTracker.Transactions transactions;
+
     private Connection delegate;
     private ParameterFormatter parameterFormatter;
 
+    /**
+     * Reusable description of the method call currently being made on this Connection.
+     */
+    private final MethodCall currentCall = new MethodCall();
+
+    /**
+     * Latencies of the SQL run on this Connection, or null if <b>log4jdbc.stats.histograms.enabled</b> is not set.
+     */
+    private final LatencyHistogram latencyHistogram = LoggingDriverConfig.getInstance().isStatsHistogramsEnabled()
+        ? new LatencyHistogram()
+        : null;
+
     public static ConnectionTracker getConnectionTracker() {
         return connectionTracker;
     }
 
+    /**
+     * Get the detector of connections, statements and result sets that are not closed.
+     *
+     * @return the LeakDetector, or null if <b>log4jdbc.leak.detection</b> is not set.
+     */
+    public static LeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * Get the tracker of the transactions run on every connection.
+     *
+     * @return the TransactionTracker, or null if <b>log4jdbc.transaction.tracking</b> is not set.
+     */
+    public static TransactionTracker getTransactionTracker() {
+        return transactionTracker;
+    }
+
+    private static LeakDetector createLeakDetector() {
+
+        LoggingDriverConfig config = LoggingDriverConfig.getInstance();
+        if(!config.isLeakDetectionEnabled()) {
+            return null;
+        }
+
+        CallerResolver callerResolver = config.isLeakCaptureSite()
+            ? new CallerResolver(config.getDebugStackPrefix(), config.getDebugStackCacheSize())
+            : null;
+
+        LeakDetector detector = new LeakDetector(config.getLeakThresholdMillis(), callerResolver);
+        detector.start(config.getLeakScanIntervalMillis());
+
+        return detector;
+
+    }
+
+    /**
+     * Get the leak detector's record of this Connection.
+     *
+     * @return the record, or null if leaks are not being detected.
+     */
+    LeakDetector.Resource getLeakResource() {
+        return leakResource;
+    }
+
+    /**
+     * Get the latency histogram of the SQL run on this Connection.
+     *
+     * @return the histogram, or null if <b>log4jdbc.stats.histograms.enabled</b> is not set.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Record the latency of SQL that was run successfully on this Connection.
+     *
+     * @param execTimeNanoSec how long the SQL took to run, in nanoseconds.
+     */
+    void recordLatency(long execTimeNanoSec) {
+        if(latencyHistogram != null) {
+            latencyHistogram.record(execTimeNanoSec);
+        }
+    }
+
+    /**
+     * Record a statement run on this Connection, successfully or not, as part of its transaction.
+     *
+     * @param execTimeNanoSec how long the statement took to run, in nanoseconds.
+     */
+    void recordTransactionStatement(long execTimeNanoSec) {
+        if(transactions != null) {
+            transactions.statementExecuted(execTimeNanoSec);
+        }
+    }
+
     /**
      * Create a new LoggingConnection that wraps a given Connection.
      *
@@ -61,13 +176,36 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
         connectionTracker.track(this.connectionNumber, this);
 
+        this.leakResource = (leakDetector != null)
+            ? leakDetector.open(LeakDetector.Kind.CONNECTION, this, this.connectionNumber, null)
+            : null;
+
+        this.transactions = (transactionTracker != null)
+            ? transactionTracker.track(this.connectionNumber, initialAutoCommit(delegate))
+            : null;
+
         //log.info("Connection " + this.connectionNumber + " opened");
-        log.connectionOpened(this);
+        if(LoggingSwitch.isEnabled()) {
+            log.connectionOpened(this);
+        }
 
-        reportReturn("New connection");
+        reportReturn(describe("New connection"));
 
     }
 
+    /**
+     * Get the auto-commit mode of a Connection that is being wrapped, which a pooled connection may have had changed.
+     */
+    private static boolean initialAutoCommit(Connection delegate) {
+        try {
+            return delegate.getAutoCommit();
+        }
+        catch(SQLException s) {
+            // the JDBC default
+            return true;
+        }
+    }
+
     @Override
     public Integer getConnectionNumber() {
         return connectionNumber;
@@ -105,42 +243,94 @@ public class LoggingConnection implements Connection, JdbcSpy {
         this.parameterFormatter = parameterFormatter;
     }
 
-    protected void reportException(String methodCall, SQLException exception, String sql) {
-        log.exceptionOccured(this, methodCall, exception, sql, -1L);
+    /**
+     * Start describing a call to one of the forwarding methods.  The returned MethodCall is reused by every call made
+     * on this Connection but those of {@link #concurrentCall(String)}, and is only rendered to text if the call is actually
+     * logged.
+     *
+     * @param method name of the method being called.
+     * @return the reset MethodCall for this Connection.
+     */
+    private MethodCall call(String method) {
+        return currentCall.reset(method);
+    }
+
+    /**
+     * Start describing a call to one of the methods JDBC allows to be made from another thread while this Connection is
+     * in use, such as close.  Those get a MethodCall of their own, so that they never disturb the description of the
+     * call they may interrupt.  While logging is switched off the call can't be logged, so it isn't described at all.
+     *
+     * @param method name of the method being called.
+     * @return a new MethodCall, or {@link MethodCall#UNDESCRIBED} while logging is switched off.
+     */
+    private MethodCall concurrentCall(String method) {
+        return LoggingSwitch.isEnabled() ? new MethodCall().reset(method) : MethodCall.UNDESCRIBED;
     }
 
-    protected void reportException(String methodCall, SQLException exception) {
-        log.exceptionOccured(this, methodCall, exception, null, -1L);
+    /**
+     * Start describing an event that is not a method call, such as the construction of this Connection.
+     *
+     * @param description text to report for the event.
+     * @return the reset MethodCall for this Connection.
+     */
+    private MethodCall describe(String description) {
+        return currentCall.describe(description);
     }
 
-    protected void reportAllReturns(String methodCall, String returnValue) {
-        log.methodReturned(this, methodCall, returnValue);
+    protected void reportException(MethodCall methodCall, SQLException exception, String sql) {
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, sql, -1L);
+        }
+    }
+
+    protected void reportException(MethodCall methodCall, SQLException exception) {
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, null, -1L);
+        }
+    }
+
+    protected void reportAllReturns(MethodCall methodCall) {
+        if(LoggingSwitch.isEnabled()) {
+            log.methodReturned(this, methodCall);
+        }
+    }
+
+    /**
+     * Track a Statement created by this Connection so that its current sql can be dumped.  Statements created while
+     * logging is switched off are not tracked.
+     *
+     * @param statement the new Statement.
+     */
+    private void trackStatement(LoggingStatement<?> statement) {
+        if(LoggingSwitch.isEnabled()) {
+            connectionTracker.track(statement);
+        }
     }
 
-    private boolean reportReturn(String methodCall, boolean value) {
-        reportAllReturns(methodCall, "" + value);
+    private boolean reportReturn(MethodCall methodCall, boolean value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
-    private int reportReturn(String methodCall, int value) {
-        reportAllReturns(methodCall, "" + value);
+    private int reportReturn(MethodCall methodCall, int value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
-    private <T> T reportReturn(String methodCall, T value) {
-        reportAllReturns(methodCall, "" + value);
+    private <T> T reportReturn(MethodCall methodCall, T value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
-    private void reportReturn(String methodCall) {
-        reportAllReturns(methodCall, "");
+    private void reportReturn(MethodCall methodCall) {
+        reportAllReturns(methodCall);
     }
 
     // forwarding methods
 
     @Override
     public boolean isClosed() throws SQLException {
-        String methodCall = "isClosed()";
+        MethodCall methodCall = concurrentCall("isClosed");
         try {
             return reportReturn(methodCall, (delegate.isClosed()));
         }
@@ -152,7 +342,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public SQLWarning getWarnings() throws SQLException {
-        String methodCall = "getWarnings()";
+        MethodCall methodCall = call("getWarnings");
         try {
             return reportReturn(methodCall, delegate.getWarnings());
         }
@@ -164,7 +354,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Savepoint setSavepoint() throws SQLException {
-        String methodCall = "setSavepoint()";
+        MethodCall methodCall = call("setSavepoint");
         try {
             return reportReturn(methodCall, delegate.setSavepoint());
         }
@@ -176,7 +366,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void releaseSavepoint(Savepoint savepoint) throws SQLException {
-        String methodCall = "releaseSavepoint(" + savepoint + ")";
+        MethodCall methodCall = call("releaseSavepoint").arg(savepoint);
         try {
             delegate.releaseSavepoint(savepoint);
         }
@@ -189,7 +379,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void rollback(Savepoint savepoint) throws SQLException {
-        String methodCall = "rollback(" + savepoint + ")";
+        MethodCall methodCall = call("rollback").arg(savepoint);
         try {
             delegate.rollback(savepoint);
         }
@@ -202,7 +392,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public DatabaseMetaData getMetaData() throws SQLException {
-        String methodCall = "getMetaData()";
+        MethodCall methodCall = call("getMetaData");
         try {
             return reportReturn(methodCall, delegate.getMetaData());
         }
@@ -214,7 +404,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void clearWarnings() throws SQLException {
-        String methodCall = "clearWarnings()";
+        MethodCall methodCall = call("clearWarnings");
         try {
             delegate.clearWarnings();
         }
@@ -227,11 +417,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Statement createStatement() throws SQLException {
-        String methodCall = "createStatement()";
+        MethodCall methodCall = call("createStatement");
         try {
             Statement statement = delegate.createStatement();
             LoggingStatement lstatement = reportReturn(methodCall, new LoggingStatement(this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -242,11 +432,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
-        String methodCall = "createStatement(" + resultSetType + ", " + resultSetConcurrency + ")";
+        MethodCall methodCall = call("createStatement").arg(resultSetType).arg(resultSetConcurrency);
         try {
             Statement statement = delegate.createStatement(resultSetType, resultSetConcurrency);
             LoggingStatement lstatement = reportReturn(methodCall, new LoggingStatement(this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -257,11 +447,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        String methodCall = "createStatement(" + resultSetType + ", " + resultSetConcurrency + ", " + resultSetHoldability + ")";
+        MethodCall methodCall = call("createStatement").arg(resultSetType).arg(resultSetConcurrency).arg(resultSetHoldability);
         try {
             Statement statement = delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
             LoggingStatement lstatement = reportReturn(methodCall, new LoggingStatement(this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -272,7 +462,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setReadOnly(boolean readOnly) throws SQLException {
-        String methodCall = "setReadOnly(" + readOnly + ")";
+        MethodCall methodCall = call("setReadOnly").arg(readOnly);
         try {
             delegate.setReadOnly(readOnly);
         }
@@ -285,11 +475,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        String methodCall = "prepareStatement(" + sql + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
 
         }
@@ -301,11 +491,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        String methodCall = "prepareStatement(" + sql + ", " + autoGeneratedKeys + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql).arg(autoGeneratedKeys);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql, autoGeneratedKeys);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -316,11 +506,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        String methodCall = "prepareStatement(" + sql + ", " + resultSetType + ", " + resultSetConcurrency + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql).arg(resultSetType).arg(resultSetConcurrency);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql, resultSetType, resultSetConcurrency);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -331,11 +521,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        String methodCall = "prepareStatement(" + sql + ", " + resultSetType + ", " + resultSetConcurrency + ", " + resultSetHoldability + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql).arg(resultSetType).arg(resultSetConcurrency).arg(resultSetHoldability);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -347,11 +537,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public PreparedStatement prepareStatement(String sql, int columnIndexes[]) throws SQLException {
         //todo: dump the array here?
-        String methodCall = "prepareStatement(" + sql + ", " + columnIndexes + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql).arg(columnIndexes);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql, columnIndexes);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -362,7 +552,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Savepoint setSavepoint(String name) throws SQLException {
-        String methodCall = "setSavepoint(" + name + ")";
+        MethodCall methodCall = call("setSavepoint").arg(name);
         try {
             return reportReturn(methodCall, delegate.setSavepoint(name));
         }
@@ -375,11 +565,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public PreparedStatement prepareStatement(String sql, String columnNames[]) throws SQLException {
         //todo: dump the array here?
-        String methodCall = "prepareStatement(" + sql + ", " + columnNames + ")";
+        MethodCall methodCall = call("prepareStatement").arg(sql).arg(columnNames);
         try {
             PreparedStatement statement = delegate.prepareStatement(sql, columnNames);
             LoggingPreparedStatement lstatement = reportReturn(methodCall, new LoggingPreparedStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -390,7 +580,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Clob createClob() throws SQLException {
-        String methodCall = "createClob()";
+        MethodCall methodCall = call("createClob");
         try {
             return reportReturn(methodCall, delegate.createClob());
         }
@@ -402,7 +592,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Blob createBlob() throws SQLException {
-        String methodCall = "createBlob()";
+        MethodCall methodCall = call("createBlob");
         try {
             return reportReturn(methodCall, delegate.createBlob());
         }
@@ -414,7 +604,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public NClob createNClob() throws SQLException {
-        String methodCall = "createNClob()";
+        MethodCall methodCall = call("createNClob");
         try {
             return reportReturn(methodCall, delegate.createNClob());
         }
@@ -426,7 +616,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public SQLXML createSQLXML() throws SQLException {
-        String methodCall = "createSQLXML()";
+        MethodCall methodCall = call("createSQLXML");
         try {
             return reportReturn(methodCall, delegate.createSQLXML());
         }
@@ -438,7 +628,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public boolean isValid(int timeout) throws SQLException {
-        String methodCall = "isValid(" + timeout + ")";
+        MethodCall methodCall = concurrentCall("isValid").arg(timeout);
         try {
             return reportReturn(methodCall, delegate.isValid(timeout));
         }
@@ -450,7 +640,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setClientInfo(String name, String value) throws SQLClientInfoException {
-        String methodCall = "setClientInfo(" + name + ", " + value + ")";
+        MethodCall methodCall = call("setClientInfo").arg(name).arg(value);
         try {
             delegate.setClientInfo(name, value);
         }
@@ -464,7 +654,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public void setClientInfo(Properties properties) throws SQLClientInfoException {
         // todo: dump properties?
-        String methodCall = "setClientInfo(" + properties + ")";
+        MethodCall methodCall = call("setClientInfo").arg(properties);
         try {
             delegate.setClientInfo(properties);
         }
@@ -477,7 +667,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public String getClientInfo(String name) throws SQLException {
-        String methodCall = "getClientInfo(" + name + ")";
+        MethodCall methodCall = call("getClientInfo").arg(name);
         try {
             return reportReturn(methodCall, delegate.getClientInfo(name));
         }
@@ -489,7 +679,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Properties getClientInfo() throws SQLException {
-        String methodCall = "getClientInfo()";
+        MethodCall methodCall = call("getClientInfo");
         try {
             return reportReturn(methodCall, delegate.getClientInfo());
         }
@@ -502,7 +692,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
         //todo: dump elements?
-        String methodCall = "createArrayOf(" + typeName + ", " + elements + ")";
+        MethodCall methodCall = call("createArrayOf").arg(typeName).arg(elements);
         try {
             return reportReturn(methodCall, delegate.createArrayOf(typeName, elements));
         }
@@ -515,7 +705,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
         //todo: dump attributes?
-        String methodCall = "createStruct(" + typeName + ", " + attributes + ")";
+        MethodCall methodCall = call("createStruct").arg(typeName).arg(attributes);
         try {
             return reportReturn(methodCall, delegate.createStruct(typeName, attributes));
         }
@@ -527,7 +717,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setSchema(String schema) throws SQLException {
-        String methodCall = "setSchema(" + schema + ")";
+        MethodCall methodCall = call("setSchema").arg(schema);
         try {
             delegate.setSchema(schema);
         }
@@ -540,7 +730,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public String getSchema() throws SQLException {
-        String methodCall = "getSchema()";
+        MethodCall methodCall = call("getSchema");
         try {
             return reportReturn(methodCall, delegate.getSchema());
         }
@@ -552,7 +742,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void abort(Executor executor) throws SQLException {
-        String methodCall = "abort(" + executor + ")";
+        MethodCall methodCall = concurrentCall("abort").arg(executor);
         try {
             delegate.abort(executor);
         }
@@ -565,7 +755,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
-        String methodCall = "setNetworkTimeout(" + executor + ", " + milliseconds + ")";
+        MethodCall methodCall = concurrentCall("setNetworkTimeout").arg(executor).arg(milliseconds);
         try {
             delegate.setNetworkTimeout(executor, milliseconds);
         }
@@ -578,7 +768,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public int getNetworkTimeout() throws SQLException {
-        String methodCall = "getNetworkTimeout()";
+        MethodCall methodCall = concurrentCall("getNetworkTimeout");
         try {
             return reportReturn(methodCall, delegate.getNetworkTimeout());
         }
@@ -590,7 +780,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public boolean isReadOnly() throws SQLException {
-        String methodCall = "isReadOnly()";
+        MethodCall methodCall = call("isReadOnly");
         try {
             return reportReturn(methodCall, delegate.isReadOnly());
         }
@@ -602,7 +792,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setHoldability(int holdability) throws SQLException {
-        String methodCall = "setHoldability(" + holdability + ")";
+        MethodCall methodCall = call("setHoldability").arg(holdability);
         try {
             delegate.setHoldability(holdability);
         }
@@ -615,11 +805,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public CallableStatement prepareCall(String sql) throws SQLException {
-        String methodCall = "prepareCall(" + sql + ")";
+        MethodCall methodCall = call("prepareCall").arg(sql);
         try {
             CallableStatement statement = delegate.prepareCall(sql);
             LoggingCallableStatement lstatement = reportReturn(methodCall, new LoggingCallableStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -630,11 +820,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        String methodCall = "prepareCall(" + sql + ", " + resultSetType + ", " + resultSetConcurrency + ")";
+        MethodCall methodCall = call("prepareCall").arg(sql).arg(resultSetType).arg(resultSetConcurrency);
         try {
             CallableStatement statement = delegate.prepareCall(sql, resultSetType, resultSetConcurrency);
             LoggingCallableStatement lstatement = reportReturn(methodCall, new LoggingCallableStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -645,11 +835,11 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        String methodCall = "prepareCall(" + sql + ", " + resultSetType + ", " + resultSetConcurrency + ", " + resultSetHoldability + ")";
+        MethodCall methodCall = call("prepareCall").arg(sql).arg(resultSetType).arg(resultSetConcurrency).arg(resultSetHoldability);
         try {
             CallableStatement statement = delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
             LoggingCallableStatement lstatement = reportReturn(methodCall, new LoggingCallableStatement(sql, this, statement));
-            connectionTracker.track(lstatement);
+            trackStatement(lstatement);
             return lstatement;
         }
         catch(SQLException s) {
@@ -660,7 +850,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setCatalog(String catalog) throws SQLException {
-        String methodCall = "setCatalog(" + catalog + ")";
+        MethodCall methodCall = call("setCatalog").arg(catalog);
         try {
             delegate.setCatalog(catalog);
         }
@@ -673,7 +863,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public String nativeSQL(String sql) throws SQLException {
-        String methodCall = "nativeSQL(" + sql + ")";
+        MethodCall methodCall = call("nativeSQL").arg(sql);
         try {
             return reportReturn(methodCall, delegate.nativeSQL(sql));
         }
@@ -685,7 +875,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public Map<String,Class<?>> getTypeMap() throws SQLException {
-        String methodCall = "getTypeMap()";
+        MethodCall methodCall = call("getTypeMap");
         try {
             return reportReturn(methodCall, delegate.getTypeMap());
         }
@@ -697,9 +887,13 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
-        String methodCall = "setAutoCommit(" + autoCommit + ")";
+        MethodCall methodCall = call("setAutoCommit").arg(autoCommit);
+        long tstartNano = (transactions != null) ? System.nanoTime() : 0L;
         try {
             delegate.setAutoCommit(autoCommit);
+            if(transactions != null) {
+                transactions.autoCommitChanged(autoCommit, System.nanoTime() - tstartNano);
+            }
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -710,7 +904,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public String getCatalog() throws SQLException {
-        String methodCall = "getCatalog()";
+        MethodCall methodCall = call("getCatalog");
         try {
             return reportReturn(methodCall, delegate.getCatalog());
         }
@@ -723,7 +917,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
     @Override
     public void setTypeMap(java.util.Map<String,Class<?>> map) throws SQLException {
         //todo: dump map??
-        String methodCall = "setTypeMap(" + map + ")";
+        MethodCall methodCall = call("setTypeMap").arg(map);
         try {
             delegate.setTypeMap(map);
         }
@@ -736,7 +930,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void setTransactionIsolation(int level) throws SQLException {
-        String methodCall = "setTransactionIsolation(" + level + ")";
+        MethodCall methodCall = call("setTransactionIsolation").arg(level);
         try {
             delegate.setTransactionIsolation(level);
         }
@@ -749,7 +943,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public boolean getAutoCommit() throws SQLException {
-        String methodCall = "getAutoCommit()";
+        MethodCall methodCall = call("getAutoCommit");
         try {
             return reportReturn(methodCall, delegate.getAutoCommit());
         }
@@ -761,7 +955,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public int getHoldability() throws SQLException {
-        String methodCall = "getHoldability()";
+        MethodCall methodCall = call("getHoldability");
         try {
             return reportReturn(methodCall, delegate.getHoldability());
         }
@@ -773,7 +967,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public int getTransactionIsolation() throws SQLException {
-        String methodCall = "getTransactionIsolation()";
+        MethodCall methodCall = call("getTransactionIsolation");
         try {
             return reportReturn(methodCall, delegate.getTransactionIsolation());
         }
@@ -785,9 +979,13 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void commit() throws SQLException {
-        String methodCall = "commit()";
+        MethodCall methodCall = call("commit");
+        long tstartNano = (transactions != null) ? System.nanoTime() : 0L;
         try {
             delegate.commit();
+            if(transactions != null) {
+                transactions.committed(System.nanoTime() - tstartNano);
+            }
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -798,9 +996,13 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void rollback() throws SQLException {
-        String methodCall = "rollback()";
+        MethodCall methodCall = call("rollback");
+        long tstartNano = (transactions != null) ? System.nanoTime() : 0L;
         try {
             delegate.rollback();
+            if(transactions != null) {
+                transactions.rolledBack(System.nanoTime() - tstartNano);
+            }
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -811,7 +1013,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public void close() throws SQLException {
-        String methodCall = "close()";
+        MethodCall methodCall = concurrentCall("close");
         try {
             delegate.close();
         }
@@ -821,14 +1023,22 @@ public class LoggingConnection implements Connection, JdbcSpy {
         }
         finally {
             connectionTracker.untrack(connectionNumber);
-            log.connectionClosed(this);
+            if(leakResource != null) {
+                leakDetector.close(leakResource);
+            }
+            if(transactions != null) {
+                transactions.closed();
+            }
+            if(LoggingSwitch.isEnabled()) {
+                log.connectionClosed(this);
+            }
         }
         reportReturn(methodCall);
     }
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        String methodCall = "unwrap(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("unwrap").arg(iface);
         try {
             //todo: double check this logic
             return reportReturn(methodCall, (iface != null && (iface == Connection.class || iface == JdbcSpy.class)) ? (T)this : delegate.unwrap(iface));
@@ -841,7 +1051,7 @@ public class LoggingConnection implements Connection, JdbcSpy {
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        String methodCall = "isWrapperFor(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("isWrapperFor").arg(iface);
         try {
             return reportReturn(methodCall, (iface != null && (iface == Connection.class || iface == JdbcSpy.class)) || delegate.isWrapperFor(iface));
         }
@@ -1,7 +1,10 @@
 package org.digitalforge.log4jdbc;
 
+import java.lang.ref.WeakReference;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import org.digitalforge.log4jdbc.formatter.MySqlParameterFormatter;
@@ -44,26 +47,33 @@ import org.digitalforge.log4jdbc.formatter.SqlServerParameterFormatter;
  * If any of the above driver classes cannot be loaded, the driver continues on
  * without failing.
  * <p>
- * Note that the <code>getMajorVersion</code>, <code>getMinorVersion</code> and
- * <code>jdbcCompliant</code> method calls attempt to delegate to the last
- * underlying driver requested through any other call that accepts a JDBC URL.
+ * The underlying driver found for a URL is cached for <b>log4jdbc.driver.cache.ttl</b> milliseconds (60 seconds by
+ * default), so that connecting does not search every driver registered with the DriverManager each time.  Drivers
+ * are cached by the subprotocol of the URL, such as <code>jdbc:postgresql</code>, so that neither the hosts nor the
+ * credentials URLs can carry are kept, and are only weakly referenced, so that a driver that was deregistered does
+ * not keep its class loader around.  Applications that deregister drivers while running can also call
+ * {@link #clearDriverCache()} afterwards.
  * <p>
- * This can cause unexpected behavior in certain circumstances. For example, if
- * one of these 3 methods is called before any underlying driver has been
- * established, then they will return default values that might not be correct
- * in all situations. Similarly, if this spy driver is used to spy on more than
- * one underlying driver concurrently, the values returned by these 3 method
- * calls may change depending on what the last underlying driver used was at the
- * time. This will not usually be a problem, since the driver is retrieved by
- * it's URL from the DriverManager in the first place (thus establishing an
- * underlying real driver), and in most applications their is only one database.
+ * Note that the <code>getMajorVersion</code>, <code>getMinorVersion</code> and
+ * <code>jdbcCompliant</code> method calls delegate to the underlying driver
+ * found for the URLs used so far, as cached.  If none was found yet, the cache
+ * is turned off, or the URLs used are handled by different drivers, they return
+ * default values that might not be correct in all situations.  This will not
+ * usually be a problem, since the driver is retrieved by it's URL from the
+ * DriverManager in the first place (thus establishing an underlying real
+ * driver), and in most applications their is only one database.
  */
 public class LoggingDriver implements Driver {
 
     /**
-     * The last actual, underlying driver that was requested via a URL.
+     * The most URLs to cache the underlying driver of.
+     */
+    private static final int MAX_CACHED_DRIVERS = 256;
+
+    /**
+     * The underlying driver found for the URLs of each subprotocol, and when it was found.
      */
-    private Driver lastUnderlyingDriverRequested;
+    private static final Map<String, CachedDriver> underlyingDrivers = new ConcurrentHashMap<>();
 
     private static final SpyLogDelegator log = SpyLogFactory.getSpyLogDelegator();
 
@@ -75,7 +85,7 @@ public class LoggingDriver implements Driver {
 
         log.debug("... Log4JDBC initializing ...");
 
-        config = new LoggingDriverConfig();
+        config = LoggingDriverConfig.getInstance();
 
         sqlPrettifier = new SqlQueryPrettifier() {
             @Override
@@ -144,6 +154,10 @@ public class LoggingDriver implements Driver {
         parameterFormatters.put("com.mysql.cj.jdbc.Driver", mySql);
         parameterFormatters.put("org.mariadb.jdbc.Driver", mySql);
 
+        if(config.isHotSwitch()) {
+            LoggingSwitch.startRefreshing(config.getHotSwitchRefreshIntervalMillis());
+        }
+
         log.debug("... Log4JDBC initialized! ...");
 
     }
@@ -188,7 +202,8 @@ public class LoggingDriver implements Driver {
      * @return the major version of the JDBC driver.
      */
     public int getMajorVersion() {
-        return (lastUnderlyingDriverRequested != null) ? lastUnderlyingDriverRequested.getMajorVersion() : 1;
+        Driver driver = getCachedDriver();
+        return (driver != null) ? driver.getMajorVersion() : 1;
     }
 
     /**
@@ -199,7 +214,8 @@ public class LoggingDriver implements Driver {
      * @return the minor version of the JDBC driver.
      */
     public int getMinorVersion() {
-        return (lastUnderlyingDriverRequested != null) ? lastUnderlyingDriverRequested.getMinorVersion() : 0;
+        Driver driver = getCachedDriver();
+        return (driver != null) ? driver.getMinorVersion() : 0;
     }
 
     /**
@@ -211,12 +227,14 @@ public class LoggingDriver implements Driver {
      *         <code>false</code> otherwise.
      */
     public boolean jdbcCompliant() {
-        return lastUnderlyingDriverRequested != null && lastUnderlyingDriverRequested.jdbcCompliant();
+        Driver driver = getCachedDriver();
+        return (driver != null) && driver.jdbcCompliant();
     }
 
     @Override
     public Logger getParentLogger() throws SQLFeatureNotSupportedException {
-        return (lastUnderlyingDriverRequested != null) ? lastUnderlyingDriverRequested.getParentLogger() : null;
+        Driver driver = getCachedDriver();
+        return (driver != null) ? driver.getParentLogger() : null;
     }
 
     /**
@@ -231,15 +249,7 @@ public class LoggingDriver implements Driver {
      */
     public boolean acceptsURL(String url) throws SQLException {
 
-        Driver driver = getUnderlyingDriver(url);
-
-        if(driver == null) {
-            return false;
-        }
-
-        lastUnderlyingDriverRequested = driver;
-
-        return true;
+        return getUnderlyingDriver(url) != null;
 
     }
 
@@ -261,7 +271,48 @@ public class LoggingDriver implements Driver {
             return null;
         }
 
-        url = url.substring(9);
+        String realUrl = url.substring(9);
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getDriverCacheTtlMillis());
+
+        if(ttlNanos <= 0L) {
+            return findUnderlyingDriver(realUrl);
+        }
+
+        String key = cacheKey(realUrl);
+        CachedDriver cached = underlyingDrivers.get(key);
+
+        if(cached != null) {
+            Driver driver = cached.get();
+            // the URLs of a subprotocol are nearly always handled by one driver, which only has to confirm it
+            if((driver != null) && (System.nanoTime() - cached.foundAt < ttlNanos) && driver.acceptsURL(realUrl)) {
+                return driver;
+            }
+        }
+
+        Driver driver = findUnderlyingDriver(realUrl);
+
+        // only drivers that were found are cached, so that a driver registered later is found straight away
+        if(driver != null) {
+            sweepDriverCache(ttlNanos);
+            if(underlyingDrivers.size() >= MAX_CACHED_DRIVERS) {
+                underlyingDrivers.clear();
+            }
+            underlyingDrivers.put(key, new CachedDriver(driver, System.nanoTime()));
+        }
+
+        return driver;
+
+    }
+
+    /**
+     * Search the DriverManager for the first registered driver, other than this one, that accepts a URL.
+     *
+     * @param url the URL of the underlying driver.
+     * @return the driver, or null if no driver accepts the URL.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    private static Driver findUnderlyingDriver(String url) throws SQLException {
 
         Enumeration<Driver> e = DriverManager.getDrivers();
 
@@ -283,6 +334,83 @@ public class LoggingDriver implements Driver {
 
     }
 
+    /**
+     * Get the key the underlying driver of a URL is cached under: the URL up to the end of its subprotocol, such as
+     * <code>jdbc:postgresql</code>, which leaves out the host, the options and any credentials.
+     *
+     * @param url the URL of the underlying driver.
+     * @return the cache key.
+     */
+    private static String cacheKey(String url) {
+
+        int end = url.startsWith("jdbc:") ? 5 : 0;
+
+        while(end < url.length()) {
+            char c = url.charAt(end);
+            if(!Character.isLetterOrDigit(c) && (c != '-') && (c != '_')) {
+                break;
+            }
+            end++;
+        }
+
+        return url.substring(0, end);
+
+    }
+
+    /**
+     * Forget the drivers that were found longer than the time to live ago, or were garbage collected since.
+     */
+    private static void sweepDriverCache(long ttlNanos) {
+        long now = System.nanoTime();
+        underlyingDrivers.values().removeIf(cached -> (cached.get() == null) || (now - cached.foundAt >= ttlNanos));
+    }
+
+    /**
+     * Get the underlying driver the version and compliance calls are delegated to.
+     *
+     * @return the driver found for every URL in the cache, or null if none is cached or the cached ones differ.
+     */
+    private static Driver getCachedDriver() {
+
+        Driver found = null;
+
+        for(CachedDriver cached : underlyingDrivers.values()) {
+            Driver driver = cached.get();
+            if(driver == null) {
+                continue;
+            }
+            if((found != null) && (found != driver)) {
+                return null;
+            }
+            found = driver;
+        }
+
+        return found;
+
+    }
+
+    /**
+     * Forget the underlying drivers found for every URL, so that the next call for each URL searches the DriverManager
+     * again.  Call this after deregistering a driver that log4jdbc has been delegating to.
+     */
+    public static void clearDriverCache() {
+        underlyingDrivers.clear();
+    }
+
+    /**
+     * An underlying driver found for a subprotocol, weakly referenced so that it can be unloaded once deregistered.
+     */
+    private static final class CachedDriver extends WeakReference<Driver> {
+
+        final long foundAt;
+
+        CachedDriver(Driver driver, long foundAt) {
+            super(driver);
+            this.foundAt = foundAt;
+        }
+
+    }
+
     /**
      * Get a Connection to the database from the underlying driver that this
      * DriverSpy is spying on. If logging is not enabled, an actual Connection to
@@ -307,17 +435,25 @@ public class LoggingDriver implements Driver {
             return null;
         }
 
-        lastUnderlyingDriverRequested = driver;
+        String realUrl = url.substring(9);
 
-        url = url.substring(9);
+        Connection con = driver.connect(realUrl, info);
 
-        Connection con = driver.connect(url, info);
+        // the cached driver may no longer accept the URL, so search once more before giving up
+        if((con == null) && (underlyingDrivers.remove(cacheKey(realUrl)) != null)) {
+            driver = getUnderlyingDriver(url);
+            if(driver != null) {
+                con = driver.connect(realUrl, info);
+            }
+        }
 
         if(con == null) {
-            throw new SQLException("Invalid or unknown driver url: " + url);
+            throw new SQLException("Invalid or unknown driver url: " + realUrl);
         }
 
-        if(!log.isJdbcLoggingEnabled()) {
+        // re-check the loggers on every new connection; the connection is wrapped regardless in hot switch mode, so
+        // that logging can be switched on later without having to reconnect, and when anything else collects from it
+        if(!LoggingSwitch.refresh() && !config.isWrappingRequired()) {
             return con;
         }
 
@@ -359,8 +495,6 @@ public class LoggingDriver implements Driver {
             return new DriverPropertyInfo[0];
         }
 
-        lastUnderlyingDriverRequested = driver;
-
         url = url.substring(9);
 
         return driver.getPropertyInfo(url, info);
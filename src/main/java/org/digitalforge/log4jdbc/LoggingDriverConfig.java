@@ -36,6 +36,11 @@ public class LoggingDriverConfig {
      */
     private boolean traceFromApplication;
 
+    /**
+     * The most resolved debug info call sites to cache.
+     */
+    private int debugStackCacheSize;
+
     /**
      * Flag to indicate if a warning should be shown if SQL takes more than
      * SqlTimingWarnThresholdNanoSec nanoseconds to run. See below.
@@ -104,6 +109,177 @@ public class LoggingDriverConfig {
 
     private List<String> drivers;
 
+    /**
+     * How long, in milliseconds, the underlying driver found for a URL is reused before DriverManager is searched
+     * again.  Zero or less searches DriverManager on every call.
+     */
+    private long driverCacheTtlMillis;
+
+    /**
+     * Always wrap connections, even when logging is off, so that logging can be switched on at runtime?
+     */
+    private boolean hotSwitch;
+
+    /**
+     * How often, in milliseconds, the logger levels are re-checked when hotSwitch is on.  Zero or less disables
+     * polling, leaving the switch to be flipped by new connections or through the LoggingSwitch API.
+     */
+    private long hotSwitchRefreshIntervalMillis;
+
+    /**
+     * Should events be handed to a background thread for logging, instead of being logged by the JDBC calling thread?
+     */
+    private boolean asyncEnabled;
+
+    /**
+     * Number of events the async ring buffer can hold.  Rounded up to a power of two.
+     */
+    private int asyncBufferSize;
+
+    /**
+     * What to do with events that are published while the async ring buffer is full.
+     */
+    private AsyncSpyLogDelegator.OverflowPolicy asyncOverflowPolicy;
+
+    /**
+     * With the SAMPLE overflow policy, only 1 in this many events is kept once the async ring buffer is getting full.
+     */
+    private int asyncSampleRate;
+
+    /**
+     * The most PreparedStatement SQL fingerprints to cache.
+     */
+    private int fingerprintCacheSize;
+
+    /**
+     * Should execution statistics be collected for every statement?
+     */
+    private boolean statsEnabled;
+
+    /**
+     * The most statements to collect execution statistics for.
+     */
+    private int statsMaxStatements;
+
+    /**
+     * Should latency histograms be kept per statement, per connection and overall when collecting statistics?
+     */
+    private boolean statsHistogramsEnabled;
+
+    /**
+     * Log 1 in this many statement executions.
+     */
+    private int sampleRate;
+
+    /**
+     * The most executions of each statement to log per second, or 0 for no limit.
+     */
+    private int samplePerSecond;
+
+    /**
+     * Executions that take at least this many nanoseconds are logged even if they were not sampled, or -1 if none are.
+     */
+    private long sampleThresholdNanoSec;
+
+    /**
+     * The most statements to keep a per second sampling limit for.
+     */
+    private int sampleMaxStatements;
+
+    /**
+     * Should connections, statements and result sets that are not closed be reported?
+     */
+    private boolean leakDetectionEnabled;
+
+    /**
+     * Connections that are open for longer than this many milliseconds are reported as possibly leaked, or 0 or less
+     * if only resources that are garbage collected without being closed are reported.
+     */
+    private long leakThresholdMillis;
+
+    /**
+     * How often, in milliseconds, the leak detector looks for leaks.
+     */
+    private long leakScanIntervalMillis;
+
+    /**
+     * Should the code that opened each resource be recorded, so that leaks can be traced back to it?
+     */
+    private boolean leakCaptureSite;
+
+    /**
+     * Should the transactions run on every connection be measured?
+     */
+    private boolean transactionTrackingEnabled;
+
+    /**
+     * Should every ResultSet count what it fetched and report it when it is closed?
+     */
+    private boolean resultSetProfilingEnabled;
+
+    /**
+     * Should the column values read from a ResultSet be logged as one event per row, instead of one per getXxx call?
+     */
+    private boolean resultSetAggregateEnabled;
+
+    /**
+     * Number of rows logged together in one event, when aggregating ResultSet logging.
+     */
+    private int resultSetAggregateRows;
+
+    /**
+     * The most rows of each ResultSet to log when aggregating ResultSet logging, or 0 for no limit.
+     */
+    private long resultSetAggregateMaxRows;
+
+    /**
+     * Number of statements kept from the start and from the end of a batch for its report.
+     */
+    private int batchCaptureRows;
+
+    /**
+     * Transactions that are open for longer than this many milliseconds are warned about, or 0 or less if none are.
+     */
+    private long transactionWarnThresholdMillis;
+
+    /**
+     * File to write the binary event log to, or null if no binary event log is written.
+     */
+    private String binaryFile;
+
+    /**
+     * Size in bytes of the buffer that binary events are collected in before being written to the file.
+     */
+    private int binaryBufferSize;
+
+    /**
+     * Size in bytes the binary event log may grow to before it is rolled over to a new file.
+     */
+    private long binaryRolloverSize;
+
+    /**
+     * Sql that runs for at least this many nanoseconds is written to the binary event log in full, or -1 if only
+     * failed sql is.
+     */
+    private long binaryRawSqlThresholdNanoSec;
+
+    /**
+     * Get the configuration loaded from the system properties and log4jdbc.properties.
+     *
+     * @return the shared LoggingDriverConfig.
+     */
+    public static LoggingDriverConfig getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Lazily loads the configuration the first time it is asked for, without depending on LoggingDriver being
+     * initialized first.
+     */
+    private static final class Holder {
+        static final LoggingDriverConfig INSTANCE = new LoggingDriverConfig();
+    }
+
     LoggingDriverConfig() {
 
         Properties props = new Properties(System.getProperties());
@@ -125,6 +301,7 @@ public class LoggingDriverConfig {
         // look for additional driver specified in properties
         debugStackPrefix = getStringOption(props, "log4jdbc.debug.stack.prefix");
         traceFromApplication = debugStackPrefix != null;
+        debugStackCacheSize = (int)Math.max(0L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.debug.stack.cache.size", 1024L)));
 
         Long thresh = getLongOption(props, "log4jdbc.sqltiming.warn.threshold");
         sqlTimingWarnThresholdEnabled = (thresh != null);
@@ -157,6 +334,57 @@ public class LoggingDriverConfig {
 
         String str = getStringOption(props, "log4jdbc.drivers");
         drivers = (str != null) ? List.of(str.split(",")) : List.of();
+
+        driverCacheTtlMillis = getLongOption(props, "log4jdbc.driver.cache.ttl", 60000L);
+
+        hotSwitch = getBooleanOption(props, "log4jdbc.hotswitch", false);
+        hotSwitchRefreshIntervalMillis = getLongOption(props, "log4jdbc.hotswitch.refresh.interval", 5000L);
+
+        asyncEnabled = getBooleanOption(props, "log4jdbc.async.enabled", false);
+        asyncBufferSize = (int)Math.max(2L, Math.min(1L << 24, getLongOption(props, "log4jdbc.async.buffer.size", 8192L)));
+        asyncSampleRate = (int)Math.max(1L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.async.sample.rate", 10L)));
+
+        fingerprintCacheSize = (int)Math.max(0L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.fingerprint.cache.size", 1024L)));
+
+        statsEnabled = getBooleanOption(props, "log4jdbc.stats.enabled", false);
+        statsMaxStatements = (int)Math.max(1L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.stats.max.statements", 1000L)));
+        statsHistogramsEnabled = getBooleanOption(props, "log4jdbc.stats.histograms.enabled", false);
+
+        sampleRate = (int)Math.max(1L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.sample.rate", 1L)));
+        samplePerSecond = (int)Math.max(0L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.sample.per.second", 0L)));
+        sampleThresholdNanoSec = Math.max(-1L, getLongOption(props, "log4jdbc.sample.threshold", -1L));
+        sampleMaxStatements = (int)Math.max(1L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.sample.max.statements", 1000L)));
+
+        leakDetectionEnabled = getBooleanOption(props, "log4jdbc.leak.detection", false);
+        leakThresholdMillis = getLongOption(props, "log4jdbc.leak.threshold", 300000L);
+        leakScanIntervalMillis = getLongOption(props, "log4jdbc.leak.scan.interval", 10000L);
+        leakCaptureSite = getBooleanOption(props, "log4jdbc.leak.capture.site", true);
+
+        transactionTrackingEnabled = getBooleanOption(props, "log4jdbc.transaction.tracking", false);
+        transactionWarnThresholdMillis = getLongOption(props, "log4jdbc.transaction.warn.threshold", 10000L);
+
+        resultSetProfilingEnabled = getBooleanOption(props, "log4jdbc.resultset.profiling", false);
+        resultSetAggregateEnabled = getBooleanOption(props, "log4jdbc.resultset.aggregate", false);
+        resultSetAggregateRows = (int)Math.max(1L, Math.min(Integer.MAX_VALUE, getLongOption(props, "log4jdbc.resultset.aggregate.rows", 1L)));
+        resultSetAggregateMaxRows = Math.max(0L, getLongOption(props, "log4jdbc.resultset.aggregate.max.rows", 1000L));
+
+        batchCaptureRows = (int)Math.max(0L, Math.min(1L << 20, getLongOption(props, "log4jdbc.batch.capture.rows", 50L)));
+
+        binaryFile = getStringOption(props, "log4jdbc.binary.file");
+        binaryBufferSize = (int)Math.max(4096L, Math.min(1L << 30, getLongOption(props, "log4jdbc.binary.buffer.size", 1L << 20)));
+        binaryRolloverSize = Math.max(1L << 20, getLongOption(props, "log4jdbc.binary.rollover.size", 256L << 20));
+        binaryRawSqlThresholdNanoSec = Math.max(-1L, getLongOption(props, "log4jdbc.binary.raw.sql.threshold", 100000000L));
+
+        str = getStringOption(props, "log4jdbc.async.overflow.policy");
+        asyncOverflowPolicy = AsyncSpyLogDelegator.OverflowPolicy.DROP;
+        if(str != null) {
+            try {
+                asyncOverflowPolicy = AsyncSpyLogDelegator.OverflowPolicy.valueOf(str.trim().toUpperCase());
+            }
+            catch(IllegalArgumentException ex) {
+                log.debug("x log4jdbc.async.overflow.policy \"" + str + "\" is not one of DROP, BLOCK or SAMPLE (using default of DROP)");
+            }
+        }
         
     }
 
@@ -182,6 +410,10 @@ public class LoggingDriverConfig {
         return traceFromApplication;
     }
 
+    public int getDebugStackCacheSize() {
+        return debugStackCacheSize;
+    }
+
     public boolean isSqlTimingWarnThresholdEnabled() {
         return sqlTimingWarnThresholdEnabled;
     }
@@ -246,6 +478,145 @@ public class LoggingDriverConfig {
         return drivers;
     }
 
+    public long getDriverCacheTtlMillis() {
+        return driverCacheTtlMillis;
+    }
+
+    public boolean isHotSwitch() {
+        return hotSwitch;
+    }
+
+    public long getHotSwitchRefreshIntervalMillis() {
+        return hotSwitchRefreshIntervalMillis;
+    }
+
+    /**
+     * Determine if connections have to be wrapped even while none of the loggers is enabled, because logging can be
+     * switched on later or something other than the loggers collects what happens on them.
+     *
+     * @return true if hot switching, statistics, leak detection, transaction tracking or ResultSet profiling is on.
+     */
+    public boolean isWrappingRequired() {
+        return hotSwitch || statsEnabled || leakDetectionEnabled || transactionTrackingEnabled || resultSetProfilingEnabled;
+    }
+
+    public int getFingerprintCacheSize() {
+        return fingerprintCacheSize;
+    }
+
+    public boolean isStatsEnabled() {
+        return statsEnabled;
+    }
+
+    public int getStatsMaxStatements() {
+        return statsMaxStatements;
+    }
+
+    public boolean isStatsHistogramsEnabled() {
+        return statsEnabled && statsHistogramsEnabled;
+    }
+
+    /**
+     * Determine if only a sample of statement executions should be logged.
+     *
+     * @return true if a sample rate or a per second limit is set.
+     */
+    public boolean isSamplingEnabled() {
+        return (sampleRate > 1) || (samplePerSecond > 0);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplePerSecond() {
+        return samplePerSecond;
+    }
+
+    public long getSampleThresholdNanoSec() {
+        return sampleThresholdNanoSec;
+    }
+
+    public int getSampleMaxStatements() {
+        return sampleMaxStatements;
+    }
+
+    public boolean isLeakDetectionEnabled() {
+        return leakDetectionEnabled;
+    }
+
+    public long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    public long getLeakScanIntervalMillis() {
+        return leakScanIntervalMillis;
+    }
+
+    public boolean isLeakCaptureSite() {
+        return leakCaptureSite;
+    }
+
+    public boolean isTransactionTrackingEnabled() {
+        return transactionTrackingEnabled;
+    }
+
+    public long getTransactionWarnThresholdMillis() {
+        return transactionWarnThresholdMillis;
+    }
+
+    public boolean isResultSetProfilingEnabled() {
+        return resultSetProfilingEnabled;
+    }
+
+    public boolean isResultSetAggregateEnabled() {
+        return resultSetAggregateEnabled;
+    }
+
+    public int getResultSetAggregateRows() {
+        return resultSetAggregateRows;
+    }
+
+    public long getResultSetAggregateMaxRows() {
+        return resultSetAggregateMaxRows;
+    }
+
+    public int getBatchCaptureRows() {
+        return batchCaptureRows;
+    }
+
+    public String getBinaryFile() {
+        return binaryFile;
+    }
+
+    public int getBinaryBufferSize() {
+        return binaryBufferSize;
+    }
+
+    public long getBinaryRolloverSize() {
+        return binaryRolloverSize;
+    }
+
+    public long getBinaryRawSqlThresholdNanoSec() {
+        return binaryRawSqlThresholdNanoSec;
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    public int getAsyncBufferSize() {
+        return asyncBufferSize;
+    }
+
+    public AsyncSpyLogDelegator.OverflowPolicy getAsyncOverflowPolicy() {
+        return asyncOverflowPolicy;
+    }
+
+    public int getAsyncSampleRate() {
+        return asyncSampleRate;
+    }
+
     /**
      * Get a Long option from a property and log a debug message about this.
      *
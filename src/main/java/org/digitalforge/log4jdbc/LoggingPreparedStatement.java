@@ -5,11 +5,11 @@ import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.List;
 
-import org.digitalforge.log4jdbc.util.Utilities;
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.digitalforge.log4jdbc.sql.SqlPlaceholderIndex;
+import org.digitalforge.log4jdbc.util.StringBuilderPool;
 
 /**
  * Wraps a PreparedStatement and reports method calls, returns and exceptions.
@@ -21,9 +21,9 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
     private static final SpyLogDelegator log = SpyLogFactory.getSpyLogDelegator();
 
     /**
-     * holds list of bind variables for tracing
+     * holds the bind variables for tracing, formatted only when the SQL is dumped
      */
-    protected final List<String> argTrace = new ArrayList<>();
+    private final BindValues bindValues = new BindValues();
 
     // a way to turn on and off type help...
     // todo:  make this a configurable parameter
@@ -31,92 +31,182 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
     private static final boolean showTypeHelp = false;
 
     /**
-     * Store an argument (bind variable) into the argTrace list (above) for later dumping.
+     * Store an argument (bind variable) for later dumping.  Arguments are stored raw even while logging is switched
+     * off, which only costs a field write, so that the SQL dumped right after logging is switched on back shows the
+     * arguments that were really bound.
      *
      * @param i          index of argument being set.
      * @param typeHelper optional additional info about the type that is being set in the arg
      * @param arg        argument being bound.
      */
     protected void argTraceSet(int i, String typeHelper, Object arg) {
-        String tracedArg;
+        bindValues.setObject(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, int arg) {
+        bindValues.setInt(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, long arg) {
+        bindValues.setLong(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, short arg) {
+        bindValues.setShort(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, byte arg) {
+        bindValues.setByte(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, boolean arg) {
+        bindValues.setBoolean(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, float arg) {
+        bindValues.setFloat(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    protected void argTraceSet(int i, String typeHelper, double arg) {
+        bindValues.setDouble(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    /**
+     * Store a byte array argument, which is dumped in hex if it is short, or by its length otherwise.
+     *
+     * @param i          index of argument being set.
+     * @param typeHelper optional additional info about the type that is being set in the arg
+     * @param arg        argument being bound.
+     */
+    protected void argTraceSet(int i, String typeHelper, byte[] arg) {
+        bindValues.setBytes(i, arg);
+        typeHelpSet(i, typeHelper);
+    }
+
+    private void typeHelpSet(int i, String typeHelper) {
+        if(showTypeHelp) {
+            bindValues.setTypeHelper(i, typeHelper);
+        }
+    }
+
+    /**
+     * Format a stored argument for dumping.
+     *
+     * @param i index of the argument.
+     * @return the formatted argument, or null if it has not been set.
+     */
+    private String argTraceGet(int i) {
         try {
-            tracedArg = parameterFormatter.formatParameterObject(arg);
+            return bindValues.format(i, parameterFormatter);
         }
         catch(Throwable t) {
             // rdbmsSpecifics should NEVER EVER throw an exception!!
             // but just in case it does, we trap it.
-            log.debug("rdbmsSpecifics threw an exception while trying to format a " + "parameter object [" + arg + "] this is very bad!!! (" + t.getMessage() + ")");
+            log.debug("rdbmsSpecifics threw an exception while trying to format a " + "parameter object [" + bindValues.toString(i) + "] this is very bad!!! (" + t.getMessage() + ")");
 
             // backup - so that at least we won't harm the application using us
-            tracedArg = (arg == null) ? "null" : arg.toString();
+            return bindValues.toString(i);
         }
+    }
 
-        i--;  // make the index 0 based
-        synchronized(argTrace) {
-            // if an object is being inserted out of sequence, fill up missing values with null...
-            while(i >= argTrace.size()) {
-                argTrace.add(argTrace.size(), null);
-            }
-            if(!showTypeHelp || typeHelper == null) {
-                argTrace.set(i, tracedArg);
-            }
-            else {
-                argTrace.set(i, typeHelper + tracedArg);
+    /**
+     * Format a stored argument onto the end of the sql being dumped.
+     *
+     * @param out the sql being dumped.
+     * @param i   index of the argument.
+     */
+    private void argTraceAppend(StringBuilder out, int i) {
+        int mark = out.length();
+        try {
+            if(!bindValues.appendTo(out, i, parameterFormatter)) {
+                out.append('?');
             }
         }
+        catch(Throwable t) {
+            // drop whatever the formatter appended before it failed, and fall back like argTraceGet
+            out.setLength(mark);
+            log.debug("rdbmsSpecifics threw an exception while trying to format a " + "parameter object [" + bindValues.toString(i) + "] this is very bad!!! (" + t.getMessage() + ")");
+            String arg = bindValues.toString(i);
+            out.append((arg != null) ? arg : "?");
+        }
     }
 
     private String sql;
 
+    /**
+     * Where the bind variables go in the sql, found once when the statement is prepared.
+     */
+    private final SqlPlaceholderIndex placeholders;
+
+    /**
+     * Fingerprint of sql, computed the first time it is needed.
+     */
+    private SqlFingerprint fingerprint;
+
     public String getCurrentSql() {
         return sql;
     }
 
+    /**
+     * Get the fingerprint of the SQL this PreparedStatement was prepared with.  It is only computed once per
+     * PreparedStatement, and shared between PreparedStatements prepared with the same SQL while it is cached.
+     *
+     * @return the fingerprint of the prepared SQL.
+     */
+    public SqlFingerprint getFingerprint() {
+        SqlFingerprint f = fingerprint;
+        if(f == null) {
+            f = fingerprinter.fingerprintCached(sql, parameterFormatter.isBackslashEscaping());
+            fingerprint = f;
+        }
+        return f;
+    }
+
+    /**
+     * Every execution of a PreparedStatement runs the SQL it was prepared with, whatever bind variables are filled in.
+     */
+    @Override
+    protected SqlFingerprint fingerprint(String dumpedSql) {
+        return getFingerprint();
+    }
+
+    @Override
+    protected SqlFingerprint batchFingerprint() {
+        return getFingerprint();
+    }
+
+    @Override
+    protected String unsampledSql() {
+        return dumpedSql();
+    }
+
     protected String dumpedSql() {
-        if(LoggingDriver.config.isReportOriginalSql()) {
+        if(!LoggingSwitch.isEnabled() || LoggingDriver.config.isReportOriginalSql()) {
             return sql;
         }
 
-        StringBuffer dumpSql = new StringBuffer();
+        StringBuilder dumpSql = StringBuilderPool.acquire();
         int lastPos = 0;
-        int qPos = sql.indexOf('?', lastPos);  // find position of first question mark
-        int argIdx = 0;
-        String arg;
-
-        while(qPos != -1) {
-            // get stored argument
-            synchronized(argTrace) {
-                try {
-                    arg = argTrace.get(argIdx);
-                }
-                catch(IndexOutOfBoundsException e) {
-                    arg = "?";
-                }
-            }
-            if(arg == null) {
-                arg = "?";
-            }
-
-            argIdx++;
 
-            dumpSql.append(sql.substring(lastPos, qPos));  // dump segment of sql up to question mark.
+        for(int i = 0, n = placeholders.size(); i < n; i++) {
+            int qPos = placeholders.offset(i);
+            dumpSql.append(sql, lastPos, qPos);  // dump segment of sql up to question mark.
+            argTraceAppend(dumpSql, i + 1);  // stored argument, which is only formatted now, straight into the sql
             lastPos = qPos + 1;
-            qPos = sql.indexOf('?', lastPos);
-            dumpSql.append(arg);
-        }
-        if(lastPos < sql.length()) {
-            dumpSql.append(sql.substring(lastPos, sql.length()));  // dump last segment
         }
+        dumpSql.append(sql, lastPos, sql.length());  // dump last segment
 
-        return dumpSql.toString();
+        return StringBuilderPool.release(dumpSql);
     }
 
-    protected void reportAllReturns(String methodCall, String msg) {
-        log.methodReturned(this, methodCall, msg);
-    }
-
-
-
     /**
      * Create a PreparedStatementSpy (JDBC 4 version) for logging activity of another PreparedStatement.
      *
@@ -130,6 +220,8 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
         this.sql = sql;
         this.parameterFormatter = connection.getParameterFormatter();
+        this.placeholders = new SqlPlaceholderIndex(sql, parameterFormatter.isBackslashEscaping());
+        this.currentBatch = new BatchCapture(LoggingDriver.config.getBatchCaptureRows(), placeholders);
 
     }
 
@@ -142,7 +234,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setTime(int parameterIndex, Time x) throws SQLException {
-        String methodCall = "setTime(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setTime").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<Time>*/", x);
         try {
             delegate.setTime(parameterIndex, x);
@@ -156,7 +248,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
-        String methodCall = "setTime(" + parameterIndex + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setTime").arg(parameterIndex).arg(x).arg(cal);
         argTraceSet(parameterIndex, "/*<Time>*/", x);
         try {
             delegate.setTime(parameterIndex, x, cal);
@@ -170,7 +262,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterIndex).arg(reader).arg(length);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader of length " + length + ">");
         try {
             delegate.setCharacterStream(parameterIndex, reader, length);
@@ -184,7 +276,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
-        String methodCall = "setNull(" + parameterIndex + ", " + sqlType + ")";
+        MethodCall methodCall = call("setNull").arg(parameterIndex).arg(sqlType);
         argTraceSet(parameterIndex, null, null);
         try {
             delegate.setNull(parameterIndex, sqlType);
@@ -198,7 +290,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNull(int paramIndex, int sqlType, String typeName) throws SQLException {
-        String methodCall = "setNull(" + paramIndex + ", " + sqlType + ", " + typeName + ")";
+        MethodCall methodCall = call("setNull").arg(paramIndex).arg(sqlType).arg(typeName);
         argTraceSet(paramIndex, null, null);
         try {
             delegate.setNull(paramIndex, sqlType, typeName);
@@ -212,7 +304,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setRef(int i, Ref x) throws SQLException {
-        String methodCall = "setRef(" + i + ", " + x + ")";
+        MethodCall methodCall = call("setRef").arg(i).arg(x);
         argTraceSet(i, "/*<Ref>*/", x);
         try {
             delegate.setRef(i, x);
@@ -226,7 +318,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-        String methodCall = "setBoolean(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setBoolean").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<boolean>*/", x);
         try {
             delegate.setBoolean(parameterIndex, x);
@@ -240,8 +332,9 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBlob(int i, Blob x) throws SQLException {
-        String methodCall = "setBlob(" + i + ", " + x + ")";
-        argTraceSet(i, "/*<Blob>*/", x == null ? null : ("<Blob of size " + x.length() + ">"));
+        MethodCall methodCall = call("setBlob").arg(i).arg(x);
+        // asking for the size may go to the database, so it is only done while logging
+        argTraceSet(i, "/*<Blob>*/", (x == null) ? null : LoggingSwitch.isEnabled() ? ("<Blob of size " + x.length() + ">") : "<Blob>");
         try {
             delegate.setBlob(i, x);
         }
@@ -254,8 +347,9 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setClob(int i, Clob x) throws SQLException {
-        String methodCall = "setClob(" + i + ", " + x + ")";
-        argTraceSet(i, "/*<Clob>*/", x == null ? null : ("<Clob of size " + x.length() + ">"));
+        MethodCall methodCall = call("setClob").arg(i).arg(x);
+        // asking for the size may go to the database, so it is only done while logging
+        argTraceSet(i, "/*<Clob>*/", (x == null) ? null : LoggingSwitch.isEnabled() ? ("<Clob of size " + x.length() + ">") : "<Clob>");
         try {
             delegate.setClob(i, x);
         }
@@ -268,7 +362,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setArray(int i, Array x) throws SQLException {
-        String methodCall = "setArray(" + i + ", " + x + ")";
+        MethodCall methodCall = call("setArray").arg(i).arg(x);
         argTraceSet(i, "/*<Array>*/", "<Array>");
         try {
             delegate.setArray(i, x);
@@ -282,7 +376,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
-        String methodCall = "setByte(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setByte").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<byte>*/", x);
         try {
             delegate.setByte(parameterIndex, x);
@@ -300,7 +394,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
     @Override
     @Deprecated
     public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        String methodCall = "setUnicodeStream(" + parameterIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setUnicodeStream").arg(parameterIndex).arg(x).arg(length);
         argTraceSet(parameterIndex, "/*<Unicode InputStream>*/", "<Unicode InputStream of length " + length + ">");
         try {
             delegate.setUnicodeStream(parameterIndex, x, length);
@@ -314,7 +408,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
-        String methodCall = "setShort(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setShort").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<short>*/", x);
         try {
             delegate.setShort(parameterIndex, x);
@@ -328,8 +422,8 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public boolean execute() throws SQLException {
-        String methodCall = "execute()";
-        String dumpedSql = dumpedSql();
+        MethodCall methodCall = call("execute");
+        String dumpedSql = sample(sql) ? dumpedSql() : null;
         reportSql(dumpedSql, methodCall);
         long tstartNano = System.nanoTime();
         try {
@@ -345,7 +439,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
-        String methodCall = "setInt(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setInt").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<int>*/", x);
         try {
             delegate.setInt(parameterIndex, x);
@@ -359,7 +453,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
-        String methodCall = "setLong(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setLong").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<long>*/", x);
         try {
             delegate.setLong(parameterIndex, x);
@@ -373,7 +467,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setFloat(int parameterIndex, float x) throws SQLException {
-        String methodCall = "setFloat(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setFloat").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<float>*/", x);
         try {
             delegate.setFloat(parameterIndex, x);
@@ -387,8 +481,8 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
-        String methodCall = "setDouble(" + parameterIndex + ", " + x + ")";
-        argTraceSet(parameterIndex, "/*<double>*/", new Double(x));
+        MethodCall methodCall = call("setDouble").arg(parameterIndex).arg(x);
+        argTraceSet(parameterIndex, "/*<double>*/", x);
         try {
             delegate.setDouble(parameterIndex, x);
         }
@@ -401,7 +495,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
-        String methodCall = "setBigDecimal(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setBigDecimal").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<BigDecimal>*/", x);
         try {
             delegate.setBigDecimal(parameterIndex, x);
@@ -415,7 +509,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setURL(int parameterIndex, URL x) throws SQLException {
-        String methodCall = "setURL(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setURL").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<URL>*/", x);
 
         try {
@@ -430,7 +524,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
-        String methodCall = "setString(" + parameterIndex + ", \"" + x + "\")";
+        MethodCall methodCall = call("setString").arg(parameterIndex).quotedArg(x);
         argTraceSet(parameterIndex, "/*<String>*/", x);
 
         try {
@@ -445,9 +539,8 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
-        String methodCall = "setBytes(" + parameterIndex + ", " + x + ")";
-        String argVal = (x.length <= 32) ? ("0x" + Utilities.hex(x)) : ("<byte[" + x.length + "]>");
-        argTraceSet(parameterIndex, "/*<byte[]>*/", argVal);
+        MethodCall methodCall = call("setBytes").arg(parameterIndex).arg(x);
+        argTraceSet(parameterIndex, "/*<byte[]>*/", x);
         try {
             delegate.setBytes(parameterIndex, x);
         }
@@ -460,7 +553,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setDate(int parameterIndex, Date x) throws SQLException {
-        String methodCall = "setDate(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setDate").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<Date>*/", x);
         try {
             delegate.setDate(parameterIndex, x);
@@ -474,7 +567,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
-        String methodCall = "getParameterMetaData()";
+        MethodCall methodCall = call("getParameterMetaData");
         try {
             return reportReturn(methodCall, delegate.getParameterMetaData());
         }
@@ -486,7 +579,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setRowId(int parameterIndex, RowId x) throws SQLException {
-        String methodCall = "setRowId(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setRowId").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<RowId>*/", x);
         try {
             delegate.setRowId(parameterIndex, x);
@@ -500,7 +593,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNString(int parameterIndex, String value) throws SQLException {
-        String methodCall = "setNString(" + parameterIndex + ", " + value + ")";
+        MethodCall methodCall = call("setNString").arg(parameterIndex).arg(value);
         argTraceSet(parameterIndex, "/*<String>*/", value);
         try {
             delegate.setNString(parameterIndex, value);
@@ -514,7 +607,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
-        String methodCall = "setNCharacterStream(" + parameterIndex + ", " + value + ", " + length + ")";
+        MethodCall methodCall = call("setNCharacterStream").arg(parameterIndex).arg(value).arg(length);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader of length " + length + ">");
         try {
             delegate.setNCharacterStream(parameterIndex, value, length);
@@ -528,7 +621,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNClob(int parameterIndex, NClob value) throws SQLException {
-        String methodCall = "setNClob(" + parameterIndex + ", " + value + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterIndex).arg(value);
         argTraceSet(parameterIndex, "/*<NClob>*/", "<NClob>");
         try {
             delegate.setNClob(parameterIndex, value);
@@ -542,7 +635,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
-        String methodCall = "setClob(" + parameterIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setClob").arg(parameterIndex).arg(reader).arg(length);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader of length " + length + ">");
         try {
             delegate.setClob(parameterIndex, reader, length);
@@ -556,7 +649,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
-        String methodCall = "setBlob(" + parameterIndex + ", " + inputStream + ", " + length + ")";
+        MethodCall methodCall = call("setBlob").arg(parameterIndex).arg(inputStream).arg(length);
         argTraceSet(parameterIndex, "/*<InputStream>*/", "<InputStream of length " + length + ">");
         try {
             delegate.setBlob(parameterIndex, inputStream, length);
@@ -570,7 +663,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
-        String methodCall = "setNClob(" + parameterIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterIndex).arg(reader).arg(length);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader of length " + length + ">");
         try {
             delegate.setNClob(parameterIndex, reader, length);
@@ -584,7 +677,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
-        String methodCall = "setSQLXML(" + parameterIndex + ", " + xmlObject + ")";
+        MethodCall methodCall = call("setSQLXML").arg(parameterIndex).arg(xmlObject);
         argTraceSet(parameterIndex, "/*<SQLXML>*/", xmlObject);
         try {
             delegate.setSQLXML(parameterIndex, xmlObject);
@@ -598,7 +691,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
-        String methodCall = "setDate(" + parameterIndex + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setDate").arg(parameterIndex).arg(x).arg(cal);
         argTraceSet(parameterIndex, "/*<Date>*/", x);
 
         try {
@@ -613,16 +706,15 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        String methodCall = "executeQuery()";
-        String dumpedSql = dumpedSql();
+        MethodCall methodCall = call("executeQuery");
+        String dumpedSql = sample(sql) ? dumpedSql() : null;
         reportSql(dumpedSql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             ResultSet r = delegate.executeQuery();
             reportSqlTiming(System.nanoTime() - tstartNano, dumpedSql, methodCall);
-            LoggingResultSet rsp = new LoggingResultSet(this, r);
-            return reportReturn(methodCall, rsp);
+            return reportReturn(methodCall, wrapResultSet(r));
         }
         catch(SQLException s) {
             reportException(methodCall, s, dumpedSql, System.nanoTime() - tstartNano);
@@ -641,7 +733,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setObject(int parameterIndex, Object x, int targetSqlType, int scale) throws SQLException {
-        String methodCall = "setObject(" + parameterIndex + ", " + x + ", " + targetSqlType + ", " + scale + ")";
+        MethodCall methodCall = call("setObject").arg(parameterIndex).arg(x).arg(targetSqlType).arg(scale);
         argTraceSet(parameterIndex, getTypeHelp(x), x);
 
         try {
@@ -677,7 +769,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
      */
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterIndex).arg(x).arg(length);
         argTraceSet(parameterIndex, "/*<Ascii InputStream>*/", "<Ascii InputStream of length " + length + ">");
         try {
             delegate.setAsciiStream(parameterIndex, x, length);
@@ -691,7 +783,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterIndex).arg(x).arg(length);
         argTraceSet(parameterIndex, "/*<Binary InputStream>*/", "<Binary InputStream of length " + length + ">");
         try {
             delegate.setBinaryStream(parameterIndex, x, length);
@@ -705,7 +797,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterIndex).arg(reader).arg(length);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader of length " + length + ">");
         try {
             delegate.setCharacterStream(parameterIndex, reader, length);
@@ -720,7 +812,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<Ascii InputStream>*/", "<Ascii InputStream>");
         try {
             delegate.setAsciiStream(parameterIndex, x);
@@ -734,7 +826,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<Binary InputStream>*/", "<Binary InputStream>");
         try {
             delegate.setBinaryStream(parameterIndex, x);
@@ -749,7 +841,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
-        String methodCall = "setCharacterStream(" + parameterIndex + ", " + reader + ")";
+        MethodCall methodCall = call("setCharacterStream").arg(parameterIndex).arg(reader);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader>");
         try {
             delegate.setCharacterStream(parameterIndex, reader);
@@ -763,7 +855,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
-        String methodCall = "setNCharacterStream(" + parameterIndex + ", " + reader + ")";
+        MethodCall methodCall = call("setNCharacterStream").arg(parameterIndex).arg(reader);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader>");
         try {
             delegate.setNCharacterStream(parameterIndex, reader);
@@ -777,7 +869,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setClob(int parameterIndex, Reader reader) throws SQLException {
-        String methodCall = "setClob(" + parameterIndex + ", " + reader + ")";
+        MethodCall methodCall = call("setClob").arg(parameterIndex).arg(reader);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader>");
         try {
             delegate.setClob(parameterIndex, reader);
@@ -791,7 +883,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
-        String methodCall = "setBlob(" + parameterIndex + ", " + inputStream + ")";
+        MethodCall methodCall = call("setBlob").arg(parameterIndex).arg(inputStream);
         argTraceSet(parameterIndex, "/*<InputStream>*/", "<InputStream>");
         try {
             delegate.setBlob(parameterIndex, inputStream);
@@ -805,7 +897,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setNClob(int parameterIndex, Reader reader) throws SQLException {
-        String methodCall = "setNClob(" + parameterIndex + ", " + reader + ")";
+        MethodCall methodCall = call("setNClob").arg(parameterIndex).arg(reader);
         argTraceSet(parameterIndex, "/*<Reader>*/", "<Reader>");
         try {
             delegate.setNClob(parameterIndex, reader);
@@ -820,7 +912,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
-        String methodCall = "setObject(" + parameterIndex + ", " + x + ", " + targetSqlType + ")";
+        MethodCall methodCall = call("setObject").arg(parameterIndex).arg(x).arg(targetSqlType);
         argTraceSet(parameterIndex, getTypeHelp(x), x);
         try {
             delegate.setObject(parameterIndex, x, targetSqlType);
@@ -834,7 +926,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setObject(int parameterIndex, Object x) throws SQLException {
-        String methodCall = "setObject(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setObject").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, getTypeHelp(x), x);
         try {
             delegate.setObject(parameterIndex, x);
@@ -848,7 +940,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
-        String methodCall = "setTimestamp(" + parameterIndex + ", " + x + ")";
+        MethodCall methodCall = call("setTimestamp").arg(parameterIndex).arg(x);
         argTraceSet(parameterIndex, "/*<Date>*/", x);
         try {
             delegate.setTimestamp(parameterIndex, x);
@@ -862,7 +954,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
-        String methodCall = "setTimestamp(" + parameterIndex + ", " + x + ", " + cal + ")";
+        MethodCall methodCall = call("setTimestamp").arg(parameterIndex).arg(x).arg(cal);
         argTraceSet(parameterIndex, "/*<Timestamp>*/", x);
         try {
             delegate.setTimestamp(parameterIndex, x, cal);
@@ -876,14 +968,14 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public int executeUpdate() throws SQLException {
-        String methodCall = "executeUpdate()";
-        String dumpedSql = dumpedSql();
+        MethodCall methodCall = call("executeUpdate");
+        String dumpedSql = sample(sql) ? dumpedSql() : null;
         reportSql(dumpedSql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             int result = delegate.executeUpdate();
-            reportSqlTiming(System.nanoTime() - tstartNano, dumpedSql, methodCall);
+            reportSqlTiming(System.nanoTime() - tstartNano, dumpedSql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -894,7 +986,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        String methodCall = "setAsciiStream(" + parameterIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setAsciiStream").arg(parameterIndex).arg(x).arg(length);
         argTraceSet(parameterIndex, "/*<Ascii InputStream>*/", "<Ascii InputStream of length " + length + ">");
         try {
             delegate.setAsciiStream(parameterIndex, x, length);
@@ -908,7 +1000,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        String methodCall = "setBinaryStream(" + parameterIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("setBinaryStream").arg(parameterIndex).arg(x).arg(length);
         argTraceSet(parameterIndex, "/*<Binary InputStream>*/", "<Binary InputStream of length " + length + ">");
         try {
             delegate.setBinaryStream(parameterIndex, x, length);
@@ -922,11 +1014,9 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void clearParameters() throws SQLException {
-        String methodCall = "clearParameters()";
+        MethodCall methodCall = call("clearParameters");
 
-        synchronized(argTrace) {
-            argTrace.clear();
-        }
+        bindValues.clear();
 
         try {
             delegate.clearParameters();
@@ -940,7 +1030,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public ResultSetMetaData getMetaData() throws SQLException {
-        String methodCall = "getMetaData()";
+        MethodCall methodCall = call("getMetaData");
         try {
             return reportReturn(methodCall, delegate.getMetaData());
         }
@@ -952,8 +1042,16 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void addBatch() throws SQLException {
-        String methodCall = "addBatch()";
-        currentBatch.add(dumpedSql());
+        MethodCall methodCall = call("addBatch");
+        if(LoggingSwitch.isEnabled()) {
+            // only the bind values are kept, and only for the statements the batch report shows
+            int row = currentBatch.add();
+            if((row >= 0) && !LoggingDriver.config.isReportOriginalSql()) {
+                for(int i = 0, n = currentBatch.width(); i < n; i++) {
+                    currentBatch.set(row, i, argTraceGet(i + 1));
+                }
+            }
+        }
         try {
             delegate.addBatch();
         }
@@ -966,7 +1064,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        String methodCall = "unwrap(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("unwrap").arg(iface);
         try {
             //todo: double check this logic
             //NOTE: could call super.isWrapperFor to simplify this logic, but it would result in extra log output
@@ -982,7 +1080,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        String methodCall = "isWrapperFor(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("isWrapperFor").arg(iface);
         try {
             //NOTE: could call super.isWrapperFor to simplify this logic, but it would result in extra log output
             //when the super classes would be invoked..
@@ -997,7 +1095,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        String methodCall = "setObject(" + parameterIndex + ", " + x + ", " + targetSqlType + ", " + scaleOrLength + ")";
+        MethodCall methodCall = call("setObject").arg(parameterIndex).arg(x).arg(targetSqlType).arg(scaleOrLength);
         argTraceSet(parameterIndex, targetSqlType.getName(), x);
 
         try {
@@ -1012,7 +1110,7 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
-        String methodCall = "setObject(" + parameterIndex + ", " + x + ", " + targetSqlType + ")";
+        MethodCall methodCall = call("setObject").arg(parameterIndex).arg(x).arg(targetSqlType);
         argTraceSet(parameterIndex, targetSqlType.getName(), x);
 
         try {
@@ -1027,14 +1125,14 @@ public class LoggingPreparedStatement<S extends PreparedStatement> extends Loggi
 
     @Override
     public long executeLargeUpdate() throws SQLException {
-        String methodCall = "executeLargeUpdate()";
-        String dumpedSql = dumpedSql();
+        MethodCall methodCall = call("executeLargeUpdate");
+        String dumpedSql = sample(sql) ? dumpedSql() : null;
         reportSql(dumpedSql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             long result = delegate.executeLargeUpdate();
-            reportSqlTiming(System.nanoTime() - tstartNano, dumpedSql, methodCall);
+            reportSqlTiming(System.nanoTime() - tstartNano, dumpedSql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -8,6 +8,8 @@ import java.sql.*;
 import java.util.Calendar;
 import java.util.Map;
 
+import org.digitalforge.log4jdbc.util.LeakDetector;
+
 /**
  * Wraps a ResultSet and reports method calls, returns and exceptions.
  *
@@ -15,16 +17,70 @@ import java.util.Map;
  */
 public class LoggingResultSet implements ResultSet, JdbcSpy {
 
+    /**
+     * Should every ResultSet count what it fetched and report it when it is closed?
+     */
+    private static final boolean profiling = LoggingDriverConfig.getInstance().isResultSetProfilingEnabled();
+
+    /**
+     * Should the column values read be logged as one event per row, or per <b>log4jdbc.resultset.aggregate.rows</b>
+     * rows, instead of one event per getXxx call?
+     */
+    private static final boolean aggregate = LoggingDriverConfig.getInstance().isResultSetAggregateEnabled();
+    private static final int aggregateRows = LoggingDriverConfig.getInstance().getResultSetAggregateRows();
+    private static final long aggregateMaxRows = LoggingDriverConfig.getInstance().getResultSetAggregateMaxRows();
+
     private final SpyLogDelegator log;
 
+    /**
+     * Reusable description of the method call currently being made on this ResultSet.
+     */
+    private final MethodCall currentCall = new MethodCall();
+
+    /**
+     * Start describing a call to one of the forwarding methods.  The returned MethodCall is reused by every call made
+     * on this ResultSet but those of {@link #concurrentCall(String)}, and is only rendered to text if the call is actually
+     * logged.
+     *
+     * @param method name of the method being called.
+     * @return the reset MethodCall for this ResultSet.
+     */
+    protected MethodCall call(String method) {
+        return currentCall.reset(method);
+    }
+
+    /**
+     * Start describing a call to one of the methods JDBC allows to be made from another thread while this ResultSet is
+     * in use, such as close.  Those get a MethodCall of their own, so that they never disturb the description of the
+     * call they may interrupt.  While logging is switched off the call can't be logged, so it isn't described at all.
+     *
+     * @param method name of the method being called.
+     * @return a new MethodCall, or {@link MethodCall#UNDESCRIBED} while logging is switched off.
+     */
+    protected MethodCall concurrentCall(String method) {
+        return LoggingSwitch.isEnabled() ? new MethodCall().reset(method) : MethodCall.UNDESCRIBED;
+    }
+
+    /**
+     * Start describing an event that is not a method call, such as the construction of this ResultSet.
+     *
+     * @param description text to report for the event.
+     * @return the reset MethodCall for this ResultSet.
+     */
+    protected MethodCall describe(String description) {
+        return currentCall.describe(description);
+    }
+
     /**
      * Report an exception to be logged.
      *
      * @param methodCall description of method call and arguments passed to it that generated the exception.
      * @param exception exception that was generated
      */
-    protected void reportException(String methodCall, SQLException exception) {
-        log.exceptionOccured(this, methodCall, exception, null, -1L);
+    protected void reportException(MethodCall methodCall, SQLException exception) {
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, null, -1L);
+        }
     }
 
     /**
@@ -32,10 +88,151 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * this method.
      *
      * @param methodCall description of method call and arguments passed to it that returned.
-     * @param msg description of what the return value that was returned.  may be an empty String for void return types.
      */
-    protected void reportAllReturns(String methodCall, String msg) {
-        log.methodReturned(this, methodCall, msg);
+    protected void reportAllReturns(MethodCall methodCall) {
+        if(LoggingSwitch.isEnabled() && !(aggregate && aggregate(methodCall))) {
+            log.methodReturned(this, methodCall);
+        }
+    }
+
+    /**
+     * Add a column value read to the current row, when aggregating.  Moving to another row other than with next()
+     * ends the rows being aggregated, and the values read after that are logged one by one until next() is called.
+     *
+     * @param methodCall the method call that returned.
+     * @return true if the call was aggregated, or is not logged at all.
+     */
+    private boolean aggregate(MethodCall methodCall) {
+
+        String name = methodCall.getName();
+
+        if("next".equals(name)) {
+            // rows are reported instead
+            return true;
+        }
+
+        if((name.startsWith("get") && (methodCall.getArgCount() > 0)) || "wasNull".equals(name)) {
+            if(!inRow) {
+                return false;
+            }
+            if(rowLogged) {
+                if(rowValues++ > 0) {
+                    rowBuffer.append(", ");
+                }
+                methodCall.appendTo(rowBuffer).append('=');
+                methodCall.appendReturnMessage(rowBuffer);
+            }
+            return true;
+        }
+
+        switch(name) {
+            case "previous":
+            case "absolute":
+            case "relative":
+            case "first":
+            case "last":
+            case "beforeFirst":
+            case "afterLast":
+            case "moveToInsertRow":
+            case "moveToCurrentRow":
+                endRows();
+                break;
+            default:
+                break;
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Start aggregating the next row, after next() was called.
+     *
+     * @param hasRow true if next() found a row.
+     */
+    private void advanceRow(boolean hasRow) {
+
+        if(!hasRow) {
+            endRows();
+            return;
+        }
+
+        finishRow();
+
+        rowNumber++;
+        inRow = true;
+
+        // only count the rows when nothing would log them, so their values are never turned into text for nothing
+        boolean logged = LoggingSwitch.isEnabled() && log.isResultSetLogged();
+        rowLogged = logged && ((aggregateMaxRows == 0L) || (rowNumber <= aggregateMaxRows));
+
+        if(!rowLogged) {
+            if(logged) {
+                skippedRows++;
+            }
+            return;
+        }
+
+        if(rowBuffer == null) {
+            rowBuffer = new StringBuilder(256);
+        }
+        if(bufferedRows == 0) {
+            firstBufferedRow = rowNumber;
+        }
+        else {
+            rowBuffer.append(' ');
+        }
+        rowBuffer.append('{');
+        rowValues = 0;
+
+    }
+
+    private void finishRow() {
+
+        if(!inRow) {
+            return;
+        }
+
+        inRow = false;
+
+        if(rowLogged) {
+            rowBuffer.append('}');
+            if(++bufferedRows >= aggregateRows) {
+                flushRows();
+            }
+        }
+
+    }
+
+    private void endRows() {
+        finishRow();
+        flushRows();
+    }
+
+    /**
+     * Log the rows aggregated so far as one event.
+     */
+    private void flushRows() {
+
+        if(bufferedRows == 0) {
+            return;
+        }
+
+        if(rowCall == null) {
+            rowCall = new MethodCall();
+        }
+
+        long lastBufferedRow = firstBufferedRow + bufferedRows - 1;
+        rowCall.describe((bufferedRows == 1) ? "row " + firstBufferedRow : "rows " + firstBufferedRow + "-" + lastBufferedRow);
+        rowCall.returning(rowBuffer.toString());
+
+        rowBuffer.setLength(0);
+        bufferedRows = 0;
+
+        if(LoggingSwitch.isEnabled()) {
+            log.methodReturned(this, rowCall);
+        }
+
     }
 
     private ResultSet delegate;
@@ -51,6 +248,40 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     private LoggingStatement parent;
 
+    /**
+     * The leak detector's record of this ResultSet, or null if leaks are not being detected.
+     */
+    private final LeakDetector.Resource leakResource;
+
+    /**
+     * The SQL this ResultSet came from and how long it took to run, if profiling.
+     */
+    private final String profileSql;
+    private final long profileExecTimeNanoSec;
+
+    /**
+     * What this ResultSet fetched, if profiling.  A ResultSet is not expected to be used by several threads at once,
+     * so these are plain counters.
+     */
+    private final long openedNanos;
+    private long rows;
+    private long fetchNanos;
+    private long bytes;
+    private boolean profileReported;
+
+    /**
+     * The rows being aggregated, if aggregating.  The rows are numbered by the calls to next() that found one.
+     */
+    private StringBuilder rowBuffer;
+    private MethodCall rowCall;
+    private long rowNumber;
+    private long firstBufferedRow;
+    private int bufferedRows;
+    private int rowValues;
+    private long skippedRows;
+    private boolean inRow;
+    private boolean rowLogged;
+
     /**
      * Create a new ResultSetSpy that wraps another ResultSet object, that logs all method calls, expceptions, etc.
      *
@@ -64,13 +295,70 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
         this.delegate = delegate;
         this.parent = parent;
         log = SpyLogFactory.getSpyLogDelegator();
-        reportReturn("new ResultSet");
+        LeakDetector leakDetector = LoggingConnection.getLeakDetector();
+        this.leakResource = (leakDetector != null)
+            ? leakDetector.open(LeakDetector.Kind.RESULT_SET, this, parent.getConnectionNumber(), parent.getLeakResource())
+            : null;
+        this.profileSql = profiling ? parent.getLastSql() : null;
+        this.profileExecTimeNanoSec = profiling ? parent.getLastExecTimeNanoSec() : -1L;
+        this.openedNanos = profiling ? System.nanoTime() : 0L;
+        reportReturn(describe("new ResultSet"));
     }
 
     public String getClassType() {
         return "ResultSet";
     }
 
+    /**
+     * Log the rows still being aggregated and the number of rows that were not logged, when closing.
+     */
+    private void reportRemainingRows() {
+
+        endRows();
+
+        if(skippedRows > 0L) {
+            if(rowCall == null) {
+                rowCall = new MethodCall();
+            }
+            rowCall.describe("rows not logged").returning(skippedRows);
+            skippedRows = 0L;
+            if(LoggingSwitch.isEnabled()) {
+                log.methodReturned(this, rowCall);
+            }
+        }
+
+    }
+
+    /**
+     * Report what this ResultSet fetched, the first time it is closed.
+     */
+    private void reportProfile() {
+        if(profileReported) {
+            return;
+        }
+        profileReported = true;
+        if(LoggingSwitch.isEnabled()) {
+            log.resultSetClosed(this, new ResultSetProfile(profileSql, profileExecTimeNanoSec, rows, fetchNanos, System.nanoTime() - openedNanos, bytes));
+        }
+    }
+
+    /**
+     * Report this ResultSet as closed when its Statement closes it without close() being called on it, which happens
+     * when the Statement is closed, executed again or moves on to its next result.  It is no longer open as far as
+     * leak detection goes either, even though the Statement it came from may still be.
+     */
+    void closedByStatement() {
+        if(aggregate) {
+            reportRemainingRows();
+        }
+        if(profiling) {
+            reportProfile();
+        }
+        if(leakResource != null) {
+            LoggingConnection.getLeakDetector().close(leakResource);
+        }
+    }
+
     public Integer getConnectionNumber() {
         return parent.getConnectionNumber();
     }
@@ -82,8 +370,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value boolean return value.
      * @return the boolean return value as passed in.
      */
-    protected boolean reportReturn(String methodCall, boolean value) {
-        reportAllReturns(methodCall, "" + value);
+    protected boolean reportReturn(MethodCall methodCall, boolean value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -94,8 +382,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value byte return value.
      * @return the byte return value as passed in.
      */
-    protected byte reportReturn(String methodCall, byte value) {
-        reportAllReturns(methodCall, "" + value);
+    protected byte reportReturn(MethodCall methodCall, byte value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -106,8 +394,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value int return value.
      * @return the int return value as passed in.
      */
-    protected int reportReturn(String methodCall, int value) {
-        reportAllReturns(methodCall, "" + value);
+    protected int reportReturn(MethodCall methodCall, int value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -118,8 +406,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value double return value.
      * @return the double return value as passed in.
      */
-    protected double reportReturn(String methodCall, double value) {
-        reportAllReturns(methodCall, "" + value);
+    protected double reportReturn(MethodCall methodCall, double value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -130,8 +418,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value short return value.
      * @return the short return value as passed in.
      */
-    protected short reportReturn(String methodCall, short value) {
-        reportAllReturns(methodCall, "" + value);
+    protected short reportReturn(MethodCall methodCall, short value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -142,8 +430,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value long return value.
      * @return the long return value as passed in.
      */
-    protected long reportReturn(String methodCall, long value) {
-        reportAllReturns(methodCall, "" + value);
+    protected long reportReturn(MethodCall methodCall, long value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -154,8 +442,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value float return value.
      * @return the float return value as passed in.
      */
-    protected float reportReturn(String methodCall, float value) {
-        reportAllReturns(methodCall, "" + value);
+    protected float reportReturn(MethodCall methodCall, float value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -166,8 +454,8 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      * @param value return Object.
      * @return the return Object as passed in.
      */
-    protected Object reportReturn(String methodCall, Object value) {
-        reportAllReturns(methodCall, "" + value);
+    protected Object reportReturn(MethodCall methodCall, Object value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -176,14 +464,14 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      *
      * @param methodCall description of method call and arguments passed to it that returned.
      */
-    protected void reportReturn(String methodCall) {
-        reportAllReturns(methodCall, "");
+    protected void reportReturn(MethodCall methodCall) {
+        reportAllReturns(methodCall);
     }
 
     // forwarding methods
 
     public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateAsciiStream(columnIndex, x, length);
         }
@@ -195,7 +483,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateAsciiStream(String columnName, InputStream x, int length) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnName).arg(x).arg(length);
         try {
             delegate.updateAsciiStream(columnName, x, length);
         }
@@ -207,7 +495,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getRow() throws SQLException {
-        String methodCall = "getRow()";
+        MethodCall methodCall = call("getRow");
         try {
             return reportReturn(methodCall, delegate.getRow());
         }
@@ -218,7 +506,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void cancelRowUpdates() throws SQLException {
-        String methodCall = "cancelRowUpdates()";
+        MethodCall methodCall = call("cancelRowUpdates");
         try {
             delegate.cancelRowUpdates();
         }
@@ -230,7 +518,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Time getTime(int columnIndex) throws SQLException {
-        String methodCall = "getTime(" + columnIndex + ")";
+        MethodCall methodCall = call("getTime").arg(columnIndex);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(columnIndex));
         }
@@ -241,7 +529,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Time getTime(String columnName) throws SQLException {
-        String methodCall = "getTime(" + columnName + ")";
+        MethodCall methodCall = call("getTime").arg(columnName);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(columnName));
         }
@@ -252,7 +540,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Time getTime(int columnIndex, Calendar cal) throws SQLException {
-        String methodCall = "getTime(" + columnIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getTime").arg(columnIndex).arg(cal);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(columnIndex, cal));
         }
@@ -263,7 +551,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Time getTime(String columnName, Calendar cal) throws SQLException {
-        String methodCall = "getTime(" + columnName + ", " + cal + ")";
+        MethodCall methodCall = call("getTime").arg(columnName).arg(cal);
         try {
             return (Time)reportReturn(methodCall, delegate.getTime(columnName, cal));
         }
@@ -274,7 +562,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean absolute(int row) throws SQLException {
-        String methodCall = "absolute(" + row + ")";
+        MethodCall methodCall = call("absolute").arg(row);
         try {
             return reportReturn(methodCall, delegate.absolute(row));
         }
@@ -285,7 +573,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
-        String methodCall = "getTimestamp(" + columnIndex + ")";
+        MethodCall methodCall = call("getTimestamp").arg(columnIndex);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(columnIndex));
         }
@@ -296,7 +584,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Timestamp getTimestamp(String columnName) throws SQLException {
-        String methodCall = "getTimestamp(" + columnName + ")";
+        MethodCall methodCall = call("getTimestamp").arg(columnName);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(columnName));
         }
@@ -308,7 +596,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
-        String methodCall = "getTimestamp(" + columnIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getTimestamp").arg(columnIndex).arg(cal);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(columnIndex, cal));
         }
@@ -320,7 +608,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Timestamp getTimestamp(String columnName, Calendar cal) throws SQLException {
-        String methodCall = "getTimestamp(" + columnName + ", " + cal + ")";
+        MethodCall methodCall = call("getTimestamp").arg(columnName).arg(cal);
         try {
             return (Timestamp)reportReturn(methodCall, delegate.getTimestamp(columnName, cal));
         }
@@ -331,7 +619,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void moveToInsertRow() throws SQLException {
-        String methodCall = "moveToInsertRow()";
+        MethodCall methodCall = call("moveToInsertRow");
         try {
             delegate.moveToInsertRow();
         }
@@ -343,7 +631,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean relative(int rows) throws SQLException {
-        String methodCall = "relative(" + rows + ")";
+        MethodCall methodCall = call("relative").arg(rows);
         try {
             return reportReturn(methodCall, delegate.relative(rows));
         }
@@ -354,7 +642,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean previous() throws SQLException {
-        String methodCall = "previous()";
+        MethodCall methodCall = call("previous");
         try {
             return reportReturn(methodCall, delegate.previous());
         }
@@ -365,7 +653,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void moveToCurrentRow() throws SQLException {
-        String methodCall = "moveToCurrentRow()";
+        MethodCall methodCall = call("moveToCurrentRow");
         try {
             delegate.moveToCurrentRow();
         }
@@ -377,7 +665,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Ref getRef(int i) throws SQLException {
-        String methodCall = "getRef(" + i + ")";
+        MethodCall methodCall = call("getRef").arg(i);
         try {
             return (Ref)reportReturn(methodCall, delegate.getRef(i));
         }
@@ -388,7 +676,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateRef(int columnIndex, Ref x) throws SQLException {
-        String methodCall = "updateRef(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateRef").arg(columnIndex).arg(x);
         try {
             delegate.updateRef(columnIndex, x);
         }
@@ -400,7 +688,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Ref getRef(String colName) throws SQLException {
-        String methodCall = "getRef(" + colName + ")";
+        MethodCall methodCall = call("getRef").arg(colName);
         try {
             return (Ref)reportReturn(methodCall, delegate.getRef(colName));
         }
@@ -411,7 +699,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateRef(String columnName, Ref x) throws SQLException {
-        String methodCall = "updateRef(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateRef").arg(columnName).arg(x);
         try {
             delegate.updateRef(columnName, x);
         }
@@ -423,7 +711,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Blob getBlob(int i) throws SQLException {
-        String methodCall = "getBlob(" + i + ")";
+        MethodCall methodCall = call("getBlob").arg(i);
         try {
             return (Blob)reportReturn(methodCall, delegate.getBlob(i));
         }
@@ -434,7 +722,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(int columnIndex, Blob x) throws SQLException {
-        String methodCall = "updateBlob(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnIndex).arg(x);
         try {
             delegate.updateBlob(columnIndex, x);
         }
@@ -446,7 +734,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Blob getBlob(String colName) throws SQLException {
-        String methodCall = "getBlob(" + colName + ")";
+        MethodCall methodCall = call("getBlob").arg(colName);
         try {
             return (Blob)reportReturn(methodCall, delegate.getBlob(colName));
         }
@@ -457,7 +745,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(String columnName, Blob x) throws SQLException {
-        String methodCall = "updateBlob(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnName).arg(x);
         try {
             delegate.updateBlob(columnName, x);
         }
@@ -469,7 +757,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Clob getClob(int i) throws SQLException {
-        String methodCall = "getClob(" + i + ")";
+        MethodCall methodCall = call("getClob").arg(i);
         try {
             return (Clob)reportReturn(methodCall, delegate.getClob(i));
         }
@@ -480,7 +768,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(int columnIndex, Clob x) throws SQLException {
-        String methodCall = "updateClob(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateClob").arg(columnIndex).arg(x);
         try {
             delegate.updateClob(columnIndex, x);
         }
@@ -492,7 +780,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Clob getClob(String colName) throws SQLException {
-        String methodCall = "getClob(" + colName + ")";
+        MethodCall methodCall = call("getClob").arg(colName);
         try {
             return (Clob)reportReturn(methodCall, delegate.getClob(colName));
         }
@@ -503,7 +791,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(String columnName, Clob x) throws SQLException {
-        String methodCall = "updateClob(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateClob").arg(columnName).arg(x);
         try {
             delegate.updateClob(columnName, x);
         }
@@ -515,7 +803,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean getBoolean(int columnIndex) throws SQLException {
-        String methodCall = "getBoolean(" + columnIndex + ")";
+        MethodCall methodCall = call("getBoolean").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getBoolean(columnIndex));
         }
@@ -526,7 +814,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean getBoolean(String columnName) throws SQLException {
-        String methodCall = "getBoolean(" + columnName + ")";
+        MethodCall methodCall = call("getBoolean").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getBoolean(columnName));
         }
@@ -537,7 +825,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Array getArray(int i) throws SQLException {
-        String methodCall = "getArray(" + i + ")";
+        MethodCall methodCall = call("getArray").arg(i);
         try {
             return (Array)reportReturn(methodCall, delegate.getArray(i));
         }
@@ -548,7 +836,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateArray(int columnIndex, Array x) throws SQLException {
-        String methodCall = "updateArray(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateArray").arg(columnIndex).arg(x);
         try {
             delegate.updateArray(columnIndex, x);
         }
@@ -560,7 +848,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Array getArray(String colName) throws SQLException {
-        String methodCall = "getArray(" + colName + ")";
+        MethodCall methodCall = call("getArray").arg(colName);
         try {
             return (Array)reportReturn(methodCall, delegate.getArray(colName));
         }
@@ -571,7 +859,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateArray(String columnName, Array x) throws SQLException {
-        String methodCall = "updateArray(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateArray").arg(columnName).arg(x);
         try {
             delegate.updateArray(columnName, x);
         }
@@ -583,7 +871,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public RowId getRowId(int columnIndex) throws SQLException {
-        String methodCall = "getRowId(" + columnIndex + ")";
+        MethodCall methodCall = call("getRowId").arg(columnIndex);
         try {
             return (RowId)reportReturn(methodCall, delegate.getRowId(columnIndex));
         }
@@ -594,7 +882,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public RowId getRowId(String columnLabel) throws SQLException {
-        String methodCall = "getRowId(" + columnLabel + ")";
+        MethodCall methodCall = call("getRowId").arg(columnLabel);
         try {
             return (RowId)reportReturn(methodCall, delegate.getRowId(columnLabel));
         }
@@ -605,7 +893,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateRowId(int columnIndex, RowId x) throws SQLException {
-        String methodCall = "updateRowId(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateRowId").arg(columnIndex).arg(x);
         try {
             delegate.updateRowId(columnIndex, x);
         }
@@ -617,7 +905,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateRowId(String columnLabel, RowId x) throws SQLException {
-        String methodCall = "updateRowId(" + columnLabel + ", " + x + ")";
+        MethodCall methodCall = call("updateRowId").arg(columnLabel).arg(x);
         try {
             delegate.updateRowId(columnLabel, x);
         }
@@ -629,7 +917,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getHoldability() throws SQLException {
-        String methodCall = "getHoldability()";
+        MethodCall methodCall = call("getHoldability");
         try {
             return reportReturn(methodCall, delegate.getHoldability());
         }
@@ -640,7 +928,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean isClosed() throws SQLException {
-        String methodCall = "isClosed()";
+        MethodCall methodCall = concurrentCall("isClosed");
         try {
             return reportReturn(methodCall, delegate.isClosed());
         }
@@ -651,7 +939,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNString(int columnIndex, String nString) throws SQLException {
-        String methodCall = "updateNString(" + columnIndex + ", " + nString + ")";
+        MethodCall methodCall = call("updateNString").arg(columnIndex).arg(nString);
         try {
             delegate.updateNString(columnIndex, nString);
         }
@@ -663,7 +951,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNString(String columnLabel, String nString) throws SQLException {
-        String methodCall = "updateNString(" + columnLabel + ", " + nString + ")";
+        MethodCall methodCall = call("updateNString").arg(columnLabel).arg(nString);
         try {
             delegate.updateNString(columnLabel, nString);
         }
@@ -675,7 +963,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
-        String methodCall = "updateNClob(" + columnIndex + ", " + nClob + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnIndex).arg(nClob);
         try {
             delegate.updateNClob(columnIndex, nClob);
         }
@@ -687,7 +975,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
-        String methodCall = "updateNClob(" + columnLabel + ", " + nClob + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnLabel).arg(nClob);
         try {
             delegate.updateNClob(columnLabel, nClob);
         }
@@ -699,7 +987,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public NClob getNClob(int columnIndex) throws SQLException {
-        String methodCall = "getNClob(" + columnIndex + ")";
+        MethodCall methodCall = call("getNClob").arg(columnIndex);
         try {
             return (NClob)reportReturn(methodCall, delegate.getNClob(columnIndex));
         }
@@ -710,7 +998,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public NClob getNClob(String columnLabel) throws SQLException {
-        String methodCall = "getNClob(" + columnLabel + ")";
+        MethodCall methodCall = call("getNClob").arg(columnLabel);
         try {
             return (NClob)reportReturn(methodCall, delegate.getNClob(columnLabel));
         }
@@ -721,7 +1009,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public SQLXML getSQLXML(int columnIndex) throws SQLException {
-        String methodCall = "getSQLXML(" + columnIndex + ")";
+        MethodCall methodCall = call("getSQLXML").arg(columnIndex);
         try {
             return (SQLXML)reportReturn(methodCall, delegate.getSQLXML(columnIndex));
         }
@@ -732,7 +1020,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public SQLXML getSQLXML(String columnLabel) throws SQLException {
-        String methodCall = "getSQLXML(" + columnLabel + ")";
+        MethodCall methodCall = call("getSQLXML").arg(columnLabel);
         try {
             return (SQLXML)reportReturn(methodCall, delegate.getSQLXML(columnLabel));
         }
@@ -743,7 +1031,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
-        String methodCall = "updateSQLXML(" + columnIndex + ", " + xmlObject + ")";
+        MethodCall methodCall = call("updateSQLXML").arg(columnIndex).arg(xmlObject);
         try {
             delegate.updateSQLXML(columnIndex, xmlObject);
         }
@@ -755,7 +1043,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
-        String methodCall = "updateSQLXML(" + columnLabel + ", " + xmlObject + ")";
+        MethodCall methodCall = call("updateSQLXML").arg(columnLabel).arg(xmlObject);
         try {
             delegate.updateSQLXML(columnLabel, xmlObject);
         }
@@ -767,7 +1055,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public String getNString(int columnIndex) throws SQLException {
-        String methodCall = "getNString(" + columnIndex + ")";
+        MethodCall methodCall = call("getNString").arg(columnIndex);
         try {
             return (String)reportReturn(methodCall, delegate.getNString(columnIndex));
         }
@@ -778,7 +1066,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public String getNString(String columnLabel) throws SQLException {
-        String methodCall = "getNString(" + columnLabel + ")";
+        MethodCall methodCall = call("getNString").arg(columnLabel);
         try {
             return (String)reportReturn(methodCall, delegate.getNString(columnLabel));
         }
@@ -789,7 +1077,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Reader getNCharacterStream(int columnIndex) throws SQLException {
-        String methodCall = "getNCharacterStream(" + columnIndex + ")";
+        MethodCall methodCall = call("getNCharacterStream").arg(columnIndex);
         try {
             return (Reader)reportReturn(methodCall, delegate.getNCharacterStream(columnIndex));
         }
@@ -800,7 +1088,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Reader getNCharacterStream(String columnLabel) throws SQLException {
-        String methodCall = "getNCharacterStream(" + columnLabel + ")";
+        MethodCall methodCall = call("getNCharacterStream").arg(columnLabel);
         try {
             return (Reader)reportReturn(methodCall, delegate.getNCharacterStream(columnLabel));
         }
@@ -811,7 +1099,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        String methodCall = "updateNCharacterStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateNCharacterStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateNCharacterStream(columnIndex, x, length);
         }
@@ -823,7 +1111,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        String methodCall = "updateNCharacterStream(" + columnLabel + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateNCharacterStream").arg(columnLabel).arg(reader).arg(length);
         try {
             delegate.updateNCharacterStream(columnLabel, reader, length);
         }
@@ -835,7 +1123,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateAsciiStream(columnIndex, x, length);
         }
@@ -847,7 +1135,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateBinaryStream(columnIndex, x, length);
         }
@@ -859,7 +1147,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateCharacterStream(columnIndex, x, length);
         }
@@ -871,7 +1159,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnLabel + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnLabel).arg(x).arg(length);
         try {
             delegate.updateAsciiStream(columnLabel, x, length);
         }
@@ -883,7 +1171,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnLabel + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnLabel).arg(x).arg(length);
         try {
             delegate.updateBinaryStream(columnLabel, x, length);
         }
@@ -895,7 +1183,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnLabel + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnLabel).arg(reader).arg(length);
         try {
             delegate.updateCharacterStream(columnLabel, reader, length);
         }
@@ -907,7 +1195,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
-        String methodCall = "updateBlob(" + columnIndex + ", " + inputStream + ", " + length + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnIndex).arg(inputStream).arg(length);
         try {
             delegate.updateBlob(columnIndex, inputStream, length);
         }
@@ -919,7 +1207,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
-        String methodCall = "updateBlob(" + columnLabel + ", " + inputStream + ", " + length + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnLabel).arg(inputStream).arg(length);
         try {
             delegate.updateBlob(columnLabel, inputStream, length);
         }
@@ -931,7 +1219,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
-        String methodCall = "updateClob(" + columnIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateClob").arg(columnIndex).arg(reader).arg(length);
         try {
             delegate.updateClob(columnIndex, reader, length);
         }
@@ -943,7 +1231,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
-        String methodCall = "updateClob(" + columnLabel + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateClob").arg(columnLabel).arg(reader).arg(length);
         try {
             delegate.updateClob(columnLabel, reader, length);
         }
@@ -955,7 +1243,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
-        String methodCall = "updateNClob(" + columnIndex + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnIndex).arg(reader).arg(length);
         try {
             delegate.updateNClob(columnIndex, reader, length);
         }
@@ -967,7 +1255,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
-        String methodCall = "updateNClob(" + columnLabel + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnLabel).arg(reader).arg(length);
         try {
             delegate.updateNClob(columnLabel, reader, length);
         }
@@ -979,7 +1267,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNCharacterStream(int columnIndex, Reader reader) throws SQLException {
-        String methodCall = "updateNCharacterStream(" + columnIndex + ", " + reader + ")";
+        MethodCall methodCall = call("updateNCharacterStream").arg(columnIndex).arg(reader);
         try {
             delegate.updateNCharacterStream(columnIndex, reader);
         }
@@ -991,7 +1279,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        String methodCall = "updateNCharacterStream(" + columnLabel + ", " + reader + ")";
+        MethodCall methodCall = call("updateNCharacterStream").arg(columnLabel).arg(reader);
         try {
             delegate.updateNCharacterStream(columnLabel, reader);
         }
@@ -1003,7 +1291,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnIndex).arg(x);
         try {
             delegate.updateAsciiStream(columnIndex, x);
         }
@@ -1015,7 +1303,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnIndex).arg(x);
         try {
             delegate.updateBinaryStream(columnIndex, x);
         }
@@ -1027,7 +1315,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnIndex).arg(x);
         try {
             delegate.updateCharacterStream(columnIndex, x);
         }
@@ -1039,7 +1327,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
-        String methodCall = "updateAsciiStream(" + columnLabel + ", " + x + ")";
+        MethodCall methodCall = call("updateAsciiStream").arg(columnLabel).arg(x);
         try {
             delegate.updateAsciiStream(columnLabel, x);
         }
@@ -1051,7 +1339,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnLabel + ", " + x + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnLabel).arg(x);
         try {
             delegate.updateBinaryStream(columnLabel, x);
         }
@@ -1063,7 +1351,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnLabel + ", " + reader + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnLabel).arg(reader);
         try {
             delegate.updateCharacterStream(columnLabel, reader);
         }
@@ -1075,7 +1363,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
-        String methodCall = "updateBlob(" + columnIndex + ", " + inputStream + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnIndex).arg(inputStream);
         try {
             delegate.updateBlob(columnIndex, inputStream);
         }
@@ -1087,7 +1375,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
-        String methodCall = "updateBlob(" + columnLabel + ", " + inputStream + ")";
+        MethodCall methodCall = call("updateBlob").arg(columnLabel).arg(inputStream);
         try {
             delegate.updateBlob(columnLabel, inputStream);
         }
@@ -1099,7 +1387,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(int columnIndex, Reader reader) throws SQLException {
-        String methodCall = "updateClob(" + columnIndex + ", " + reader + ")";
+        MethodCall methodCall = call("updateClob").arg(columnIndex).arg(reader);
         try {
             delegate.updateClob(columnIndex, reader);
         }
@@ -1111,7 +1399,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateClob(String columnLabel, Reader reader) throws SQLException {
-        String methodCall = "updateClob(" + columnLabel + ", " + reader + ")";
+        MethodCall methodCall = call("updateClob").arg(columnLabel).arg(reader);
         try {
             delegate.updateClob(columnLabel, reader);
         }
@@ -1123,7 +1411,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(int columnIndex, Reader reader) throws SQLException {
-        String methodCall = "updateNClob(" + columnIndex + ", " + reader + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnIndex).arg(reader);
         try {
             delegate.updateNClob(columnIndex, reader);
         }
@@ -1135,7 +1423,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNClob(String columnLabel, Reader reader) throws SQLException {
-        String methodCall = "updateNClob(" + columnLabel + ", " + reader + ")";
+        MethodCall methodCall = call("updateNClob").arg(columnLabel).arg(reader);
         try {
             delegate.updateNClob(columnLabel, reader);
         }
@@ -1148,7 +1436,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-        String methodCall = "getObject(" + columnIndex + ", " + type.getName() + ")";
+        MethodCall methodCall = call("getObject").arg(columnIndex).arg(type);
         try {
             return (T)reportReturn(methodCall, delegate.getObject(columnIndex, type));
         }
@@ -1160,7 +1448,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-        String methodCall = "getObject(" + columnLabel + ", " + type.getName() + ")";
+        MethodCall methodCall = call("getObject").arg(columnLabel).arg(type);
         try {
             return (T)reportReturn(methodCall, delegate.getObject(columnLabel, type));
         }
@@ -1172,7 +1460,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public void updateObject(int columnIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        String methodCall = "updateObject(" + columnIndex + ", " + x + ", " + targetSqlType.getName() + ", " + scaleOrLength + ")";
+        MethodCall methodCall = call("updateObject").arg(columnIndex).arg(x).arg(targetSqlType.getName()).arg(scaleOrLength);
         try {
             delegate.updateObject(columnIndex, x, targetSqlType, scaleOrLength);
         }
@@ -1185,7 +1473,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public void updateObject(String columnLabel, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        String methodCall = "updateObject(" + columnLabel + ", " + x + ", " + targetSqlType.getName() + ", " + scaleOrLength + ")";
+        MethodCall methodCall = call("updateObject").arg(columnLabel).arg(x).arg(targetSqlType.getName()).arg(scaleOrLength);
         try {
             delegate.updateObject(columnLabel, x, targetSqlType, scaleOrLength);
         }
@@ -1198,7 +1486,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public void updateObject(int columnIndex, Object x, SQLType targetSqlType) throws SQLException {
-        String methodCall = "updateObject(" + columnIndex + ", " + x + ", " + targetSqlType.getName() + ")";
+        MethodCall methodCall = call("updateObject").arg(columnIndex).arg(x).arg(targetSqlType.getName());
         try {
             delegate.updateObject(columnIndex, x, targetSqlType);
         }
@@ -1211,7 +1499,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public void updateObject(String columnLabel, Object x, SQLType targetSqlType) throws SQLException {
-        String methodCall = "updateObject(" + columnLabel + ", " + x + ", " + targetSqlType.getName() + ")";
+        MethodCall methodCall = call("updateObject").arg(columnLabel).arg(x).arg(targetSqlType.getName());
         try {
             delegate.updateObject(columnLabel, x, targetSqlType);
         }
@@ -1223,7 +1511,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean isBeforeFirst() throws SQLException {
-        String methodCall = "isBeforeFirst()";
+        MethodCall methodCall = call("isBeforeFirst");
         try {
             return reportReturn(methodCall, delegate.isBeforeFirst());
         }
@@ -1234,7 +1522,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public short getShort(int columnIndex) throws SQLException {
-        String methodCall = "getShort(" + columnIndex + ")";
+        MethodCall methodCall = call("getShort").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getShort(columnIndex));
         }
@@ -1245,7 +1533,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public short getShort(String columnName) throws SQLException {
-        String methodCall = "getShort(" + columnName + ")";
+        MethodCall methodCall = call("getShort").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getShort(columnName));
         }
@@ -1256,7 +1544,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getInt(int columnIndex) throws SQLException {
-        String methodCall = "getInt(" + columnIndex + ")";
+        MethodCall methodCall = call("getInt").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getInt(columnIndex));
         }
@@ -1267,7 +1555,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getInt(String columnName) throws SQLException {
-        String methodCall = "getInt(" + columnName + ")";
+        MethodCall methodCall = call("getInt").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getInt(columnName));
         }
@@ -1278,7 +1566,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void close() throws SQLException {
-        String methodCall = "close()";
+        MethodCall methodCall = concurrentCall("close");
         try {
             delegate.close();
         }
@@ -1286,11 +1574,22 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
             reportException(methodCall, s);
             throw s;
         }
+        finally {
+            if(aggregate) {
+                reportRemainingRows();
+            }
+            if(profiling) {
+                reportProfile();
+            }
+            if(leakResource != null) {
+                LoggingConnection.getLeakDetector().close(leakResource);
+            }
+        }
         reportReturn(methodCall);
     }
 
     public ResultSetMetaData getMetaData() throws SQLException {
-        String methodCall = "getMetaData()";
+        MethodCall methodCall = call("getMetaData");
         try {
             return (ResultSetMetaData)reportReturn(methodCall, delegate.getMetaData());
         }
@@ -1301,7 +1600,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getType() throws SQLException {
-        String methodCall = "getType()";
+        MethodCall methodCall = call("getType");
         try {
             return reportReturn(methodCall, delegate.getType());
         }
@@ -1312,7 +1611,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public double getDouble(int columnIndex) throws SQLException {
-        String methodCall = "getDouble(" + columnIndex + ")";
+        MethodCall methodCall = call("getDouble").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getDouble(columnIndex));
         }
@@ -1323,7 +1622,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public double getDouble(String columnName) throws SQLException {
-        String methodCall = "getDouble(" + columnName + ")";
+        MethodCall methodCall = call("getDouble").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getDouble(columnName));
         }
@@ -1334,7 +1633,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void deleteRow() throws SQLException {
-        String methodCall = "deleteRow()";
+        MethodCall methodCall = call("deleteRow");
         try {
             delegate.deleteRow();
         }
@@ -1346,7 +1645,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getConcurrency() throws SQLException {
-        String methodCall = "getConcurrency()";
+        MethodCall methodCall = call("getConcurrency");
         try {
             return reportReturn(methodCall, delegate.getConcurrency());
         }
@@ -1357,7 +1656,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean rowUpdated() throws SQLException {
-        String methodCall = "rowUpdated()";
+        MethodCall methodCall = call("rowUpdated");
         try {
             return reportReturn(methodCall, delegate.rowUpdated());
         }
@@ -1368,7 +1667,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Date getDate(int columnIndex) throws SQLException {
-        String methodCall = "getDate(" + columnIndex + ")";
+        MethodCall methodCall = call("getDate").arg(columnIndex);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(columnIndex));
         }
@@ -1379,7 +1678,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Date getDate(String columnName) throws SQLException {
-        String methodCall = "getDate(" + columnName + ")";
+        MethodCall methodCall = call("getDate").arg(columnName);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(columnName));
         }
@@ -1390,7 +1689,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Date getDate(int columnIndex, Calendar cal) throws SQLException {
-        String methodCall = "getDate(" + columnIndex + ", " + cal + ")";
+        MethodCall methodCall = call("getDate").arg(columnIndex).arg(cal);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(columnIndex, cal));
         }
@@ -1402,7 +1701,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Date getDate(String columnName, Calendar cal) throws SQLException {
-        String methodCall = "getDate(" + columnName + ", " + cal + ")";
+        MethodCall methodCall = call("getDate").arg(columnName).arg(cal);
         try {
             return (Date)reportReturn(methodCall, delegate.getDate(columnName, cal));
         }
@@ -1413,7 +1712,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean last() throws SQLException {
-        String methodCall = "last()";
+        MethodCall methodCall = call("last");
         try {
             return reportReturn(methodCall, delegate.last());
         }
@@ -1424,7 +1723,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean rowInserted() throws SQLException {
-        String methodCall = "rowInserted()";
+        MethodCall methodCall = call("rowInserted");
         try {
             return reportReturn(methodCall, delegate.rowInserted());
         }
@@ -1435,7 +1734,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean rowDeleted() throws SQLException {
-        String methodCall = "rowDeleted()";
+        MethodCall methodCall = call("rowDeleted");
         try {
             return reportReturn(methodCall, delegate.rowDeleted());
         }
@@ -1446,7 +1745,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNull(int columnIndex) throws SQLException {
-        String methodCall = "updateNull(" + columnIndex + ")";
+        MethodCall methodCall = call("updateNull").arg(columnIndex);
         try {
             delegate.updateNull(columnIndex);
         }
@@ -1458,7 +1757,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateNull(String columnName) throws SQLException {
-        String methodCall = "updateNull(" + columnName + ")";
+        MethodCall methodCall = call("updateNull").arg(columnName);
         try {
             delegate.updateNull(columnName);
         }
@@ -1470,7 +1769,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateShort(int columnIndex, short x) throws SQLException {
-        String methodCall = "updateShort(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateShort").arg(columnIndex).arg(x);
         try {
             delegate.updateShort(columnIndex, x);
         }
@@ -1482,7 +1781,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateShort(String columnName, short x) throws SQLException {
-        String methodCall = "updateShort(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateShort").arg(columnName).arg(x);
         try {
             delegate.updateShort(columnName, x);
         }
@@ -1494,7 +1793,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBoolean(int columnIndex, boolean x) throws SQLException {
-        String methodCall = "updateBoolean(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateBoolean").arg(columnIndex).arg(x);
         try {
             delegate.updateBoolean(columnIndex, x);
         }
@@ -1506,7 +1805,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBoolean(String columnName, boolean x) throws SQLException {
-        String methodCall = "updateBoolean(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateBoolean").arg(columnName).arg(x);
         try {
             delegate.updateBoolean(columnName, x);
         }
@@ -1518,7 +1817,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateByte(int columnIndex, byte x) throws SQLException {
-        String methodCall = "updateByte(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateByte").arg(columnIndex).arg(x);
         try {
             delegate.updateByte(columnIndex, x);
         }
@@ -1530,7 +1829,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateByte(String columnName, byte x) throws SQLException {
-        String methodCall = "updateByte(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateByte").arg(columnName).arg(x);
         try {
             delegate.updateByte(columnName, x);
         }
@@ -1542,7 +1841,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateInt(int columnIndex, int x) throws SQLException {
-        String methodCall = "updateInt(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateInt").arg(columnIndex).arg(x);
         try {
             delegate.updateInt(columnIndex, x);
         }
@@ -1554,7 +1853,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateInt(String columnName, int x) throws SQLException {
-        String methodCall = "updateInt(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateInt").arg(columnName).arg(x);
         try {
             delegate.updateInt(columnName, x);
         }
@@ -1566,7 +1865,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Object getObject(int columnIndex) throws SQLException {
-        String methodCall = "getObject(" + columnIndex + ")";
+        MethodCall methodCall = call("getObject").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getObject(columnIndex));
         }
@@ -1577,7 +1876,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Object getObject(String columnName) throws SQLException {
-        String methodCall = "getObject(" + columnName + ")";
+        MethodCall methodCall = call("getObject").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getObject(columnName));
         }
@@ -1588,7 +1887,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Object getObject(String colName, Map map) throws SQLException {
-        String methodCall = "getObject(" + colName + ", " + map + ")";
+        MethodCall methodCall = call("getObject").arg(colName).arg(map);
         try {
             return reportReturn(methodCall, delegate.getObject(colName, map));
         }
@@ -1599,9 +1898,25 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean next() throws SQLException {
-        String methodCall = "next()";
+        MethodCall methodCall = call("next");
         try {
-            return reportReturn(methodCall, delegate.next());
+            if(!profiling) {
+                boolean result = delegate.next();
+                if(aggregate) {
+                    advanceRow(result);
+                }
+                return reportReturn(methodCall, result);
+            }
+            long tstartNano = System.nanoTime();
+            boolean result = delegate.next();
+            fetchNanos += System.nanoTime() - tstartNano;
+            if(result) {
+                rows++;
+            }
+            if(aggregate) {
+                advanceRow(result);
+            }
+            return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -1610,7 +1925,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateLong(int columnIndex, long x) throws SQLException {
-        String methodCall = "updateLong(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateLong").arg(columnIndex).arg(x);
         try {
             delegate.updateLong(columnIndex, x);
         }
@@ -1622,7 +1937,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateLong(String columnName, long x) throws SQLException {
-        String methodCall = "updateLong(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateLong").arg(columnName).arg(x);
         try {
             delegate.updateLong(columnName, x);
         }
@@ -1634,7 +1949,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateFloat(int columnIndex, float x) throws SQLException {
-        String methodCall = "updateFloat(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateFloat").arg(columnIndex).arg(x);
         try {
             delegate.updateFloat(columnIndex, x);
         }
@@ -1647,7 +1962,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateFloat(String columnName, float x) throws SQLException {
-        String methodCall = "updateFloat(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateFloat").arg(columnName).arg(x);
         try {
             delegate.updateFloat(columnName, x);
         }
@@ -1659,7 +1974,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateDouble(int columnIndex, double x) throws SQLException {
-        String methodCall = "updateDouble(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateDouble").arg(columnIndex).arg(x);
         try {
             delegate.updateDouble(columnIndex, x);
         }
@@ -1671,7 +1986,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateDouble(String columnName, double x) throws SQLException {
-        String methodCall = "updateDouble(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateDouble").arg(columnName).arg(x);
         try {
             delegate.updateDouble(columnName, x);
         }
@@ -1683,12 +1998,12 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Statement getStatement() throws SQLException {
-        String methodCall = "getStatement()";
+        MethodCall methodCall = call("getStatement");
         return (Statement)reportReturn(methodCall, parent);
     }
 
     public Object getObject(int columnIndex, Map<String,Class<?>> map) throws SQLException {
-        String methodCall = "getObject(" + columnIndex + ", " + map + ")";
+        MethodCall methodCall = call("getObject").arg(columnIndex).arg(map);
         try {
             return reportReturn(methodCall, delegate.getObject(columnIndex, map));
         }
@@ -1699,7 +2014,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateString(int columnIndex, String x) throws SQLException {
-        String methodCall = "updateString(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateString").arg(columnIndex).arg(x);
         try {
             delegate.updateString(columnIndex, x);
         }
@@ -1711,7 +2026,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateString(String columnName, String x) throws SQLException {
-        String methodCall = "updateString(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateString").arg(columnName).arg(x);
         try {
             delegate.updateString(columnName, x);
         }
@@ -1723,7 +2038,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public InputStream getAsciiStream(int columnIndex) throws SQLException {
-        String methodCall = "getAsciiStream(" + columnIndex + ")";
+        MethodCall methodCall = call("getAsciiStream").arg(columnIndex);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getAsciiStream(columnIndex));
         }
@@ -1734,7 +2049,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public InputStream getAsciiStream(String columnName) throws SQLException {
-        String methodCall = "getAsciiStream(" + columnName + ")";
+        MethodCall methodCall = call("getAsciiStream").arg(columnName);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getAsciiStream(columnName));
         }
@@ -1745,7 +2060,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
-        String methodCall = "updateBigDecimal(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateBigDecimal").arg(columnIndex).arg(x);
         try {
             delegate.updateBigDecimal(columnIndex, x);
         }
@@ -1757,7 +2072,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public URL getURL(int columnIndex) throws SQLException {
-        String methodCall = "getURL(" + columnIndex + ")";
+        MethodCall methodCall = call("getURL").arg(columnIndex);
         try {
             return (URL)reportReturn(methodCall, delegate.getURL(columnIndex));
         }
@@ -1768,7 +2083,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBigDecimal(String columnName, BigDecimal x) throws SQLException {
-        String methodCall = "updateBigDecimal(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateBigDecimal").arg(columnName).arg(x);
         try {
             delegate.updateBigDecimal(columnName, x);
         }
@@ -1780,7 +2095,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public URL getURL(String columnName) throws SQLException {
-        String methodCall = "getURL(" + columnName + ")";
+        MethodCall methodCall = call("getURL").arg(columnName);
         try {
             return (URL)reportReturn(methodCall, delegate.getURL(columnName));
         }
@@ -1792,7 +2107,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     public void updateBytes(int columnIndex, byte[] x) throws SQLException {
         // todo: dump array?
-        String methodCall = "updateBytes(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateBytes").arg(columnIndex).arg(x);
         try {
             delegate.updateBytes(columnIndex, x);
         }
@@ -1805,7 +2120,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     public void updateBytes(String columnName, byte[] x) throws SQLException {
         // todo: dump array?
-        String methodCall = "updateBytes(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateBytes").arg(columnName).arg(x);
         try {
             delegate.updateBytes(columnName, x);
         }
@@ -1821,7 +2136,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      */
     @Deprecated
     public InputStream getUnicodeStream(int columnIndex) throws SQLException {
-        String methodCall = "getUnicodeStream(" + columnIndex + ")";
+        MethodCall methodCall = call("getUnicodeStream").arg(columnIndex);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getUnicodeStream(columnIndex));
         }
@@ -1836,7 +2151,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      */
     @Deprecated
     public InputStream getUnicodeStream(String columnName) throws SQLException {
-        String methodCall = "getUnicodeStream(" + columnName + ")";
+        MethodCall methodCall = call("getUnicodeStream").arg(columnName);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getUnicodeStream(columnName));
         }
@@ -1847,7 +2162,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateDate(int columnIndex, Date x) throws SQLException {
-        String methodCall = "updateDate(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateDate").arg(columnIndex).arg(x);
         try {
             delegate.updateDate(columnIndex, x);
         }
@@ -1858,7 +2173,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateDate(String columnName, Date x) throws SQLException {
-        String methodCall = "updateDate(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateDate").arg(columnName).arg(x);
         try {
             delegate.updateDate(columnName, x);
         }
@@ -1870,7 +2185,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getFetchSize() throws SQLException {
-        String methodCall = "getFetchSize()";
+        MethodCall methodCall = call("getFetchSize");
         try {
             return reportReturn(methodCall, delegate.getFetchSize());
         }
@@ -1881,7 +2196,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public SQLWarning getWarnings() throws SQLException {
-        String methodCall = "getWarnings()";
+        MethodCall methodCall = call("getWarnings");
         try {
             return (SQLWarning)reportReturn(methodCall, delegate.getWarnings());
         }
@@ -1892,7 +2207,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public InputStream getBinaryStream(int columnIndex) throws SQLException {
-        String methodCall = "getBinaryStream(" + columnIndex + ")";
+        MethodCall methodCall = call("getBinaryStream").arg(columnIndex);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getBinaryStream(columnIndex));
         }
@@ -1903,7 +2218,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public InputStream getBinaryStream(String columnName) throws SQLException {
-        String methodCall = "getBinaryStream(" + columnName + ")";
+        MethodCall methodCall = call("getBinaryStream").arg(columnName);
         try {
             return (InputStream)reportReturn(methodCall, delegate.getBinaryStream(columnName));
         }
@@ -1914,7 +2229,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void clearWarnings() throws SQLException {
-        String methodCall = "clearWarnings()";
+        MethodCall methodCall = call("clearWarnings");
         try {
             delegate.clearWarnings();
         }
@@ -1926,7 +2241,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
-        String methodCall = "updateTimestamp(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateTimestamp").arg(columnIndex).arg(x);
         try {
             delegate.updateTimestamp(columnIndex, x);
         }
@@ -1938,7 +2253,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateTimestamp(String columnName, Timestamp x) throws SQLException {
-        String methodCall = "updateTimestamp(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateTimestamp").arg(columnName).arg(x);
         try {
             delegate.updateTimestamp(columnName, x);
         }
@@ -1950,7 +2265,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean first() throws SQLException {
-        String methodCall = "first()";
+        MethodCall methodCall = call("first");
         try {
             return reportReturn(methodCall, delegate.first());
         }
@@ -1961,7 +2276,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public String getCursorName() throws SQLException {
-        String methodCall = "getCursorName()";
+        MethodCall methodCall = call("getCursorName");
         try {
             return (String)reportReturn(methodCall, delegate.getCursorName());
         }
@@ -1972,7 +2287,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int findColumn(String columnName) throws SQLException {
-        String methodCall = "findColumn(" + columnName + ")";
+        MethodCall methodCall = call("findColumn").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.findColumn(columnName));
         }
@@ -1983,7 +2298,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean wasNull() throws SQLException {
-        String methodCall = "wasNull()";
+        MethodCall methodCall = call("wasNull");
         try {
             return reportReturn(methodCall, delegate.wasNull());
         }
@@ -1994,7 +2309,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateBinaryStream(columnIndex, x, length);
         }
@@ -2006,7 +2321,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateBinaryStream(String columnName, InputStream x, int length) throws SQLException {
-        String methodCall = "updateBinaryStream(" + columnName + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateBinaryStream").arg(columnName).arg(x).arg(length);
         try {
             delegate.updateBinaryStream(columnName, x, length);
         }
@@ -2018,9 +2333,13 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public String getString(int columnIndex) throws SQLException {
-        String methodCall = "getString(" + columnIndex + ")";
+        MethodCall methodCall = call("getString").arg(columnIndex);
         try {
-            return (String)reportReturn(methodCall, delegate.getString(columnIndex));
+            String result = delegate.getString(columnIndex);
+            if(profiling && (result != null)) {
+                bytes += result.length();
+            }
+            return (String)reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -2029,9 +2348,13 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public String getString(String columnName) throws SQLException {
-        String methodCall = "getString(" + columnName + ")";
+        MethodCall methodCall = call("getString").arg(columnName);
         try {
-            return (String)reportReturn(methodCall, delegate.getString(columnName));
+            String result = delegate.getString(columnName);
+            if(profiling && (result != null)) {
+                bytes += result.length();
+            }
+            return (String)reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -2040,7 +2363,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Reader getCharacterStream(int columnIndex) throws SQLException {
-        String methodCall = "getCharacterStream(" + columnIndex + ")";
+        MethodCall methodCall = call("getCharacterStream").arg(columnIndex);
         try {
             return (Reader)reportReturn(methodCall, delegate.getCharacterStream(columnIndex));
         }
@@ -2051,7 +2374,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public Reader getCharacterStream(String columnName) throws SQLException {
-        String methodCall = "getCharacterStream(" + columnName + ")";
+        MethodCall methodCall = call("getCharacterStream").arg(columnName);
         try {
             return (Reader)reportReturn(methodCall, delegate.getCharacterStream(columnName));
         }
@@ -2062,7 +2385,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void setFetchDirection(int direction) throws SQLException {
-        String methodCall = "setFetchDirection(" + direction + ")";
+        MethodCall methodCall = call("setFetchDirection").arg(direction);
         try {
             delegate.setFetchDirection(direction);
         }
@@ -2074,7 +2397,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnIndex + ", " + x + ", " + length + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnIndex).arg(x).arg(length);
         try {
             delegate.updateCharacterStream(columnIndex, x, length);
         }
@@ -2086,7 +2409,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateCharacterStream(String columnName, Reader reader, int length) throws SQLException {
-        String methodCall = "updateCharacterStream(" + columnName + ", " + reader + ", " + length + ")";
+        MethodCall methodCall = call("updateCharacterStream").arg(columnName).arg(reader).arg(length);
         try {
             delegate.updateCharacterStream(columnName, reader, length);
         }
@@ -2098,7 +2421,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public byte getByte(int columnIndex) throws SQLException {
-        String methodCall = "getByte(" + columnIndex + ")";
+        MethodCall methodCall = call("getByte").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getByte(columnIndex));
         }
@@ -2109,7 +2432,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public byte getByte(String columnName) throws SQLException {
-        String methodCall = "getByte(" + columnName + ")";
+        MethodCall methodCall = call("getByte").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getByte(columnName));
         }
@@ -2120,7 +2443,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateTime(int columnIndex, Time x) throws SQLException {
-        String methodCall = "updateTime(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateTime").arg(columnIndex).arg(x);
         try {
             delegate.updateTime(columnIndex, x);
         }
@@ -2132,7 +2455,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateTime(String columnName, Time x) throws SQLException {
-        String methodCall = "updateTime(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateTime").arg(columnName).arg(x);
         try {
             delegate.updateTime(columnName, x);
         }
@@ -2144,9 +2467,13 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public byte[] getBytes(int columnIndex) throws SQLException {
-        String methodCall = "getBytes(" + columnIndex + ")";
+        MethodCall methodCall = call("getBytes").arg(columnIndex);
         try {
-            return (byte[])reportReturn(methodCall, delegate.getBytes(columnIndex));
+            byte[] result = delegate.getBytes(columnIndex);
+            if(profiling && (result != null)) {
+                bytes += result.length;
+            }
+            return (byte[])reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -2155,9 +2482,13 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public byte[] getBytes(String columnName) throws SQLException {
-        String methodCall = "getBytes(" + columnName + ")";
+        MethodCall methodCall = call("getBytes").arg(columnName);
         try {
-            return (byte[])reportReturn(methodCall, delegate.getBytes(columnName));
+            byte[] result = delegate.getBytes(columnName);
+            if(profiling && (result != null)) {
+                bytes += result.length;
+            }
+            return (byte[])reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -2166,7 +2497,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean isAfterLast() throws SQLException {
-        String methodCall = "isAfterLast()";
+        MethodCall methodCall = call("isAfterLast");
         try {
             return reportReturn(methodCall, delegate.isAfterLast());
         }
@@ -2177,7 +2508,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateObject(int columnIndex, Object x, int scale) throws SQLException {
-        String methodCall = "updateObject(" + columnIndex + ", " + x + ", " + scale + ")";
+        MethodCall methodCall = call("updateObject").arg(columnIndex).arg(x).arg(scale);
         try {
             delegate.updateObject(columnIndex, x, scale);
         }
@@ -2189,7 +2520,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateObject(int columnIndex, Object x) throws SQLException {
-        String methodCall = "updateObject(" + columnIndex + ", " + x + ")";
+        MethodCall methodCall = call("updateObject").arg(columnIndex).arg(x);
         try {
             delegate.updateObject(columnIndex, x);
         }
@@ -2201,7 +2532,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateObject(String columnName, Object x, int scale) throws SQLException {
-        String methodCall = "updateObject(" + columnName + ", " + x + ", " + scale + ")";
+        MethodCall methodCall = call("updateObject").arg(columnName).arg(x).arg(scale);
         try {
             delegate.updateObject(columnName, x, scale);
         }
@@ -2213,7 +2544,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateObject(String columnName, Object x) throws SQLException {
-        String methodCall = "updateObject(" + columnName + ", " + x + ")";
+        MethodCall methodCall = call("updateObject").arg(columnName).arg(x);
         try {
             delegate.updateObject(columnName, x);
         }
@@ -2225,7 +2556,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public int getFetchDirection() throws SQLException {
-        String methodCall = "getFetchDirection()";
+        MethodCall methodCall = call("getFetchDirection");
         try {
             return reportReturn(methodCall, delegate.getFetchDirection());
         }
@@ -2236,7 +2567,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public long getLong(int columnIndex) throws SQLException {
-        String methodCall = "getLong(" + columnIndex + ")";
+        MethodCall methodCall = call("getLong").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getLong(columnIndex));
         }
@@ -2247,7 +2578,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public long getLong(String columnName) throws SQLException {
-        String methodCall = "getLong(" + columnName + ")";
+        MethodCall methodCall = call("getLong").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getLong(columnName));
         }
@@ -2258,7 +2589,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean isFirst() throws SQLException {
-        String methodCall = "isFirst()";
+        MethodCall methodCall = call("isFirst");
         try {
             return reportReturn(methodCall, delegate.isFirst());
         }
@@ -2269,7 +2600,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void insertRow() throws SQLException {
-        String methodCall = "insertRow()";
+        MethodCall methodCall = call("insertRow");
         try {
             delegate.insertRow();
         }
@@ -2280,7 +2611,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public float getFloat(int columnIndex) throws SQLException {
-        String methodCall = "getFloat(" + columnIndex + ")";
+        MethodCall methodCall = call("getFloat").arg(columnIndex);
         try {
             return reportReturn(methodCall, delegate.getFloat(columnIndex));
         }
@@ -2291,7 +2622,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public float getFloat(String columnName) throws SQLException {
-        String methodCall = "getFloat(" + columnName + ")";
+        MethodCall methodCall = call("getFloat").arg(columnName);
         try {
             return reportReturn(methodCall, delegate.getFloat(columnName));
         }
@@ -2302,7 +2633,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public boolean isLast() throws SQLException {
-        String methodCall = "isLast()";
+        MethodCall methodCall = call("isLast");
         try {
             return reportReturn(methodCall, delegate.isLast());
         }
@@ -2313,7 +2644,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void setFetchSize(int rows) throws SQLException {
-        String methodCall = "setFetchSize(" + rows + ")";
+        MethodCall methodCall = call("setFetchSize").arg(rows);
         try {
             delegate.setFetchSize(rows);
         }
@@ -2325,7 +2656,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void updateRow() throws SQLException {
-        String methodCall = "updateRow()";
+        MethodCall methodCall = call("updateRow");
         try {
             delegate.updateRow();
         }
@@ -2337,7 +2668,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void beforeFirst() throws SQLException {
-        String methodCall = "beforeFirst()";
+        MethodCall methodCall = call("beforeFirst");
         try {
             delegate.beforeFirst();
         }
@@ -2353,7 +2684,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      */
     @Deprecated
     public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
-        String methodCall = "getBigDecimal(" + columnIndex + ", " + scale + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(columnIndex).arg(scale);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(columnIndex, scale));
         }
@@ -2368,7 +2699,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
      */
     @Deprecated
     public BigDecimal getBigDecimal(String columnName, int scale) throws SQLException {
-        String methodCall = "getBigDecimal(" + columnName + ", " + scale + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(columnName).arg(scale);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(columnName, scale));
         }
@@ -2379,7 +2710,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
-        String methodCall = "getBigDecimal(" + columnIndex + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(columnIndex);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(columnIndex));
         }
@@ -2390,7 +2721,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public BigDecimal getBigDecimal(String columnName) throws SQLException {
-        String methodCall = "getBigDecimal(" + columnName + ")";
+        MethodCall methodCall = call("getBigDecimal").arg(columnName);
         try {
             return (BigDecimal)reportReturn(methodCall, delegate.getBigDecimal(columnName));
         }
@@ -2401,7 +2732,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void afterLast() throws SQLException {
-        String methodCall = "afterLast()";
+        MethodCall methodCall = call("afterLast");
         try {
             delegate.afterLast();
         }
@@ -2413,7 +2744,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public void refreshRow() throws SQLException {
-        String methodCall = "refreshRow()";
+        MethodCall methodCall = call("refreshRow");
         try {
             delegate.refreshRow();
         }
@@ -2424,7 +2755,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
     }
 
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        String methodCall = "unwrap(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("unwrap").arg(iface);
         try {
             //todo: double check this logic
             return (T)reportReturn(methodCall, (iface != null && (iface == ResultSet.class || iface == JdbcSpy.class)) ? (T)this : delegate.unwrap(iface));
@@ -2437,7 +2768,7 @@ public class LoggingResultSet implements ResultSet, JdbcSpy {
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        String methodCall = "isWrapperFor(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("isWrapperFor").arg(iface);
         try {
             return reportReturn(methodCall, (iface != null && (iface == ResultSet.class || iface == JdbcSpy.class)) || delegate.isWrapperFor(iface));
         }
@@ -5,6 +5,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.digitalforge.log4jdbc.formatter.ParameterFormatter;
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.digitalforge.log4jdbc.sql.SqlFingerprinter;
+import org.digitalforge.log4jdbc.stats.SqlStatsCollector;
+import org.digitalforge.log4jdbc.util.LeakDetector;
 import org.digitalforge.log4jdbc.util.Utilities;
 
 /**
@@ -16,6 +20,36 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     private static final SpyLogDelegator log = SpyLogFactory.getSpyLogDelegator();
 
+    /**
+     * Fingerprints SQL so that executions of the same statement with different literals can be grouped together.
+     */
+    static final SqlFingerprinter fingerprinter = new SqlFingerprinter(LoggingDriverConfig.getInstance().getFingerprintCacheSize());
+
+    /**
+     * Collects execution statistics for every statement run, or null if <b>log4jdbc.stats.enabled</b> is not set.
+     */
+    private static final SqlStatsCollector statsCollector = LoggingDriverConfig.getInstance().isStatsEnabled()
+        ? new SqlStatsCollector(LoggingDriverConfig.getInstance().getStatsMaxStatements(), LoggingDriverConfig.getInstance().isStatsHistogramsEnabled())
+        : null;
+
+    /**
+     * Get the collector of per statement execution statistics.
+     *
+     * @return the SqlStatsCollector, or null if <b>log4jdbc.stats.enabled</b> is not set.
+     */
+    public static SqlStatsCollector getStatsCollector() {
+        return statsCollector;
+    }
+
+    /**
+     * Picks the executions that are logged, or null if <b>log4jdbc.sample.rate</b> and <b>log4jdbc.sample.per.second</b>
+     * are not set and every execution is logged.
+     */
+    private static final SqlSampler sampler = LoggingDriverConfig.getInstance().isSamplingEnabled()
+        ? new SqlSampler(LoggingDriverConfig.getInstance().getSampleRate(), LoggingDriverConfig.getInstance().getSamplePerSecond(),
+            LoggingDriverConfig.getInstance().getSampleThresholdNanoSec(), LoggingDriverConfig.getInstance().getSampleMaxStatements())
+        : null;
+
     /**
      * The Connection that created this Statement.
      */
@@ -33,6 +67,37 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     private String currentSql;
 
+    /**
+     * The SQL of the last successful execution, which may be null if it was sampled out, and how long it took.  A
+     * ResultSet remembers them as the SQL it came from.
+     */
+    private String lastSql;
+    private long lastExecTimeNanoSec = -1L;
+
+    /**
+     * Reusable description of the method call currently being made on this Statement.
+     */
+    private final MethodCall currentCall = new MethodCall();
+
+    /**
+     * The ResultSets the driver closes when this Statement is closed or executed again, so that they can be reported
+     * as closed then: the one of the current result, those of earlier results kept open with
+     * <code>getMoreResults(KEEP_CURRENT_RESULT)</code>, and the generated keys last returned.
+     */
+    private LoggingResultSet currentResultSet;
+    private List<LoggingResultSet> keptResultSets;
+    private LoggingResultSet generatedKeys;
+
+    /**
+     * Set when the execution currently being made was not picked by the sampler, so that it is not logged.
+     */
+    private boolean sampledOut;
+
+    /**
+     * The leak detector's record of this Statement, or null if leaks are not being detected.
+     */
+    private final LeakDetector.Resource leakResource;
+
     /**
      * Get the delegate Statement that this LoggingStatement wraps.
      *
@@ -46,6 +111,28 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
         return currentSql;
     }
 
+    /**
+     * Get the SQL of the last successful execution, for a ResultSet to report as the SQL it came from.
+     *
+     * @return the SQL, the fingerprint of a PreparedStatement's SQL if the execution was sampled out, or null.
+     */
+    String getLastSql() {
+        if(lastSql != null) {
+            return lastSql;
+        }
+        SqlFingerprint fingerprint = fingerprint(null);
+        return (fingerprint != null) ? fingerprint.getText() : null;
+    }
+
+    /**
+     * Get how long the last successful execution took.
+     *
+     * @return the execution time in nanoseconds, or -1 if nothing was executed yet.
+     */
+    long getLastExecTimeNanoSec() {
+        return lastExecTimeNanoSec;
+    }
+
     /**
      * Create a LoggingStatement that wraps another Statement
      * for the purpose of logging all method calls, sql, exceptions and return values.
@@ -64,14 +151,19 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
         this.connection = connection;
         this.parameterFormatter = connection.getParameterFormatter();
 
+        LeakDetector leakDetector = LoggingConnection.getLeakDetector();
+        this.leakResource = (leakDetector != null)
+            ? leakDetector.open(LeakDetector.Kind.STATEMENT, this, connection.getConnectionNumber(), connection.getLeakResource())
+            : null;
+
         if(delegate instanceof CallableStatement) {
-            reportReturn("new CallableStatement");
+            reportReturn(describe("new CallableStatement"));
         }
         else if(delegate instanceof PreparedStatement) {
-            reportReturn("new PreparedStatement");
+            reportReturn(describe("new PreparedStatement"));
         }
         else {
-            reportReturn("new Statement");
+            reportReturn(describe("new Statement"));
         }
     }
 
@@ -85,6 +177,51 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
         return connection.getConnectionNumber();
     }
 
+    /**
+     * Get the leak detector's record of this Statement.
+     *
+     * @return the record, or null if leaks are not being detected.
+     */
+    LeakDetector.Resource getLeakResource() {
+        return leakResource;
+    }
+
+    /**
+     * Start describing a call to one of the forwarding methods.  The returned MethodCall is reused by every call made
+     * on this Statement but those of {@link #concurrentCall(String)}, and is only rendered to text if the call is actually
+     * logged.
+     *
+     * @param method name of the method being called.
+     * @return the reset MethodCall for this Statement.
+     */
+    protected MethodCall call(String method) {
+        sampledOut = false;
+        return currentCall.reset(method);
+    }
+
+    /**
+     * Start describing a call to one of the methods JDBC allows to be made from another thread while this Statement is
+     * in use, such as close.  Those get a MethodCall of their own, so that they never disturb the description of the
+     * call they may interrupt.  While logging is switched off the call can't be logged, so it isn't described at all.
+     *
+     * @param method name of the method being called.
+     * @return a new MethodCall, or {@link MethodCall#UNDESCRIBED} while logging is switched off.
+     */
+    protected MethodCall concurrentCall(String method) {
+        return LoggingSwitch.isEnabled() ? new MethodCall().reset(method) : MethodCall.UNDESCRIBED;
+    }
+
+    /**
+     * Start describing an event that is not a method call, such as the construction of this Statement.
+     *
+     * @param description text to report for the event.
+     * @return the reset MethodCall for this Statement.
+     */
+    protected MethodCall describe(String description) {
+        sampledOut = false;
+        return currentCall.describe(description);
+    }
+
     /**
      * Report an exception to be logged which includes timing data on a sql failure.
      * @param methodCall description of method call and arguments passed to it that generated the exception.
@@ -92,8 +229,12 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param sql SQL associated with the call.
      * @param execTimeNanoSec amount of time that the jdbc driver was chugging on the SQL before it threw an exception.
      */
-    protected void reportException(String methodCall, SQLException exception, String sql, long execTimeNanoSec) {
-        log.exceptionOccured(this, methodCall, exception, sql, execTimeNanoSec);
+    protected void reportException(MethodCall methodCall, SQLException exception, String sql, long execTimeNanoSec) {
+        recordStats(sql, false, execTimeNanoSec, -1L, true);
+        if(LoggingSwitch.isEnabled() && log.isExceptionLogged()) {
+            // failures are logged even if the execution was not sampled, which means building the SQL it skipped
+            log.exceptionOccured(this, methodCall, exception, (sql != null) ? sql : unsampledSql(), execTimeNanoSec);
+        }
     }
 
     /**
@@ -102,8 +243,10 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param exception exception that was generated
      * @param sql SQL associated with the call.
      */
-    protected void reportException(String methodCall, SQLException exception, String sql) {
-        log.exceptionOccured(this, methodCall, exception, sql, -1L);
+    protected void reportException(MethodCall methodCall, SQLException exception, String sql) {
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, sql, -1L);
+        }
     }
 
     /**
@@ -112,18 +255,22 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param methodCall description of method call and arguments passed to it that generated the exception.
      * @param exception exception that was generated
      */
-    protected void reportException(String methodCall, SQLException exception) {
-        log.exceptionOccured(this, methodCall, exception, null, -1L);
+    protected void reportException(MethodCall methodCall, SQLException exception) {
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, null, -1L);
+        }
     }
 
     /**
      * Report (for logging) that a method returned.  All the other reportReturn methods are conveniance methods that call this method.
      *
      * @param methodCall description of method call and arguments passed to it that returned.
-     * @param msg description of what the return value that was returned.  may be an empty String for void return types.
      */
-    protected void reportAllReturns(String methodCall, String msg) {
-        log.methodReturned(this, methodCall, msg);
+    protected void reportAllReturns(MethodCall methodCall) {
+        // sampling only applies to the calls of the execution being sampled, not to a concurrent call such as cancel
+        if(LoggingSwitch.isEnabled() && !(sampledOut && (methodCall == currentCall))) {
+            log.methodReturned(this, methodCall);
+        }
     }
 
     /**
@@ -133,8 +280,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value boolean return value.
      * @return the boolean return value as passed in.
      */
-    protected boolean reportReturn(String methodCall, boolean value) {
-        reportAllReturns(methodCall, "" + value);
+    protected boolean reportReturn(MethodCall methodCall, boolean value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -145,8 +292,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value byte return value.
      * @return the byte return value as passed in.
      */
-    protected byte reportReturn(String methodCall, byte value) {
-        reportAllReturns(methodCall, "" + value);
+    protected byte reportReturn(MethodCall methodCall, byte value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -157,8 +304,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value int return value.
      * @return the int return value as passed in.
      */
-    protected int reportReturn(String methodCall, int value) {
-        reportAllReturns(methodCall, "" + value);
+    protected int reportReturn(MethodCall methodCall, int value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -169,8 +316,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value double return value.
      * @return the double return value as passed in.
      */
-    protected double reportReturn(String methodCall, double value) {
-        reportAllReturns(methodCall, "" + value);
+    protected double reportReturn(MethodCall methodCall, double value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -181,8 +328,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value short return value.
      * @return the short return value as passed in.
      */
-    protected short reportReturn(String methodCall, short value) {
-        reportAllReturns(methodCall, "" + value);
+    protected short reportReturn(MethodCall methodCall, short value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -193,8 +340,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value long return value.
      * @return the long return value as passed in.
      */
-    protected long reportReturn(String methodCall, long value) {
-        reportAllReturns(methodCall, "" + value);
+    protected long reportReturn(MethodCall methodCall, long value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -205,8 +352,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value float return value.
      * @return the float return value as passed in.
      */
-    protected float reportReturn(String methodCall, float value) {
-        reportAllReturns(methodCall, "" + value);
+    protected float reportReturn(MethodCall methodCall, float value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -217,8 +364,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param value return Object.
      * @return the return Object as passed in.
      */
-    protected <T> T reportReturn(String methodCall, T value) {
-        reportAllReturns(methodCall, "" + value);
+    protected <T> T reportReturn(MethodCall methodCall, T value) {
+        reportAllReturns(methodCall.returning(value));
         return value;
     }
 
@@ -227,8 +374,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      *
      * @param methodCall description of method call and arguments passed to it that returned.
      */
-    protected void reportReturn(String methodCall) {
-        reportAllReturns(methodCall, "");
+    protected void reportReturn(MethodCall methodCall) {
+        reportAllReturns(methodCall);
     }
 
     /**
@@ -243,7 +390,8 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param sql        the SQL being run
      * @param methodCall the name of the method that was running the SQL
      */
-    protected void reportStatementSql(String sql, String methodCall) {
+    protected void reportStatementSql(String sql, MethodCall methodCall) {
+        sample(sql);
         // redirect to one more method call ONLY so that stack trace search is consistent
         // with the reportReturn calls
         reportSql2(sql, methodCall);
@@ -256,10 +404,24 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param sql        the SQL being run
      * @param methodCall the name of the method that was running the SQL
      */
-    protected void reportStatementSqlTiming(long execTimeNanoSec, String sql, String methodCall) {
+    protected void reportStatementSqlTiming(long execTimeNanoSec, String sql, MethodCall methodCall) {
         // redirect to one more method call ONLY so that stack trace search is consistent
         // with the reportReturn calls
-        reportSqlTiming2(execTimeNanoSec, sql, methodCall);
+        reportSqlTiming2(execTimeNanoSec, sql, methodCall, false, -1L);
+    }
+
+    /**
+     * Report SQL for logging with a warning that it was generated from a statement.
+     *
+     * @param execTimeNanoSec   execution time in nanoseconds.
+     * @param sql        the SQL being run
+     * @param methodCall the name of the method that was running the SQL
+     * @param rows       the update count returned by the SQL.
+     */
+    protected void reportStatementSqlTiming(long execTimeNanoSec, String sql, MethodCall methodCall, long rows) {
+        // redirect to one more method call ONLY so that stack trace search is consistent
+        // with the reportReturn calls
+        reportSqlTiming2(execTimeNanoSec, sql, methodCall, false, rows);
     }
 
     /**
@@ -269,37 +431,241 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
      * @param sql        the SQL being run
      * @param methodCall the name of the method that was running the SQL
      */
-    protected void reportSqlTiming(long execTimeNanoSec, String sql, String methodCall) {
+    protected void reportSqlTiming(long execTimeNanoSec, String sql, MethodCall methodCall) {
         // redirect to one more method call ONLY so that stack trace search is consistent
         // with the reportReturn calls
-        reportSqlTiming2(execTimeNanoSec, sql, methodCall);
+        reportSqlTiming2(execTimeNanoSec, sql, methodCall, false, -1L);
     }
 
     /**
      * Report SQL for logging.
      *
+     * @param execTimeNanoSec   execution time in nanoseconds.
      * @param sql        the SQL being run
      * @param methodCall the name of the method that was running the SQL
+     * @param rows       the update count returned by the SQL.
+     */
+    protected void reportSqlTiming(long execTimeNanoSec, String sql, MethodCall methodCall, long rows) {
+        // redirect to one more method call ONLY so that stack trace search is consistent
+        // with the reportReturn calls
+        reportSqlTiming2(execTimeNanoSec, sql, methodCall, false, rows);
+    }
+
+    /**
+     * Report the timing of a batch for logging.
+     *
+     * @param execTimeNanoSec   execution time in nanoseconds.
+     * @param sql        the report of the batched SQL
+     * @param methodCall the name of the method that was running the batch
+     * @param rows       the total of the update counts returned by the batch.
      */
-    protected void reportSql(String sql, String methodCall) {
+    protected void reportBatchSqlTiming(long execTimeNanoSec, String sql, MethodCall methodCall, long rows) {
+        // redirect to one more method call ONLY so that stack trace search is consistent
+        // with the reportReturn calls
+        reportSqlTiming2(execTimeNanoSec, sql, methodCall, true, rows);
+    }
+
+    /**
+     * Report a batch that failed to be logged.
+     *
+     * @param methodCall description of method call and arguments passed to it that generated the exception.
+     * @param exception exception that was generated
+     * @param sql the report of the batched SQL.
+     * @param execTimeNanoSec amount of time that the jdbc driver was chugging on the batch before it threw an exception.
+     */
+    protected void reportBatchException(MethodCall methodCall, SQLException exception, String sql, long execTimeNanoSec) {
+        recordStats(sql, true, execTimeNanoSec, -1L, true);
+        if(LoggingSwitch.isEnabled()) {
+            log.exceptionOccured(this, methodCall, exception, sql, execTimeNanoSec);
+        }
+    }
+
+    /**
+     * Get the fingerprint of the given SQL, which statistics are collected under.
+     *
+     * @param sql the SQL being run.
+     * @return the fingerprint, or null if sql is null.
+     */
+    protected SqlFingerprint fingerprint(String sql) {
+        // SQL run through a Statement usually still contains its literals, so it isn't worth caching
+        return fingerprinter.fingerprint(sql, parameterFormatter.isBackslashEscaping());
+    }
+
+    /**
+     * Get the fingerprint of the current batch, which statistics are collected under.  A Statement batch can mix any
+     * number of different statements, so it has no fingerprint.
+     *
+     * @return the fingerprint, or null if the batch has none.
+     */
+    protected SqlFingerprint batchFingerprint() {
+        return null;
+    }
+
+    /**
+     * Get the fingerprint of the SQL of a logging event.
+     *
+     * @param spy        the JdbcSpy the event happened on.
+     * @param methodCall the method that ran the SQL, to tell batches apart.
+     * @param sql        the SQL that was run.
+     * @return the fingerprint, or null if the spy is not a statement or the SQL has none.
+     */
+    static SqlFingerprint fingerprintOf(JdbcSpy spy, MethodCall methodCall, String sql) {
+
+        if(!(spy instanceof LoggingStatement)) {
+            return null;
+        }
+
+        LoggingStatement<?> statement = (LoggingStatement<?>)spy;
+        String name = (methodCall != null) ? methodCall.getName() : null;
+
+        if("executeBatch".equals(name) || "executeLargeBatch".equals(name)) {
+            return statement.batchFingerprint();
+        }
+
+        return statement.fingerprint(sql);
+
+    }
+
+    /**
+     * Decide if the execution about to be made is logged.  This is decided before any of its SQL is built, so that
+     * the executions that are not sampled never build it.
+     *
+     * @param sql the SQL about to be run, which is only needed to fingerprint it.
+     * @return true if the execution is logged.
+     */
+    protected boolean sample(String sql) {
+        sampledOut = (sampler != null) && LoggingSwitch.isEnabled()
+            && !(sampler.sample() && (!sampler.isRateLimited() || sampler.acquire(fingerprint(sql))));
+        return !sampledOut;
+    }
+
+    /**
+     * Determine if the execution currently being made was not picked by the sampler.
+     *
+     * @return true if the execution is not logged.
+     */
+    protected boolean isSampledOut() {
+        return sampledOut;
+    }
+
+    /**
+     * Build the SQL of an execution that was not sampled but is logged anyway, because it failed or took longer than
+     * <b>log4jdbc.sample.threshold</b>.  Statements always have their SQL, so this is only needed by subclasses that
+     * skip building it.
+     *
+     * @return the SQL that was run.
+     */
+    protected String unsampledSql() {
+        return null;
+    }
+
+    private void recordStats(String sql, boolean batch, long execTimeNanoSec, long rows, boolean failed) {
+
+        connection.recordTransactionStatement(execTimeNanoSec);
+
+        if(statsCollector == null) {
+            return;
+        }
+
+        SqlFingerprint fingerprint = batch ? batchFingerprint() : fingerprint(sql);
+
+        if(fingerprint != null) {
+            statsCollector.record(fingerprint, execTimeNanoSec, rows, failed);
+        }
+
+        if(!failed) {
+            connection.recordLatency(execTimeNanoSec);
+        }
+
+    }
+
+    /**
+     * Wrap the ResultSet of the current result.  The driver returns the same ResultSet every time it is asked for the
+     * current result, so it keeps the same wrapper.  A driver that returns another one has let go of the first.
+     *
+     * @param r the real ResultSet.
+     * @return the LoggingResultSet wrapping it.
+     */
+    protected LoggingResultSet wrapResultSet(ResultSet r) {
+        if((currentResultSet != null) && (currentResultSet.getDelegate() == r)) {
+            return currentResultSet;
+        }
+        closeCurrentResultSet();
+        currentResultSet = new LoggingResultSet(this, r);
+        return currentResultSet;
+    }
+
+    private void keepCurrentResultSet() {
+        if(currentResultSet != null) {
+            if(keptResultSets == null) {
+                keptResultSets = new ArrayList<>(2);
+            }
+            keptResultSets.add(currentResultSet);
+            currentResultSet = null;
+        }
+    }
+
+    private void closeCurrentResultSet() {
+        LoggingResultSet r = currentResultSet;
+        if(r != null) {
+            currentResultSet = null;
+            r.closedByStatement();
+        }
+    }
+
+    private void closeKeptResultSets() {
+        if((keptResultSets != null) && !keptResultSets.isEmpty()) {
+            for(LoggingResultSet r : keptResultSets) {
+                r.closedByStatement();
+            }
+            keptResultSets.clear();
+        }
+    }
+
+    private void closeResultSets() {
+        closeCurrentResultSet();
+        closeKeptResultSets();
+        LoggingResultSet r = generatedKeys;
+        if(r != null) {
+            generatedKeys = null;
+            r.closedByStatement();
+        }
+    }
+
+    /**
+     * Report SQL for logging.
+     *
+     * @param sql        the SQL being run
+     * @param methodCall the name of the method that was running the SQL
+     */
+    protected void reportSql(String sql, MethodCall methodCall) {
         // redirect to one more method call ONLY so that stack trace search is consistent
         // with the reportReturn calls
         reportSql2(sql, methodCall);
     }
 
-    private void reportSql2(String sql, String methodCall) {
+    private void reportSql2(String sql, MethodCall methodCall) {
+        // running anything closes the ResultSets of the previous execution
+        closeResultSets();
         currentSql = sql;
-        log.sqlOccured(this, methodCall, sql);
+        if(LoggingSwitch.isEnabled() && !sampledOut) {
+            log.sqlOccured(this, methodCall, sql);
+        }
     }
 
-    private void reportSqlTiming2(long execTimeNanoSec, String sql, String methodCall) {
-        log.sqlTimingOccured(this, execTimeNanoSec, methodCall, sql);
+    private void reportSqlTiming2(long execTimeNanoSec, String sql, MethodCall methodCall, boolean batch, long rows) {
+        recordStats(sql, batch, execTimeNanoSec, rows, false);
+        lastSql = sql;
+        lastExecTimeNanoSec = execTimeNanoSec;
+        if(LoggingSwitch.isEnabled() && (!sampledOut || sampler.isAlwaysLogged(execTimeNanoSec))) {
+            log.sqlTimingOccured(this, execTimeNanoSec, methodCall, (sql != null) ? sql : unsampledSql());
+        }
         currentSql = null;
     }
 
     // implementation of interface methods
     public SQLWarning getWarnings() throws SQLException {
-        String methodCall = "getWarnings()";
+        MethodCall methodCall = call("getWarnings");
         try {
             return reportReturn(methodCall, delegate.getWarnings());
         }
@@ -310,12 +676,12 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
-        String methodCall = "executeUpdate(" + sql + ", " + columnNames + ")";
+        MethodCall methodCall = call("executeUpdate").arg(sql).arg(columnNames);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
             int result = delegate.executeUpdate(sql, columnNames);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -325,7 +691,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean execute(String sql, String[] columnNames) throws SQLException {
-        String methodCall = "execute(" + sql + ", " + columnNames + ")";
+        MethodCall methodCall = call("execute").arg(sql).arg(columnNames);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
@@ -340,7 +706,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setMaxRows(int max) throws SQLException {
-        String methodCall = "setMaxRows(" + max + ")";
+        MethodCall methodCall = call("setMaxRows").arg(max);
         try {
             delegate.setMaxRows(max);
         }
@@ -352,10 +718,12 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean getMoreResults() throws SQLException {
-        String methodCall = "getMoreResults()";
+        MethodCall methodCall = call("getMoreResults");
 
         try {
-            return reportReturn(methodCall, delegate.getMoreResults());
+            boolean result = delegate.getMoreResults();
+            closeCurrentResultSet();
+            return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -364,7 +732,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void clearWarnings() throws SQLException {
-        String methodCall = "clearWarnings()";
+        MethodCall methodCall = call("clearWarnings");
         try {
             delegate.clearWarnings();
         }
@@ -376,15 +744,17 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     /**
-     * Tracking of current batch (see addBatch, clearBatch and executeBatch)
-     * //todo: should access to this List be synchronized?
+     * Tracking of current batch (see addBatch, clearBatch and executeBatch), which only keeps the statements it needs
+     * for its report.
      */
-    protected List<String> currentBatch = new ArrayList<>();
+    protected BatchCapture currentBatch = new BatchCapture(LoggingDriver.config.getBatchCaptureRows());
 
     public void addBatch(String sql) throws SQLException {
-        String methodCall = "addBatch(" + sql + ")";
+        MethodCall methodCall = call("addBatch").arg(sql);
 
-        currentBatch.add(StatementSqlWarning + sql);
+        if(LoggingSwitch.isEnabled()) {
+            currentBatch.add(StatementSqlWarning + sql);
+        }
         try {
             delegate.addBatch(sql);
         }
@@ -396,7 +766,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getResultSetType() throws SQLException {
-        String methodCall = "getResultSetType()";
+        MethodCall methodCall = call("getResultSetType");
         try {
             return reportReturn(methodCall, delegate.getResultSetType());
         }
@@ -407,7 +777,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void clearBatch() throws SQLException {
-        String methodCall = "clearBatch()";
+        MethodCall methodCall = call("clearBatch");
         try {
             delegate.clearBatch();
         }
@@ -420,7 +790,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setFetchDirection(int direction) throws SQLException {
-        String methodCall = "setFetchDirection(" + direction + ")";
+        MethodCall methodCall = call("setFetchDirection").arg(direction);
         try {
             delegate.setFetchDirection(direction);
         }
@@ -432,29 +802,11 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int[] executeBatch() throws SQLException {
-        String methodCall = "executeBatch()";
-
-        int j = currentBatch.size();
-        String sql;
-
-        if(j > 1) {
-            StringBuffer batchReport = new StringBuffer("batching " + j + " statements:");
+        MethodCall methodCall = call("executeBatch");
 
-            int fieldSize = ("" + j).length();
-
-            for(int i = 0; i < j; ) {
-                sql = currentBatch.get(i);
-                batchReport.append("\n");
-                batchReport.append(Utilities.rightJustify(fieldSize, "" + (++i)));
-                batchReport.append(":  ");
-                batchReport.append(sql);
-            }
-
-            sql = batchReport.toString();
-
-        } else {
-            sql = currentBatch.get(0);
-        }
+        // nothing is logged when switched off, so don't build the batch report
+        // batches added while logging was switched off are not captured, so this may report 0 statements
+        String sql = LoggingSwitch.isEnabled() ? currentBatch.report() : null;
 
         reportSql(sql, methodCall);
         long tstartNano = System.nanoTime();
@@ -462,18 +814,73 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
         int[] updateResults;
         try {
             updateResults = delegate.executeBatch();
-            reportSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            long execTimeNanoSec = System.nanoTime() - tstartNano;
+            recordBatchStats(execTimeNanoSec, updateResults, false);
+            reportBatchSqlTiming(execTimeNanoSec, batchTimingSql(sql, execTimeNanoSec), methodCall, Utilities.sumUpdateCounts(updateResults));
         }
         catch(SQLException s) {
-            reportException(methodCall, s, sql, System.nanoTime() - tstartNano);
+            long execTimeNanoSec = System.nanoTime() - tstartNano;
+            recordBatchStats(execTimeNanoSec, (s instanceof BatchUpdateException) ? ((BatchUpdateException)s).getUpdateCounts() : null, true);
+            reportBatchException(methodCall, s, sql, execTimeNanoSec);
             throw s;
         }
-        currentBatch.clear();
+        finally {
+            // the batch of the delegate is reset once executeBatch returns, even if it failed
+            currentBatch.clear();
+        }
         return reportReturn(methodCall, updateResults);
     }
 
+    /**
+     * Record the batch that just ran into the batch statistics of its statement.
+     *
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @param updateCounts    the update counts returned by the batch or its BatchUpdateException, or null if not known.
+     * @param failed          true if the batch threw an SQLException.
+     */
+    private void recordBatchStats(long execTimeNanoSec, int[] updateCounts, boolean failed) {
+        SqlFingerprint fingerprint = (statsCollector != null) ? batchFingerprint() : null;
+        if(fingerprint != null) {
+            statsCollector.recordBatch(fingerprint, execTimeNanoSec, batchSize((updateCounts != null) ? updateCounts.length : 0), updateCounts, failed);
+        }
+    }
+
+    /**
+     * Record the large batch that just ran into the batch statistics of its statement.
+     *
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @param updateCounts    the update counts returned by the batch or its BatchUpdateException, or null if not known.
+     * @param failed          true if the batch threw an SQLException.
+     */
+    private void recordBatchStats(long execTimeNanoSec, long[] updateCounts, boolean failed) {
+        SqlFingerprint fingerprint = (statsCollector != null) ? batchFingerprint() : null;
+        if(fingerprint != null) {
+            statsCollector.recordBatch(fingerprint, execTimeNanoSec, batchSize((updateCounts != null) ? updateCounts.length : 0), updateCounts, failed);
+        }
+    }
+
+    /**
+     * Get the size of the batch that just ran.  Statements added while logging was switched off are not captured, and
+     * a failed batch may only return the update counts of the statements before the failure, so the larger of the two
+     * is taken.
+     */
+    private int batchSize(int updateCounts) {
+        return Math.max(currentBatch.size(), updateCounts);
+    }
+
+    /**
+     * Add the summary of the batch that just ran to its report, for the timing report.
+     *
+     * @param sql             the report of the batch, or null if it was not built.
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @return the report with the summary, or null if there is no report.
+     */
+    private String batchTimingSql(String sql, long execTimeNanoSec) {
+        return (sql != null) ? sql + currentBatch.summary(execTimeNanoSec) : null;
+    }
+
     public void setFetchSize(int rows) throws SQLException {
-        String methodCall = "setFetchSize(" + rows + ")";
+        MethodCall methodCall = call("setFetchSize").arg(rows);
         try {
             delegate.setFetchSize(rows);
         }
@@ -485,7 +892,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getQueryTimeout() throws SQLException {
-        String methodCall = "getQueryTimeout()";
+        MethodCall methodCall = call("getQueryTimeout");
         try {
             return reportReturn(methodCall, delegate.getQueryTimeout());
         }
@@ -496,19 +903,22 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public Connection getConnection() throws SQLException {
-        String methodCall = "getConnection()";
+        MethodCall methodCall = call("getConnection");
         return reportReturn(methodCall, connection);
     }
 
     public ResultSet getGeneratedKeys() throws SQLException {
-        String methodCall = "getGeneratedKeys()";
+        MethodCall methodCall = call("getGeneratedKeys");
         try {
             ResultSet r = delegate.getGeneratedKeys();
             if(r == null) {
                 return reportReturn(methodCall, r);
             }
             else {
-                return reportReturn(methodCall, new LoggingResultSet(this, r));
+                if((generatedKeys == null) || (generatedKeys.getDelegate() != r)) {
+                    generatedKeys = new LoggingResultSet(this, r);
+                }
+                return reportReturn(methodCall, generatedKeys);
             }
         }
         catch(SQLException s) {
@@ -518,7 +928,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setEscapeProcessing(boolean enable) throws SQLException {
-        String methodCall = "setEscapeProcessing(" + enable + ")";
+        MethodCall methodCall = call("setEscapeProcessing").arg(enable);
         try {
             delegate.setEscapeProcessing(enable);
         }
@@ -530,7 +940,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getFetchDirection() throws SQLException {
-        String methodCall = "getFetchDirection()";
+        MethodCall methodCall = call("getFetchDirection");
         try {
             return reportReturn(methodCall, delegate.getFetchDirection());
         }
@@ -541,7 +951,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setQueryTimeout(int seconds) throws SQLException {
-        String methodCall = "setQueryTimeout(" + seconds + ")";
+        MethodCall methodCall = call("setQueryTimeout").arg(seconds);
         try {
             delegate.setQueryTimeout(seconds);
         }
@@ -553,10 +963,20 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean getMoreResults(int current) throws SQLException {
-        String methodCall = "getMoreResults(" + current + ")";
+        MethodCall methodCall = call("getMoreResults").arg(current);
 
         try {
-            return reportReturn(methodCall, delegate.getMoreResults(current));
+            boolean result = delegate.getMoreResults(current);
+            if(current == KEEP_CURRENT_RESULT) {
+                keepCurrentResultSet();
+            }
+            else {
+                if(current == CLOSE_ALL_RESULTS) {
+                    closeKeptResultSets();
+                }
+                closeCurrentResultSet();
+            }
+            return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
             reportException(methodCall, s);
@@ -565,14 +985,13 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public ResultSet executeQuery(String sql) throws SQLException {
-        String methodCall = "executeQuery(" + sql + ")";
+        MethodCall methodCall = call("executeQuery").arg(sql);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
             ResultSet result = delegate.executeQuery(sql);
             reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
-            LoggingResultSet r = new LoggingResultSet(this, result);
-            return reportReturn(methodCall, r);
+            return reportReturn(methodCall, wrapResultSet(result));
         }
         catch(SQLException s) {
             reportException(methodCall, s, sql, System.nanoTime() - tstartNano);
@@ -581,7 +1000,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getMaxFieldSize() throws SQLException {
-        String methodCall = "getMaxFieldSize()";
+        MethodCall methodCall = call("getMaxFieldSize");
         try {
             return reportReturn(methodCall, delegate.getMaxFieldSize());
         }
@@ -592,12 +1011,12 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int executeUpdate(String sql) throws SQLException {
-        String methodCall = "executeUpdate(" + sql + ")";
+        MethodCall methodCall = call("executeUpdate").arg(sql);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
             int result = delegate.executeUpdate(sql);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -607,7 +1026,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void cancel() throws SQLException {
-        String methodCall = "cancel()";
+        MethodCall methodCall = concurrentCall("cancel");
         try {
             delegate.cancel();
         }
@@ -619,7 +1038,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setCursorName(String name) throws SQLException {
-        String methodCall = "setCursorName(" + name + ")";
+        MethodCall methodCall = call("setCursorName").arg(name);
         try {
             delegate.setCursorName(name);
         }
@@ -631,7 +1050,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getFetchSize() throws SQLException {
-        String methodCall = "getFetchSize()";
+        MethodCall methodCall = call("getFetchSize");
         try {
             return reportReturn(methodCall, delegate.getFetchSize());
         }
@@ -642,7 +1061,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getResultSetConcurrency() throws SQLException {
-        String methodCall = "getResultSetConcurrency()";
+        MethodCall methodCall = call("getResultSetConcurrency");
         try {
             return reportReturn(methodCall, delegate.getResultSetConcurrency());
         }
@@ -653,7 +1072,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getResultSetHoldability() throws SQLException {
-        String methodCall = "getResultSetHoldability()";
+        MethodCall methodCall = call("getResultSetHoldability");
         try {
             return reportReturn(methodCall, delegate.getResultSetHoldability());
         }
@@ -664,7 +1083,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean isClosed() throws SQLException {
-        String methodCall = "isClosed()";
+        MethodCall methodCall = concurrentCall("isClosed");
         try {
             return reportReturn(methodCall, delegate.isClosed());
         }
@@ -675,7 +1094,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setPoolable(boolean poolable) throws SQLException {
-        String methodCall = "setPoolable(" + poolable + ")";
+        MethodCall methodCall = call("setPoolable").arg(poolable);
         try {
             delegate.setPoolable(poolable);
         }
@@ -687,7 +1106,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean isPoolable() throws SQLException {
-        String methodCall = "isPoolable()";
+        MethodCall methodCall = call("isPoolable");
         try {
             return reportReturn(methodCall, delegate.isPoolable());
         }
@@ -699,7 +1118,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public void closeOnCompletion() throws SQLException {
-        String methodCall = "closeOnCompletion()";
+        MethodCall methodCall = call("closeOnCompletion");
         try {
             delegate.closeOnCompletion();
         }
@@ -712,7 +1131,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public boolean isCloseOnCompletion() throws SQLException {
-        String methodCall = "isCloseOnCompletion()";
+        MethodCall methodCall = call("isCloseOnCompletion");
         try {
             return reportReturn(methodCall, delegate.isCloseOnCompletion());
         }
@@ -724,7 +1143,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long getLargeUpdateCount() throws SQLException {
-        String methodCall = "getLargeUpdateCount()";
+        MethodCall methodCall = call("getLargeUpdateCount");
         try {
             return reportReturn(methodCall, delegate.getLargeUpdateCount());
         }
@@ -736,7 +1155,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public void setLargeMaxRows(long max) throws SQLException {
-        String methodCall = "setLargeMaxRows(" + max + ")";
+        MethodCall methodCall = call("setLargeMaxRows").arg(max);
         try {
             delegate.setLargeMaxRows(max);
         }
@@ -749,7 +1168,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long getLargeMaxRows() throws SQLException {
-        String methodCall = "getLargeMaxRows()";
+        MethodCall methodCall = call("getLargeMaxRows");
         try {
             return reportReturn(methodCall, delegate.getLargeMaxRows());
         }
@@ -761,47 +1180,42 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        String methodCall = "executeLargeBatch()";
+        MethodCall methodCall = call("executeLargeBatch");
 
-        int j = currentBatch.size();
-        StringBuffer batchReport = new StringBuffer("batching " + j + " statements:");
+        // nothing is logged when switched off, so don't build the batch report
+        String sql = LoggingSwitch.isEnabled() ? currentBatch.report() : null;
 
-        int fieldSize = ("" + j).length();
-
-        String sql;
-        for(int i = 0; i < j; ) {
-            sql = currentBatch.get(i);
-            batchReport.append("\n");
-            batchReport.append(Utilities.rightJustify(fieldSize, "" + (++i)));
-            batchReport.append(":  ");
-            batchReport.append(sql);
-        }
-
-        sql = batchReport.toString();
         reportSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
         long[] updateResults;
         try {
             updateResults = delegate.executeLargeBatch();
-            reportSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            long execTimeNanoSec = System.nanoTime() - tstartNano;
+            recordBatchStats(execTimeNanoSec, updateResults, false);
+            reportBatchSqlTiming(execTimeNanoSec, batchTimingSql(sql, execTimeNanoSec), methodCall, Utilities.sumUpdateCounts(updateResults));
         }
         catch(SQLException s) {
-            reportException(methodCall, s, sql, System.nanoTime() - tstartNano);
+            long execTimeNanoSec = System.nanoTime() - tstartNano;
+            recordBatchStats(execTimeNanoSec, (s instanceof BatchUpdateException) ? ((BatchUpdateException)s).getLargeUpdateCounts() : null, true);
+            reportBatchException(methodCall, s, sql, execTimeNanoSec);
             throw s;
         }
-        currentBatch.clear();
+        finally {
+            // the batch of the delegate is reset once executeBatch returns, even if it failed
+            currentBatch.clear();
+        }
         return reportReturn(methodCall, updateResults);
     }
 
     @Override
     public long executeLargeUpdate(String sql) throws SQLException {
-        String methodCall = "executeLargeUpdate(" + sql + ")";
+        MethodCall methodCall = call("executeLargeUpdate").arg(sql);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
             long result = delegate.executeLargeUpdate(sql);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -812,13 +1226,13 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        String methodCall = "executeLargeUpdate(" + sql + ", " + autoGeneratedKeys + ")";
+        MethodCall methodCall = call("executeLargeUpdate").arg(sql).arg(autoGeneratedKeys);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             long result = delegate.executeLargeUpdate(sql, autoGeneratedKeys);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -829,13 +1243,13 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        String methodCall = "executeLargeUpdate(" + sql + ", " + columnIndexes + ")";
+        MethodCall methodCall = call("executeLargeUpdate").arg(sql).arg(columnIndexes);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             long result = delegate.executeLargeUpdate(sql, columnIndexes);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -846,12 +1260,12 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
 
     @Override
     public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
-        String methodCall = "executeLargeUpdate(" + sql + ", " + columnNames + ")";
+        MethodCall methodCall = call("executeLargeUpdate").arg(sql).arg(columnNames);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
         try {
             long result = delegate.executeLargeUpdate(sql, columnNames);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -861,7 +1275,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void setMaxFieldSize(int max) throws SQLException {
-        String methodCall = "setMaxFieldSize(" + max + ")";
+        MethodCall methodCall = call("setMaxFieldSize").arg(max);
         try {
             delegate.setMaxFieldSize(max);
         }
@@ -873,7 +1287,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean execute(String sql) throws SQLException {
-        String methodCall = "execute(" + sql + ")";
+        MethodCall methodCall = call("execute").arg(sql);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
@@ -889,13 +1303,13 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        String methodCall = "executeUpdate(" + sql + ", " + autoGeneratedKeys + ")";
+        MethodCall methodCall = call("executeUpdate").arg(sql).arg(autoGeneratedKeys);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             int result = delegate.executeUpdate(sql, autoGeneratedKeys);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -905,7 +1319,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
-        String methodCall = "execute(" + sql + ", " + autoGeneratedKeys + ")";
+        MethodCall methodCall = call("execute").arg(sql).arg(autoGeneratedKeys);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
@@ -921,13 +1335,13 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        String methodCall = "executeUpdate(" + sql + ", " + columnIndexes + ")";
+        MethodCall methodCall = call("executeUpdate").arg(sql).arg(columnIndexes);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
         try {
             int result = delegate.executeUpdate(sql, columnIndexes);
-            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall);
+            reportStatementSqlTiming(System.nanoTime() - tstartNano, sql, methodCall, result);
             return reportReturn(methodCall, result);
         }
         catch(SQLException s) {
@@ -937,7 +1351,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean execute(String sql, int[] columnIndexes) throws SQLException {
-        String methodCall = "execute(" + sql + ", " + columnIndexes + ")";
+        MethodCall methodCall = call("execute").arg(sql).arg(columnIndexes);
         reportStatementSql(sql, methodCall);
         long tstartNano = System.nanoTime();
 
@@ -953,14 +1367,14 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public ResultSet getResultSet() throws SQLException {
-        String methodCall = "getResultSet()";
+        MethodCall methodCall = call("getResultSet");
         try {
             ResultSet r = delegate.getResultSet();
             if(r == null) {
                 return reportReturn(methodCall, r);
             }
             else {
-                return reportReturn(methodCall, new LoggingResultSet(this, r));
+                return reportReturn(methodCall, wrapResultSet(r));
             }
         }
         catch(SQLException s) {
@@ -970,7 +1384,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public int getMaxRows() throws SQLException {
-        String methodCall = "getMaxRows()";
+        MethodCall methodCall = call("getMaxRows");
         try {
             return reportReturn(methodCall, delegate.getMaxRows());
         }
@@ -981,7 +1395,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public void close() throws SQLException {
-        String methodCall = "close()";
+        MethodCall methodCall = concurrentCall("close");
         try {
             delegate.close();
         }
@@ -990,13 +1404,17 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
             throw s;
         }
         finally {
+            closeResultSets();
             LoggingConnection.getConnectionTracker().untrack(this);
+            if(leakResource != null) {
+                LoggingConnection.getLeakDetector().close(leakResource);
+            }
         }
         reportReturn(methodCall);
     }
 
     public int getUpdateCount() throws SQLException {
-        String methodCall = "getUpdateCount()";
+        MethodCall methodCall = call("getUpdateCount");
         try {
             return reportReturn(methodCall, delegate.getUpdateCount());
         }
@@ -1007,7 +1425,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        String methodCall = "unwrap(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("unwrap").arg(iface);
         try {
             //todo: double check this logic
             return reportReturn(methodCall, (iface != null && (iface == Connection.class || iface == JdbcSpy.class)) ? (T)this : delegate.unwrap(iface));
@@ -1019,7 +1437,7 @@ public class LoggingStatement<S extends Statement> implements Statement, JdbcSpy
     }
 
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        String methodCall = "isWrapperFor(" + (iface == null ? "null" : iface.getName()) + ")";
+        MethodCall methodCall = call("isWrapperFor").arg(iface);
         try {
             return reportReturn(methodCall, (iface != null && (iface == Statement.class || iface == JdbcSpy.class)) || delegate.isWrapperFor(iface));
         }
@@ -0,0 +1,114 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single process wide switch that decides whether the Logging* wrappers do any logging work at all.
+ * <p>
+ * Every wrapper checks this switch on each call, and when it is off the call falls straight through to the
+ * underlying JDBC object without building descriptions, formatting bind variables or calling the SpyLogDelegator.
+ * This is what allows long lived pooled connections to be wrapped once and then have their logging turned on and
+ * off at runtime.
+ * <p>
+ * By default the switch follows the jdbc loggers: it is on whenever {@link SpyLogDelegator#isJdbcLoggingEnabled()}
+ * is true.  SLF4J has no way to notify anyone of level changes, so the loggers are re-checked on every
+ * {@link LoggingDriver#connect} call, whenever {@link #refresh()} is called and, if <b>log4jdbc.hotswitch</b> is
+ * enabled, every <b>log4jdbc.hotswitch.refresh.interval</b> milliseconds by a background thread.  The switch can
+ * also be forced on or off through {@link #enable()} and {@link #disable()}.
+ */
+public final class LoggingSwitch {
+
+    private static final SpyLogDelegator log = SpyLogFactory.getSpyLogDelegator();
+
+    private static volatile boolean enabled = log.isJdbcLoggingEnabled();
+
+    /**
+     * Value the switch has been forced to through the API, or null if it follows the loggers.
+     */
+    private static volatile Boolean forced;
+
+    private static ScheduledExecutorService refresher;
+
+    /**
+     * Do not allow instantiation.  Access is through static methods.
+     */
+    private LoggingSwitch() {
+    }
+
+    /**
+     * Determine if the Logging* wrappers should currently do any logging work.
+     *
+     * @return true if logging is switched on.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Force logging on, regardless of the logger levels, until {@link #reset()} is called.
+     */
+    public static void enable() {
+        forced = Boolean.TRUE;
+        refresh();
+    }
+
+    /**
+     * Force logging off, regardless of the logger levels, until {@link #reset()} is called.
+     */
+    public static void disable() {
+        forced = Boolean.FALSE;
+        refresh();
+    }
+
+    /**
+     * Stop forcing the switch on or off and go back to following the logger levels.
+     */
+    public static void reset() {
+        forced = null;
+        refresh();
+    }
+
+    /**
+     * Re-evaluate the switch, either from the value it has been forced to or from the current logger levels.
+     *
+     * @return the new state of the switch.
+     */
+    public static boolean refresh() {
+
+        Boolean f = forced;
+        boolean value = (f != null) ? f : log.isJdbcLoggingEnabled();
+
+        // only write when the state changes so that readers on other cores keep their cached copy
+        if(value != enabled) {
+            enabled = value;
+            log.debug("log4jdbc logging switched " + (value ? "on" : "off"));
+        }
+
+        return value;
+
+    }
+
+    /**
+     * Start a background thread that re-checks the logger levels at a fixed interval.
+     *
+     * @param intervalMillis how often to re-check the logger levels, in milliseconds.
+     */
+    static synchronized void startRefreshing(long intervalMillis) {
+
+        if((refresher != null) || (intervalMillis <= 0L)) {
+            return;
+        }
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "log4jdbc-hotswitch");
+            t.setDaemon(true);
+            return t;
+        });
+
+        refresher.scheduleWithFixedDelay(LoggingSwitch::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+    }
+
+}
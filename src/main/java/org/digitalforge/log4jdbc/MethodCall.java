@@ -0,0 +1,352 @@
+package org.digitalforge.log4jdbc;
+
+import org.digitalforge.log4jdbc.util.StringBuilderPool;
+
+/**
+ * A reusable description of a call made on one of the Logging* wrappers: the name of the method, the arguments it
+ * was called with and, once the call has completed, the value it returned.
+ * <p>
+ * Arguments and return values are stored exactly as they were passed in, with primitives kept unboxed, and are only
+ * turned into text when {@link #toString()} or {@link #getReturnMessage()} is called.  A SpyLogDelegator only does
+ * that once it has decided that the call is actually going to be logged, so a call that is not logged costs a few
+ * field writes instead of a String concatenation.
+ * <p>
+ * Every wrapper owns a MethodCall which is reset at the start of each forwarding method, so a MethodCall itself is
+ * not safe for use by several threads at once.  The few methods JDBC allows to be called from another thread while
+ * the object is in use, such as <code>Statement.cancel()</code>, <code>close()</code> or
+ * <code>Connection.isValid(int)</code>, describe themselves with a MethodCall of their own instead, so they never
+ * disturb the call they interrupt.  While logging is switched off those calls use {@link #UNDESCRIBED} instead,
+ * which ignores what it is told, so they don't allocate a MethodCall that is never logged.  Anything that needs to
+ * keep a description around after the call has returned must take a copy with {@link #copyFrom(MethodCall)}.
+ */
+public final class MethodCall {
+
+    /**
+     * The most arguments any JDBC method wrapped by log4jdbc takes.
+     */
+    static final int MAX_ARGS = 4;
+
+    private static final byte NONE = 0;
+    private static final byte OBJECT = 1;
+    private static final byte QUOTED = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BOOLEAN = 7;
+
+    /**
+     * A MethodCall shared by every call that is not described because it can't be logged.  It ignores its arguments
+     * and return value, so it can be used by any number of threads at once.
+     */
+    static final MethodCall UNDESCRIBED = new MethodCall(false);
+
+    private final boolean recording;
+
+    private String name;
+
+    /**
+     * True if this describes a method invocation, false if it is a plain description such as "new Statement".
+     */
+    private boolean invocation;
+
+    private int argCount;
+    private final byte[] argKinds = new byte[MAX_ARGS];
+    private final long[] argBits = new long[MAX_ARGS];
+    private final Object[] argObjects = new Object[MAX_ARGS];
+
+    private byte returnKind;
+    private long returnBits;
+    private Object returnObject;
+
+    /**
+     * Create an empty MethodCall.
+     */
+    public MethodCall() {
+        this.recording = true;
+    }
+
+    private MethodCall(boolean recording) {
+        this.recording = recording;
+        this.name = "call made while logging was switched off";
+    }
+
+    /**
+     * Start describing a new method invocation, discarding any previous arguments and return value.
+     *
+     * @param name name of the method being called.
+     * @return this MethodCall.
+     */
+    public MethodCall reset(String name) {
+        if(!recording) {
+            return this;
+        }
+        clear();
+        this.name = name;
+        this.invocation = true;
+        return this;
+    }
+
+    /**
+     * Start describing an event that is not a method invocation, such as the construction of a wrapper.
+     *
+     * @param description text to report for the event.
+     * @return this MethodCall.
+     */
+    public MethodCall describe(String description) {
+        if(!recording) {
+            return this;
+        }
+        clear();
+        this.name = description;
+        this.invocation = false;
+        return this;
+    }
+
+    private void clear() {
+        for(int i = 0; i < argCount; i++) {
+            argObjects[i] = null;
+        }
+        argCount = 0;
+        returnKind = NONE;
+        returnObject = null;
+    }
+
+    private int nextArg(byte kind) {
+        if(argCount == MAX_ARGS) {
+            throw new IllegalStateException("Too many arguments described for " + name);
+        }
+        argKinds[argCount] = kind;
+        return argCount++;
+    }
+
+    public MethodCall arg(int value) {
+        if(recording) {
+            argBits[nextArg(INT)] = value;
+        }
+        return this;
+    }
+
+    public MethodCall arg(long value) {
+        if(recording) {
+            argBits[nextArg(LONG)] = value;
+        }
+        return this;
+    }
+
+    public MethodCall arg(float value) {
+        if(recording) {
+            argBits[nextArg(FLOAT)] = Float.floatToRawIntBits(value);
+        }
+        return this;
+    }
+
+    public MethodCall arg(double value) {
+        if(recording) {
+            argBits[nextArg(DOUBLE)] = Double.doubleToRawLongBits(value);
+        }
+        return this;
+    }
+
+    public MethodCall arg(boolean value) {
+        if(recording) {
+            argBits[nextArg(BOOLEAN)] = value ? 1L : 0L;
+        }
+        return this;
+    }
+
+    public MethodCall arg(Object value) {
+        if(recording) {
+            argObjects[nextArg(OBJECT)] = value;
+        }
+        return this;
+    }
+
+    /**
+     * Add an argument that should be shown surrounded by double quotes.
+     *
+     * @param value argument value.
+     * @return this MethodCall.
+     */
+    public MethodCall quotedArg(Object value) {
+        if(recording) {
+            argObjects[nextArg(QUOTED)] = value;
+        }
+        return this;
+    }
+
+    public MethodCall returning(int value) {
+        if(recording) {
+            returnKind = INT;
+            returnBits = value;
+        }
+        return this;
+    }
+
+    public MethodCall returning(long value) {
+        if(recording) {
+            returnKind = LONG;
+            returnBits = value;
+        }
+        return this;
+    }
+
+    public MethodCall returning(float value) {
+        if(recording) {
+            returnKind = FLOAT;
+            returnBits = Float.floatToRawIntBits(value);
+        }
+        return this;
+    }
+
+    public MethodCall returning(double value) {
+        if(recording) {
+            returnKind = DOUBLE;
+            returnBits = Double.doubleToRawLongBits(value);
+        }
+        return this;
+    }
+
+    public MethodCall returning(boolean value) {
+        if(recording) {
+            returnKind = BOOLEAN;
+            returnBits = value ? 1L : 0L;
+        }
+        return this;
+    }
+
+    public MethodCall returning(Object value) {
+        if(recording) {
+            returnKind = OBJECT;
+            returnObject = value;
+        }
+        return this;
+    }
+
+    /**
+     * Get the name of the method being described.
+     *
+     * @return the method name, or the description for events that are not method invocations.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of arguments that have been described.
+     *
+     * @return the argument count.
+     */
+    public int getArgCount() {
+        return argCount;
+    }
+
+    /**
+     * Replace the contents of this MethodCall with a copy of another one.  Object arguments and return values are
+     * copied by reference.
+     *
+     * @param other MethodCall to copy.
+     * @return this MethodCall.
+     */
+    public MethodCall copyFrom(MethodCall other) {
+        clear();
+        name = other.name;
+        invocation = other.invocation;
+        argCount = other.argCount;
+        System.arraycopy(other.argKinds, 0, argKinds, 0, argCount);
+        System.arraycopy(other.argBits, 0, argBits, 0, argCount);
+        System.arraycopy(other.argObjects, 0, argObjects, 0, argCount);
+        returnKind = other.returnKind;
+        returnBits = other.returnBits;
+        returnObject = other.returnObject;
+        return this;
+    }
+
+    /**
+     * Render the return value the way log4jdbc reports it.
+     *
+     * @return the return value as text, or an empty String if no return value was described (void methods).
+     */
+    public String getReturnMessage() {
+        if(returnKind == NONE) {
+            return "";
+        }
+        return StringBuilderPool.release(appendReturnMessage(StringBuilderPool.acquire()));
+    }
+
+    /**
+     * Render the return value the way log4jdbc reports it onto the end of a StringBuilder.
+     *
+     * @param out the StringBuilder to append to.
+     * @return out.
+     */
+    public StringBuilder appendReturnMessage(StringBuilder out) {
+        if(returnKind != NONE) {
+            appendValue(out, returnKind, returnBits, returnObject);
+        }
+        return out;
+    }
+
+    /**
+     * Render the method invocation onto the end of a StringBuilder.
+     *
+     * @param out the StringBuilder to append to.
+     * @return out.
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        if(!invocation) {
+            return out.append(name);
+        }
+        out.append(name).append('(');
+        for(int i = 0; i < argCount; i++) {
+            if(i > 0) {
+                out.append(", ");
+            }
+            appendValue(out, argKinds[i], argBits[i], argObjects[i]);
+        }
+        out.append(')');
+        return out;
+    }
+
+    /**
+     * Render the method invocation, for example <code>setLong(1, 42)</code>.
+     *
+     * @return the method name and arguments as text.
+     */
+    @Override
+    public String toString() {
+        if(!invocation) {
+            return name;
+        }
+        return StringBuilderPool.release(appendTo(StringBuilderPool.acquire()));
+    }
+
+    private static void appendValue(StringBuilder out, byte kind, long bits, Object object) {
+        switch(kind) {
+            case INT:
+            case LONG:
+                out.append(bits);
+                break;
+            case FLOAT:
+                out.append(Float.intBitsToFloat((int)bits));
+                break;
+            case DOUBLE:
+                out.append(Double.longBitsToDouble(bits));
+                break;
+            case BOOLEAN:
+                out.append(bits != 0L);
+                break;
+            case QUOTED:
+                out.append('"').append(object).append('"');
+                break;
+            default:
+                if(object instanceof Class) {
+                    out.append(((Class<?>)object).getName());
+                }
+                else {
+                    out.append(object);
+                }
+        }
+    }
+
+}
@@ -1,18 +1,34 @@
 package org.digitalforge.log4jdbc;
 
-import java.io.FileReader;
-import java.io.LineNumberReader;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
 
+import org.digitalforge.log4jdbc.sql.SqlFingerprinter;
+import org.digitalforge.log4jdbc.stats.LatencyHistogram;
+import org.digitalforge.log4jdbc.stats.LatencySnapshot;
 import org.digitalforge.log4jdbc.util.Utilities;
 
 /**
  * Post processes an existing sqltiming log, and creates a profiling report from it.
- * Name of log file is passed in on the command line as the only argument.
+ * Name of log file is passed in on the command line as the last argument.
  *
  * Assumptions:
  *
@@ -20,64 +36,174 @@ import org.digitalforge.log4jdbc.util.Utilities;
  * 2. Each sql statement is terminated with the timing string "{executed in N nanoSec}" where N is the number of
  *    nanoseconds that the sql executed in.
  *
+ * The log is memory mapped and split into chunks at blank lines, and the chunks are parsed in parallel on a
+ * fork-join pool.  Only the top offenders are kept, in a bounded heap per chunk, so memory use does not grow with the
+ * size of the log.  The log is expected to be in an ASCII compatible encoding; sql text is decoded with the platform
+ * default charset.
+ *
+ * With <code>-group</code> the report lists statements grouped by their fingerprint instead of the individual slow
+ * statements, with the count, total, mean, p95, p99 and max execution time of each group.  The sql of a group is
+ * taken from the line starting with the connection number ("N. ") onwards, so that any debug info in front of it is
+ * left out.  With <code>-follow</code> the log is processed incrementally: it is checked for new statements every so
+ * many seconds and the report is written again whenever there are any.
+ *
+ * A binary event log written by {@link BinarySpyLogDelegator} is recognized by its header and read sequentially
+ * instead.  Its statements are grouped by the fingerprint they were written with, and a slow statement is shown with
+ * its sql text if that was written, or with its fingerprint if not.
  */
 public class PostLogProfilerProcessor {
 
-    //todo:  needs to be able to gracefully handle sql exceptions in log output
+    /**
+     * Formats the report can be written in.
+     */
+    public enum Format {
+        TEXT, CSV, JSON
+    }
+
+    /**
+     * Orders the statement groups can be listed in, both descending.
+     */
+    public enum SortOrder {
+        TOTAL, COUNT
+    }
+
+    /**
+     * Size of the chunks the log is split into for parsing.  Each chunk ends at the first blank line after this many
+     * bytes, so chunks can be somewhat bigger.
+     */
+    private static final long CHUNK_SIZE = 64L * 1024L * 1024L;
+
+    /**
+     * The most warnings about sql without timing info that are kept to be shown.
+     */
+    private static final int MAX_WARNINGS = 100;
+
+    /**
+     * The most statement groups kept.  Statements that do not fit in are counted in a single group of their own.
+     */
+    private static final int MAX_GROUPS = 10000;
+
+    private static final String OTHER_GROUP = "(other statements)";
+
+    private static final byte[] EXECUTED_IN = "{executed in ".getBytes(Charset.forName("US-ASCII"));
+    private static final byte[] NANOSEC = " nanoSec}".getBytes(Charset.forName("US-ASCII"));
+
+    private static final String USAGE = "usage: java PostLogProfilerProcessor [-group] [-sort total|count] "
+        + "[-format text|csv|json] [-out <report-file>] [-follow <seconds>] <log-file>";
 
     /**
      * Post Process Log4JDBC sqltiming log data.
      *
-     * @param args command line arguments.  Expects one argument, the name of the file to post process.
+     * @param args command line arguments.  Expects the name of the file to post process, preceded by any options.
      * @throws Exception if something goes wrong during processing.
      */
     public static void main(String[] args) throws Exception {
-        if(args.length < 1) {
-            System.out.println("usage: java PostLogProfilerProcessor <log-file>");
+
+        boolean grouped = false;
+        SortOrder sortOrder = SortOrder.TOTAL;
+        Format format = Format.TEXT;
+        String reportFile = null;
+        long followSeconds = 0L;
+
+        int i = 0;
+        try {
+            for(; (i < args.length - 1) && args[i].startsWith("-"); i++) {
+                switch(args[i]) {
+                    case "-group":
+                        grouped = true;
+                        break;
+                    case "-sort":
+                        sortOrder = SortOrder.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "-format":
+                        format = Format.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "-out":
+                        reportFile = args[++i];
+                        break;
+                    case "-follow":
+                        followSeconds = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        }
+        catch(IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            i = args.length;
+        }
+
+        if(i != args.length - 1) {
+            System.out.println(USAGE);
             System.exit(1);
         }
-        new PostLogProfilerProcessor(args[0], System.out);
+
+        PostLogProfilerProcessor processor = new PostLogProfilerProcessor(grouped);
+        boolean follow = followSeconds > 0L;
+
+        processor.process(args[i], follow);
+        writeReport(processor, reportFile, format, sortOrder);
+
+        while(follow) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(followSeconds));
+            if(processor.process(args[i], true)) {
+                writeReport(processor, reportFile, format, sortOrder);
+            }
+        }
+
     }
 
     /**
-     * Total number of sql statements processed.
+     * Write the report to stdout, or replace the report file with it so that readers never see half a report.
      */
-    private long totalSql = 0L;
+    private static void writeReport(PostLogProfilerProcessor processor, String reportFile, Format format, SortOrder sortOrder) throws IOException {
 
-    /**
-     * Number of lines processed.
-     */
-    private long lineNo = 0L;
+        if(reportFile == null) {
+            processor.report(System.out, format, sortOrder);
+            System.out.flush();
+            return;
+        }
+
+        Path target = Paths.get(reportFile).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try(PrintStream out = new PrintStream(Files.newOutputStream(temp), false, Charset.defaultCharset().name())) {
+            processor.report(out, format, sortOrder);
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    }
 
     /**
-     * Total number of nanoseconds that all processed sql took to run.
+     * Threshold at which sql is deemed to be running slow enough to be flagged.
      */
-    private long totalNanoSec = 0L;
+    private final long threshold = TimeUnit.MILLISECONDS.toNanos(100L);
 
     /**
-     * Nanoseconds of the worst single offending sql statement.
+     * How many top offender sql statements, or statement groups, to display in final report
      */
-    private long maxNanoSec = 0L;
+    private final int topOffenderCount = 1000;
 
     /**
-     * Total combined nanoseconds of all flagged sql statements.
+     * Group statements by fingerprint?
      */
-    private long flaggedSqlTotalNanoSec = 0L;
+    private final boolean grouped;
 
     /**
-     * Threshold at which sql is deemed to be running slow enough to be flagged.
+     * Everything processed so far.
      */
-    private long threshold = TimeUnit.MILLISECONDS.toNanos(100L);
+    private ChunkResult totals;
 
     /**
-     * How many top offender sql statements to display in final report
+     * Offset in the log up to which it has been processed.
      */
-    private long topOffenderCount = 1000L;
+    private long processedTo;
 
     /**
-     * Collection of all sql that took longer than "threshold" nanoseconds to run.
+     * The reader of the log, if it is a binary event log.
      */
-    private List flaggedSql = new LinkedList();
+    private BinaryEventReader binaryReader;
 
     /**
      * Process given filename, and produce sql profiling report to given PrintStream.
@@ -87,139 +213,854 @@ public class PostLogProfilerProcessor {
      * @throws Exception if reading error occurs.
      */
     public PostLogProfilerProcessor(String filename, PrintStream out) throws Exception {
-        FileReader f = new FileReader(filename);
-        LineNumberReader l = new LineNumberReader(f);
+        this(false);
+        process(filename, false);
+        report(out, Format.TEXT, SortOrder.TOTAL);
+    }
+
+    /**
+     * Create a PostLogProfilerProcessor that has processed nothing yet.
+     *
+     * @param grouped true to report statements grouped by fingerprint, false to report the individual slow statements.
+     */
+    public PostLogProfilerProcessor(boolean grouped) {
+        this.grouped = grouped;
+        this.totals = new ChunkResult(topOffenderCount);
+    }
+
+    /**
+     * Process the part of a log that has not been processed yet, adding it to what has been processed before.  If
+     * the log has become smaller than what has been processed, it is taken to have been replaced and is processed
+     * again from the start.
+     *
+     * @param filename sqltiming log to process.
+     * @param follow   true if the log is still being written, in which case a statement is only processed once the
+     *                 blank line after it has been written.
+     * @return true if any new statements were processed.
+     * @throws IOException if the log cannot be read.
+     */
+    public boolean process(String filename, boolean follow) throws IOException {
+
+        ChunkResult result;
+
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
 
-        String line;
-        boolean blankLine;
+            long size = channel.size();
+            if(size < processedTo) {
+                totals = new ChunkResult(topOffenderCount);
+                processedTo = 0L;
+            }
 
-        StringBuffer sql = new StringBuffer();
+            if(processedTo == 0L) {
+                binaryReader = BinaryEventReader.isBinaryLog(channel) ? new BinaryEventReader() : null;
+            }
 
-        do {
-            line = l.readLine();
+            if(binaryReader != null) {
+                return processBinary(channel, size);
+            }
+
+            long end = follow ? findLastBlankLine(channel, processedTo, size) : size;
+            if(end <= processedTo) {
+                return false;
+            }
+
+            List<long[]> chunks = split(channel, processedTo, end);
+            result = ForkJoinPool.commonPool().invoke(new ChunkTask(channel, chunks, 0, chunks.size()));
+            processedTo = end;
 
-            if(line != null) {
-                blankLine = line.length() == 0;
-                lineNo++;
-/*
-        if (lineNo%100000L==0L)
-        {
-          out.println("" + lineNo + " lines...");
         }
-*/
-                if(blankLine) {
-                    processSql(sql);
-                    sql = new StringBuffer();
-                }
-                else {
-                    sql.append(line);
-                }
 
+        for(long warning : result.warnings) {
+            System.err.println("WARNING:  sql w/o timing info found at line " + (totals.lines + warning));
+        }
+        if(result.droppedWarnings > 0L) {
+            System.err.println("WARNING:  " + result.droppedWarnings + " more sql w/o timing info found");
+        }
+        result.warnings.clear();
+        result.droppedWarnings = 0L;
+
+        totals.merge(result);
+
+        return result.totalSql > 0L;
+
+    }
+
+    /**
+     * Process the events of a binary event log that have not been processed yet.  Records are read in order, since
+     * each one can only be understood with the fingerprints defined before it.
+     *
+     * @return true if any new statements were processed.
+     */
+    private boolean processBinary(FileChannel channel, long size) throws IOException {
+
+        ChunkResult result = new ChunkResult(topOffenderCount);
+        long records = binaryReader.getRecordCount();
+
+        processedTo = binaryReader.read(channel, processedTo, size, (type, timestamp, connectionNumber, fingerprint, nanoSec, sql) -> {
+
+            if((type != BinaryEventReader.SQL_TIMING) || (nanoSec < 0L)) {
+                return;
             }
+
+            result.totalSql++;
+            result.timedSql++;
+            result.totalNanoSec += nanoSec;
+            if(nanoSec > result.maxNanoSec) {
+                result.maxNanoSec = nanoSec;
+            }
+
+            if(grouped) {
+                String key = (fingerprint != null) ? fingerprint : (sql != null) ? SqlFingerprinter.normalize(sql) : OTHER_GROUP;
+                result.group(key).record(nanoSec);
+            }
+            else if(nanoSec > threshold) {
+                result.flaggedSql++;
+                result.flaggedSqlTotalNanoSec += nanoSec;
+                // the position of a statement is its place among the records
+                result.flag(nanoSec, (sql != null) ? sql : fingerprint, binaryReader.getRecordCount());
+            }
+
+        });
+
+        result.lines = binaryReader.getRecordCount() - records;
+        totals.merge(result);
+
+        return result.totalSql > 0L;
+
+    }
+
+    /**
+     * Write the profiling report of everything processed so far.
+     *
+     * @param out       PrintStream to write profiling report to.
+     * @param format    the format to write the report in.
+     * @param sortOrder the order to list statement groups in, when grouping by fingerprint.
+     */
+    public void report(PrintStream out, Format format, SortOrder sortOrder) {
+        switch(format) {
+            case CSV:
+                reportCsv(out, sortOrder);
+                break;
+            case JSON:
+                reportJson(out, sortOrder);
+                break;
+            default:
+                reportText(out, sortOrder);
+                break;
         }
-        while(line != null);
+    }
+
+    private void reportText(PrintStream out, SortOrder sortOrder) {
 
-        out.println("processed " + lineNo + " lines.");
+        ChunkResult result = totals;
 
-        f.close();
+        out.println("processed " + result.lines + ((binaryReader != null) ? " records." : " lines."));
 
         // display report to stdout
 
-        out.println("Number of sql statements:  " + totalSql);
-        out.println("Total number of nanoseconds    :  " + totalNanoSec);
-        if(totalNanoSec > 0) {
-            out.println("Average nanosecond/statement  :  " + totalSql / totalNanoSec);
+        out.println("Number of sql statements:  " + result.totalSql);
+        out.println("Total number of nanoseconds    :  " + result.totalNanoSec);
+        if(result.timedSql > 0) {
+            out.println("Average nanosecond/statement  :  " + result.totalNanoSec / result.timedSql);
+        }
+
+        if(grouped) {
+
+            Map.Entry<String, Group>[] groups = sortedGroups(sortOrder);
+
+            out.println("top " + groups.length + " statement group" + (groups.length == 1 ? "" : "s") + " by " + sortOrder.name().toLowerCase() + ":");
+
+            int countSize = ("count").length();
+            int timeSize = Math.max(("max").length(), ("" + result.totalNanoSec).length());
+            for(Map.Entry<String, Group> entry : groups) {
+                countSize = Math.max(countSize, ("" + entry.getValue().count).length());
+            }
+
+            out.println(Utilities.rightJustify(countSize, "count") + " " + Utilities.rightJustify(timeSize, "total") + " "
+                + Utilities.rightJustify(timeSize, "mean") + " " + Utilities.rightJustify(timeSize, "p95") + " "
+                + Utilities.rightJustify(timeSize, "p99") + " " + Utilities.rightJustify(timeSize, "max") + " sql");
+
+            for(Map.Entry<String, Group> entry : groups) {
+                Group g = entry.getValue();
+                LatencySnapshot snapshot = g.histogram.snapshot();
+                out.println(Utilities.rightJustify(countSize, "" + g.count) + " " + Utilities.rightJustify(timeSize, "" + g.totalNanoSec) + " "
+                    + Utilities.rightJustify(timeSize, "" + g.totalNanoSec / g.count) + " "
+                    + Utilities.rightJustify(timeSize, "" + snapshot.getValueAtPercentile(95.0)) + " "
+                    + Utilities.rightJustify(timeSize, "" + snapshot.getP99()) + " "
+                    + Utilities.rightJustify(timeSize, "" + g.maxNanoSec) + " " + entry.getKey());
+            }
+
+            return;
+
         }
 
-        int flaggedSqlStmts = flaggedSql.size();
+        long flaggedSqlStmts = result.flaggedSql;
 
         if(flaggedSqlStmts > 0) {
             out.println("Sql statements that took more than " + threshold + " nanoseconds were flagged.");
             out.println("Flagged sql statements              :  " + flaggedSqlStmts);
-            out.println("Flagged sql Total number of nanoseconds    :  " + flaggedSqlTotalNanoSec);
-            out.println("Flagged sql Average nanosecond/statement  :  " + flaggedSqlTotalNanoSec / flaggedSqlStmts);
+            out.println("Flagged sql Total number of nanoseconds    :  " + result.flaggedSqlTotalNanoSec);
+            out.println("Flagged sql Average nanosecond/statement  :  " + result.flaggedSqlTotalNanoSec / flaggedSqlStmts);
+
+            ProfiledSql[] offenders = sortedOffenders();
+
+            int execTimeSize = ("" + result.maxNanoSec).length();
+
+            out.println("top " + offenders.length + " offender" + (offenders.length == 1 ? "" : "s") + ":");
 
-            out.println("sorting...");
+            for(ProfiledSql p : offenders) {
+                out.println(Utilities.rightJustify(execTimeSize, "" + p.getExecTimeNanoSec()) + " " + p.getSql());
+            }
+        }
+
+    }
+
+    private void reportCsv(PrintStream out, SortOrder sortOrder) {
+
+        if(grouped) {
+            out.println("count,total_ns,mean_ns,p95_ns,p99_ns,max_ns,sql");
+            for(Map.Entry<String, Group> entry : sortedGroups(sortOrder)) {
+                Group g = entry.getValue();
+                LatencySnapshot snapshot = g.histogram.snapshot();
+                out.println(g.count + "," + g.totalNanoSec + "," + g.totalNanoSec / g.count + "," + snapshot.getValueAtPercentile(95.0)
+                    + "," + snapshot.getP99() + "," + g.maxNanoSec + "," + csvField(entry.getKey()));
+            }
+            return;
+        }
+
+        out.println("exec_ns,sql");
+        for(ProfiledSql p : sortedOffenders()) {
+            out.println(p.getExecTimeNanoSec() + "," + csvField(p.getSql()));
+        }
 
-            Object[] flaggedSqlArray = flaggedSql.toArray();
-            Arrays.sort(flaggedSqlArray);
+    }
+
+    private void reportJson(PrintStream out, SortOrder sortOrder) {
 
-            int execTimeSize = ("" + maxNanoSec).length();
+        ChunkResult result = totals;
 
+        StringBuilder sb = new StringBuilder();
+        sb.append((binaryReader != null) ? "{\"records\":" : "{\"lines\":").append(result.lines);
+        sb.append(",\"statements\":").append(result.totalSql);
+        sb.append(",\"totalNanoSec\":").append(result.totalNanoSec);
 
-            if(topOffenderCount > flaggedSqlArray.length) {
-                topOffenderCount = flaggedSqlArray.length;
+        if(grouped) {
+            sb.append(",\"groups\":[");
+            boolean first = true;
+            for(Map.Entry<String, Group> entry : sortedGroups(sortOrder)) {
+                Group g = entry.getValue();
+                LatencySnapshot snapshot = g.histogram.snapshot();
+                sb.append(first ? "" : ",").append(System.lineSeparator());
+                sb.append("{\"count\":").append(g.count);
+                sb.append(",\"totalNanoSec\":").append(g.totalNanoSec);
+                sb.append(",\"meanNanoSec\":").append(g.totalNanoSec / g.count);
+                sb.append(",\"p95NanoSec\":").append(snapshot.getValueAtPercentile(95.0));
+                sb.append(",\"p99NanoSec\":").append(snapshot.getP99());
+                sb.append(",\"maxNanoSec\":").append(g.maxNanoSec);
+                sb.append(",\"sql\":");
+                jsonString(sb, entry.getKey());
+                sb.append("}");
+                first = false;
+            }
+        }
+        else {
+            sb.append(",\"thresholdNanoSec\":").append(threshold);
+            sb.append(",\"flagged\":").append(result.flaggedSql);
+            sb.append(",\"flaggedNanoSec\":").append(result.flaggedSqlTotalNanoSec);
+            sb.append(",\"offenders\":[");
+            boolean first = true;
+            for(ProfiledSql p : sortedOffenders()) {
+                sb.append(first ? "" : ",").append(System.lineSeparator());
+                sb.append("{\"execNanoSec\":").append(p.getExecTimeNanoSec());
+                sb.append(",\"sql\":");
+                jsonString(sb, p.getSql());
+                sb.append("}");
+                first = false;
             }
+        }
 
-            out.println("top " + topOffenderCount + " offender" + (topOffenderCount == 1 ? "" : "s") + ":");
+        sb.append("]}");
+        out.println(sb);
 
-            ProfiledSql p;
+    }
 
-            for(int i = 0; i < topOffenderCount; i++) {
-                p = (ProfiledSql)flaggedSqlArray[i];
-                out.println(Utilities.rightJustify(execTimeSize, "" + p.getExecTimeNanoSec()) + " " + p.getSql());
+    private ProfiledSql[] sortedOffenders() {
+        ProfiledSql[] offenders = totals.topOffenders.toArray(new ProfiledSql[0]);
+        Arrays.sort(offenders, Comparator.reverseOrder());
+        return offenders;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map.Entry<String, Group>[] sortedGroups(SortOrder sortOrder) {
+
+        Map.Entry<String, Group>[] groups = totals.groups.entrySet().toArray(new Map.Entry[0]);
+
+        Comparator<Map.Entry<String, Group>> order = (sortOrder == SortOrder.COUNT)
+            ? Comparator.comparingLong(e -> e.getValue().count)
+            : Comparator.comparingLong(e -> e.getValue().totalNanoSec);
+        Arrays.sort(groups, order.reversed());
+
+        return (groups.length > topOffenderCount) ? Arrays.copyOf(groups, topOffenderCount) : groups;
+
+    }
+
+    private static String csvField(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static void jsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for(int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            switch(c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if(c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int)c));
+                    }
+                    else {
+                        sb.append(c);
+                    }
+                    break;
             }
         }
+        sb.append('"');
+    }
+
+    /**
+     * Split part of the log into chunks that each start with a blank line, or at the start of the part.
+     *
+     * @return the start and end offsets of each chunk.
+     */
+    private static List<long[]> split(FileChannel channel, long from, long size) throws IOException {
+
+        List<long[]> chunks = new ArrayList<>();
+        long start = from;
+
+        while(start < size) {
+            long end = (size - start <= CHUNK_SIZE) ? size : findBlankLine(channel, start + CHUNK_SIZE, size);
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+
+        return chunks;
+
     }
 
+    /**
+     * Find the start of the first blank line at or after an offset.
+     *
+     * @return the offset of the blank line, or the size of the log if there is none.
+     */
+    private static long findBlankLine(FileChannel channel, long from, long size) throws IOException {
+
+        long window = 64L * 1024L;
+
+        for(long pos = from; pos < size; pos += window) {
+
+            // overlap windows by a byte so that a terminator at the end of one is seen with what follows it
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(window + 2L, size - pos));
+            int n = buf.limit();
 
-    private void processSql(StringBuffer sql) {
-        if(sql.length() > 0) {
-            totalSql++;
-            String sqlStr = sql.toString();
-            if(sqlStr.endsWith("nanoSec}")) {
-                int executedIn = sqlStr.indexOf("{executed in ");
-                if(executedIn == -1) {
-                    System.err.println("WARNING:  sql w/o timing info found at line " + lineNo);
-                    return;
+            for(int i = 0; (i < n - 1) && (i < window); i++) {
+                if(buf.get(i) == '\n') {
+                    byte next = buf.get(i + 1);
+                    if((next == '\n') || (next == '\r')) {
+                        return pos + i + 1;
+                    }
                 }
+            }
+
+        }
+
+        return size;
+
+    }
+
+    /**
+     * Find the start of the last blank line that has been completely written after an offset.
+     *
+     * @return the offset of the blank line, or the offset searched from if there is none.
+     */
+    private static long findLastBlankLine(FileChannel channel, long from, long size) throws IOException {
+
+        long window = 64L * 1024L;
 
-                //todo: proper error handling for parse
-                String nanoSecStr = sqlStr.substring(executedIn + 13, sqlStr.length() - 9);
-                long nanoSec = Long.parseLong(nanoSecStr);
-                totalNanoSec += nanoSec;
-                if(nanoSec > maxNanoSec) {
-                    maxNanoSec = nanoSec;
+        for(long end = size; end > from; end -= window) {
+
+            long pos = Math.max(from, end - window);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(end + 2L, size) - pos);
+            int n = buf.limit();
+
+            for(int i = (int)(end - pos) - 1; i >= 0; i--) {
+                if((buf.get(i) == '\n') && (i + 1 < n)) {
+                    byte next = buf.get(i + 1);
+                    // the terminator of the blank line has to be there too
+                    if((next == '\n') || ((next == '\r') && (i + 2 < n) && (buf.get(i + 2) == '\n'))) {
+                        return pos + i + 1;
+                    }
                 }
+            }
+
+        }
+
+        return from;
+
+    }
+
+    /**
+     * Parses a range of chunks, splitting it in two until there is a single chunk left.
+     */
+    private final class ChunkTask extends RecursiveTask<ChunkResult> {
 
-                if(nanoSec > threshold) {
-                    flagSql(nanoSec, sqlStr);
-                    flaggedSqlTotalNanoSec += nanoSec;
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final transient List<long[]> chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, List<long[]> chunks, int from, int to) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+
+            if(to - from <= 1) {
+                ChunkResult result = new ChunkResult(topOffenderCount);
+                if(to > from) {
+                    try {
+                        parse(channel, chunks.get(from)[0], chunks.get(from)[1], result);
+                    }
+                    catch(IOException ex) {
+                        throw new IllegalStateException("Could not read the log", ex);
+                    }
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(channel, chunks, from, middle);
+            ChunkTask right = new ChunkTask(channel, chunks, middle, to);
+            left.fork();
+            ChunkResult rightResult = right.compute();
+
+            return left.join().merge(rightResult);
+
+        }
+
+    }
+
+    /**
+     * Parse the sql statements of one chunk of the log.
+     */
+    private void parse(FileChannel channel, long start, long end, ChunkResult result) throws IOException {
+
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int n = buf.limit();
+
+        byte[] sql = new byte[256];
+        int sqlLength = 0;
+        int sqlStart = 0;
+        int bodyStart = -1;
+        int pos = 0;
+
+        while(pos < n) {
+
+            int eol = pos;
+            while(eol < n) {
+                byte b = buf.get(eol);
+                if((b == '\n') || (b == '\r')) {
+                    break;
                 }
+                eol++;
+            }
+
+            int next = eol;
+            if(next < n) {
+                next += ((buf.get(next) == '\r') && (next + 1 < n) && (buf.get(next + 1) == '\n')) ? 2 : 1;
+            }
+
+            result.lines++;
+
+            if(eol == pos) {
+                processSql(sql, sqlLength, Math.max(bodyStart, 0), start + sqlStart, result);
+                sqlLength = 0;
+                sqlStart = next;
+                bodyStart = -1;
             }
             else {
-                System.err.println("WARNING:  sql w/o timing info found at line " + lineNo);
+                int length = eol - pos;
+                if(sqlLength + length + 1 > sql.length) {
+                    sql = Arrays.copyOf(sql, Math.max(sqlLength + length + 1, sql.length * 2));
+                }
+                if(grouped && (sqlLength > 0)) {
+                    // keep the words on either side of a line break apart, so that they are fingerprinted as such
+                    sql[sqlLength++] = ' ';
+                }
+                for(int i = 0; i < length; i++) {
+                    sql[sqlLength + i] = buf.get(pos + i);
+                }
+                if(bodyStart < 0) {
+                    int body = connectionNumberLength(sql, sqlLength, sqlLength + length);
+                    if(body > 0) {
+                        bodyStart = sqlLength + body;
+                    }
+                }
+                sqlLength += length;
+            }
+
+            pos = next;
+
+        }
+
+        // the last statement in the log may not be followed by a blank line
+        processSql(sql, sqlLength, Math.max(bodyStart, 0), start + sqlStart, result);
+
+    }
+
+    /**
+     * Get the length of the "N. " connection number a line starts with.
+     *
+     * @return the length, or 0 if the line does not start with a connection number.
+     */
+    private static int connectionNumberLength(byte[] bytes, int from, int to) {
+        int i = from;
+        while((i < to) && (bytes[i] >= '0') && (bytes[i] <= '9')) {
+            i++;
+        }
+        if((i == from) || (i + 1 >= to) || (bytes[i] != '.') || (bytes[i + 1] != ' ')) {
+            return 0;
+        }
+        return i + 2 - from;
+    }
+
+    private void processSql(byte[] sql, int length, int bodyStart, long position, ChunkResult result) {
+
+        if(length == 0) {
+            return;
+        }
+
+        result.totalSql++;
+
+        long nanoSec = parseExecTime(sql, length);
+        if(nanoSec < 0L) {
+            result.warn();
+            return;
+        }
+
+        result.timedSql++;
+        result.totalNanoSec += nanoSec;
+        if(nanoSec > result.maxNanoSec) {
+            result.maxNanoSec = nanoSec;
+        }
+
+        if(grouped) {
+            int bodyEnd = length - NANOSEC.length;
+            while((bodyEnd > bodyStart) && (sql[bodyEnd - 1] != '{')) {
+                bodyEnd--;
+            }
+            String body = new String(sql, bodyStart, Math.max(0, bodyEnd - 1 - bodyStart), Charset.defaultCharset());
+            result.group(SqlFingerprinter.normalize(body)).record(nanoSec);
+        }
+        else if(nanoSec > threshold) {
+            result.flaggedSql++;
+            result.flaggedSqlTotalNanoSec += nanoSec;
+            result.flag(nanoSec, sql, length, position);
+        }
+
+    }
+
+    /**
+     * Get the execution time from the "{executed in N nanoSec}" at the end of a sql statement.
+     *
+     * @return the execution time, or -1 if the statement has no valid timing info.
+     */
+    private static long parseExecTime(byte[] sql, int length) {
+
+        if((length < EXECUTED_IN.length + NANOSEC.length) || !regionMatches(sql, length - NANOSEC.length, NANOSEC)) {
+            return -1L;
+        }
+
+        int executedIn = indexOf(sql, length, EXECUTED_IN);
+        if(executedIn == -1) {
+            return -1L;
+        }
+
+        int from = executedIn + EXECUTED_IN.length;
+        int to = length - NANOSEC.length;
+        if((from >= to) || (to - from > 18)) {
+            return -1L;
+        }
+
+        long value = 0L;
+        for(int i = from; i < to; i++) {
+            int digit = sql[i] - '0';
+            if((digit < 0) || (digit > 9)) {
+                return -1L;
             }
+            value = value * 10L + digit;
         }
+
+        return value;
+
     }
 
-    private void flagSql(long nanoSec, String sql) {
-        flaggedSql.add(new ProfiledSql(nanoSec, sql));
+    private static boolean regionMatches(byte[] bytes, int offset, byte[] expected) {
+        for(int i = 0; i < expected.length; i++) {
+            if(bytes[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private class ProfiledSql implements Comparable {
+    private static int indexOf(byte[] bytes, int length, byte[] expected) {
+        for(int i = 0, last = length - expected.length; i <= last; i++) {
+            if((bytes[i] == expected[0]) && regionMatches(bytes, i, expected)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The totals and top offenders of one or more consecutive chunks of the log.
+     */
+    private static final class ChunkResult {
+
+        /**
+         * Number of lines processed.
+         */
+        long lines;
 
-        private Long execTimeNanoSec;
-        private String sql;
+        /**
+         * Total number of sql statements processed.
+         */
+        long totalSql;
 
-        public ProfiledSql(long nanoSec, String sql) {
-            this.execTimeNanoSec = new Long(nanoSec);
+        /**
+         * Number of sql statements with timing info.
+         */
+        long timedSql;
+
+        /**
+         * Total number of nanoseconds that all processed sql took to run.
+         */
+        long totalNanoSec;
+
+        /**
+         * Nanoseconds of the worst single offending sql statement.
+         */
+        long maxNanoSec;
+
+        /**
+         * Number of sql statements that took longer than the threshold to run.
+         */
+        long flaggedSql;
+
+        /**
+         * Total combined nanoseconds of all flagged sql statements.
+         */
+        long flaggedSqlTotalNanoSec;
+
+        /**
+         * The slowest flagged sql statements, with the fastest of them at the head.
+         */
+        final PriorityQueue<ProfiledSql> topOffenders = new PriorityQueue<>();
+
+        /**
+         * The statement groups, keyed by fingerprint, when grouping.
+         */
+        final Map<String, Group> groups = new HashMap<>();
+
+        /**
+         * Line numbers, relative to the first chunk, of sql statements without timing info.
+         */
+        final List<Long> warnings = new ArrayList<>();
+
+        long droppedWarnings;
+
+        /**
+         * The most top offenders to keep.
+         */
+        private final int limit;
+
+        ChunkResult(int limit) {
+            this.limit = limit;
+        }
+
+        void warn() {
+            if(warnings.size() < MAX_WARNINGS) {
+                warnings.add(lines);
+            }
+            else {
+                droppedWarnings++;
+            }
+        }
+
+        void flag(long nanoSec, byte[] sql, int length, long position) {
+            // the sql is only decoded if it makes it into the top offenders
+            if(makeRoom(nanoSec, position)) {
+                topOffenders.add(new ProfiledSql(nanoSec, new String(sql, 0, length, Charset.defaultCharset()), position));
+            }
+        }
+
+        void flag(long nanoSec, String sql, long position) {
+            if(makeRoom(nanoSec, position)) {
+                topOffenders.add(new ProfiledSql(nanoSec, sql, position));
+            }
+        }
+
+        /**
+         * Make room in the top offenders for a flagged statement, if it is slow enough to be one.
+         *
+         * @return true if the statement should be added.
+         */
+        private boolean makeRoom(long nanoSec, long position) {
+
+            if(topOffenders.size() >= limit) {
+                ProfiledSql fastest = topOffenders.peek();
+                if((fastest == null) || (fastest.compareTo(nanoSec, position) >= 0)) {
+                    return false;
+                }
+                topOffenders.poll();
+            }
+
+            return true;
+
+        }
+
+        Group group(String fingerprint) {
+            Group group = groups.get(fingerprint);
+            if(group == null) {
+                String key = (groups.size() < MAX_GROUPS) ? fingerprint : OTHER_GROUP;
+                group = groups.computeIfAbsent(key, k -> new Group());
+            }
+            return group;
+        }
+
+        /**
+         * Add the results of the chunks that follow this one.
+         *
+         * @return this ChunkResult.
+         */
+        ChunkResult merge(ChunkResult next) {
+
+            for(long warning : next.warnings) {
+                if(warnings.size() < MAX_WARNINGS) {
+                    warnings.add(lines + warning);
+                }
+                else {
+                    droppedWarnings++;
+                }
+            }
+            droppedWarnings += next.droppedWarnings;
+
+            lines += next.lines;
+            totalSql += next.totalSql;
+            timedSql += next.timedSql;
+            totalNanoSec += next.totalNanoSec;
+            maxNanoSec = Math.max(maxNanoSec, next.maxNanoSec);
+            flaggedSql += next.flaggedSql;
+            flaggedSqlTotalNanoSec += next.flaggedSqlTotalNanoSec;
+
+            for(ProfiledSql p : next.topOffenders) {
+                if(topOffenders.size() < limit) {
+                    topOffenders.add(p);
+                }
+                else if(topOffenders.peek().compareTo(p) < 0) {
+                    topOffenders.poll();
+                    topOffenders.add(p);
+                }
+            }
+
+            for(Map.Entry<String, Group> entry : next.groups.entrySet()) {
+                group(entry.getKey()).add(entry.getValue());
+            }
+
+            return this;
+
+        }
+
+    }
+
+    /**
+     * The executions of the statements with the same fingerprint.
+     */
+    private static final class Group {
+
+        long count;
+        long totalNanoSec;
+        long maxNanoSec;
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record(long nanoSec) {
+            count++;
+            totalNanoSec += nanoSec;
+            maxNanoSec = Math.max(maxNanoSec, nanoSec);
+            histogram.record(nanoSec);
+        }
+
+        void add(Group other) {
+            count += other.count;
+            totalNanoSec += other.totalNanoSec;
+            maxNanoSec = Math.max(maxNanoSec, other.maxNanoSec);
+            histogram.add(other.histogram);
+        }
+
+    }
+
+    private static final class ProfiledSql implements Comparable<ProfiledSql> {
+
+        private final long execTimeNanoSec;
+        private final String sql;
+
+        /**
+         * Offset of the statement in the log, so that of two equally slow statements the first one ranks higher.
+         */
+        private final long position;
+
+        ProfiledSql(long nanoSec, String sql, long position) {
+            this.execTimeNanoSec = nanoSec;
             this.sql = sql;
+            this.position = position;
         }
 
         /**
-         * Compares this object with the specified object for order.  Returns a
-         * negative integer, zero, or a positive integer as this object is less
-         * than, equal to, or greater than the specified object.<p>
+         * Compares this object with the specified object for order: slower sql ranks higher.
          *
-         * In this case the comparison is used to sort flagged sql in descending order.
          * @param o ProfiledSql Object to compare to this ProfiledSql.  Must not be null.
          */
-        public int compareTo(Object o) {
-            return ((ProfiledSql)o).execTimeNanoSec.compareTo(execTimeNanoSec);
+        @Override
+        public int compareTo(ProfiledSql o) {
+            return compareTo(o.execTimeNanoSec, o.position);
+        }
+
+        int compareTo(long otherNanoSec, long otherPosition) {
+            int c = Long.compare(execTimeNanoSec, otherNanoSec);
+            return (c != 0) ? c : Long.compare(otherPosition, position);
         }
 
-        public Long getExecTimeNanoSec() {
+        public long getExecTimeNanoSec() {
             return execTimeNanoSec;
         }
 
@@ -227,6 +1068,7 @@ public class PostLogProfilerProcessor {
             return sql;
         }
 
+        @Override
         public String toString() {
             return this.execTimeNanoSec + " nanoseconds:  " + this.sql;
         }
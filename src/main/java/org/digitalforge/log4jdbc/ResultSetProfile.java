@@ -0,0 +1,99 @@
+package org.digitalforge.log4jdbc;
+
+/**
+ * What a ResultSet fetched, reported once when it is closed if <b>log4jdbc.resultset.profiling</b> is set.
+ * <p>
+ * A profile names the sql that produced the ResultSet, and how long that sql took to run, so it can be matched with
+ * the sql timing report of the same execution.  Many small profiles for the same sql point at an N+1 query, and a
+ * profile with many rows or bytes that took long to fetch points at a query that fetches more than it needs.
+ */
+public final class ResultSetProfile {
+
+    private final String sql;
+    private final long execTimeNanoSec;
+    private final long rows;
+    private final long fetchNanoSec;
+    private final long openNanoSec;
+    private final long bytes;
+
+    /**
+     * Create a ResultSetProfile.
+     *
+     * @param sql             the sql that produced the ResultSet, or null if it is not known.
+     * @param execTimeNanoSec how long the sql took to run, in nanoseconds, or -1 if it is not known.
+     * @param rows            number of rows fetched.
+     * @param fetchNanoSec    time spent fetching rows, in nanoseconds.
+     * @param openNanoSec     time from the ResultSet being opened until it was closed, in nanoseconds.
+     * @param bytes           approximate number of bytes read.
+     */
+    public ResultSetProfile(String sql, long execTimeNanoSec, long rows, long fetchNanoSec, long openNanoSec, long bytes) {
+        this.sql = sql;
+        this.execTimeNanoSec = execTimeNanoSec;
+        this.rows = rows;
+        this.fetchNanoSec = fetchNanoSec;
+        this.openNanoSec = openNanoSec;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Get the sql that produced the ResultSet.  If the sql was not built because its execution was sampled out, this
+     * is the fingerprint of a PreparedStatement's sql instead.
+     *
+     * @return the sql, or null if it is not known.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Get how long the sql that produced the ResultSet took to run.
+     *
+     * @return the execution time in nanoseconds, or -1 if it is not known.
+     */
+    public long getExecTimeNanoSec() {
+        return execTimeNanoSec;
+    }
+
+    /**
+     * Get the number of rows fetched, which is the number of calls to next() that found a row.
+     *
+     * @return the row count.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the time spent inside next(), which includes the round trips made to fetch more rows.
+     *
+     * @return the fetch time in nanoseconds.
+     */
+    public long getFetchNanoSec() {
+        return fetchNanoSec;
+    }
+
+    /**
+     * Get the time the ResultSet was open for, including the time the application spent on each row.
+     *
+     * @return the open time in nanoseconds.
+     */
+    public long getOpenNanoSec() {
+        return openNanoSec;
+    }
+
+    /**
+     * Get the approximate number of bytes read through getString and getBytes, counting a character as a byte.
+     *
+     * @return the byte count.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "{fetched " + rows + " rows in " + fetchNanoSec + " nanoSec, open for " + openNanoSec + " nanoSec, read ~"
+            + bytes + " bytes, executed in " + execTimeNanoSec + " nanoSec}";
+    }
+
+}
@@ -1,9 +1,11 @@
 package org.digitalforge.log4jdbc;
 
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.digitalforge.log4jdbc.util.CallerResolver;
+import org.digitalforge.log4jdbc.util.StringBuilderPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
-import org.slf4j.MarkerFactory;
 
 /**
  * Delegates JDBC spy logging events to the Simple Logging Facade for Java
@@ -11,10 +13,18 @@ import org.slf4j.MarkerFactory;
  */
 public class Slf4jSpyLogDelegator implements SpyLogDelegator {
 
+    /**
+     * Creates the markers sql timing reports are logged with.  By default they are detached {@link SqlTimingMarker}s.
+     */
     public static ExecutionTimeMarkerFactory markerFactory = new ExecutionTimeMarkerFactory() {
             @Override
             public Marker create(String sql, long executionTimeNanoSec) {
-                return MarkerFactory.getMarker("{\"sql\"=\"" + sql + "\",\"executedInNanoSec\"=" + executionTimeNanoSec + "}");
+                return new SqlTimingMarker(sql, null, executionTimeNanoSec);
+            }
+
+            @Override
+            public Marker create(String sql, SqlFingerprint fingerprint, long executionTimeNanoSec) {
+                return new SqlTimingMarker(sql, fingerprint, executionTimeNanoSec);
             }
         };
 
@@ -26,6 +36,12 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
 
     }
 
+    /**
+     * Exceptions thrown by the driver are not logged, only rethrown to the application.  Everything that decides
+     * whether to report an exception goes by {@link #isExceptionLogged()}, which follows this.
+     */
+    private static final boolean EXCEPTIONS_LOGGED = false;
+
     // logs for sql and jdbc
 
     /**
@@ -54,6 +70,11 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      */
     private final Logger connectionLogger = LoggerFactory.getLogger("jdbc.connection");
 
+    /**
+     * Logger that shows what each ResultSet fetched when it is closed, if <b>log4jdbc.resultset.profiling</b> is set.
+     */
+    private final Logger resultSetProfileLogger = LoggerFactory.getLogger("jdbc.resultsetprofile");
+
     // admin/setup logging for log4jdbc.
 
     /**
@@ -63,10 +84,17 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
     private final Logger debugLogger = LoggerFactory.getLogger("log4jdbc.debug");
 
     /**
-     * Determine if any of the 5 Log4JDBC spy loggers are turned on (jdbc.audit |
-     * jdbc.resultset | jdbc.sqlonly | jdbc.sqltiming | jdbc.connection)
+     * Finds the caller shown in the debug info.
+     */
+    private final CallerResolver callerResolver = new CallerResolver(LoggingDriverConfig.getInstance().getDebugStackPrefix(),
+        LoggingDriverConfig.getInstance().getDebugStackCacheSize());
+
+    /**
+     * Determine if any of the 6 Log4JDBC spy loggers are turned on (jdbc.audit |
+     * jdbc.resultset | jdbc.sqlonly | jdbc.sqltiming | jdbc.connection |
+     * jdbc.resultsetprofile)
      *
-     * @return true if any of the 5 spy jdbc/sql loggers are enabled at debug info
+     * @return true if any of the 6 spy jdbc/sql loggers are enabled at debug info
      * or error level.
      */
     public boolean isJdbcLoggingEnabled() {
@@ -74,7 +102,88 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
             || resultSetLogger.isErrorEnabled()
             || sqlOnlyLogger.isErrorEnabled()
             || sqlTimingLogger.isErrorEnabled()
-            || connectionLogger.isErrorEnabled();
+            || connectionLogger.isErrorEnabled()
+            || resultSetProfileLogger.isErrorEnabled();
+    }
+
+    /**
+     * Determine if the jdbc.resultset logger would log the values read from a ResultSet.
+     *
+     * @return true if the result set logger is at info level.
+     */
+    public boolean isResultSetLogged() {
+        return resultSetLogger.isInfoEnabled();
+    }
+
+    /**
+     * Determine if a returning method call on the given spy would be logged by {@link #methodReturned}.
+     *
+     * @param spy the JdbcSpy wrapping the class that called the method.
+     * @return true if the return would be logged.
+     */
+    boolean isReturnLogged(JdbcSpy spy) {
+        return ("ResultSet".equals(spy.getClassType()) ? resultSetLogger : jdbcLogger).isInfoEnabled();
+    }
+
+    /**
+     * Determine if {@link #sqlOccured} would log anything.
+     *
+     * @return true if the sqlonly logger is enabled.
+     */
+    boolean isSqlLogged() {
+        return sqlOnlyLogger.isInfoEnabled();
+    }
+
+    /**
+     * Determine if {@link #sqlTimingOccured} could log anything.
+     *
+     * @return true if the sqltiming logger is enabled.
+     */
+    boolean isSqlTimingLogged() {
+        return sqlTimingLogger.isErrorEnabled();
+    }
+
+    /**
+     * Determine if {@link #exceptionOccured} could log anything.
+     *
+     * @return true if exceptions are logged and any of the loggers they are reported to are enabled.
+     */
+    public boolean isExceptionLogged() {
+        return EXCEPTIONS_LOGGED
+            && (jdbcLogger.isErrorEnabled() || sqlOnlyLogger.isErrorEnabled() || sqlTimingLogger.isErrorEnabled());
+    }
+
+    /**
+     * Determine if connection open and close events would be logged.
+     *
+     * @return true if the connection logger is enabled.
+     */
+    boolean isConnectionLogged() {
+        return connectionLogger.isInfoEnabled();
+    }
+
+    /**
+     * Determine if {@link #resultSetClosed} would log anything.
+     *
+     * @return true if the result set profile logger is at info level.
+     */
+    boolean isResultSetProfileLogged() {
+        return resultSetProfileLogger.isInfoEnabled();
+    }
+
+    /**
+     * Determine if any logger is at debug level, in which case messages include the debug info from
+     * {@link #getDebugInfo()}.
+     *
+     * @return true if debug info may be needed.
+     */
+    boolean isDebugInfoEnabled() {
+        return jdbcLogger.isDebugEnabled()
+            || resultSetLogger.isDebugEnabled()
+            || sqlOnlyLogger.isDebugEnabled()
+            || sqlTimingLogger.isDebugEnabled()
+            || connectionLogger.isDebugEnabled()
+            || resultSetProfileLogger.isDebugEnabled();
     }
 
     /**
@@ -89,9 +198,9 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      *                        thrown when sql was being executed. caller should pass -1 if not
      *                        used
      */
-    public void exceptionOccured(JdbcSpy spy, String methodCall, Exception ex, String sql, long execTimeNanoSec) {
+    public void exceptionOccured(JdbcSpy spy, MethodCall methodCall, Exception ex, String sql, long execTimeNanoSec) {
 
-        if(true) {
+        if(!isExceptionLogged()) {
             return;
         }
 
@@ -132,22 +241,22 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      * CallableStatement or ResultSet returns.
      *
      * @param spy        the JdbcSpy wrapping the class that called the method that returned.
-     * @param methodCall a description of the name and call parameters of the
-     *                   method that returned.
-     * @param returnMsg  return value converted to a String for integral types, or
-     *                   String representation for Object. Return types this will be null for
-     *                   void return types.
+     * @param methodCall a description of the name, call parameters and return
+     *                   value of the method that returned.
      */
-    public void methodReturned(JdbcSpy spy, String methodCall, String returnMsg) {
+    public void methodReturned(JdbcSpy spy, MethodCall methodCall) {
         String classType = spy.getClassType();
         Logger logger = "ResultSet".equals(classType) ? resultSetLogger : jdbcLogger;
         if(logger.isInfoEnabled()) {
-            String header = spy.getConnectionNumber() + ". " + classType + "." + methodCall + " returned " + returnMsg;
+            StringBuilder out = StringBuilderPool.acquire();
+            out.append(spy.getConnectionNumber()).append(". ").append(classType).append('.');
+            methodCall.appendTo(out).append(" returned ");
+            methodCall.appendReturnMessage(out);
             if(logger.isDebugEnabled()) {
-                logger.debug(header + " " + getDebugInfo());
+                logger.debug(StringBuilderPool.release(out.append(' ').append(getDebugInfo())));
             }
             else {
-                logger.info(header);
+                logger.info(StringBuilderPool.release(out));
             }
         }
     }
@@ -198,12 +307,14 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      *                   method that generated the SQL.
      * @param sql        sql that occured.
      */
-    public void sqlOccured(JdbcSpy spy, String methodCall, String sql) {
+    public void sqlOccured(JdbcSpy spy, MethodCall methodCall, String sql) {
         sql = LoggingDriver.sqlPrettifier.prettifySql(sql);
 
         if(!LoggingDriver.config.isDumpSqlFilteringOn() || shouldSqlBeLogged(sql)) {
             if(sqlOnlyLogger.isDebugEnabled()) {
-                sqlOnlyLogger.debug(getDebugInfo() + NEWLINE + spy.getConnectionNumber() + ". " + processSql(sql));
+                StringBuilder out = StringBuilderPool.acquire();
+                out.append(getDebugInfo()).append(NEWLINE).append(spy.getConnectionNumber()).append(". ");
+                sqlOnlyLogger.debug(StringBuilderPool.release(appendSql(out, sql)));
             }
             else if(sqlOnlyLogger.isInfoEnabled()) {
                 sqlOnlyLogger.info(processSql(sql));
@@ -232,6 +343,32 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
 
     }
 
+    /**
+     * Append sql to a message, trimmed if <b>log4jdbc.trim.sql</b> is set, without copying it first.
+     *
+     * @param out the message being built.
+     * @param sql sql to append, or null.
+     * @return out.
+     */
+    private StringBuilder appendSql(StringBuilder out, String sql) {
+
+        if((sql == null) || !LoggingDriver.config.isTrimSql()) {
+            return out.append(sql);
+        }
+
+        int start = 0;
+        int end = sql.length();
+        while((start < end) && (sql.charAt(start) <= ' ')) {
+            start++;
+        }
+        while((end > start) && (sql.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+
+        return out.append(sql, start, end);
+
+    }
+
     /**
      * Special call that is called only for JDBC method calls that contain SQL.
      *
@@ -239,21 +376,20 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      * @param execTimeNanoSec how long it took the SQL to run, in nanoseconds.
      * @param methodCall      a description of the name and call parameters of the
      *                        method that generated the SQL.
-     * @param sql             SQL that occurred.
+     * @param originalSql     SQL that occurred.
      */
-    public void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, String methodCall, String sql) {
-        sql = LoggingDriver.sqlPrettifier.prettifySql(sql);
+    public void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String originalSql) {
+        String sql = LoggingDriver.sqlPrettifier.prettifySql(originalSql);
 
         if(!shouldReportTimingOccured(sql)) {
             return;
         }
 
         String message = buildSqlTimingDump(spy, execTimeNanoSec, methodCall, sql, sqlTimingLogger.isDebugEnabled());
-        Marker marker = Slf4jSpyLogDelegator.markerFactory.create(sql, execTimeNanoSec);
 
         if(LoggingDriver.config.isSqlTimingErrorThresholdEnabled() && execTimeNanoSec >= LoggingDriver.config.getSqlTimingErrorThresholdNanoSec()) {
             if(shouldUseMarkersForTimingReports()) {
-                sqlTimingLogger.error(marker, message);
+                sqlTimingLogger.error(timingMarker(spy, execTimeNanoSec, methodCall, originalSql, sql), message);
             }
             else {
                 sqlTimingLogger.error(message);
@@ -268,7 +404,7 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
 
         if(LoggingDriver.config.isSqlTimingWarnThresholdEnabled() && execTimeNanoSec >= LoggingDriver.config.getSqlTimingWarnThresholdNanoSec()) {
             if(shouldUseMarkersForTimingReports()) {
-                sqlTimingLogger.warn(marker, message);
+                sqlTimingLogger.warn(timingMarker(spy, execTimeNanoSec, methodCall, originalSql, sql), message);
             }
             else {
                 sqlTimingLogger.warn(message);
@@ -276,7 +412,7 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
         }
         else if(sqlTimingLogger.isDebugEnabled()) {
             if(shouldUseMarkersForTimingReports()) {
-                sqlTimingLogger.debug(marker, message);
+                sqlTimingLogger.debug(timingMarker(spy, execTimeNanoSec, methodCall, originalSql, sql), message);
             }
             else {
                 sqlTimingLogger.debug(message);
@@ -284,7 +420,7 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
         }
         else if(sqlTimingLogger.isInfoEnabled()) {
             if(shouldUseMarkersForTimingReports()) {
-                sqlTimingLogger.info(marker, message);
+                sqlTimingLogger.info(timingMarker(spy, execTimeNanoSec, methodCall, originalSql, sql), message);
             }
             else {
                 sqlTimingLogger.info(message);
@@ -292,6 +428,14 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
         }
     }
 
+    /**
+     * Create the marker for a sql timing report.  This is only done once the report is known to be logged, since the
+     * marker fingerprints the sql.
+     */
+    private Marker timingMarker(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String originalSql, String sql) {
+        return Slf4jSpyLogDelegator.markerFactory.create(sql, LoggingStatement.fingerprintOf(spy, methodCall, originalSql), execTimeNanoSec);
+    }
+
     private boolean shouldReportTimingOccured(String sql) {
         return sqlTimingLogger.isErrorEnabled() && (!LoggingDriver.config.isDumpSqlFilteringOn() || shouldSqlBeLogged(sql));
     }
@@ -308,8 +452,8 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      *
      * @return a SQL timing dump String for logging.
      */
-    private String buildSqlTimingDump(JdbcSpy spy, long execTimeNanoSec, String methodCall, String sql, boolean debugInfo) {
-        StringBuffer out = new StringBuffer();
+    private String buildSqlTimingDump(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String sql, boolean debugInfo) {
+        StringBuilder out = StringBuilderPool.acquire();
 
         if(debugInfo) {
             out.append(getDebugInfo());
@@ -323,9 +467,7 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
         // this is not very efficient but usually
         // only one or the other dump should be on and not both.
 
-        sql = processSql(sql);
-
-        out.append(sql);
+        appendSql(out, sql);
 
         if(!shouldUseMarkersForTimingReports()) {
             out.append(" {executed in ");
@@ -333,13 +475,13 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
             out.append(" nanoSec}");
         }
 
-        return out.toString();
+        return StringBuilderPool.release(out);
     }
 
     /**
      * Get debugging info - the module and line number that called the logger
      * version that prints the stack trace information from the point just before
-     * we got it (net.sf.log4jdbc)
+     * we got it (org.digitalforge.log4jdbc)
      * <p>
      * if the optional log4jdbc.debug.stack.prefix system property is defined then
      * the last call point from an application is shown in the debug trace output,
@@ -348,79 +490,44 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
      * @return debugging info for whoever called into JDBC from within the
      * application.
      */
-    private static String getDebugInfo() {
-        Throwable t = new Throwable();
-        t.fillInStackTrace();
-
-        StackTraceElement[] stackTrace = t.getStackTrace();
-
-        if(stackTrace != null) {
-            String className;
-
-            StringBuffer dump = new StringBuffer();
-
-            /**
-             * The DumpFullDebugStackTrace option is useful in some situations when we
-             * want to see the full stack trace in the debug info- watch out though as
-             * this will make the logs HUGE!
-             */
-            if(LoggingDriver.config.isDumpFullDebugStackTrace()) {
-                boolean first = true;
-                for(int i = 0; i < stackTrace.length; i++) {
-                    className = stackTrace[i].getClassName();
-                    if(className.startsWith("net.sf.log4jdbc") || className.startsWith("com.orderlyhealth.log4jdbc")) {
-                        continue;
-                    }
-
-                    if(first) {
-                        first = false;
-                    }
-                    else {
-                        dump.append("  ");
-                    }
-
-                    dump.append("at ");
-                    dump.append(stackTrace[i]);
-                    dump.append(NEWLINE);
+    protected String getDebugInfo() {
+
+        /**
+         * The DumpFullDebugStackTrace option is useful in some situations when we
+         * want to see the full stack trace in the debug info- watch out though as
+         * this will make the logs HUGE!
+         */
+        if(LoggingDriverConfig.getInstance().isDumpFullDebugStackTrace()) {
+
+            StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+            StringBuilder dump = StringBuilderPool.acquire();
+
+            boolean first = true;
+            for(int i = 0; i < stackTrace.length; i++) {
+                if(stackTrace[i].getClassName().startsWith(CallerResolver.LIBRARY_PACKAGE)) {
+                    continue;
+                }
 
+                if(first) {
+                    first = false;
                 }
-            }
-            else {
-                dump.append(" ");
-                int firstLog4jdbcCall = 0;
-                int lastApplicationCall = 0;
-
-                for(int i = 0; i < stackTrace.length; i++) {
-                    className = stackTrace[i].getClassName();
-                    if(className.startsWith("net.sf.log4jdbc") || className.startsWith("com.orderlyhealth.log4jdbc")) {
-                        firstLog4jdbcCall = i;
-                    }
-                    else if(LoggingDriver.config.isTraceFromApplication() && className.startsWith(LoggingDriver.config.getDebugStackPrefix())) {
-                        lastApplicationCall = i;
-                        break;
-                    }
+                else {
+                    dump.append("  ");
                 }
-                int j = lastApplicationCall;
 
-                // if app not found, then use whoever was the last guy that called a Log4JDBC class
-                if(j == 0) {
-                    j = 1 + firstLog4jdbcCall;
-                }
+                dump.append("at ");
+                dump.append(stackTrace[i]);
+                dump.append(NEWLINE);
 
-                dump.append(stackTrace[j].getClassName()).append(".")
-                    .append(stackTrace[j].getMethodName())
-                    .append("(")
-                    .append(stackTrace[j].getFileName())
-                    .append(":")
-                    .append(stackTrace[j].getLineNumber())
-                    .append(")");
             }
 
-            return dump.toString();
-        }
-        else {
-            return null;
+            return StringBuilderPool.release(dump);
+
         }
+
+        String caller = callerResolver.resolve();
+        return (caller == null) ? null : " " + caller;
+
     }
 
     /**
@@ -462,10 +569,39 @@ public class Slf4jSpyLogDelegator implements SpyLogDelegator {
         }
     }
 
+    /**
+     * Called when a ResultSet is closed, if <b>log4jdbc.resultset.profiling</b> is set.
+     *
+     * @param spy     ResultSetSpy that was closed.
+     * @param profile what the ResultSet fetched.
+     */
+    public void resultSetClosed(JdbcSpy spy, ResultSetProfile profile) {
+        if(resultSetProfileLogger.isDebugEnabled()) {
+            StringBuilder out = StringBuilderPool.acquire();
+            out.append(getDebugInfo()).append(NEWLINE).append(spy.getConnectionNumber()).append(". ");
+            resultSetProfileLogger.debug(StringBuilderPool.release(appendSql(out, profile.getSql()).append(' ').append(profile)));
+        }
+        else if(resultSetProfileLogger.isInfoEnabled()) {
+            resultSetProfileLogger.info(processSql(profile.getSql()) + " " + profile);
+        }
+    }
+
     public interface ExecutionTimeMarkerFactory {
 
         Marker create(String sql, long executionTimeNanoSec);
 
+        /**
+         * Create the marker for a sql timing report, given the fingerprint of its sql as well.
+         *
+         * @param sql                  the sql that was run.
+         * @param fingerprint          the fingerprint of the sql, or null if it has none.
+         * @param executionTimeNanoSec how long the sql took to run, in nanoseconds.
+         * @return the marker.
+         */
+        default Marker create(String sql, SqlFingerprint fingerprint, long executionTimeNanoSec) {
+            return create(sql, executionTimeNanoSec);
+        }
+
     }
 
 }
@@ -17,6 +17,22 @@ public interface SpyLogDelegator {
      */
     boolean isJdbcLoggingEnabled();
 
+    /**
+     * Determine if the values read from a ResultSet would be logged by {@link #methodReturned}, so that a ResultSet
+     * aggregating them per row can skip collecting them when they would not.
+     *
+     * @return true if ResultSet method calls are logged.
+     */
+    boolean isResultSetLogged();
+
+    /**
+     * Determine if {@link #exceptionOccured} would log anything, so that the SQL reported with an exception is only
+     * built when it would be logged.
+     *
+     * @return true if exceptions are logged.
+     */
+    boolean isExceptionLogged();
+
     /**
      * Called when a spied upon method throws an Exception.
      *
@@ -27,17 +43,17 @@ public interface SpyLogDelegator {
      * @param execTimeNanoSec   optional amount of time that passed before an exception was thrown when sql was being executed.
      *                   caller should pass -1 if not used
      */
-    void exceptionOccured(JdbcSpy spy, String methodCall, Exception e, String sql, long execTimeNanoSec);
+    void exceptionOccured(JdbcSpy spy, MethodCall methodCall, Exception e, String sql, long execTimeNanoSec);
 
     /**
      * Called when spied upon method call returns.
      *
      * @param spy        the JdbcSpy wrapping the class that called the method that returned.
-     * @param methodCall a description of the name and call parameters of the method that returned.
-     * @param returnMsg  return value converted to a String for integral types, or String representation for Object
-     *                   return types this will be null for void return types.
+     * @param methodCall a description of the name, call parameters and return value of the method that returned.
+     *                   It is only valid for the duration of this call, and should only be rendered to text if the
+     *                   call is actually going to be logged.
      */
-    void methodReturned(JdbcSpy spy, String methodCall, String returnMsg);
+    void methodReturned(JdbcSpy spy, MethodCall methodCall);
 
     /**
      * Called when a spied upon object is constructed.
@@ -54,7 +70,7 @@ public interface SpyLogDelegator {
      * @param methodCall a description of the name and call parameters of the method that generated the SQL.
      * @param sql        sql that occured.
      */
-    void sqlOccured(JdbcSpy spy, String methodCall, String sql);
+    void sqlOccured(JdbcSpy spy, MethodCall methodCall, String sql);
 
     /**
      * Similar to sqlOccured, but reported after SQL executes and used to report timing stats on the SQL
@@ -64,7 +80,7 @@ public interface SpyLogDelegator {
      * @param methodCall a description of the name and call parameters of the method that generated the SQL.
      * @param sql        sql that occured.
      */
-    void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, String methodCall, String sql);
+    void sqlTimingOccured(JdbcSpy spy, long execTimeNanoSec, MethodCall methodCall, String sql);
 
     /**
      * Called whenever a new connection spy is created.
@@ -80,6 +96,14 @@ public interface SpyLogDelegator {
      */
     void connectionClosed(JdbcSpy spy);
 
+    /**
+     * Called when a ResultSet is closed, if <b>log4jdbc.resultset.profiling</b> is set.
+     *
+     * @param spy     ResultSetSpy that was closed.
+     * @param profile what the ResultSet fetched.
+     */
+    void resultSetClosed(JdbcSpy spy, ResultSetProfile profile);
+
     /**
      * Log a Setup and/or administrative log message for log4jdbc.
      *
@@ -1,5 +1,9 @@
 package org.digitalforge.log4jdbc;
 
+import java.io.IOException;
+
+import org.slf4j.LoggerFactory;
+
 /**
  * A provider for a SpyLogDelegator.  This allows a single switch point to abstract
  * away which logging system to use for spying on JDBC calls.
@@ -18,7 +22,34 @@ public class SpyLogFactory {
     /**
      * The logging system of choice.
      */
-    private static final SpyLogDelegator logger = new Slf4jSpyLogDelegator();
+    private static final SpyLogDelegator logger = createSpyLogDelegator();
+
+    /**
+     * Create the SpyLogDelegator, writing a binary event log if <b>log4jdbc.binary.file</b> is set, or logging on a
+     * background thread if <b>log4jdbc.async.enabled</b> is set.
+     *
+     * @return the SpyLogDelegator to use.
+     */
+    private static SpyLogDelegator createSpyLogDelegator() {
+
+        LoggingDriverConfig config = LoggingDriverConfig.getInstance();
+
+        if(config.getBinaryFile() != null) {
+            try {
+                return new BinarySpyLogDelegator(config.getBinaryFile(), config.getBinaryBufferSize(), config.getBinaryRolloverSize(), config.getBinaryRawSqlThresholdNanoSec());
+            }
+            catch(IOException ex) {
+                LoggerFactory.getLogger(SpyLogFactory.class).error("Cannot open binary event log " + config.getBinaryFile() + ", logging as text instead", ex);
+            }
+        }
+
+        if(config.isAsyncEnabled()) {
+            return new AsyncSpyLogDelegator(config.getAsyncBufferSize(), config.getAsyncOverflowPolicy(), config.getAsyncSampleRate());
+        }
+
+        return new Slf4jSpyLogDelegator();
+
+    }
 
     /**
      * Get the default SpyLogDelegator for logging to the logger.
@@ -0,0 +1,132 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+
+/**
+ * Decides which statement executions are logged to the sqlonly, sqltiming and audit loggers when logging every
+ * execution is too expensive.
+ * <p>
+ * An execution is sampled if it is picked at random at the fixed rate of 1 in <b>log4jdbc.sample.rate</b>, and its
+ * statement has not already been logged <b>log4jdbc.sample.per.second</b> times in the last second.  Executions that
+ * are not sampled are still logged to sqltiming if they fail or take at least <b>log4jdbc.sample.threshold</b>
+ * nanoseconds.
+ * <p>
+ * The decision is made before an execution's SQL is built, so executions that are not sampled never format their
+ * bind variables.
+ */
+public class SqlSampler {
+
+    private static final long ONE_SECOND_NANOS = 1000000000L;
+
+    private final int rate;
+    private final int perSecond;
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final long intervalNanos;
+
+    /**
+     * The rate limiter of every statement executed, keyed by fingerprint.
+     */
+    private final Map<SqlFingerprint, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Create a SqlSampler.
+     *
+     * @param rate           sample 1 in this many executions, or every execution if 1 or less.
+     * @param perSecond      the most executions of each statement to sample per second, or 0 for no limit.
+     * @param thresholdNanos executions that take at least this long are always logged, or -1 if none are.
+     * @param maxStatements  the most statements to keep a rate limit for.
+     */
+    public SqlSampler(int rate, int perSecond, long thresholdNanos, int maxStatements) {
+        this.rate = Math.max(1, rate);
+        this.perSecond = Math.max(0, perSecond);
+        this.thresholdNanos = thresholdNanos;
+        this.maxStatements = Math.max(1, maxStatements);
+        this.intervalNanos = (this.perSecond == 0) ? 0L : Math.max(1L, ONE_SECOND_NANOS / this.perSecond);
+    }
+
+    /**
+     * Pick executions at the fixed sample rate.
+     *
+     * @return true if the execution is picked.
+     */
+    public boolean sample() {
+        return (rate == 1) || (ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+
+    /**
+     * Determine if there is a limit on the executions of each statement sampled per second, in which case the
+     * statement fingerprint must be passed to {@link #acquire(SqlFingerprint)}.
+     *
+     * @return true if executions are rate limited per statement.
+     */
+    public boolean isRateLimited() {
+        return perSecond > 0;
+    }
+
+    /**
+     * Take one of the samples a statement is allowed per second.
+     *
+     * @param fingerprint the fingerprint of the statement being executed.
+     * @return true if the statement has not used up its samples for the last second, or there is no rate limit.
+     */
+    public boolean acquire(SqlFingerprint fingerprint) {
+
+        if((perSecond == 0) || (fingerprint == null)) {
+            return true;
+        }
+
+        RateLimiter limiter = limiters.get(fingerprint);
+        if(limiter == null) {
+            if(limiters.size() >= maxStatements) {
+                limiters.clear();
+            }
+            limiter = limiters.computeIfAbsent(fingerprint, f -> new RateLimiter());
+        }
+
+        return limiter.tryAcquire(intervalNanos);
+
+    }
+
+    /**
+     * Determine if an execution is logged whether or not it was sampled.
+     *
+     * @param execTimeNanoSec how long the execution took.
+     * @return true if it took at least the threshold.
+     */
+    public boolean isAlwaysLogged(long execTimeNanoSec) {
+        return (thresholdNanos >= 0L) && (execTimeNanoSec >= thresholdNanos);
+    }
+
+    /**
+     * Lets executions through at an even rate, allowing up to a second's worth at once.
+     */
+    private static final class RateLimiter {
+
+        /**
+         * The time at which the next execution would be let through if executions came in exactly at the rate.
+         */
+        private final AtomicLong next = new AtomicLong(System.nanoTime());
+
+        boolean tryAcquire(long intervalNanos) {
+            long now = System.nanoTime();
+            while(true) {
+                long current = next.get();
+                long after = Math.max(current - now, 0L) + now + intervalNanos;
+                if(after - now > ONE_SECOND_NANOS) {
+                    return false;
+                }
+                if(next.compareAndSet(current, after)) {
+                    return true;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.digitalforge.log4jdbc;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.slf4j.Marker;
+
+/**
+ * The marker sql timing reports are logged with when <b>log4jdbc.sqltiming.usemarkersfortimingreports</b> is set.
+ * <p>
+ * All timing markers share the name {@link #NAME}, so they can be filtered on, and carry the sql, its fingerprint and
+ * its execution time as fields for appenders and filters that know about them.  They are detached: they are never
+ * registered with the SLF4J marker factory, which would keep every one of them forever, and they cannot have
+ * references to other markers.  The text of a marker is only built if it is asked for.
+ */
+public final class SqlTimingMarker implements Marker {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The name of every sql timing marker.
+     */
+    public static final String NAME = "SQL_TIMING";
+
+    private final String sql;
+    private final String fingerprint;
+    private final long fingerprintHash;
+    private final long executionTimeNanoSec;
+
+    /**
+     * Create a SqlTimingMarker.
+     *
+     * @param sql                  the sql that was run.
+     * @param fingerprint          the fingerprint of the sql, or null if it has none.
+     * @param executionTimeNanoSec how long the sql took to run, in nanoseconds.
+     */
+    public SqlTimingMarker(String sql, SqlFingerprint fingerprint, long executionTimeNanoSec) {
+        this.sql = sql;
+        this.fingerprint = (fingerprint != null) ? fingerprint.getText() : null;
+        this.fingerprintHash = (fingerprint != null) ? fingerprint.getHash() : 0L;
+        this.executionTimeNanoSec = executionTimeNanoSec;
+    }
+
+    /**
+     * Get the sql that was run.
+     *
+     * @return the sql.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Get the fingerprint of the sql that was run, which statements that only differ in their literals share.
+     *
+     * @return the normalized sql, or null if it has no fingerprint.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get the 64 bit hash of the fingerprint.
+     *
+     * @return the hash, or 0 if the sql has no fingerprint.
+     */
+    public long getFingerprintHash() {
+        return fingerprintHash;
+    }
+
+    /**
+     * Get how long the sql took to run.
+     *
+     * @return the execution time in nanoseconds.
+     */
+    public long getExecutionTimeNanoSec() {
+        return executionTimeNanoSec;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void add(Marker reference) {
+        throw new UnsupportedOperationException("SqlTimingMarker cannot have references");
+    }
+
+    @Override
+    public boolean remove(Marker reference) {
+        return false;
+    }
+
+    @Override
+    @Deprecated
+    public boolean hasChildren() {
+        return false;
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return false;
+    }
+
+    @Override
+    public Iterator<Marker> iterator() {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public boolean contains(Marker other) {
+        return equals(other);
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return NAME.equals(name);
+    }
+
+    /**
+     * Markers are equal if they have the same name, so all sql timing markers are equal to each other.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof Marker) && NAME.equals(((Marker)o).getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return NAME.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "{\"sql\"=\"" + sql + "\",\"executedInNanoSec\"=" + executionTimeNanoSec + "}";
+    }
+
+}
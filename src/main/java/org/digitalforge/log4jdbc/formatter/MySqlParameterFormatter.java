@@ -2,6 +2,7 @@ package org.digitalforge.log4jdbc.formatter;
 
 import java.sql.Date;
 import java.sql.Time;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -9,30 +10,38 @@ import java.time.format.DateTimeFormatter;
  */
 public class MySqlParameterFormatter extends ParameterFormatter {
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("'yyyy-MM-dd'");
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("'yyyy-MM-dd HH:mm:ss'");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("'HH:mm:ss'");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("''yyyy-MM-dd''");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("''yyyy-MM-dd HH:mm:ss''").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("''HH:mm:ss''");
 
     public MySqlParameterFormatter() {
 
     }
 
     @Override
-    public String formatParameterObject(final Object object) {
+    public boolean isBackslashEscaping() {
+        return true;
+    }
+
+    @Override
+    protected StringBuilder appendFormatted(StringBuilder out, final Object object) {
 
         if(object instanceof java.sql.Time) {
-            return TIME_FORMATTER.format(((Time)object).toInstant());
+            TIME_FORMATTER.formatTo(((Time)object).toLocalTime(), out);
+            return out;
         }
 
         if(object instanceof java.sql.Date) {
-            return DATE_FORMATTER.format(((Date)object).toInstant());
+            DATE_FORMATTER.formatTo(((Date)object).toLocalDate(), out);
+            return out;
         }
 
         if(object instanceof java.util.Date) {// (includes java.sql.Timestamp)
-            return DATETIME_FORMATTER.format(((java.util.Date)object).toInstant());
+            DATETIME_FORMATTER.formatTo(((java.util.Date)object).toInstant(), out);
+            return out;
         }
 
-        return super.formatParameterObject(object);
+        return super.appendFormatted(out, object);
 
     }
 
@@ -1,6 +1,7 @@
 package org.digitalforge.log4jdbc.formatter;
 
 import java.sql.Timestamp;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
@@ -9,24 +10,29 @@ import java.util.Date;
  */
 public class OracleParameterFormatter extends ParameterFormatter {
 
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
-    private static final DateTimeFormatter DATETIME_LONG_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss.SSS");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter DATETIME_LONG_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
 
     public OracleParameterFormatter() {
 
     }
 
-    public String formatParameterObject(Object object) {
+    @Override
+    protected StringBuilder appendFormatted(StringBuilder out, Object object) {
 
         if(object instanceof Timestamp) {
-            return "to_timestamp('" + DATETIME_LONG_FORMATTER.format(((Timestamp)object).toInstant()) + "', 'mm/dd/yyyy hh24:mi:ss.ff3')";
+            out.append("to_timestamp('");
+            DATETIME_LONG_FORMATTER.formatTo(((Timestamp)object).toInstant(), out);
+            return out.append("', 'mm/dd/yyyy hh24:mi:ss.ff3')");
         }
 
         if(object instanceof Date) {
-            return "to_date('" + DATETIME_FORMATTER.format(((Date)object).toInstant()) + "', 'mm/dd/yyyy hh24:mi:ss')";
+            out.append("to_date('");
+            DATETIME_FORMATTER.formatTo(((Date)object).toInstant(), out);
+            return out.append("', 'mm/dd/yyyy hh24:mi:ss')");
         }
 
-        return super.formatParameterObject(object);
+        return super.appendFormatted(out, object);
 
     }
 
@@ -1,24 +1,40 @@
 package org.digitalforge.log4jdbc.formatter;
 
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
-import org.digitalforge.log4jdbc.util.Utilities;
+import org.digitalforge.log4jdbc.util.StringBuilderPool;
 
 /**
  * Encapsulate sql formatting details about a particular relational database management system so that
  * accurate, useable SQL can be composed for that RDMBS.
+ * <p>
+ * Values are written straight into the SQL being built with {@link #appendParameterObject(StringBuilder, Object)}.
+ * Subclasses format values for their RDBMS by overriding {@link #appendFormatted(StringBuilder, Object)}, as the
+ * built-in ones do, and leave both public methods alone.  Subclasses written against older versions, which override
+ * {@link #formatParameterObject(Object)} instead, keep working whichever of the two is called: their override is
+ * called for every value, and its call to <code>super.formatParameterObject</code> gets the formatting of the
+ * classes it extends.
  */
 public class ParameterFormatter {
 
+    private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Set if a subclass overrides formatParameterObject, which then has to be called for every value.  None of the
+     * built-in formatters override it, so that this tells legacy subclasses apart whatever class they extend.
+     */
+    private final boolean formatOverridden;
+
     /**
      * Default constructor.
      */
     public ParameterFormatter() {
-
+        this.formatOverridden = overridesFormat(getClass());
     }
 
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss.SSS");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
 
     /**
      * Format an Object that is being bound to a PreparedStatement parameter, for display. The goal is to reformat the
@@ -31,30 +47,98 @@ public class ParameterFormatter {
      */
     public String formatParameterObject(final Object object) {
 
+        StringBuilder out = StringBuilderPool.acquire();
+
+        try {
+            if(formatOverridden) {
+                // called as super.formatParameterObject by a subclass, so it wants the formatting of the classes it
+                // extends, not its own override again
+                appendFormatted(out, object);
+            }
+            else {
+                appendParameterObject(out, object);
+            }
+            return out.toString();
+        }
+        finally {
+            StringBuilderPool.recycle(out);
+        }
+
+    }
+
+    /**
+     * Format an Object that is being bound to a PreparedStatement parameter onto the end of the SQL being built, the
+     * same way {@link #formatParameterObject(Object)} does, without building a String for it.
+     *
+     * @param out    the StringBuilder to append to.
+     * @param object jdbc object to be formatted.
+     * @return out.
+     */
+    public StringBuilder appendParameterObject(StringBuilder out, final Object object) {
+
+        if(formatOverridden) {
+            return out.append(formatParameterObject(object));
+        }
+
+        return appendFormatted(out, object);
+
+    }
+
+    /**
+     * Format an Object that is being bound to a PreparedStatement parameter onto the end of the SQL being built.
+     * Subclasses override this to format the values their RDBMS needs differently, calling the super class for the
+     * rest.
+     *
+     * @param out    the StringBuilder to append to.
+     * @param object jdbc object to be formatted.
+     * @return out.
+     */
+    protected StringBuilder appendFormatted(StringBuilder out, final Object object) {
+
         if(object == null) {
-            return "NULL";
+            return out.append("NULL");
         }
 
         if(object instanceof CharSequence) {
-            return "'" + escapeString((CharSequence)object) + "'";
+            out.append('\'');
+            appendEscaped(out, (CharSequence)object);
+            return out.append('\'');
         }
 
         if(object instanceof Date) {
-            return "'" + DATETIME_FORMATTER.format(((Date)object).toInstant()) + "'";
+            out.append('\'');
+            DATETIME_FORMATTER.formatTo(((Date)object).toInstant(), out);
+            return out.append('\'');
         }
 
         if(object instanceof Boolean) {
-            return ((Boolean)object).booleanValue() ? "1" : "0";
+            return out.append(((Boolean)object).booleanValue() ? '1' : '0');
         }
 
         if((object instanceof byte[]) && ((byte[])object).length <= 48) {
-            return "0x" + Utilities.hex((byte[])object).toUpperCase();
+            byte[] bytes = (byte[])object;
+            out.append("0x");
+            for(byte b : bytes) {
+                out.append(HEX_CHARS[(b >>> 4) & 0x0F]).append(HEX_CHARS[b & 0x0F]);
+            }
+            return out;
         }
 
-        return object.toString();
+        return out.append(object);
 
     }
 
+    /**
+     * Determine if a backslash escapes the character after it in the quoted string literals of this RDBMS, as it
+     * does in MySql unless it runs with NO_BACKSLASH_ESCAPES.  The SQL of a statement is scanned accordingly, so that
+     * a quote escaped with a backslash doesn't end the literal.
+     *
+     * @return true if a backslash is an escape character in string literals.
+     */
+    public boolean isBackslashEscaping() {
+        return false;
+    }
+
     /**
      * Make sure string is escaped properly so that it will run in a SQL query analyzer tool.
      * At this time all we do is double any single tick marks.
@@ -64,9 +148,32 @@ public class ParameterFormatter {
      */
     String escapeString(CharSequence in) {
 
-        StringBuilder out = new StringBuilder();
+        if(indexOfQuote(in) < 0) {
+            return in.toString();
+        }
+
+        StringBuilder out = StringBuilderPool.acquire();
+        appendEscaped(out, in);
+        return StringBuilderPool.release(out);
 
-        for(int i = 0, j = in.length(); i < j; i++) {
+    }
+
+    /**
+     * Append a string escaped the way {@link #escapeString(CharSequence)} does.
+     */
+    private static void appendEscaped(StringBuilder out, CharSequence in) {
+
+        int quote = indexOfQuote(in);
+
+        if(quote < 0) {
+            // nothing to escape, which is the usual case
+            out.append(in);
+            return;
+        }
+
+        out.append(in, 0, quote);
+
+        for(int i = quote, j = in.length(); i < j; i++) {
 
             char c = in.charAt(i);
 
@@ -78,8 +185,27 @@ public class ParameterFormatter {
 
         }
 
-        return out.toString();
+    }
 
+    private static int indexOfQuote(CharSequence in) {
+        if(in instanceof String) {
+            return ((String)in).indexOf('\'');
+        }
+        for(int i = 0, j = in.length(); i < j; i++) {
+            if(in.charAt(i) == '\'') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean overridesFormat(Class<?> type) {
+        try {
+            return type.getMethod("formatParameterObject", Object.class).getDeclaringClass() != ParameterFormatter.class;
+        }
+        catch(NoSuchMethodException ex) {
+            return false;
+        }
     }
 
 }
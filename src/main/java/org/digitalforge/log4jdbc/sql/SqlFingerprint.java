@@ -0,0 +1,58 @@
+package org.digitalforge.log4jdbc.sql;
+
+/**
+ * The normalized, literal free form of a SQL statement together with a 64 bit hash of it.  Statements that only
+ * differ in their literal values, whitespace, comments, keyword case or the length of their IN lists have equal
+ * fingerprints.
+ */
+public final class SqlFingerprint {
+
+    private final String text;
+    private final long hash;
+
+    SqlFingerprint(String text, long hash) {
+        this.text = text;
+        this.hash = hash;
+    }
+
+    /**
+     * Get the normalized statement, for example <code>select * from t where id in (?) and name = ?</code>.
+     *
+     * @return the normalized statement.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the 64 bit hash of the normalized statement.
+     *
+     * @return the hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof SqlFingerprint)) {
+            return false;
+        }
+        SqlFingerprint other = (SqlFingerprint)o;
+        return (hash == other.hash) && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int)(hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
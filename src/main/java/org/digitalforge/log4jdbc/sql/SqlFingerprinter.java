@@ -0,0 +1,618 @@
+package org.digitalforge.log4jdbc.sql;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns SQL statements into {@link SqlFingerprint}s, so that executions of the same statement with different literal
+ * values can be grouped together.
+ * <p>
+ * The statement is normalized in a single pass over its characters:
+ * <ul>
+ *   <li>string, numeric and typed (N'..', X'..', ...) literals are replaced by <code>?</code>, as is the sign of a
+ *       negative number</li>
+ *   <li>comments are removed and runs of whitespace collapsed to a single space</li>
+ *   <li>unquoted keywords and identifiers are lowercased, quoted identifiers are kept as they are</li>
+ *   <li><code>IN (?, ?, ?)</code> lists are collapsed to <code>in (?)</code>, and repeated <code>VALUES</code> rows
+ *       to a single row</li>
+ *   <li>a trailing semicolon is removed</li>
+ * </ul>
+ * A quote inside of a string literal is escaped by doubling it, and also by a backslash in front of it when the
+ * statement is fingerprinted for an RDBMS that escapes with backslashes, such as MySql, and in PostgreSQL
+ * <code>E'..'</code> literals.
+ * <p>
+ * The fingerprint of SQL that is executed over and over, such as the SQL of a PreparedStatement, can be kept in a
+ * bounded cache with {@link #fingerprintCached(String)}.  SQL that still contains literals should go through
+ * {@link #fingerprint(String)} so that it doesn't wipe out the cache.
+ */
+public class SqlFingerprinter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // token classes
+    private static final int START = 0;
+    private static final int WORD = 1;
+    private static final int QUOTED = 2;
+    private static final int LITERAL = 3;
+    private static final int OPEN = 4;
+    private static final int CLOSE = 5;
+    private static final int COMMA = 6;
+    private static final int DOT = 7;
+    private static final int OPERATOR = 8;
+    private static final int SEMICOLON = 9;
+
+    // kinds of parenthesized groups
+    private static final byte PLAIN = 0;
+    private static final byte IN_LIST = 1;
+    private static final byte VALUES_ROW = 2;
+
+    /**
+     * Keywords that are followed by a space when they are followed by an opening parenthesis.  Any other word
+     * followed by a parenthesis is taken to be a function or table name, and the parenthesis is attached to it.
+     */
+    private static final String[] SPACED_KEYWORDS = {
+        "all", "and", "any", "as", "between", "by", "case", "else", "exists", "from", "having", "in", "into", "is",
+        "join", "like", "not", "on", "or", "over", "returning", "select", "set", "some", "then", "union", "using",
+        "values", "when", "where", "with"
+    };
+
+    private final int cacheSize;
+    private final Map<String, SqlFingerprint> cache;
+
+    /**
+     * Create a SqlFingerprinter.
+     *
+     * @param cacheSize the most fingerprints {@link #fingerprintCached(String)} keeps.
+     */
+    public SqlFingerprinter(int cacheSize) {
+        this.cacheSize = Math.max(0, cacheSize);
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Fingerprint a statement, in which backslashes are only escape characters in <code>E'..'</code> literals.
+     *
+     * @param sql the statement.
+     * @return the fingerprint of the statement, or null if sql is null.
+     */
+    public SqlFingerprint fingerprint(String sql) {
+        return fingerprint(sql, false);
+    }
+
+    /**
+     * Fingerprint a statement.
+     *
+     * @param sql              the statement.
+     * @param backslashEscapes true if a backslash escapes the character after it in quoted string literals.
+     * @return the fingerprint of the statement, or null if sql is null.
+     */
+    public SqlFingerprint fingerprint(String sql, boolean backslashEscapes) {
+        if(sql == null) {
+            return null;
+        }
+        String text = normalize(sql, backslashEscapes);
+        return new SqlFingerprint(text, hash(text));
+    }
+
+    /**
+     * Fingerprint a statement, in which backslashes are only escape characters in <code>E'..'</code> literals,
+     * reusing the fingerprint from an earlier call with the same SQL if it's still cached.
+     *
+     * @param sql the statement.
+     * @return the fingerprint of the statement, or null if sql is null.
+     */
+    public SqlFingerprint fingerprintCached(String sql) {
+        return fingerprintCached(sql, false);
+    }
+
+    /**
+     * Fingerprint a statement, reusing the fingerprint from an earlier call with the same SQL if it's still cached.
+     * When the cache is full it is emptied, which is cheap and keeps the statements that are still being executed
+     * from being evicted for long.
+     *
+     * @param sql              the statement.
+     * @param backslashEscapes true if a backslash escapes the character after it in quoted string literals.
+     * @return the fingerprint of the statement, or null if sql is null.
+     */
+    public SqlFingerprint fingerprintCached(String sql, boolean backslashEscapes) {
+
+        if(sql == null) {
+            return null;
+        }
+
+        if(backslashEscapes && (sql.indexOf('\\') >= 0)) {
+            // the cache is shared by every RDBMS, and the same SQL can be tokenized differently by one that escapes
+            // with backslashes
+            return fingerprint(sql, true);
+        }
+
+        SqlFingerprint fingerprint = cache.get(sql);
+
+        if(fingerprint == null) {
+            fingerprint = fingerprint(sql, false);
+            if(cacheSize > 0) {
+                if(cache.size() >= cacheSize) {
+                    cache.clear();
+                }
+                cache.put(sql, fingerprint);
+            }
+        }
+
+        return fingerprint;
+
+    }
+
+    /**
+     * Compute the 64 bit FNV-1a hash of some text.
+     *
+     * @param text text to hash.
+     * @return the hash.
+     */
+    public static long hash(CharSequence text) {
+        long hash = FNV_OFFSET_BASIS;
+        for(int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Normalize a statement into its literal free form, in which backslashes are only escape characters in
+     * <code>E'..'</code> literals.
+     *
+     * @param sql the statement.
+     * @return the normalized statement.
+     */
+    public static String normalize(String sql) {
+        return normalize(sql, false);
+    }
+
+    /**
+     * Normalize a statement into its literal free form.
+     *
+     * @param sql              the statement.
+     * @param backslashEscapes true if a backslash escapes the character after it in quoted string literals.
+     * @return the normalized statement.
+     */
+    public static String normalize(String sql, boolean backslashEscapes) {
+
+        int n = sql.length();
+        StringBuilder out = new StringBuilder(n);
+
+        int prev = START;
+        int prevBeforeOperator = START;
+        int operatorStart = -1;
+        int wordStart = -1;
+
+        // open parenthesized groups: where their contents start in out, and what kind of group they are
+        int[] groupStarts = new int[8];
+        byte[] groupKinds = new byte[8];
+        int depth = 0;
+
+        // the first row of a VALUES list, which any identical rows that follow are collapsed into
+        int rowStart = -1;
+        int rowEnd = -1;
+        boolean afterRow = false;
+
+        int i = 0;
+
+        while(i < n) {
+
+            char c = sql.charAt(i);
+            char next = (i + 1 < n) ? sql.charAt(i + 1) : '\0';
+
+            if(Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            if((c == '-') && (next == '-')) {
+                i = skipLineComment(sql, i);
+                continue;
+            }
+
+            if((c == '/') && (next == '*')) {
+                i = skipBlockComment(sql, i);
+                continue;
+            }
+
+            // a VALUES row can only be followed by a comma and another row
+            boolean continuesRows = afterRow && ((c == ',') || ((c == '(') && (prev == COMMA)));
+            if(!continuesRows) {
+                afterRow = false;
+            }
+
+            if(c == '\'') {
+                i = skipQuoted(sql, i, '\'', backslashEscapes);
+                prev = appendLiteral(out, prev, prevBeforeOperator, operatorStart);
+                continue;
+            }
+
+            if((c == '"') || (c == '`') || (c == '[')) {
+                int end = skipQuoted(sql, i, (c == '[') ? ']' : c, backslashEscapes && (c == '"'));
+                space(out, prev, QUOTED, wordStart);
+                out.append(sql, i, end);
+                prev = QUOTED;
+                i = end;
+                continue;
+            }
+
+            if(isDigit(c) || ((c == '.') && isDigit(next) && (prev != WORD) && (prev != QUOTED) && (prev != CLOSE))) {
+                i = skipNumber(sql, i);
+                prev = appendLiteral(out, prev, prevBeforeOperator, operatorStart);
+                continue;
+            }
+
+            if(Character.isLetter(c) || (c == '_')) {
+
+                int end = i + 1;
+                while((end < n) && isWordPart(sql.charAt(end))) {
+                    end++;
+                }
+
+                // typed string literals such as N'abc', X'0f' or E'\n'
+                if((end < n) && (sql.charAt(end) == '\'') && (end - i <= 2)) {
+                    boolean escapeString = (end - i == 1) && ((c == 'E') || (c == 'e'));
+                    i = skipQuoted(sql, end, '\'', backslashEscapes || escapeString);
+                    prev = appendLiteral(out, prev, prevBeforeOperator, operatorStart);
+                    continue;
+                }
+
+                space(out, prev, WORD, wordStart);
+                wordStart = out.length();
+                for(int j = i; j < end; j++) {
+                    out.append(Character.toLowerCase(sql.charAt(j)));
+                }
+                prev = WORD;
+                i = end;
+                continue;
+
+            }
+
+            switch(c) {
+
+                case '?':
+                    space(out, prev, LITERAL, wordStart);
+                    out.append('?');
+                    prev = LITERAL;
+                    i++;
+                    continue;
+
+                case '$':
+                    if(isDigit(next)) {
+                        // numbered placeholders such as $1
+                        i += 2;
+                        while((i < n) && isDigit(sql.charAt(i))) {
+                            i++;
+                        }
+                        space(out, prev, LITERAL, wordStart);
+                        out.append('?');
+                        prev = LITERAL;
+                        continue;
+                    }
+                    break;
+
+                case '(': {
+
+                    byte kind = PLAIN;
+                    if(prev == WORD) {
+                        if(wordEquals(out, wordStart, "in")) {
+                            kind = IN_LIST;
+                        }
+                        else if(wordEquals(out, wordStart, "values")) {
+                            kind = VALUES_ROW;
+                            rowStart = -1;
+                        }
+                    }
+                    else if(continuesRows) {
+                        kind = VALUES_ROW;
+                    }
+
+                    space(out, prev, OPEN, wordStart);
+                    out.append('(');
+
+                    if(depth == groupStarts.length) {
+                        groupStarts = Arrays.copyOf(groupStarts, depth * 2);
+                        groupKinds = Arrays.copyOf(groupKinds, depth * 2);
+                    }
+                    groupStarts[depth] = out.length();
+                    groupKinds[depth] = kind;
+                    depth++;
+
+                    prev = OPEN;
+                    i++;
+                    continue;
+
+                }
+
+                case ')': {
+
+                    space(out, prev, CLOSE, wordStart);
+
+                    if(depth == 0) {
+                        out.append(')');
+                        prev = CLOSE;
+                        i++;
+                        continue;
+                    }
+
+                    depth--;
+                    int start = groupStarts[depth];
+                    byte kind = groupKinds[depth];
+
+                    if((kind == IN_LIST) && onlyPlaceholders(out, start)) {
+                        out.setLength(start);
+                        out.append('?');
+                    }
+
+                    out.append(')');
+
+                    if(kind == VALUES_ROW) {
+                        if(rowStart < 0) {
+                            rowStart = start - 1;
+                            rowEnd = out.length();
+                        }
+                        else if(sameText(out, rowStart, rowEnd, start - 1, out.length())) {
+                            // identical to the first row, so drop it together with the comma in front of it
+                            out.setLength(rowEnd);
+                        }
+                        afterRow = true;
+                    }
+
+                    prev = CLOSE;
+                    i++;
+                    continue;
+
+                }
+
+                case ',':
+                    out.append(',');
+                    prev = COMMA;
+                    i++;
+                    continue;
+
+                case '.':
+                    out.append('.');
+                    prev = DOT;
+                    i++;
+                    continue;
+
+                case ';':
+                    out.append(';');
+                    prev = SEMICOLON;
+                    i++;
+                    continue;
+
+                default:
+                    break;
+
+            }
+
+            // anything else is an operator, made up of as many operator characters as follow each other
+            int end = i + 1;
+            if(isOperator(c)) {
+                while((end < n) && isOperator(sql.charAt(end)) && !startsComment(sql, end) && !startsSignedNumber(sql, end)) {
+                    end++;
+                }
+            }
+
+            space(out, prev, OPERATOR, wordStart);
+            prevBeforeOperator = prev;
+            operatorStart = out.length();
+            out.append(sql, i, end);
+            prev = OPERATOR;
+            i = end;
+
+        }
+
+        // drop trailing semicolons
+        int length = out.length();
+        while((length > 0) && ((out.charAt(length - 1) == ';') || (out.charAt(length - 1) == ' '))) {
+            length--;
+        }
+        out.setLength(length);
+
+        return out.toString();
+
+    }
+
+    /**
+     * Append the placeholder for a literal, folding a preceding unary sign into it.
+     */
+    private static int appendLiteral(StringBuilder out, int prev, int prevBeforeOperator, int operatorStart) {
+
+        if((prev == OPERATOR) && (out.length() == operatorStart + 1)) {
+            char sign = out.charAt(operatorStart);
+            boolean unary = (prevBeforeOperator != WORD) && (prevBeforeOperator != QUOTED)
+                && (prevBeforeOperator != LITERAL) && (prevBeforeOperator != CLOSE);
+            if(unary && ((sign == '-') || (sign == '+'))) {
+                // remove the sign along with the space in front of it
+                int length = operatorStart;
+                if((length > 0) && (out.charAt(length - 1) == ' ')) {
+                    length--;
+                }
+                out.setLength(length);
+                prev = prevBeforeOperator;
+            }
+        }
+
+        space(out, prev, LITERAL, -1);
+        out.append('?');
+
+        return LITERAL;
+
+    }
+
+    /**
+     * Append a single space between the previous token and the next one, unless the tokens are written together.
+     */
+    private static void space(StringBuilder out, int prev, int next, int wordStart) {
+
+        if((prev == START) || (prev == OPEN) || (prev == DOT)) {
+            return;
+        }
+
+        if((next == CLOSE) || (next == COMMA) || (next == DOT) || (next == SEMICOLON)) {
+            return;
+        }
+
+        if((next == OPEN) && (prev == WORD) && !isSpacedKeyword(out, wordStart)) {
+            return;
+        }
+
+        out.append(' ');
+
+    }
+
+    private static boolean isSpacedKeyword(StringBuilder out, int wordStart) {
+        for(String keyword : SPACED_KEYWORDS) {
+            if(wordEquals(out, wordStart, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean wordEquals(StringBuilder out, int wordStart, String word) {
+        if((wordStart < 0) || (out.length() - wordStart != word.length())) {
+            return false;
+        }
+        for(int i = 0; i < word.length(); i++) {
+            if(out.charAt(wordStart + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean onlyPlaceholders(StringBuilder out, int start) {
+        boolean any = false;
+        for(int i = start; i < out.length(); i++) {
+            char c = out.charAt(i);
+            if(c == '?') {
+                any = true;
+            }
+            else if((c != ',') && (c != ' ')) {
+                return false;
+            }
+        }
+        return any;
+    }
+
+    private static boolean sameText(StringBuilder out, int start1, int end1, int start2, int end2) {
+        if(end1 - start1 != end2 - start2) {
+            return false;
+        }
+        for(int i = 0; i < end1 - start1; i++) {
+            if(out.charAt(start1 + i) != out.charAt(start2 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || (c == '_') || (c == '$') || (c == '#');
+    }
+
+    private static boolean isOperator(char c) {
+        return "<>=!|&+-*/%^~:@".indexOf(c) >= 0;
+    }
+
+    private static boolean startsComment(String sql, int i) {
+        if(i + 1 >= sql.length()) {
+            return false;
+        }
+        char c = sql.charAt(i);
+        char next = sql.charAt(i + 1);
+        return ((c == '-') && (next == '-')) || ((c == '/') && (next == '*'));
+    }
+
+    /**
+     * Determine if the operator character at i is the sign of a number, so that it is not merged into the operator
+     * in front of it (as in <code>a=-1</code>).
+     */
+    private static boolean startsSignedNumber(String sql, int i) {
+        char c = sql.charAt(i);
+        return ((c == '-') || (c == '+')) && (i + 1 < sql.length()) && isDigit(sql.charAt(i + 1));
+    }
+
+    private static int skipLineComment(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        return (end < 0) ? sql.length() : end + 1;
+    }
+
+    private static int skipBlockComment(String sql, int i) {
+        int end = sql.indexOf("*/", i + 2);
+        return (end < 0) ? sql.length() : end + 2;
+    }
+
+    /**
+     * Skip a quoted literal or identifier, where a doubled closing quote stands for the quote itself, as does a
+     * quote with a backslash in front of it if backslashes are escape characters.
+     *
+     * @return the index just past the closing quote.
+     */
+    private static int skipQuoted(String sql, int i, char close, boolean backslashEscapes) {
+        int n = sql.length();
+        i++;
+        while(i < n) {
+            char c = sql.charAt(i);
+            if(backslashEscapes && (c == '\\')) {
+                i += 2;
+                continue;
+            }
+            if(c == close) {
+                if((i + 1 < n) && (sql.charAt(i + 1) == close)) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return n;
+    }
+
+    private static int skipNumber(String sql, int i) {
+
+        int n = sql.length();
+
+        if((sql.charAt(i) == '0') && (i + 1 < n) && ((sql.charAt(i + 1) == 'x') || (sql.charAt(i + 1) == 'X'))) {
+            i += 2;
+            while((i < n) && (Character.digit(sql.charAt(i), 16) >= 0)) {
+                i++;
+            }
+            return i;
+        }
+
+        while((i < n) && (isDigit(sql.charAt(i)) || (sql.charAt(i) == '.'))) {
+            i++;
+        }
+
+        if((i < n) && ((sql.charAt(i) == 'e') || (sql.charAt(i) == 'E'))) {
+            int j = i + 1;
+            if((j < n) && ((sql.charAt(j) == '+') || (sql.charAt(j) == '-'))) {
+                j++;
+            }
+            if((j < n) && isDigit(sql.charAt(j))) {
+                i = j;
+                while((i < n) && isDigit(sql.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+
+        return i;
+
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.digitalforge.log4jdbc.sql;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the bind variable placeholders in the SQL of a PreparedStatement, found once so that the SQL can
+ * be logged with its bind values inlined without scanning it again on every execution.
+ * <p>
+ * A question mark is only taken to be a placeholder where the driver would take it to be one, so question marks
+ * inside of:
+ * <ul>
+ *   <li>string literals and quoted identifiers (<code>'..'</code>, <code>".."</code> and <code>`..`</code>)</li>
+ *   <li>PostgreSQL dollar quoted strings (<code>$$..$$</code> and <code>$tag$..$tag$</code>)</li>
+ *   <li>line and block comments</li>
+ * </ul>
+ * are skipped, as are the PostgreSQL JSON operators <code>?|</code> and <code>?&amp;</code> and the escaped question
+ * mark <code>??</code>.
+ * <p>
+ * A quote inside of a string literal is escaped by doubling it, and also by a backslash in front of it in the
+ * literals of an RDBMS that escapes with backslashes, such as MySql, and in PostgreSQL <code>E'..'</code> literals.
+ */
+public final class SqlPlaceholderIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String sql;
+    private final int[] offsets;
+
+    /**
+     * Find the placeholders of a statement, in which backslashes are only escape characters in <code>E'..'</code>
+     * literals.
+     *
+     * @param sql the statement, or null for a statement without placeholders.
+     */
+    public SqlPlaceholderIndex(String sql) {
+        this(sql, false);
+    }
+
+    /**
+     * Find the placeholders of a statement.
+     *
+     * @param sql              the statement, or null for a statement without placeholders.
+     * @param backslashEscapes true if a backslash escapes the character after it in quoted string literals.
+     */
+    public SqlPlaceholderIndex(String sql, boolean backslashEscapes) {
+        this.sql = (sql != null) ? sql : "";
+        this.offsets = scan(this.sql, backslashEscapes);
+    }
+
+    /**
+     * Get the statement the placeholders were found in.
+     *
+     * @return the statement.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Get the number of placeholders.
+     *
+     * @return the placeholder count.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Get where a placeholder is in the statement.
+     *
+     * @param i the 0 based index of the placeholder.
+     * @return the offset of its question mark.
+     */
+    public int offset(int i) {
+        return offsets[i];
+    }
+
+    private static int[] scan(String sql, boolean backslashEscapes) {
+
+        int n = sql.length();
+        int[] found = NONE;
+        int count = 0;
+        int i = 0;
+
+        while(i < n) {
+
+            char c = sql.charAt(i);
+            char next = (i + 1 < n) ? sql.charAt(i + 1) : '\0';
+
+            switch(c) {
+
+                case '\'':
+                    i = skipQuoted(sql, i, c, backslashEscapes || isEscapeString(sql, i));
+                    continue;
+
+                case '"':
+                    i = skipQuoted(sql, i, c, backslashEscapes);
+                    continue;
+
+                case '`':
+                    i = skipQuoted(sql, i, c, false);
+                    continue;
+
+                case '-':
+                    if(next == '-') {
+                        int end = sql.indexOf('\n', i);
+                        i = (end < 0) ? n : end + 1;
+                        continue;
+                    }
+                    break;
+
+                case '/':
+                    if(next == '*') {
+                        int end = sql.indexOf("*/", i + 2);
+                        i = (end < 0) ? n : end + 2;
+                        continue;
+                    }
+                    break;
+
+                case '$':
+                    if((i == 0) || !isWordPart(sql.charAt(i - 1))) {
+                        int end = skipDollarQuoted(sql, i);
+                        if(end > i) {
+                            i = end;
+                            continue;
+                        }
+                    }
+                    break;
+
+                case '?':
+                    if((next == '?') || (next == '&') || ((next == '|') && ((i + 2 >= n) || (sql.charAt(i + 2) != '|')))) {
+                        // an escaped question mark or a JSON operator, but ?|| is a placeholder followed by a concatenation
+                        i += 2;
+                        continue;
+                    }
+                    if(count == found.length) {
+                        found = Arrays.copyOf(found, Math.max(8, count * 2));
+                    }
+                    found[count++] = i;
+                    break;
+
+                default:
+                    break;
+
+            }
+
+            i++;
+
+        }
+
+        return (count == found.length) ? found : Arrays.copyOf(found, count);
+
+    }
+
+    /**
+     * Skip a quoted literal or identifier, where a doubled closing quote stands for the quote itself, as does a
+     * quote with a backslash in front of it if backslashes are escape characters.
+     *
+     * @return the index just past the closing quote.
+     */
+    private static int skipQuoted(String sql, int i, char close, boolean backslashEscapes) {
+        int n = sql.length();
+        i++;
+        while(i < n) {
+            char c = sql.charAt(i);
+            if(backslashEscapes && (c == '\\')) {
+                i += 2;
+                continue;
+            }
+            if(c == close) {
+                if((i + 1 < n) && (sql.charAt(i + 1) == close)) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return n;
+    }
+
+    /**
+     * Skip a dollar quoted string, if the dollar sign at i starts one.
+     *
+     * @return the index just past the closing tag, or i if no dollar quoted string starts at i.
+     */
+    private static int skipDollarQuoted(String sql, int i) {
+
+        int n = sql.length();
+        int j = i + 1;
+
+        // the tag can't start with a digit, so $1 is left alone
+        if((j < n) && Character.isDigit(sql.charAt(j))) {
+            return i;
+        }
+        while((j < n) && (sql.charAt(j) != '$')) {
+            if(!isWordPart(sql.charAt(j))) {
+                return i;
+            }
+            j++;
+        }
+        if(j >= n) {
+            return i;
+        }
+
+        String tag = sql.substring(i, j + 1);
+        int end = sql.indexOf(tag, j + 1);
+
+        return (end < 0) ? n : end + tag.length();
+
+    }
+
+    /**
+     * Determine if the quote at i starts a PostgreSQL escape string such as <code>E'it\'s'</code>.
+     */
+    private static boolean isEscapeString(String sql, int i) {
+        if(i == 0) {
+            return false;
+        }
+        char prefix = sql.charAt(i - 1);
+        return ((prefix == 'E') || (prefix == 'e')) && ((i == 1) || !isWordPart(sql.charAt(i - 2)));
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || (c == '_');
+    }
+
+}
@@ -0,0 +1,204 @@
+package org.digitalforge.log4jdbc.stats;
+
+/**
+ * A point in time copy of the statistics collected for the batches of one statement by a {@link SqlStatsCollector}.
+ * <p>
+ * Every statement of a batch is counted by the update count the driver returned for it: the number of rows it
+ * affected, {@link java.sql.Statement#SUCCESS_NO_INFO} if the driver does not know, or
+ * {@link java.sql.Statement#EXECUTE_FAILED} if it failed.  When a batch fails with a
+ * {@link java.sql.BatchUpdateException}, the position of its first failed statement is also recorded: drivers that
+ * carry on after a failure mark it with EXECUTE_FAILED, and drivers that stop only return the update counts of the
+ * statements before it.
+ */
+public final class BatchStats {
+
+    private final long batchCount;
+    private final long failedCount;
+    private final long statementCount;
+    private final long totalNanos;
+    private final long minSize;
+    private final long maxSize;
+    private final long rowCount;
+    private final long zeroRowCount;
+    private final long oneRowCount;
+    private final long multiRowCount;
+    private final long successNoInfoCount;
+    private final long executeFailedCount;
+    private final LatencySnapshot sizes;
+    private final LatencySnapshot failurePositions;
+
+    BatchStats(long batchCount, long failedCount, long statementCount, long totalNanos, long minSize, long maxSize, long rowCount,
+               long zeroRowCount, long oneRowCount, long multiRowCount, long successNoInfoCount, long executeFailedCount,
+               LatencySnapshot sizes, LatencySnapshot failurePositions) {
+        this.batchCount = batchCount;
+        this.failedCount = failedCount;
+        this.statementCount = statementCount;
+        this.totalNanos = totalNanos;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.rowCount = rowCount;
+        this.zeroRowCount = zeroRowCount;
+        this.oneRowCount = oneRowCount;
+        this.multiRowCount = multiRowCount;
+        this.successNoInfoCount = successNoInfoCount;
+        this.executeFailedCount = executeFailedCount;
+        this.sizes = sizes;
+        this.failurePositions = failurePositions;
+    }
+
+    /**
+     * Get the number of batches run, including failed ones.
+     *
+     * @return the batch count.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Get the number of batches that threw an SQLException.
+     *
+     * @return the failed batch count.
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Get the total number of statements in the batches run.
+     *
+     * @return the statement count.
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get the smallest batch run.
+     *
+     * @return the minimum number of statements in a batch, or 0 if no batch was run.
+     */
+    public long getMinSize() {
+        return minSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the average batch size.
+     *
+     * @return the mean number of statements in a batch, or 0 if no batch was run.
+     */
+    public long getAverageSize() {
+        return (batchCount == 0L) ? 0L : (statementCount / batchCount);
+    }
+
+    /**
+     * Get the number of statements run per second of batch execution time.
+     *
+     * @return the statement throughput, or 0 if no time was spent.
+     */
+    public double getStatementsPerSecond() {
+        return (totalNanos == 0L) ? 0.0 : (statementCount * 1e9 / totalNanos);
+    }
+
+    /**
+     * Get the number of rows affected per second of batch execution time, counting only the statements whose update
+     * count is known.
+     *
+     * @return the row throughput, or 0 if no time was spent.
+     */
+    public double getRowsPerSecond() {
+        return (totalNanos == 0L) ? 0.0 : (rowCount * 1e9 / totalNanos);
+    }
+
+    /**
+     * Get the total number of rows affected, counting only the statements whose update count is known.
+     *
+     * @return the row count.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the number of statements that affected no rows.
+     *
+     * @return the count of update counts of 0.
+     */
+    public long getZeroRowCount() {
+        return zeroRowCount;
+    }
+
+    /**
+     * Get the number of statements that affected exactly one row.
+     *
+     * @return the count of update counts of 1.
+     */
+    public long getOneRowCount() {
+        return oneRowCount;
+    }
+
+    /**
+     * Get the number of statements that affected more than one row.
+     *
+     * @return the count of update counts above 1.
+     */
+    public long getMultiRowCount() {
+        return multiRowCount;
+    }
+
+    /**
+     * Get the number of statements that succeeded without the driver knowing how many rows they affected.
+     *
+     * @return the count of {@link java.sql.Statement#SUCCESS_NO_INFO} update counts.
+     */
+    public long getSuccessNoInfoCount() {
+        return successNoInfoCount;
+    }
+
+    /**
+     * Get the number of statements the driver reported as failed, in batches that carried on after a failure.
+     *
+     * @return the count of {@link java.sql.Statement#EXECUTE_FAILED} update counts.
+     */
+    public long getExecuteFailedCount() {
+        return executeFailedCount;
+    }
+
+    /**
+     * Get the distribution of the batch sizes.
+     *
+     * @return a snapshot of the batch sizes, whose values are counts, not nanoseconds, or null if latency histograms
+     * are not enabled.
+     */
+    public LatencySnapshot getSizes() {
+        return sizes;
+    }
+
+    /**
+     * Get the distribution of the 0 based positions of the first failed statement of the batches that failed with a
+     * BatchUpdateException.
+     *
+     * @return a snapshot of the failure positions, whose values are positions, not nanoseconds, or null if no batch
+     * failed that way.
+     */
+    public LatencySnapshot getFailurePositions() {
+        return failurePositions;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStats{batches=" + batchCount + ", failed=" + failedCount + ", statements=" + statementCount + ", totalNanos=" + totalNanos
+            + ", minSize=" + minSize + ", maxSize=" + maxSize + ", rows=" + rowCount + ", zeroRows=" + zeroRowCount + ", oneRow=" + oneRowCount
+            + ", multiRow=" + multiRowCount + ", successNoInfo=" + successNoInfoCount + ", executeFailed=" + executeFailedCount
+            + ((sizes != null) ? ", sizes=" + sizes : "") + ((failurePositions != null) ? ", failurePositions=" + failurePositions : "") + "}";
+    }
+
+}
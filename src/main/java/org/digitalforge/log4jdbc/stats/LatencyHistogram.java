@@ -0,0 +1,148 @@
+package org.digitalforge.log4jdbc.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, log-linear histogram of latencies in nanoseconds.
+ * <p>
+ * Latencies are counted in buckets: every power of two range is split into 16 equally wide buckets, so a recorded
+ * latency is known to within 1/16th (6.25%) of its value.  Latencies of 2^40 nanoseconds (about 18 minutes) and more
+ * are counted in the last bucket.  The whole histogram takes less than 5KB per stripe and recording into it is a
+ * single atomic increment.
+ * <p>
+ * A histogram shared by many threads can be split into stripes, which threads record into depending on their id, so
+ * that they do not all contend on the same few buckets.  Snapshots add the stripes back together.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 39;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1L;
+
+    /**
+     * Number of buckets in a stripe.
+     */
+    static final int BUCKETS = ((MAX_EXPONENT - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final int stripeMask;
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Create a LatencyHistogram with a single stripe.
+     */
+    public LatencyHistogram() {
+        this(1);
+    }
+
+    /**
+     * Create a LatencyHistogram.
+     *
+     * @param stripes number of stripes to spread concurrent recording over, rounded up to a power of two.
+     */
+    public LatencyHistogram(int stripes) {
+        int n = (stripes <= 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.counts = new AtomicLongArray(n * BUCKETS);
+        this.stripeMask = n - 1;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds.  Negative values are counted as 0.
+     */
+    public void record(long nanos) {
+
+        long value = Math.max(0L, nanos);
+        int stripe = (stripeMask == 0) ? 0 : (int)(Thread.currentThread().getId() & stripeMask);
+
+        counts.incrementAndGet(stripe * BUCKETS + bucketIndex(value));
+
+        long m = max.get();
+        while((value > m) && !max.compareAndSet(m, value)) {
+            m = max.get();
+        }
+
+    }
+
+    /**
+     * Add the latencies recorded by another histogram to this one.
+     *
+     * @param other the histogram to add, which should not be recorded into at the same time.
+     */
+    public void add(LatencyHistogram other) {
+
+        int stripe = (stripeMask == 0) ? 0 : (int)(Thread.currentThread().getId() & stripeMask);
+
+        for(int i = 0, n = other.counts.length(); i < n; i++) {
+            long count = other.counts.get(i);
+            if(count != 0L) {
+                counts.addAndGet(stripe * BUCKETS + (i % BUCKETS), count);
+            }
+        }
+
+        long value = other.max.get();
+        long m = max.get();
+        while((value > m) && !max.compareAndSet(m, value)) {
+            m = max.get();
+        }
+
+    }
+
+    /**
+     * Take a snapshot of the latencies recorded so far.
+     *
+     * @return the snapshot.
+     */
+    public LatencySnapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        for(int i = 0, n = counts.length(); i < n; i++) {
+            buckets[i % BUCKETS] += counts.get(i);
+        }
+        return new LatencySnapshot(buckets, max.get());
+    }
+
+    /**
+     * Take a snapshot of the latencies recorded since the last reset, and start counting again from zero.  Latencies
+     * recorded while the snapshot is being taken end up in either this snapshot or the next one, but never both.
+     *
+     * @return the snapshot.
+     */
+    public LatencySnapshot snapshotAndReset() {
+        long[] buckets = new long[BUCKETS];
+        long m = max.getAndSet(0L);
+        for(int i = 0, n = counts.length(); i < n; i++) {
+            buckets[i % BUCKETS] += counts.getAndSet(i, 0L);
+        }
+        return new LatencySnapshot(buckets, m);
+    }
+
+    static int bucketIndex(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int)value;
+        }
+        long v = Math.min(value, MAX_VALUE);
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int subBucket = (int)(v >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Get the highest latency that is counted in a bucket.
+     *
+     * @param index the bucket index.
+     * @return the upper bound of the bucket, in nanoseconds.
+     */
+    static long bucketUpperBound(int index) {
+        if(index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index >> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long)(SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << (exponent - SUB_BUCKET_BITS);
+        return lower + width - 1L;
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.digitalforge.log4jdbc.stats;
+
+/**
+ * A point in time copy of the counts of a {@link LatencyHistogram}.
+ */
+public final class LatencySnapshot {
+
+    private final long[] buckets;
+    private final long count;
+    private final long max;
+
+    LatencySnapshot(long[] buckets, long max) {
+        long total = 0L;
+        for(long b : buckets) {
+            total += b;
+        }
+        this.buckets = buckets;
+        this.count = total;
+        this.max = max;
+    }
+
+    /**
+     * Get the number of latencies recorded.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the highest latency recorded.
+     *
+     * @return the maximum latency in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the latency that the given percentage of recorded latencies are at or below.
+     *
+     * @param percentile percentile to get, from 0 to 100.
+     * @return the latency in nanoseconds, accurate to within 6.25%, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if(count == 0L) {
+            return 0L;
+        }
+
+        long rank = (long)Math.ceil(Math.max(0.0, Math.min(100.0, percentile)) / 100.0 * count);
+        rank = Math.max(1L, rank);
+
+        long seen = 0L;
+        for(int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if(seen >= rank) {
+                // the max is exact, so never report more than it
+                return (max > 0L) ? Math.min(LatencyHistogram.bucketUpperBound(i), max) : LatencyHistogram.bucketUpperBound(i);
+            }
+        }
+
+        return max;
+
+    }
+
+    public long getP50() {
+        return getValueAtPercentile(50.0);
+    }
+
+    public long getP90() {
+        return getValueAtPercentile(90.0);
+    }
+
+    public long getP99() {
+        return getValueAtPercentile(99.0);
+    }
+
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{count=" + count + ", p50=" + getP50() + ", p90=" + getP90() + ", p99=" + getP99()
+            + ", p999=" + getP999() + ", max=" + max + "}";
+    }
+
+}
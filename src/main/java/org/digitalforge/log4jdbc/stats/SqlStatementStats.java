@@ -0,0 +1,129 @@
+package org.digitalforge.log4jdbc.stats;
+
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+
+/**
+ * A point in time copy of the statistics collected for one statement by a {@link SqlStatsCollector}.
+ */
+public final class SqlStatementStats {
+
+    private final SqlFingerprint fingerprint;
+    private final long count;
+    private final long totalNanos;
+    private final long minNanos;
+    private final long maxNanos;
+    private final long errorCount;
+    private final long rowCount;
+    private final LatencySnapshot latency;
+    private final BatchStats batch;
+
+    SqlStatementStats(SqlFingerprint fingerprint, long count, long totalNanos, long minNanos, long maxNanos, long errorCount, long rowCount,
+                      LatencySnapshot latency, BatchStats batch) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.errorCount = errorCount;
+        this.rowCount = rowCount;
+        this.latency = latency;
+        this.batch = batch;
+    }
+
+    /**
+     * Get the fingerprint of the statement these statistics were collected for.
+     *
+     * @return the statement fingerprint.
+     */
+    public SqlFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get the normalized, literal free text of the statement these statistics were collected for.
+     *
+     * @return the statement text.
+     */
+    public String getSql() {
+        return fingerprint.getText();
+    }
+
+    /**
+     * Get the number of times the statement was executed, including failed executions.
+     *
+     * @return the execution count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get the shortest execution time.
+     *
+     * @return the minimum execution time in nanoseconds, or 0 if the statement has not been executed.
+     */
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Get the average execution time.
+     *
+     * @return the mean execution time in nanoseconds, or 0 if the statement has not been executed.
+     */
+    public long getAverageNanos() {
+        return (count == 0L) ? 0L : (totalNanos / count);
+    }
+
+    /**
+     * Get the number of executions that threw an SQLException.
+     *
+     * @return the error count.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Get the number of rows affected by the statement, for the executions that reported an update count.
+     *
+     * @return the total row count.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the distribution of the execution times of the successful executions.
+     *
+     * @return a snapshot of the latency histogram, or null if latency histograms are not enabled.
+     */
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * Get the statistics of the batches of the statement, which are also counted as executions.
+     *
+     * @return the batch statistics, or null if the statement was never run as a batch.
+     */
+    public BatchStats getBatch() {
+        return batch;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementStats{count=" + count + ", totalNanos=" + totalNanos + ", minNanos=" + minNanos
+            + ", maxNanos=" + maxNanos + ", errors=" + errorCount  + ", rows=" + rowCount + ((latency != null) ? ", latency=" + latency : "")
+            + ((batch != null) ? ", batch=" + batch : "") + ", sql=" + fingerprint + "}";
+    }
+
+}
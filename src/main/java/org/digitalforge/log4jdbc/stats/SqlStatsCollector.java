@@ -0,0 +1,446 @@
+package org.digitalforge.log4jdbc.stats;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.digitalforge.log4jdbc.sql.SqlFingerprint;
+import org.digitalforge.log4jdbc.sql.SqlFingerprinter;
+
+/**
+ * Aggregates execution statistics per statement inside the application, without going through the logs.
+ * <p>
+ * Statements are identified by their {@link SqlFingerprint}, so executions that only differ in their literal values
+ * are aggregated together.
+ * <p>
+ * If latency histograms are enabled, the latency of every successful execution is also recorded into a
+ * {@link LatencyHistogram} kept for the statement, and into one kept for all statements.
+ * <p>
+ * Batches are recorded as one execution, and in addition into the {@link BatchStats} of the statement: the batch
+ * sizes, the time per statement and the distribution of the update counts, which is what batch sizes are tuned with.
+ * <p>
+ * Every execution is recorded into LongAdder based counters, so concurrent executions of the same statement do not
+ * contend with each other.  The number of statements tracked is bounded: once more than maxStatements are tracked,
+ * the statements that have not been executed for the longest time are evicted.  Eviction is approximate: the last
+ * access time of a statement is only updated about once a millisecond, the bound may briefly be exceeded while
+ * another thread is evicting, and executions recorded while their statement is being evicted are lost.
+ */
+public class SqlStatsCollector {
+
+    /**
+     * How stale the last access time of a statement may get before it is updated.
+     */
+    private static final long ACCESS_GRANULARITY_NANOS = 1_000_000L;
+
+    private static final class Entry {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator minNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+
+        final LatencyHistogram latency;
+
+        volatile long lastAccess;
+
+        /**
+         * The batch statistics of the statement, only created once it is run as a batch.
+         */
+        volatile BatchEntry batch;
+
+        Entry(long now, boolean histogram) {
+            lastAccess = now;
+            latency = histogram ? new LatencyHistogram() : null;
+        }
+
+        BatchEntry batch() {
+            BatchEntry b = batch;
+            if(b == null) {
+                synchronized(this) {
+                    b = batch;
+                    if(b == null) {
+                        b = new BatchEntry(latency != null);
+                        batch = b;
+                    }
+                }
+            }
+            return b;
+        }
+
+    }
+
+    private static final class BatchEntry {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator minSize = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator maxSize = new LongAccumulator(Math::max, 0L);
+        final LongAdder rows = new LongAdder();
+        final LongAdder zeroRows = new LongAdder();
+        final LongAdder oneRow = new LongAdder();
+        final LongAdder multiRow = new LongAdder();
+        final LongAdder successNoInfo = new LongAdder();
+        final LongAdder executeFailed = new LongAdder();
+
+        final LatencyHistogram sizes;
+
+        /**
+         * The positions of the first failed statements, only created once a batch fails with a BatchUpdateException.
+         */
+        volatile LatencyHistogram failurePositions;
+
+        BatchEntry(boolean histogram) {
+            sizes = histogram ? new LatencyHistogram() : null;
+        }
+
+        void updateCount(long updateCount) {
+            if(updateCount == 0L) {
+                zeroRows.increment();
+            }
+            else if(updateCount == 1L) {
+                oneRow.increment();
+                rows.increment();
+            }
+            else if(updateCount > 1L) {
+                multiRow.increment();
+                rows.add(updateCount);
+            }
+            else if(updateCount == Statement.SUCCESS_NO_INFO) {
+                successNoInfo.increment();
+            }
+            else if(updateCount == Statement.EXECUTE_FAILED) {
+                executeFailed.increment();
+            }
+        }
+
+        void failedAt(long position) {
+            LatencyHistogram h = failurePositions;
+            if(h == null) {
+                synchronized(this) {
+                    h = failurePositions;
+                    if(h == null) {
+                        h = new LatencyHistogram();
+                        failurePositions = h;
+                    }
+                }
+            }
+            h.record(position);
+        }
+
+    }
+
+    private final Map<SqlFingerprint, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxStatements;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+    private final LatencyHistogram globalLatency;
+
+    /**
+     * Create a SqlStatsCollector without latency histograms.
+     *
+     * @param maxStatements the most statements to keep statistics for.
+     */
+    public SqlStatsCollector(int maxStatements) {
+        this(maxStatements, false);
+    }
+
+    /**
+     * Create a SqlStatsCollector.
+     *
+     * @param maxStatements the most statements to keep statistics for.
+     * @param histograms    true to keep latency histograms per statement and for all statements.
+     */
+    public SqlStatsCollector(int maxStatements, boolean histograms) {
+        if(maxStatements < 1) {
+            throw new IllegalArgumentException("maxStatements must be at least 1");
+        }
+        this.maxStatements = maxStatements;
+        // every thread records into the global histogram, so spread them out over stripes
+        this.globalLatency = histograms ? new LatencyHistogram(Runtime.getRuntime().availableProcessors()) : null;
+    }
+
+    /**
+     * Record one execution of a statement.
+     *
+     * @param fingerprint     fingerprint of the statement.
+     * @param execTimeNanoSec how long the statement took to run, in nanoseconds.
+     * @param rows            number of rows affected, or a negative number if not known.
+     * @param failed          true if the execution threw an SQLException.
+     */
+    public void record(SqlFingerprint fingerprint, long execTimeNanoSec, long rows, boolean failed) {
+
+        Entry entry = entry(fingerprint);
+
+        entry.count.increment();
+        entry.totalNanos.add(execTimeNanoSec);
+        entry.minNanos.accumulate(execTimeNanoSec);
+        entry.maxNanos.accumulate(execTimeNanoSec);
+
+        if(failed) {
+            entry.errors.increment();
+        }
+        else if(globalLatency != null) {
+            entry.latency.record(execTimeNanoSec);
+            globalLatency.record(execTimeNanoSec);
+        }
+        if(rows > 0L) {
+            entry.rows.add(rows);
+        }
+
+    }
+
+    /**
+     * Record the batch details of a batch of a statement, which is recorded as one execution by
+     * {@link #record(SqlFingerprint, long, long, boolean)}.
+     *
+     * @param fingerprint     fingerprint of the statement.
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @param size            number of statements in the batch.
+     * @param updateCounts    the update counts returned by the batch or its BatchUpdateException, or null if not known.
+     * @param failed          true if the batch threw an SQLException.
+     */
+    public void recordBatch(SqlFingerprint fingerprint, long execTimeNanoSec, int size, int[] updateCounts, boolean failed) {
+
+        BatchEntry batch = batch(fingerprint, execTimeNanoSec, size, failed);
+
+        if(updateCounts == null) {
+            return;
+        }
+
+        int failedAt = -1;
+        for(int i = 0; i < updateCounts.length; i++) {
+            batch.updateCount(updateCounts[i]);
+            if((failedAt < 0) && (updateCounts[i] == Statement.EXECUTE_FAILED)) {
+                failedAt = i;
+            }
+        }
+
+        if(failed) {
+            batch.failedAt((failedAt >= 0) ? failedAt : updateCounts.length);
+        }
+
+    }
+
+    /**
+     * Record the batch details of a large batch of a statement, which is recorded as one execution by
+     * {@link #record(SqlFingerprint, long, long, boolean)}.
+     *
+     * @param fingerprint     fingerprint of the statement.
+     * @param execTimeNanoSec how long the batch took to run, in nanoseconds.
+     * @param size            number of statements in the batch.
+     * @param updateCounts    the update counts returned by the batch or its BatchUpdateException, or null if not known.
+     * @param failed          true if the batch threw an SQLException.
+     */
+    public void recordBatch(SqlFingerprint fingerprint, long execTimeNanoSec, int size, long[] updateCounts, boolean failed) {
+
+        BatchEntry batch = batch(fingerprint, execTimeNanoSec, size, failed);
+
+        if(updateCounts == null) {
+            return;
+        }
+
+        int failedAt = -1;
+        for(int i = 0; i < updateCounts.length; i++) {
+            batch.updateCount(updateCounts[i]);
+            if((failedAt < 0) && (updateCounts[i] == Statement.EXECUTE_FAILED)) {
+                failedAt = i;
+            }
+        }
+
+        if(failed) {
+            batch.failedAt((failedAt >= 0) ? failedAt : updateCounts.length);
+        }
+
+    }
+
+    private BatchEntry batch(SqlFingerprint fingerprint, long execTimeNanoSec, int size, boolean failed) {
+
+        BatchEntry batch = entry(fingerprint).batch();
+
+        batch.count.increment();
+        batch.statements.add(size);
+        batch.totalNanos.add(execTimeNanoSec);
+        batch.minSize.accumulate(size);
+        batch.maxSize.accumulate(size);
+
+        if(failed) {
+            batch.failed.increment();
+        }
+        if(batch.sizes != null) {
+            batch.sizes.record(size);
+        }
+
+        return batch;
+
+    }
+
+    /**
+     * Get the entry of a statement, creating it if it is not tracked yet.
+     */
+    private Entry entry(SqlFingerprint fingerprint) {
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(fingerprint);
+
+        if(entry == null) {
+            entry = entries.computeIfAbsent(fingerprint, k -> new Entry(now, globalLatency != null));
+            if(entries.size() > maxStatements) {
+                evict();
+            }
+        }
+        else if(now - entry.lastAccess > ACCESS_GRANULARITY_NANOS) {
+            entry.lastAccess = now;
+        }
+
+        return entry;
+
+    }
+
+    /**
+     * Evict the least recently used statements, bringing the number tracked down to 90% of maxStatements so that
+     * the cost of eviction is spread over many new statements.  Only one thread evicts at a time, the others carry on.
+     */
+    private void evict() {
+
+        if(!evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+
+            // statements added by other threads while this one was evicting are caught by looping
+            while(entries.size() > maxStatements) {
+
+                int excess = entries.size() - (maxStatements - maxStatements / 10);
+
+                List<Map.Entry<SqlFingerprint, Entry>> candidates = new ArrayList<>(entries.entrySet());
+                candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+
+                for(int i = 0; (i < excess) && (i < candidates.size()); i++) {
+                    Map.Entry<SqlFingerprint, Entry> candidate = candidates.get(i);
+                    if(entries.remove(candidate.getKey(), candidate.getValue())) {
+                        evictions.increment();
+                    }
+                }
+
+            }
+
+        }
+        finally {
+            evictionLock.unlock();
+        }
+
+    }
+
+    /**
+     * Get the statistics for every statement currently tracked.
+     *
+     * @return a snapshot of the statistics, in no particular order.
+     */
+    public List<SqlStatementStats> getStatistics() {
+        List<SqlStatementStats> stats = new ArrayList<>(entries.size());
+        for(Map.Entry<SqlFingerprint, Entry> e : entries.entrySet()) {
+            stats.add(snapshot(e.getKey(), e.getValue()));
+        }
+        return stats;
+    }
+
+    /**
+     * Get the statistics for one statement.
+     *
+     * @param fingerprint fingerprint of the statement.
+     * @return a snapshot of the statistics, or null if the statement is not tracked.
+     */
+    public SqlStatementStats getStatistics(SqlFingerprint fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        return (entry == null) ? null : snapshot(fingerprint, entry);
+    }
+
+    /**
+     * Get the statistics for one statement.
+     *
+     * @param sql the statement, with or without its literals.
+     * @return a snapshot of the statistics, or null if the statement is not tracked.
+     */
+    public SqlStatementStats getStatistics(String sql) {
+        return getStatistics(new SqlFingerprinter(0).fingerprint(sql));
+    }
+
+    private static SqlStatementStats snapshot(SqlFingerprint fingerprint, Entry entry) {
+        long count = entry.count.sum();
+        long min = entry.minNanos.get();
+        return new SqlStatementStats(fingerprint, count, entry.totalNanos.sum(), (min == Long.MAX_VALUE) ? 0L : min,
+            entry.maxNanos.get(), entry.errors.sum(), entry.rows.sum(),
+            (entry.latency == null) ? null : entry.latency.snapshot(), (entry.batch == null) ? null : snapshot(entry.batch));
+    }
+
+    private static BatchStats snapshot(BatchEntry batch) {
+        long min = batch.minSize.get();
+        LatencyHistogram failurePositions = batch.failurePositions;
+        return new BatchStats(batch.count.sum(), batch.failed.sum(), batch.statements.sum(), batch.totalNanos.sum(),
+            (min == Long.MAX_VALUE) ? 0L : min, batch.maxSize.get(), batch.rows.sum(), batch.zeroRows.sum(), batch.oneRow.sum(),
+            batch.multiRow.sum(), batch.successNoInfo.sum(), batch.executeFailed.sum(),
+            (batch.sizes == null) ? null : batch.sizes.snapshot(), (failurePositions == null) ? null : failurePositions.snapshot());
+    }
+
+    /**
+     * Get the latency histogram of all statements.
+     *
+     * @return the histogram, or null if latency histograms are not enabled.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return globalLatency;
+    }
+
+    /**
+     * Get the latency histogram of one statement, for example to take interval snapshots of it with
+     * {@link LatencyHistogram#snapshotAndReset()}.
+     *
+     * @param fingerprint fingerprint of the statement.
+     * @return the histogram, or null if the statement is not tracked or latency histograms are not enabled.
+     */
+    public LatencyHistogram getLatencyHistogram(SqlFingerprint fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        return (entry == null) ? null : entry.latency;
+    }
+
+    /**
+     * Forget all the statistics collected so far.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of statements currently tracked.
+     *
+     * @return the number of statements.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    /**
+     * Get the number of statements evicted to stay within maxStatements.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+}
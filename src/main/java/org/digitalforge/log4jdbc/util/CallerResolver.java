@@ -0,0 +1,160 @@
+package org.digitalforge.log4jdbc.util;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the code that called into log4jdbc, for the debug info shown in log messages.
+ * <p>
+ * The caller is the first stack frame outside of log4jdbc or, when an application package prefix is given, the first
+ * frame from a class in that package.  If no such frame is found within {@link #MAX_DEPTH} frames of the top of the
+ * stack the direct caller is used instead.
+ * <p>
+ * This is the Java 8 version, which reads the frames one at a time from a captured Throwable so that only the top of
+ * the stack is ever turned into StackTraceElements.  If the JVM does not allow that, the whole stack trace is taken.
+ * On Java 9 and later the multi-release jar replaces this class with one based on {@code StackWalker}.
+ */
+public class CallerResolver {
+
+    /**
+     * Package prefix of the classes that are never reported as the caller.
+     */
+    public static final String LIBRARY_PACKAGE = "org.digitalforge.log4jdbc.";
+
+    /**
+     * The most stack frames looked at when searching for the caller.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    private static final Object JAVA_LANG_ACCESS;
+    private static final Method GET_STACK_TRACE_DEPTH;
+    private static final Method GET_STACK_TRACE_ELEMENT;
+
+    static {
+
+        Object access = null;
+        Method depth = null;
+        Method element = null;
+
+        try {
+            access = Class.forName("sun.misc.SharedSecrets").getMethod("getJavaLangAccess").invoke(null);
+            Class<?> accessClass = Class.forName("sun.misc.JavaLangAccess");
+            depth = accessClass.getMethod("getStackTraceDepth", Throwable.class);
+            element = accessClass.getMethod("getStackTraceElement", Throwable.class, int.class);
+        }
+        catch(Exception | LinkageError ex) {
+            access = null;
+        }
+
+        JAVA_LANG_ACCESS = access;
+        GET_STACK_TRACE_DEPTH = (access != null) ? depth : null;
+        GET_STACK_TRACE_ELEMENT = (access != null) ? element : null;
+
+    }
+
+    private final String applicationPrefix;
+    private final int cacheSize;
+    private final Map<StackTraceElement, String> cache;
+
+    /**
+     * Create a CallerResolver.
+     *
+     * @param applicationPrefix package prefix of the application classes to report as the caller, or null to report
+     *                          the direct caller into log4jdbc.
+     * @param cacheSize         the most call sites to keep the formatted caller for.
+     */
+    public CallerResolver(String applicationPrefix, int cacheSize) {
+        this.applicationPrefix = applicationPrefix;
+        this.cacheSize = cacheSize;
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Find the caller of the current thread.
+     *
+     * @return the caller as <code>class.method(file:line)</code>, or null if there is no frame outside of log4jdbc.
+     */
+    public String resolve() {
+
+        Throwable t = new Throwable();
+        StackTraceElement[] stackTrace = null;
+
+        int depth = stackTraceDepth(t);
+        if(depth < 0) {
+            stackTrace = t.getStackTrace();
+            depth = stackTrace.length;
+        }
+
+        StackTraceElement caller = null;
+
+        for(int i = 0, n = Math.min(depth, MAX_DEPTH); i < n; i++) {
+
+            StackTraceElement frame = (stackTrace != null) ? stackTrace[i] : stackTraceElement(t, i);
+            if(frame == null) {
+                break;
+            }
+
+            String className = frame.getClassName();
+
+            if(caller == null) {
+                if(className.startsWith(LIBRARY_PACKAGE)) {
+                    continue;
+                }
+                caller = frame;
+                if(applicationPrefix == null) {
+                    break;
+                }
+            }
+
+            if(className.startsWith(applicationPrefix)) {
+                caller = frame;
+                break;
+            }
+
+        }
+
+        return (caller == null) ? null : format(caller);
+
+    }
+
+    private String format(StackTraceElement frame) {
+
+        String formatted = cache.get(frame);
+
+        if(formatted == null) {
+            formatted = frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+            if(cacheSize > 0) {
+                if(cache.size() >= cacheSize) {
+                    cache.clear();
+                }
+                cache.put(frame, formatted);
+            }
+        }
+
+        return formatted;
+
+    }
+
+    private static int stackTraceDepth(Throwable t) {
+        if(JAVA_LANG_ACCESS == null) {
+            return -1;
+        }
+        try {
+            return (Integer)GET_STACK_TRACE_DEPTH.invoke(JAVA_LANG_ACCESS, t);
+        }
+        catch(Exception ex) {
+            return -1;
+        }
+    }
+
+    private static StackTraceElement stackTraceElement(Throwable t, int index) {
+        try {
+            return (StackTraceElement)GET_STACK_TRACE_ELEMENT.invoke(JAVA_LANG_ACCESS, t, index);
+        }
+        catch(Exception ex) {
+            return null;
+        }
+    }
+
+}
@@ -1,31 +1,46 @@
 package org.digitalforge.log4jdbc.util;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.digitalforge.log4jdbc.LoggingConnection;
 import org.digitalforge.log4jdbc.LoggingStatement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Keeps track of the open connections, and the statements open on each of them, so that they can be dumped.
+ * <p>
+ * Every connection has its own registry of statements, so threads working on different connections never contend
+ * with each other, and none of the tracking takes a lock.  Statements are held weakly: one that is never closed is
+ * dropped from its registry once it has been garbage collected, when its reference comes off a ReferenceQueue.
+ */
 public class ConnectionTracker {
 
     private static final Logger log = LoggerFactory.getLogger(ConnectionTracker.class);
 
     private static final int CONNECTION_DUMP_THRESHOLD = Integer.parseInt(System.getenv().getOrDefault("LOG4JDBC_CONNECTION_DUMP_THRESHOLD", "0"));
 
-    private final Map<Integer, LoggingConnection> connections = new ConcurrentHashMap<>();
-    private final Set<LoggingStatement> statements = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final long DUMP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
 
-    private Instant lastDumpTime;
+    private final Map<Integer, ConnectionEntry> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Statements that were garbage collected without being untracked.
+     */
+    private final ReferenceQueue<LoggingStatement<?>> collected = new ReferenceQueue<>();
+
+    private final LongAdder openStatements = new LongAdder();
+
+    private final AtomicLong lastDumpTime = new AtomicLong(System.nanoTime() - DUMP_INTERVAL_NANOS - 1L);
 
     public ConnectionTracker() {
 
@@ -33,13 +48,17 @@ public class ConnectionTracker {
 
     public void track(int number, LoggingConnection connection) {
 
-        connections.put(number, connection);
+        connections.put(number, new ConnectionEntry(connection));
 
         if(connections.size() < CONNECTION_DUMP_THRESHOLD) {
             return;
         }
 
-        if((lastDumpTime != null) && !lastDumpTime.isBefore(Instant.now().minus(10, ChronoUnit.MINUTES))) {
+        long now = System.nanoTime();
+        long last = lastDumpTime.get();
+
+        // only one of the threads that cross the interval at once gets to dump
+        if((now - last <= DUMP_INTERVAL_NANOS) || !lastDumpTime.compareAndSet(last, now)) {
             return;
         }
 
@@ -47,16 +66,64 @@ public class ConnectionTracker {
 
     }
 
-    public void track(LoggingStatement statement) {
-        statements.add(statement);
+    public void track(LoggingStatement<?> statement) {
+
+        expunge();
+
+        ConnectionEntry entry = connections.get(statement.getConnectionNumber());
+        if(entry == null) {
+            return;
+        }
+
+        if(entry.statements.add(new StatementRef(statement, collected, entry))) {
+            openStatements.increment();
+        }
+
     }
 
     public void untrack(int number) {
-        connections.remove(number);
+
+        ConnectionEntry entry = connections.remove(number);
+        if(entry == null) {
+            return;
+        }
+
+        // removed one at a time, so that statements being untracked at the same time are only counted once
+        for(StatementRef ref : entry.statements) {
+            if(entry.statements.remove(ref)) {
+                openStatements.decrement();
+            }
+        }
+
+    }
+
+    public void untrack(LoggingStatement<?> statement) {
+
+        ConnectionEntry entry = connections.get(statement.getConnectionNumber());
+
+        if((entry != null) && entry.statements.remove(new StatementRef(statement, null, null))) {
+            openStatements.decrement();
+        }
+
+    }
+
+    /**
+     * Get the number of connections that are open.
+     *
+     * @return the open connection count.
+     */
+    public int getOpenConnectionCount() {
+        return connections.size();
     }
 
-    public void untrack(LoggingStatement statement) {
-        statements.remove(statement);
+    /**
+     * Get the number of statements that are open on the open connections.
+     *
+     * @return the open statement count.
+     */
+    public long getOpenStatementCount() {
+        expunge();
+        return openStatements.sum();
     }
 
     /**
@@ -67,58 +134,106 @@ public class ConnectionTracker {
      */
     public String getOpenConnectionsDump() {
 
-        StringBuilder sb = new StringBuilder();
-        int size;
-        Integer[] keys;
-
-        synchronized(connections) {
-
-            size = connections.size();
-
-            if(size == 0) {
-
-                return "open connections: none";
-            }
-
-            keys = connections.keySet().toArray(new Integer[size]);
+        Integer[] keys = connections.keySet().toArray(new Integer[0]);
 
+        if(keys.length == 0) {
+            return "open connections: none";
         }
 
         Arrays.sort(keys);
 
+        StringBuilder sb = StringBuilderPool.acquire();
+
         sb.append("open connections: ");
 
         sb.append("(");
-        sb.append(size);
+        sb.append(keys.length);
         sb.append(") ");
 
-        for(Integer key : keys) {
-            sb.append(key);
-            sb.append(" ");
+        for(int i = 0; i < keys.length; i++) {
+            if(i > 0) {
+                sb.append(' ');
+            }
+            sb.append(keys[i]);
         }
 
-        return sb.toString().trim();
+        return StringBuilderPool.release(sb);
 
     }
 
     private void dumpStatements() {
 
-        lastDumpTime = Instant.now();
+        expunge();
 
-        List<String> sql;
+        for(ConnectionEntry entry : connections.values()) {
+            for(StatementRef ref : entry.statements) {
+                LoggingStatement<?> statement = ref.get();
+                if(statement != null) {
+                    log.info("Active statement: " + statement.getCurrentSql());
+                }
+            }
+        }
+
+    }
 
-        synchronized(statements) {
-            sql = new ArrayList<>(statements.size());
-            for(LoggingStatement s : statements) {
-                sql.add(s.getCurrentSql());
+    /**
+     * Drop the statements that have been garbage collected from their registries.
+     */
+    private void expunge() {
+        for(Reference<? extends LoggingStatement<?>> ref; (ref = collected.poll()) != null; ) {
+            StatementRef statementRef = (StatementRef)ref;
+            if(statementRef.owner.statements.remove(statementRef)) {
+                openStatements.decrement();
             }
         }
+    }
 
-        for(String s : sql) {
-            log.info("Active statement: " + s);
+    /**
+     * An open connection and the registry of the statements open on it.
+     */
+    private static final class ConnectionEntry {
+
+        final LoggingConnection connection;
+        final Set<StatementRef> statements = ConcurrentHashMap.newKeySet();
+
+        ConnectionEntry(LoggingConnection connection) {
+            this.connection = connection;
         }
 
     }
 
+    /**
+     * A weak reference to a statement that is equal to any other reference to the same statement, so that a statement
+     * can be found in its registry by identity.
+     */
+    private static final class StatementRef extends WeakReference<LoggingStatement<?>> {
+
+        final ConnectionEntry owner;
+        private final int hash;
+
+        StatementRef(LoggingStatement<?> statement, ReferenceQueue<LoggingStatement<?>> queue, ConnectionEntry owner) {
+            super(statement, queue);
+            this.owner = owner;
+            this.hash = System.identityHashCode(statement);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof StatementRef)) {
+                return false;
+            }
+            LoggingStatement<?> statement = get();
+            return (statement != null) && (statement == ((StatementRef)o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
 
 }
@@ -0,0 +1,275 @@
+package org.digitalforge.log4jdbc.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.digitalforge.log4jdbc.stats.LatencyHistogram;
+import org.digitalforge.log4jdbc.stats.LatencySnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds connections, statements and result sets that are not closed.
+ * <p>
+ * Every resource opened is recorded with the time it was opened and, if asked for, the code that opened it.  A
+ * background scanner wakes up every so often and warns about each connection that has been open for longer than the
+ * threshold, and about every resource that was garbage collected without being closed.  Statements and result sets
+ * are not reported as leaked if the connection or statement they came from was closed, since that closes them too.
+ * Neither are result sets their statement closed by being executed again, which the statement records by closing
+ * them here.
+ * <p>
+ * Resources are only held weakly, so tracking them never keeps them alive.  Recording a resource costs an entry in a
+ * concurrent set plus, when the site is captured, a walk of the stack up to the caller.
+ */
+public class LeakDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(LeakDetector.class);
+
+    /**
+     * The kinds of resources that are tracked.
+     */
+    public enum Kind {
+
+        CONNECTION("Connection"),
+        STATEMENT("Statement"),
+        RESULT_SET("ResultSet");
+
+        private final String description;
+
+        Kind(String description) {
+            this.description = description;
+        }
+
+    }
+
+    private final long thresholdNanos;
+    private final CallerResolver callerResolver;
+
+    private final Set<Resource> open = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    private final LongAdder[] leaked = new LongAdder[Kind.values().length];
+    private final LatencyHistogram connectionLifetimes = new LatencyHistogram(8);
+
+    private ScheduledExecutorService scanner;
+
+    /**
+     * Create a LeakDetector.
+     *
+     * @param thresholdMillis connections open for longer than this many milliseconds are reported, or 0 or less to
+     *                        only report resources that are garbage collected without being closed.
+     * @param callerResolver  finds the code that opened each resource, or null to not record it.
+     */
+    public LeakDetector(long thresholdMillis, CallerResolver callerResolver) {
+        this.thresholdNanos = (thresholdMillis > 0L) ? TimeUnit.MILLISECONDS.toNanos(thresholdMillis) : 0L;
+        this.callerResolver = callerResolver;
+        for(int i = 0; i < leaked.length; i++) {
+            leaked[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a resource that has just been opened.
+     *
+     * @param kind             the kind of resource.
+     * @param resource         the resource, which is only held weakly.
+     * @param connectionNumber number of the connection the resource belongs to.
+     * @param parent           the record of the connection or statement the resource came from, or null if none.
+     * @return the record of the resource, to be passed to {@link #close(Resource)} when it is closed.
+     */
+    public Resource open(Kind kind, Object resource, int connectionNumber, Resource parent) {
+        String site = (callerResolver != null) ? callerResolver.resolve() : null;
+        Resource r = new Resource(kind, resource, connectionNumber, parent, site, collected);
+        open.add(r);
+        return r;
+    }
+
+    /**
+     * Record that a resource has been closed.  Closing a resource more than once is harmless.
+     *
+     * @param resource the record returned when the resource was opened.
+     */
+    public void close(Resource resource) {
+
+        resource.closed = true;
+
+        if(!open.remove(resource)) {
+            return;
+        }
+
+        // closed resources need no cleanup, so keep them off the queue
+        resource.clear();
+
+        if(resource.kind == Kind.CONNECTION) {
+            connectionLifetimes.record(System.nanoTime() - resource.openedNanos);
+        }
+
+    }
+
+    /**
+     * Start scanning for leaks on a background thread.
+     *
+     * @param intervalMillis how often to scan, in milliseconds.
+     */
+    public synchronized void start(long intervalMillis) {
+
+        if((scanner != null) || (intervalMillis <= 0L)) {
+            return;
+        }
+
+        scanner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "log4jdbc-leak-detector");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scanner.scheduleWithFixedDelay(this::scan, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Report the resources that were garbage collected without being closed, and the connections that have been
+     * open for longer than the threshold and were not reported before.
+     */
+    public void scan() {
+
+        try {
+
+            for(Reference<?> ref; (ref = collected.poll()) != null; ) {
+                Resource resource = (Resource)ref;
+                if(open.remove(resource) && !resource.isParentClosed()) {
+                    leaked[resource.kind.ordinal()].increment();
+                    log.warn(resource.describe() + " was garbage collected without being closed");
+                }
+            }
+
+            if(thresholdNanos == 0L) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            for(Resource resource : open) {
+                if((resource.kind == Kind.CONNECTION) && !resource.reported && (now - resource.openedNanos > thresholdNanos)) {
+                    resource.reported = true;
+                    log.warn(resource.describe() + " has been open for " + TimeUnit.NANOSECONDS.toMillis(now - resource.openedNanos) + " ms");
+                }
+            }
+
+        }
+        catch(RuntimeException ex) {
+            // an exception would stop the scanner for good
+            log.error("Leak detection scan failed", ex);
+        }
+
+    }
+
+    /**
+     * Get the number of resources of a kind that were garbage collected without being closed.
+     *
+     * @param kind the kind of resource.
+     * @return the number of leaked resources found so far.
+     */
+    public long getLeakedCount(Kind kind) {
+        return leaked[kind.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of resources of a kind that are open.
+     *
+     * @param kind the kind of resource.
+     * @return the number of open resources, including any that are waiting to be found leaked by the next scan.
+     */
+    public int getOpenCount(Kind kind) {
+        int count = 0;
+        for(Resource resource : open) {
+            if(resource.kind == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get how long the connections that have been closed were open for.
+     *
+     * @return the snapshot of the connection lifetimes, in nanoseconds.
+     */
+    public LatencySnapshot getConnectionLifetimes() {
+        return connectionLifetimes.snapshot();
+    }
+
+    /**
+     * Get how long the connections that are open now have been open for.
+     *
+     * @return the snapshot of the open connection ages, in nanoseconds.
+     */
+    public LatencySnapshot getOpenConnectionAges() {
+        LatencyHistogram ages = new LatencyHistogram();
+        long now = System.nanoTime();
+        for(Resource resource : open) {
+            if((resource.kind == Kind.CONNECTION) && (resource.get() != null)) {
+                ages.record(now - resource.openedNanos);
+            }
+        }
+        return ages.snapshot();
+    }
+
+    /**
+     * The record of an open resource, which refers to the resource itself weakly.
+     */
+    public static final class Resource extends WeakReference<Object> {
+
+        final Kind kind;
+        final int connectionNumber;
+        final Resource parent;
+        final String site;
+        final long openedNanos;
+
+        volatile boolean closed;
+
+        /**
+         * Set once the resource has been reported as open for too long, so that it is only reported once.  Only
+         * touched by the scanner.
+         */
+        boolean reported;
+
+        Resource(Kind kind, Object resource, int connectionNumber, Resource parent, String site, ReferenceQueue<Object> queue) {
+            super(resource, queue);
+            this.kind = kind;
+            this.connectionNumber = connectionNumber;
+            this.parent = parent;
+            this.site = site;
+            this.openedNanos = System.nanoTime();
+        }
+
+        boolean isParentClosed() {
+            for(Resource p = parent; p != null; p = p.parent) {
+                if(p.closed) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String describe() {
+            StringBuilder sb = StringBuilderPool.acquire();
+            sb.append(kind.description);
+            sb.append((kind == Kind.CONNECTION) ? " " : " on connection ");
+            sb.append(connectionNumber);
+            if(site != null) {
+                sb.append(" opened at ");
+                sb.append(site);
+            }
+            return StringBuilderPool.release(sb);
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.digitalforge.log4jdbc.util;
+
+/**
+ * Reusable StringBuilders for assembling log messages, kept per thread so that building a message does not allocate
+ * anything but the resulting String once the builders have grown to fit the messages being built.
+ * <p>
+ * A builder is taken with {@link #acquire()} and handed back with {@link #release(StringBuilder)}, which returns what
+ * was built, or with {@link #recycle(StringBuilder)}.  Every thread keeps a few builders, so that a message can be
+ * built while another one is being built, as when the SQL of a statement is built while formatting one of its
+ * parameters.  When they are all in use, or a builder is never released because building a message failed, acquire
+ * falls back to a new builder, so the pool can only save allocation, never mix up messages.
+ * <p>
+ * A builder that grew past {@link #MAX_RETAINED_CAPACITY} characters, for example to dump a huge batch, is dropped
+ * when it is released rather than kept, so each thread holds on to a few kilobytes at most.
+ */
+public final class StringBuilderPool {
+
+    /**
+     * The largest builder kept for reuse, in characters.
+     */
+    public static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int BUILDERS_PER_THREAD = 4;
+
+    private static final ThreadLocal<Builders> builders = ThreadLocal.withInitial(Builders::new);
+
+    private static final class Builders {
+
+        final StringBuilder[] pooled = new StringBuilder[BUILDERS_PER_THREAD];
+        final boolean[] inUse = new boolean[BUILDERS_PER_THREAD];
+
+    }
+
+    private StringBuilderPool() {
+    }
+
+    /**
+     * Take an empty builder.
+     *
+     * @return a builder of the current thread, or a new one if they are all in use.
+     */
+    public static StringBuilder acquire() {
+
+        Builders b = builders.get();
+
+        for(int i = 0; i < BUILDERS_PER_THREAD; i++) {
+            if(!b.inUse[i]) {
+                StringBuilder sb = b.pooled[i];
+                if(sb == null) {
+                    sb = new StringBuilder(INITIAL_CAPACITY);
+                    b.pooled[i] = sb;
+                }
+                b.inUse[i] = true;
+                return sb;
+            }
+        }
+
+        return new StringBuilder(INITIAL_CAPACITY);
+
+    }
+
+    /**
+     * Hand back a builder taken with {@link #acquire()}, getting what was built in it.  The builder must not be used
+     * afterwards.
+     *
+     * @param sb the builder.
+     * @return the contents of the builder.
+     */
+    public static String release(StringBuilder sb) {
+        String built = sb.toString();
+        recycle(sb);
+        return built;
+    }
+
+    /**
+     * Hand back a builder taken with {@link #acquire()} without getting what was built in it, for example from a
+     * finally block when building a message may fail.  The builder must not be used afterwards.
+     *
+     * @param sb the builder.
+     */
+    public static void recycle(StringBuilder sb) {
+
+        Builders b = builders.get();
+
+        for(int i = 0; i < BUILDERS_PER_THREAD; i++) {
+            if(b.pooled[i] == sb) {
+                if(sb.capacity() > MAX_RETAINED_CAPACITY) {
+                    b.pooled[i] = null;
+                }
+                else {
+                    sb.setLength(0);
+                }
+                b.inUse[i] = false;
+                break;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,287 @@
+package org.digitalforge.log4jdbc.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.digitalforge.log4jdbc.stats.LatencyHistogram;
+import org.digitalforge.log4jdbc.stats.LatencySnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the transactions run on connections that are not in auto-commit mode.
+ * <p>
+ * A transaction starts with the first statement run after auto-commit is turned off, or after the previous
+ * transaction ended, and ends when it is committed, rolled back, auto-commit is turned back on or the connection is
+ * closed.  For every transaction the time it was open, the number of statements run, the time spent running them and
+ * the time the connection sat idle in between are recorded into histograms, as is the latency of every commit and
+ * rollback.  Nothing is logged for ordinary transactions: a warning is only logged for a transaction that stays open
+ * for longer than the threshold, once when a statement is run after the threshold has passed and once when it ends.
+ * <p>
+ * Statement times are taken once a statement has finished, so a transaction is measured from the start of its first
+ * statement.
+ */
+public class TransactionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionTracker.class);
+
+    private final long warnThresholdNanos;
+
+    private final LatencyHistogram durations = new LatencyHistogram(8);
+    private final LatencyHistogram sqlTimes = new LatencyHistogram(8);
+    private final LatencyHistogram idleTimes = new LatencyHistogram(8);
+    private final LatencyHistogram statementCounts = new LatencyHistogram(8);
+    private final LatencyHistogram commitLatencies = new LatencyHistogram(8);
+    private final LatencyHistogram rollbackLatencies = new LatencyHistogram(8);
+
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder rolledBack = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder longRunning = new LongAdder();
+
+    /**
+     * Create a TransactionTracker.
+     *
+     * @param warnThresholdMillis transactions open for longer than this many milliseconds are warned about, or 0 or
+     *                            less to never warn.
+     */
+    public TransactionTracker(long warnThresholdMillis) {
+        this.warnThresholdNanos = (warnThresholdMillis > 0L) ? TimeUnit.MILLISECONDS.toNanos(warnThresholdMillis) : 0L;
+    }
+
+    /**
+     * Start tracking the transactions of a connection.
+     *
+     * @param connectionNumber number of the connection.
+     * @param autoCommit       true if the connection is in auto-commit mode.
+     * @return the transaction state of the connection, to be told about everything that happens on it.
+     */
+    public Transactions track(int connectionNumber, boolean autoCommit) {
+        return new Transactions(connectionNumber, autoCommit);
+    }
+
+    /**
+     * Get how long transactions were open for, from the start of their first statement until they ended.
+     *
+     * @return the snapshot of the transaction durations, in nanoseconds.
+     */
+    public LatencySnapshot getDurations() {
+        return durations.snapshot();
+    }
+
+    /**
+     * Get how much of each transaction was spent running statements.
+     *
+     * @return the snapshot of the time spent running statements per transaction, in nanoseconds.
+     */
+    public LatencySnapshot getSqlTimes() {
+        return sqlTimes.snapshot();
+    }
+
+    /**
+     * Get how much of each transaction the connection sat idle, neither running statements nor committing or rolling
+     * back.  This is the time the database held the locks of the transaction while waiting on the application.
+     *
+     * @return the snapshot of the idle time per transaction, in nanoseconds.
+     */
+    public LatencySnapshot getIdleTimes() {
+        return idleTimes.snapshot();
+    }
+
+    /**
+     * Get how many statements each transaction ran.
+     *
+     * @return the snapshot of the statement counts; its values are counts, not nanoseconds.
+     */
+    public LatencySnapshot getStatementCounts() {
+        return statementCounts.snapshot();
+    }
+
+    /**
+     * Get how long commits took, including those that did not end a transaction this tracker saw start.
+     *
+     * @return the snapshot of the commit latencies, in nanoseconds.
+     */
+    public LatencySnapshot getCommitLatencies() {
+        return commitLatencies.snapshot();
+    }
+
+    /**
+     * Get how long rollbacks took, including those that did not end a transaction this tracker saw start.
+     *
+     * @return the snapshot of the rollback latencies, in nanoseconds.
+     */
+    public LatencySnapshot getRollbackLatencies() {
+        return rollbackLatencies.snapshot();
+    }
+
+    /**
+     * Get the number of transactions that were committed, explicitly or by turning auto-commit back on.
+     *
+     * @return the committed transaction count.
+     */
+    public long getCommittedCount() {
+        return committed.sum();
+    }
+
+    /**
+     * Get the number of transactions that were rolled back.
+     *
+     * @return the rolled back transaction count.
+     */
+    public long getRolledBackCount() {
+        return rolledBack.sum();
+    }
+
+    /**
+     * Get the number of transactions that were still open when their connection was closed.
+     *
+     * @return the abandoned transaction count.
+     */
+    public long getAbandonedCount() {
+        return abandoned.sum();
+    }
+
+    /**
+     * Get the number of transactions that were open for longer than the threshold.
+     *
+     * @return the long running transaction count.
+     */
+    public long getLongRunningCount() {
+        return longRunning.sum();
+    }
+
+    private void ended(int connectionNumber, String how, long durationNanos, long statements, long sqlNanos, long endNanos) {
+
+        durations.record(durationNanos);
+        sqlTimes.record(sqlNanos);
+        idleTimes.record(Math.max(0L, durationNanos - sqlNanos - endNanos));
+        statementCounts.record(statements);
+
+        if((warnThresholdNanos > 0L) && (durationNanos > warnThresholdNanos)) {
+            longRunning.increment();
+            log.warn("Transaction on connection " + connectionNumber + " was " + how + " after " + TimeUnit.NANOSECONDS.toMillis(durationNanos)
+                + " ms, with " + statements + " statements taking " + TimeUnit.NANOSECONDS.toMillis(sqlNanos) + " ms");
+        }
+
+    }
+
+    /**
+     * The transaction state of one connection.  A connection is not expected to be used by several threads at once,
+     * but its state is kept consistent if it is.
+     */
+    public final class Transactions {
+
+        private final int connectionNumber;
+
+        private boolean autoCommit;
+        private boolean open;
+        private long startNanos;
+        private long statements;
+        private long sqlNanos;
+
+        /**
+         * Set once the open transaction has been warned about, so that it is only warned about once while open.
+         */
+        private boolean warned;
+
+        Transactions(int connectionNumber, boolean autoCommit) {
+            this.connectionNumber = connectionNumber;
+            this.autoCommit = autoCommit;
+        }
+
+        /**
+         * Record a statement that was run, successfully or not.
+         *
+         * @param execTimeNanoSec how long the statement took to run, in nanoseconds.
+         */
+        public synchronized void statementExecuted(long execTimeNanoSec) {
+
+            if(autoCommit) {
+                return;
+            }
+
+            long now = System.nanoTime();
+
+            if(!open) {
+                open = true;
+                startNanos = now - execTimeNanoSec;
+                statements = 0L;
+                sqlNanos = 0L;
+                warned = false;
+            }
+
+            statements++;
+            sqlNanos += execTimeNanoSec;
+
+            if((warnThresholdNanos > 0L) && !warned && (now - startNanos > warnThresholdNanos)) {
+                warned = true;
+                log.warn("Transaction on connection " + connectionNumber + " has been open for " + TimeUnit.NANOSECONDS.toMillis(now - startNanos)
+                    + " ms, with " + statements + " statements taking " + TimeUnit.NANOSECONDS.toMillis(sqlNanos) + " ms");
+            }
+
+        }
+
+        /**
+         * Record auto-commit being turned on or off.  Turning it on commits the open transaction.
+         *
+         * @param autoCommit   the new auto-commit mode.
+         * @param latencyNanos how long changing the mode took, in nanoseconds.
+         */
+        public synchronized void autoCommitChanged(boolean autoCommit, long latencyNanos) {
+            if(autoCommit && !this.autoCommit && end("committed", latencyNanos)) {
+                committed.increment();
+                commitLatencies.record(latencyNanos);
+            }
+            this.autoCommit = autoCommit;
+        }
+
+        /**
+         * Record a commit.
+         *
+         * @param latencyNanos how long the commit took, in nanoseconds.
+         */
+        public synchronized void committed(long latencyNanos) {
+            if(end("committed", latencyNanos)) {
+                committed.increment();
+            }
+            commitLatencies.record(latencyNanos);
+        }
+
+        /**
+         * Record a rollback of the whole transaction.
+         *
+         * @param latencyNanos how long the rollback took, in nanoseconds.
+         */
+        public synchronized void rolledBack(long latencyNanos) {
+            if(end("rolled back", latencyNanos)) {
+                rolledBack.increment();
+            }
+            rollbackLatencies.record(latencyNanos);
+        }
+
+        /**
+         * Record the connection being closed, which abandons the open transaction.
+         */
+        public synchronized void closed() {
+            if(end("abandoned", 0L)) {
+                abandoned.increment();
+            }
+        }
+
+        private boolean end(String how, long endNanos) {
+
+            if(!open) {
+                return false;
+            }
+
+            open = false;
+            ended(connectionNumber, how, System.nanoTime() - startNanos, statements, sqlNanos, endNanos);
+
+            return true;
+
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package org.digitalforge.log4jdbc.util;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * Static utility methods for use throughout the project.
@@ -26,6 +27,53 @@ public class Utilities {
 
     }
 
+    /**
+     * Write bytes in hex onto the end of a StringBuilder, the same way {@link #hex(byte[])} does.
+     * @param out StringBuilder to append to.
+     * @param bytes bytes to write.
+     * @return out.
+     */
+    public static StringBuilder appendHex(StringBuilder out, byte[] bytes) {
+        for(byte b : bytes) {
+            out.append((char)HEX_CHARS[(b >>> 4) & 0x0F]).append((char)HEX_CHARS[b & 0x0F]);
+        }
+        return out;
+    }
+
+    /**
+     * Add up the update counts returned by a batch, ignoring the negative SUCCESS_NO_INFO and EXECUTE_FAILED values.
+     * @param updateCounts update counts returned by executeBatch.
+     * @return the total number of rows affected by the batch, or -1 if no row counts were returned.
+     */
+    public static long sumUpdateCounts(int[] updateCounts) {
+        long total = -1L;
+        if(updateCounts != null) {
+            for(int count : updateCounts) {
+                if(count >= 0) {
+                    total = Math.max(total, 0L) + count;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Add up the update counts returned by a large batch, ignoring the negative SUCCESS_NO_INFO and EXECUTE_FAILED values.
+     * @param updateCounts update counts returned by executeLargeBatch.
+     * @return the total number of rows affected by the batch, or -1 if no row counts were returned.
+     */
+    public static long sumUpdateCounts(long[] updateCounts) {
+        long total = -1L;
+        if(updateCounts != null) {
+            for(long count : updateCounts) {
+                if(count >= 0L) {
+                    total = Math.max(total, 0L) + count;
+                }
+            }
+        }
+        return total;
+    }
+
     /**
      * Right justify a field within a certain number of spaces.
      * @param fieldSize field size to right justify field within.
@@ -36,12 +84,31 @@ public class Utilities {
         if(field == null) {
             field = "";
         }
-        StringBuffer output = new StringBuffer();
+        int pad = fieldSize - field.length();
+        if(pad <= 0) {
+            return field;
+        }
+        char[] output = new char[fieldSize];
+        Arrays.fill(output, 0, pad, ' ');
+        field.getChars(0, field.length(), output, pad);
+        return new String(output);
+    }
+
+    /**
+     * Right justify a field within a certain number of spaces onto the end of a StringBuilder.
+     * @param out StringBuilder to append to.
+     * @param fieldSize field size to right justify field within.
+     * @param field contents to right justify within field.
+     * @return out.
+     */
+    public static StringBuilder appendRightJustified(StringBuilder out, int fieldSize, String field) {
+        if(field == null) {
+            field = "";
+        }
         for(int i = 0, j = fieldSize - field.length(); i < j; i++) {
-            output.append(' ');
+            out.append(' ');
         }
-        output.append(field);
-        return output.toString();
+        return out.append(field);
     }
 
     /**
@@ -0,0 +1,146 @@
+package org.digitalforge.log4jdbc.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Finds the code that called into log4jdbc, for the debug info shown in log messages.
+ * <p>
+ * The caller is the first stack frame outside of log4jdbc or, when an application package prefix is given, the first
+ * frame from a class in that package.  If no such frame is found within {@link #MAX_DEPTH} frames of the top of the
+ * stack the direct caller is used instead.
+ * <p>
+ * This is the Java 9 version, which walks the stack lazily with a {@link StackWalker}, so only the frames up to the
+ * caller are ever visited, and file names and line numbers are only looked up the first time a call site is seen.
+ */
+public class CallerResolver {
+
+    /**
+     * Package prefix of the classes that are never reported as the caller.
+     */
+    public static final String LIBRARY_PACKAGE = "org.digitalforge.log4jdbc.";
+
+    /**
+     * The most stack frames looked at when searching for the caller.
+     */
+    public static final int MAX_DEPTH = 256;
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final String applicationPrefix;
+    private final int cacheSize;
+    private final Map<CallSite, String> cache;
+    private final Function<Stream<StackWalker.StackFrame>, String> finder = this::find;
+
+    /**
+     * Create a CallerResolver.
+     *
+     * @param applicationPrefix package prefix of the application classes to report as the caller, or null to report
+     *                          the direct caller into log4jdbc.
+     * @param cacheSize         the most call sites to keep the formatted caller for.
+     */
+    public CallerResolver(String applicationPrefix, int cacheSize) {
+        this.applicationPrefix = applicationPrefix;
+        this.cacheSize = cacheSize;
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Find the caller of the current thread.
+     *
+     * @return the caller as <code>class.method(file:line)</code>, or null if there is no frame outside of log4jdbc.
+     */
+    public String resolve() {
+        return WALKER.walk(finder);
+    }
+
+    private String find(Stream<StackWalker.StackFrame> frames) {
+
+        StackWalker.StackFrame caller = null;
+
+        Iterator<StackWalker.StackFrame> it = frames.limit(MAX_DEPTH).iterator();
+        while(it.hasNext()) {
+
+            StackWalker.StackFrame frame = it.next();
+            String className = frame.getClassName();
+
+            if(caller == null) {
+                if(className.startsWith(LIBRARY_PACKAGE)) {
+                    continue;
+                }
+                caller = frame;
+                if(applicationPrefix == null) {
+                    break;
+                }
+            }
+
+            if(className.startsWith(applicationPrefix)) {
+                caller = frame;
+                break;
+            }
+
+        }
+
+        return (caller == null) ? null : format(caller);
+
+    }
+
+    private String format(StackWalker.StackFrame frame) {
+
+        CallSite site = new CallSite(frame.getClassName(), frame.getMethodName(), frame.getByteCodeIndex());
+        String formatted = cache.get(site);
+
+        if(formatted == null) {
+            formatted = frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+            if(cacheSize > 0) {
+                if(cache.size() >= cacheSize) {
+                    cache.clear();
+                }
+                cache.put(site, formatted);
+            }
+        }
+
+        return formatted;
+
+    }
+
+    /**
+     * A position in the code, identified without resolving its file name and line number.  The class is identified
+     * by its name rather than by the Class itself, so that the cache never keeps the class loader of an undeployed
+     * application alive.
+     */
+    private static final class CallSite {
+
+        private final String className;
+        private final String methodName;
+        private final int byteCodeIndex;
+
+        CallSite(String className, String methodName, int byteCodeIndex) {
+            this.className = className;
+            this.methodName = methodName;
+            this.byteCodeIndex = byteCodeIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof CallSite)) {
+                return false;
+            }
+            CallSite other = (CallSite)o;
+            return (byteCodeIndex == other.byteCodeIndex) && className.equals(other.className) && methodName.equals(other.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * className.hashCode() + methodName.hashCode()) + byteCodeIndex;
+        }
+
+    }
+
+}
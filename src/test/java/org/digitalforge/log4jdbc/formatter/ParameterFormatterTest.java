@@ -0,0 +1,99 @@
+package org.digitalforge.log4jdbc.formatter;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParameterFormatterTest {
+
+    /**
+     * A formatter written against older versions, which only override formatParameterObject.
+     */
+    static class LegacyMySqlParameterFormatter extends MySqlParameterFormatter {
+
+        int calls;
+
+        @Override
+        public String formatParameterObject(Object object) {
+            calls++;
+            if(object instanceof Integer) {
+                return "CAST(" + object + " AS SIGNED)";
+            }
+            return super.formatParameterObject(object);
+        }
+
+    }
+
+    private static String append(ParameterFormatter formatter, Object object) {
+        return formatter.appendParameterObject(new StringBuilder("x = "), object).toString();
+    }
+
+    @Test
+    void formatsValues() {
+
+        ParameterFormatter formatter = new ParameterFormatter();
+
+        assertEquals("NULL", formatter.formatParameterObject(null));
+        assertEquals("'abc'", formatter.formatParameterObject("abc"));
+        assertEquals("'it''s'", formatter.formatParameterObject("it's"));
+        assertEquals("'o''k'", formatter.formatParameterObject(new StringBuilder("o'k")));
+        assertEquals("1", formatter.formatParameterObject(Boolean.TRUE));
+        assertEquals("0x01AB7F", formatter.formatParameterObject(new byte[] {1, (byte)0xAB, 0x7F}));
+        assertEquals("42", formatter.formatParameterObject(42));
+
+    }
+
+    @Test
+    void appendsWhatItFormats() {
+
+        Object[] values = {null, "abc", "it's", Boolean.FALSE, new byte[] {1, 2}, 42, 3.5};
+
+        for(ParameterFormatter formatter : new ParameterFormatter[] {new ParameterFormatter(), new MySqlParameterFormatter(),
+            new OracleParameterFormatter(), new SqlServerParameterFormatter()}) {
+            for(Object value : values) {
+                assertEquals("x = " + formatter.formatParameterObject(value), append(formatter, value));
+            }
+        }
+
+    }
+
+    @Test
+    void formatsMySqlDates() {
+
+        ParameterFormatter mySql = new MySqlParameterFormatter();
+
+        assertEquals("'2024-03-05 14:07:09'", mySql.formatParameterObject(Timestamp.valueOf("2024-03-05 14:07:09.5")));
+        assertEquals("x = '2024-03-05 14:07:09'", append(mySql, Timestamp.valueOf("2024-03-05 14:07:09.5")));
+        assertEquals("'2024-03-05'", mySql.formatParameterObject(Date.valueOf("2024-03-05")));
+        assertEquals("'14:07:09'", mySql.formatParameterObject(Time.valueOf("14:07:09")));
+
+    }
+
+    @Test
+    void legacySubclassKeepsItsOverrideAndTheVendorFormatting() {
+
+        LegacyMySqlParameterFormatter legacy = new LegacyMySqlParameterFormatter();
+        Timestamp timestamp = Timestamp.valueOf("2024-03-05 14:07:09");
+
+        // its own override, whichever way the value is formatted
+        assertEquals("CAST(42 AS SIGNED)", legacy.formatParameterObject(42));
+        assertEquals("x = CAST(42 AS SIGNED)", append(legacy, 42));
+
+        // and the MySql formatting of the class it extends through super.formatParameterObject, with the override
+        // called once for each value either way
+        legacy.calls = 0;
+        assertEquals("'2024-03-05 14:07:09'", legacy.formatParameterObject(timestamp));
+        assertEquals(1, legacy.calls);
+        assertEquals("x = '2024-03-05 14:07:09'", append(legacy, timestamp));
+        assertEquals(2, legacy.calls);
+        assertEquals("'it''s'", legacy.formatParameterObject("it's"));
+        assertEquals("x = 'it''s'", append(legacy, "it's"));
+        assertEquals(4, legacy.calls);
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.digitalforge.log4jdbc.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SqlFingerprinterTest {
+
+    @Test
+    void replacesLiterals() {
+
+        assertEquals("select * from t where a = ? and b = ? and c = ?", SqlFingerprinter.normalize("SELECT * FROM t WHERE a = 'x' AND b = 42 AND c = -1.5e3"));
+        assertEquals("select * from t where a = ? and b = ?", SqlFingerprinter.normalize("select * from t where a = 'it''s' and b = N'x'"));
+        assertEquals("select a - ? from t where b = ?", SqlFingerprinter.normalize("select a - 1 from t where b = $1"));
+        assertEquals("select * from t where a = ?", SqlFingerprinter.normalize("select * from t where a = -1;"));
+
+    }
+
+    @Test
+    void collapsesListsAndRows() {
+
+        assertEquals("select * from t where a in (?)", SqlFingerprinter.normalize("select * from t where a in (1, 2, 3)"));
+        assertEquals("insert into t(a, b) values (?, ?)", SqlFingerprinter.normalize("insert into t (a, b) values (1, 'x'), (2, 'y'), (3, 'z');"));
+
+    }
+
+    @Test
+    void dropsCommentsAndWhitespace() {
+
+        assertEquals("select a from t where b = ?", SqlFingerprinter.normalize("select a -- the a\n  from t /* t */\twhere b = ?"));
+        assertEquals("select \"A\", `B`, [C] from t", SqlFingerprinter.normalize("SELECT \"A\", `B`, [C] FROM T"));
+
+    }
+
+    @Test
+    void honorsBackslashEscapes() {
+
+        String sql = "select * from t where a = 'it\\'s' and b = ?";
+        assertEquals("select * from t where a = ? and b = ?", SqlFingerprinter.normalize(sql, true));
+        assertEquals("select * from t where a = ? and b = ?", SqlFingerprinter.normalize("select * from t where a = 'c:\\\\' and b = ?", true));
+
+        // a backslash is an ordinary character in standard SQL
+        assertEquals("select * from t where a = ? and b = ?", SqlFingerprinter.normalize("select * from t where a = 'c:\\' and b = ?"));
+
+        // except in PostgreSQL escape strings
+        assertEquals("select * from t where a = ? and b = ?", SqlFingerprinter.normalize("select * from t where a = E'it\\'s' and b = ?"));
+
+    }
+
+    @Test
+    void cachesFingerprints() {
+
+        SqlFingerprinter fingerprinter = new SqlFingerprinter(10);
+        String sql = "select * from t where a = ?";
+
+        assertSame(fingerprinter.fingerprintCached(sql), fingerprinter.fingerprintCached(sql));
+        assertEquals(fingerprinter.fingerprint(sql).getText(), fingerprinter.fingerprintCached(sql).getText());
+
+        String escaped = "select * from t where a = 'it\\'s' and b = ?";
+        assertEquals("select * from t where a = ? and b = ?", fingerprinter.fingerprintCached(escaped, true).getText());
+        assertEquals(SqlFingerprinter.normalize(escaped), fingerprinter.fingerprintCached(escaped).getText());
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.digitalforge.log4jdbc.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlPlaceholderIndexTest {
+
+    /**
+     * The statement with the placeholders that were found replaced by <code>#</code>.
+     */
+    private static String marked(String sql, boolean backslashEscapes) {
+        SqlPlaceholderIndex index = new SqlPlaceholderIndex(sql, backslashEscapes);
+        StringBuilder out = new StringBuilder(sql);
+        for(int i = 0; i < index.size(); i++) {
+            out.setCharAt(index.offset(i), '#');
+        }
+        return out.toString();
+    }
+
+    private static String marked(String sql) {
+        return marked(sql, false);
+    }
+
+    @Test
+    void findsPlaceholders() {
+
+        assertEquals("select * from t where a = # and b in (#, #)", marked("select * from t where a = ? and b in (?, ?)"));
+        assertEquals("#", marked("?"));
+        assertEquals(0, new SqlPlaceholderIndex("select 1").size());
+        assertEquals(0, new SqlPlaceholderIndex(null).size());
+
+    }
+
+    @Test
+    void skipsQuotesAndComments() {
+
+        assertEquals("select '?', \"?\", `?` from t where a = #", marked("select '?', \"?\", `?` from t where a = ?"));
+        assertEquals("select 'it''s ?' from t where a = #", marked("select 'it''s ?' from t where a = ?"));
+        assertEquals("select 1 -- ?\nfrom t where a = #", marked("select 1 -- ?\nfrom t where a = ?"));
+        assertEquals("select /* ? */ 1 from t where a = #", marked("select /* ? */ 1 from t where a = ?"));
+        assertEquals("select '?", marked("select '?"));
+
+    }
+
+    @Test
+    void skipsDollarQuotes() {
+
+        assertEquals("select $$?$$, $tag$?$ $tag$ where a = #", marked("select $$?$$, $tag$?$ $tag$ where a = ?"));
+        assertEquals("select $1, a$b from t where a = #", marked("select $1, a$b from t where a = ?"));
+
+    }
+
+    @Test
+    void skipsJsonOperatorsAndEscapedQuestionMarks() {
+
+        assertEquals("select a ?| b, a ?& b, a ?? b from t where c = #", marked("select a ?| b, a ?& b, a ?? b from t where c = ?"));
+        assertEquals("select #|| 'x'", marked("select ?|| 'x'"));
+
+    }
+
+    @Test
+    void honorsBackslashEscapes() {
+
+        String sql = "select * from t where a = 'it\\'s' and b = ?";
+        assertEquals("select * from t where a = 'it\\'s' and b = #", marked(sql, true));
+        assertEquals("select * from t where a = \"it\\\"s ?\" and b = #", marked("select * from t where a = \"it\\\"s ?\" and b = ?", true));
+        assertEquals("select * from t where a = 'c:\\\\' and b = #", marked("select * from t where a = 'c:\\\\' and b = ?", true));
+
+        // a backslash is an ordinary character in standard SQL
+        assertEquals("select * from t where a = 'c:\\' and b = #", marked("select * from t where a = 'c:\\' and b = ?"));
+
+        // except in PostgreSQL escape strings
+        assertEquals("select * from t where a = E'it\\'s ?' and b = #", marked("select * from t where a = E'it\\'s ?' and b = ?"));
+        assertEquals("select * from t where a = e'it\\'s' and b = #", marked("select * from t where a = e'it\\'s' and b = ?"));
+        assertEquals("select name'c:\\' from t where b = #", marked("select name'c:\\' from t where b = ?"));
+
+    }
+
+}